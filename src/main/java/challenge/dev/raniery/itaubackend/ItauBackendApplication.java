@@ -2,9 +2,11 @@ package challenge.dev.raniery.itaubackend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 @EnableAspectJAutoProxy
 public class ItauBackendApplication {
 
@@ -0,0 +1,120 @@
+package challenge.dev.raniery.itaubackend.admission;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gradient-style limit: once per window the average latency is compared with the lowest
+ * latency seen so far; the limit shrinks when requests queue up and grows by sqrt(limit)
+ * while latency stays within {@code tolerance} of that baseline. A request may weigh several
+ * permits; it is admitted while in-flight permits are below the limit and holds all of them
+ * until released. Such a request's latency is left out of the average: counted as one request it
+ * would read as queueing, and spread over its permits it would drag the baseline below what a
+ * single request can reach.
+ */
+final class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final long windowNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder latencySum = new LongAdder();
+    private final LongAdder latencyCount = new LongAdder();
+    private final AtomicBoolean updating = new AtomicBoolean();
+
+    private volatile int limit;
+    private volatile int peakInFlight;
+    private volatile long windowStart;
+    private double estimatedLimit;
+    private double baselineLatency = Double.NaN;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, long windowNanos, long nowNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.windowNanos = windowNanos;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+        this.windowStart = nowNanos;
+    }
+
+    boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    boolean tryAcquire(int permits) {
+        int current = inFlight.addAndGet(permits);
+        if (current - permits >= limit) {
+            inFlight.addAndGet(-permits);
+            return false;
+        }
+        if (current > peakInFlight) {
+            peakInFlight = current;
+        }
+        return true;
+    }
+
+    void charge(int permits) {
+        int current = inFlight.addAndGet(permits);
+        if (current > peakInFlight) {
+            peakInFlight = current;
+        }
+    }
+
+    void release(long latencyNanos, long nowNanos) {
+        release(1, latencyNanos, nowNanos);
+    }
+
+    void release(int permits, long latencyNanos, long nowNanos) {
+        inFlight.addAndGet(-permits);
+        if (permits == 1) {
+            latencySum.add(latencyNanos);
+            latencyCount.increment();
+        }
+
+        if (nowNanos - windowStart >= windowNanos && updating.compareAndSet(false, true)) {
+            try {
+                update(nowNanos);
+            } finally {
+                updating.set(false);
+            }
+        }
+    }
+
+    private void update(long nowNanos) {
+        long count = latencyCount.sumThenReset();
+        long sum = latencySum.sumThenReset();
+        int peak = peakInFlight;
+        peakInFlight = 0;
+        windowStart = nowNanos;
+        if (count == 0) {
+            return;
+        }
+
+        double latency = (double) sum / count;
+        if (Double.isNaN(baselineLatency) || latency < baselineLatency) {
+            baselineLatency = latency;
+        } else {
+            baselineLatency += (latency - baselineLatency) / 100;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baselineLatency / latency));
+        double target = estimatedLimit * gradient;
+        if (gradient == 1.0 && peak * 2 >= estimatedLimit) {
+            target += Math.sqrt(estimatedLimit);
+        }
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit * 0.8 + target * 0.2));
+        limit = (int) estimatedLimit;
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+}
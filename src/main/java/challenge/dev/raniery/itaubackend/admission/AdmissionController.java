@@ -0,0 +1,190 @@
+package challenge.dev.raniery.itaubackend.admission;
+
+import challenge.dev.raniery.itaubackend.aspect.LoggingAspect;
+import challenge.dev.raniery.itaubackend.config.AdmissionProperties;
+import challenge.dev.raniery.itaubackend.service.TransactionalService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class AdmissionController implements MeterBinder {
+
+    private final AdmissionProperties properties;
+    private final TransactionalService transactionalService;
+    private final TokenBucket tokenBucket;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final List<MemoryPoolMXBean> heapPools;
+    private final long heapSampleIntervalNanos;
+    private final Map<AdmissionDecision, LongAdder> shed = new EnumMap<>(AdmissionDecision.class);
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private volatile long lastHeapSample;
+    private volatile double heapUsage;
+
+    public AdmissionController(AdmissionProperties properties, TransactionalService transactionalService) {
+        this.properties = properties;
+        this.transactionalService = LoggingAspect.unadvised(transactionalService);
+
+        long now = System.nanoTime();
+        AdmissionProperties.RateLimit rateLimit = properties.rateLimit();
+        this.tokenBucket = rateLimit.permitsPerSecond() > 0
+            ? new TokenBucket(rateLimit.permitsPerSecond(), rateLimit.burst(), now)
+            : null;
+
+        AdmissionProperties.Concurrency concurrency = properties.concurrency();
+        this.concurrencyLimit = new AdaptiveConcurrencyLimit(
+            concurrency.initialLimit(),
+            concurrency.minLimit(),
+            concurrency.maxLimit(),
+            concurrency.tolerance(),
+            concurrency.window().toNanos(),
+            now);
+
+        this.heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported())
+            .toList();
+        this.heapSampleIntervalNanos = properties.budget().heapSampleInterval().toNanos();
+        this.lastHeapSample = now - heapSampleIntervalNanos;
+
+        for (AdmissionDecision decision : AdmissionDecision.values()) {
+            if (!decision.isAdmitted()) {
+                shed.put(decision, new LongAdder());
+            }
+        }
+    }
+
+    public AdmissionDecision tryAdmit() {
+        return tryAdmit(1);
+    }
+
+    /**
+     * Admits a request carrying {@code permits} transactions, charging each of them against the
+     * rate limit and the concurrency limit; a shed request counts all of them as shed.
+     */
+    public AdmissionDecision tryAdmit(int permits) {
+        if (!properties.enabled()) {
+            return AdmissionDecision.ADMITTED;
+        }
+
+        long now = System.nanoTime();
+        AdmissionDecision decision = decide(now, permits);
+        if (!decision.isAdmitted()) {
+            shed.get(decision).add(permits);
+        }
+        return decision;
+    }
+
+    /**
+     * Adds {@code permits} to an admitted request whose size was only known after admission, such as
+     * a JSON or CBOR batch; they are owed to the rate limit and returned by {@link #release(long, int)}.
+     */
+    public void charge(int permits) {
+        if (!properties.enabled() || permits <= 0) {
+            return;
+        }
+        if (tokenBucket != null) {
+            tokenBucket.charge(System.nanoTime(), permits);
+        }
+        concurrencyLimit.charge(permits);
+    }
+
+    public void release(long admittedAtNanos) {
+        release(admittedAtNanos, 1);
+    }
+
+    public void release(long admittedAtNanos, int permits) {
+        if (!properties.enabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        concurrencyLimit.release(permits, now - admittedAtNanos, now);
+    }
+
+    public long shedCount(AdmissionDecision decision) {
+        return shed.get(decision).sum();
+    }
+
+    private AdmissionDecision decide(long now, int permits) {
+        AdmissionProperties.Budget budget = properties.budget();
+        if (transactionalService.getRetainedCount() >= budget.maxRetainedTransactions() && !reclaimBacklog()) {
+            return AdmissionDecision.BACKLOG_EXCEEDED;
+        }
+        if (heapUsage(now) >= budget.maxHeapUsage()) {
+            return AdmissionDecision.MEMORY_EXCEEDED;
+        }
+        if (tokenBucket != null && !tokenBucket.tryAcquire(now, permits)) {
+            return AdmissionDecision.RATE_LIMITED;
+        }
+        if (!concurrencyLimit.tryAcquire(permits)) {
+            if (tokenBucket != null) {
+                tokenBucket.refund(permits);
+            }
+            return AdmissionDecision.CONCURRENCY_LIMITED;
+        }
+        return AdmissionDecision.ADMITTED;
+    }
+
+    private boolean reclaimBacklog() {
+        if (!evicting.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            transactionalService.evictExpired();
+            return transactionalService.getRetainedCount() < properties.budget().maxRetainedTransactions();
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private double heapUsage(long now) {
+        if (now - lastHeapSample >= heapSampleIntervalNanos) {
+            lastHeapSample = now;
+            heapUsage = sampleHeapUsage();
+        }
+        return heapUsage;
+    }
+
+    private double sampleHeapUsage() {
+        long max = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getMax();
+        if (max <= 0 || heapPools.isEmpty()) {
+            return 0.0;
+        }
+        long liveAfterGc = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (usage != null) {
+                liveAfterGc += usage.getUsed();
+            }
+        }
+        return (double) liveAfterGc / max;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        shed.forEach((decision, counter) -> FunctionCounter.builder("transactions.shed", counter, LongAdder::sum)
+            .description("Transactions shed by admission control")
+            .tag("reason", decision.name().toLowerCase(Locale.ROOT))
+            .register(registry));
+        Gauge.builder("admission.concurrency.limit", concurrencyLimit, AdaptiveConcurrencyLimit::getLimit)
+            .register(registry);
+        Gauge.builder("admission.concurrency.in-flight", concurrencyLimit, AdaptiveConcurrencyLimit::getInFlight)
+            .register(registry);
+        Gauge.builder("admission.heap.usage", this, controller -> controller.heapUsage)
+            .description("Heap occupied after the last collection, as a fraction of the maximum heap")
+            .register(registry);
+    }
+}
@@ -0,0 +1,14 @@
+package challenge.dev.raniery.itaubackend.admission;
+
+public enum AdmissionDecision {
+
+    ADMITTED,
+    RATE_LIMITED,
+    CONCURRENCY_LIMITED,
+    BACKLOG_EXCEEDED,
+    MEMORY_EXCEEDED;
+
+    public boolean isAdmitted() {
+        return this == ADMITTED;
+    }
+}
@@ -0,0 +1,51 @@
+package challenge.dev.raniery.itaubackend.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket expressed as GCRA: a single theoretical arrival time advanced with CAS,
+ * so admitting a request never takes a lock. A request costing several permits is admitted
+ * while any credit remains and pushes the arrival time forward by all of them, so the rate
+ * holds over time without starving requests larger than the burst.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(long permitsPerSecond, long burst, long nowNanos) {
+        this.intervalNanos = 1_000_000_000L / permitsPerSecond;
+        this.burstToleranceNanos = intervalNanos * Math.max(0, burst - 1);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    boolean tryAcquire(long nowNanos) {
+        return tryAcquire(nowNanos, 1);
+    }
+
+    boolean tryAcquire(long nowNanos, int permits) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long base = Math.max(arrival, nowNanos);
+            if (base - nowNanos > burstToleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, base + intervalNanos * permits)) {
+                return true;
+            }
+        }
+    }
+
+    void charge(long nowNanos, int permits) {
+        theoreticalArrival.updateAndGet(arrival -> Math.max(arrival, nowNanos) + intervalNanos * permits);
+    }
+
+    /**
+     * Gives back permits taken by {@link #tryAcquire(long, int)} for a request that was refused
+     * further on, so they stay available to the next one.
+     */
+    void refund(int permits) {
+        theoreticalArrival.addAndGet(-intervalNanos * permits);
+    }
+}
@@ -5,6 +5,7 @@ import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
@@ -43,6 +44,16 @@ public class LoggingAspect {
         }
     }
 
+    /**
+     * The bean behind {@code bean}'s proxy, for the per-transaction paths that must not pay for the
+     * advice below; {@code bean} itself when it is not proxied.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T unadvised(T bean) {
+        Object target = AopProxyUtils.getSingletonTarget(bean);
+        return target == null ? bean : (T) target;
+    }
+
     @Around("execution(* challenge.dev.raniery.itaubackend.service.*.*(..))")
     public Object logServiceMethods(ProceedingJoinPoint joinPoint) throws Throwable {
         String className = joinPoint.getTarget().getClass().getSimpleName();
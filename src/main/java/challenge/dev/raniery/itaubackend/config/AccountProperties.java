@@ -0,0 +1,24 @@
+package challenge.dev.raniery.itaubackend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties("itau.accounts")
+public record AccountProperties(
+
+    @DefaultValue("true")
+    boolean enabled,
+
+    @DefaultValue("2s")
+    Duration bucket,
+
+    @DefaultValue("256MB")
+    DataSize memoryBudget,
+
+    @DefaultValue("64")
+    int segments) {
+
+}
@@ -0,0 +1,64 @@
+package challenge.dev.raniery.itaubackend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("itau.admission")
+public record AdmissionProperties(
+
+    @DefaultValue("true")
+    boolean enabled,
+
+    @DefaultValue
+    RateLimit rateLimit,
+
+    @DefaultValue
+    Concurrency concurrency,
+
+    @DefaultValue
+    Budget budget) {
+
+    public record RateLimit(
+
+        @DefaultValue("0")
+        long permitsPerSecond,
+
+        @DefaultValue("1000")
+        long burst) {
+
+    }
+
+    public record Concurrency(
+
+        @DefaultValue("256")
+        int initialLimit,
+
+        @DefaultValue("16")
+        int minLimit,
+
+        @DefaultValue("4096")
+        int maxLimit,
+
+        @DefaultValue("2.0")
+        double tolerance,
+
+        @DefaultValue("100ms")
+        Duration window) {
+
+    }
+
+    public record Budget(
+
+        @DefaultValue("5000000")
+        long maxRetainedTransactions,
+
+        @DefaultValue("0.9")
+        double maxHeapUsage,
+
+        @DefaultValue("250ms")
+        Duration heapSampleInterval) {
+
+    }
+}
@@ -0,0 +1,14 @@
+package challenge.dev.raniery.itaubackend.config;
+
+import challenge.dev.raniery.itaubackend.engine.ParallelAggregator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AggregationConfig {
+
+    @Bean(destroyMethod = "close")
+    public ParallelAggregator parallelAggregator(AggregationProperties properties) {
+        return new ParallelAggregator(properties.effectiveParallelism(), properties.parallelThreshold(), properties.shardSize());
+    }
+}
@@ -0,0 +1,21 @@
+package challenge.dev.raniery.itaubackend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("itau.aggregation")
+public record AggregationProperties(
+
+    @DefaultValue("0")
+    int parallelism,
+
+    @DefaultValue("262144")
+    long parallelThreshold,
+
+    @DefaultValue("65536")
+    int shardSize) {
+
+    public int effectiveParallelism() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,16 @@
+package challenge.dev.raniery.itaubackend.config;
+
+import challenge.dev.raniery.itaubackend.engine.CoarseClock;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+public class ClockConfig {
+
+    @Bean
+    public Clock clock(ClockProperties properties) {
+        return properties.coarse() ? new CoarseClock(Clock.systemUTC(), properties.tick()) : Clock.systemUTC();
+    }
+}
@@ -0,0 +1,19 @@
+package challenge.dev.raniery.itaubackend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("itau.clock")
+public record ClockProperties(
+
+    @DefaultValue("true")
+    boolean coarse,
+
+    @DefaultValue("1ms")
+    Duration tick,
+
+    @DefaultValue("0ms")
+    Duration futureTolerance) {
+}
@@ -0,0 +1,26 @@
+package challenge.dev.raniery.itaubackend.config;
+
+import challenge.dev.raniery.itaubackend.controller.StatisticController;
+import challenge.dev.raniery.itaubackend.controller.TransactionController;
+import challenge.dev.raniery.itaubackend.ingestion.IngestionPipeline;
+import challenge.dev.raniery.itaubackend.ingestion.TransactionIntake;
+import challenge.dev.raniery.itaubackend.service.TransactionalService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("fast-start")
+public class FastStartConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter hotPathBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+            TransactionController.class,
+            StatisticController.class,
+            TransactionIntake.class,
+            IngestionPipeline.class,
+            TransactionalService.class);
+    }
+}
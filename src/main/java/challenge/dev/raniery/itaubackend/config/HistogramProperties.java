@@ -0,0 +1,22 @@
+package challenge.dev.raniery.itaubackend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties("itau.histogram")
+public record HistogramProperties(
+
+    @DefaultValue("true")
+    boolean enabled,
+
+    @DefaultValue("1s")
+    Duration bucket,
+
+    @DefaultValue({"0.01", "0.1", "1", "10", "100", "1000", "10000", "100000", "1000000", "10000000", "100000000", "1000000000"})
+    List<BigDecimal> bounds) {
+
+}
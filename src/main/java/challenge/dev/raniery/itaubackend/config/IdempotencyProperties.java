@@ -0,0 +1,23 @@
+package challenge.dev.raniery.itaubackend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("itau.idempotency")
+public record IdempotencyProperties(
+
+    @DefaultValue("true")
+    boolean enabled,
+
+    @DefaultValue("60s")
+    Duration retention,
+
+    @DefaultValue("1s")
+    Duration slice,
+
+    @DefaultValue("500000")
+    long maxKeys) {
+
+}
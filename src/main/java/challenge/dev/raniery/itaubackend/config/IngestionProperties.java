@@ -0,0 +1,41 @@
+package challenge.dev.raniery.itaubackend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("itau.ingestion")
+public record IngestionProperties(
+
+    @DefaultValue("DIRECT")
+    Mode mode,
+
+    @DefaultValue("APPLIED")
+    Ack ack,
+
+    @DefaultValue("65536")
+    int ringSize,
+
+    @DefaultValue("1024")
+    int maxBatch,
+
+    @DefaultValue("10ms")
+    Duration offerTimeout,
+
+    @DefaultValue("1s")
+    Duration applyTimeout,
+
+    @DefaultValue("10000")
+    int maxLoteSize) {
+
+    public enum Mode {
+        DIRECT,
+        RING
+    }
+
+    public enum Ack {
+        ENQUEUE,
+        APPLIED
+    }
+}
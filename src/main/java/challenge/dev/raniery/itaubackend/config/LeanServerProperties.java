@@ -0,0 +1,18 @@
+package challenge.dev.raniery.itaubackend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("itau.lean-server")
+public record LeanServerProperties(
+
+    @DefaultValue("false")
+    boolean enabled,
+
+    @DefaultValue("8081")
+    int port,
+
+    @DefaultValue("1024")
+    int backlog) {
+
+}
@@ -0,0 +1,17 @@
+package challenge.dev.raniery.itaubackend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("itau.log")
+public record LogProperties(
+
+    @DefaultValue("false")
+    boolean compressSealed,
+
+    @DefaultValue("0s")
+    Duration historyRetention) {
+
+}
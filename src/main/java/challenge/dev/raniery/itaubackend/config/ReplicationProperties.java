@@ -0,0 +1,37 @@
+package challenge.dev.raniery.itaubackend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("itau.replication")
+public record ReplicationProperties(
+
+    @DefaultValue("NONE")
+    Role role,
+
+    @DefaultValue("localhost")
+    String host,
+
+    @DefaultValue("9091")
+    int port,
+
+    @DefaultValue("65536")
+    int queueSize,
+
+    @DefaultValue("1024")
+    int maxBatch,
+
+    @DefaultValue("100ms")
+    Duration heartbeat,
+
+    @DefaultValue("500ms")
+    Duration reconnectDelay) {
+
+    public enum Role {
+        NONE,
+        PRIMARY,
+        STANDBY
+    }
+}
@@ -0,0 +1,38 @@
+package challenge.dev.raniery.itaubackend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("itau.statistics")
+public record StatisticsProperties(
+
+    @DefaultValue("0ms")
+    Duration maxStaleness,
+
+    @DefaultValue("30s")
+    Duration maxWait,
+
+    @DefaultValue("10ms")
+    Duration watchInterval,
+
+    @DefaultValue
+    Approximate approximate) {
+
+    public record Approximate(
+
+        @DefaultValue("false")
+        boolean enabled,
+
+        @DefaultValue("5000000")
+        long threshold,
+
+        @DefaultValue("1024")
+        int sampleSize,
+
+        @DefaultValue("1s")
+        Duration bucket) {
+
+    }
+}
@@ -0,0 +1,20 @@
+package challenge.dev.raniery.itaubackend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("itau.top-values")
+public record TopValuesProperties(
+
+    @DefaultValue("true")
+    boolean enabled,
+
+    @DefaultValue("1s")
+    Duration bucket,
+
+    @DefaultValue("100")
+    int maxK) {
+
+}
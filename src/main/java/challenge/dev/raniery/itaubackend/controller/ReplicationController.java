@@ -0,0 +1,25 @@
+package challenge.dev.raniery.itaubackend.controller;
+
+import challenge.dev.raniery.itaubackend.docs.ReplicationControllerInterface;
+import challenge.dev.raniery.itaubackend.replication.Replication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/replicacao")
+public class ReplicationController implements ReplicationControllerInterface {
+
+    private final Replication replication;
+
+    public ReplicationController(Replication replication) {
+        this.replication = replication;
+    }
+
+    @PostMapping("/promover")
+    public ResponseEntity<Void> promote() {
+        return ResponseEntity.status(replication.promote() ? HttpStatus.OK : HttpStatus.CONFLICT).build();
+    }
+}
@@ -1,25 +1,128 @@
 package challenge.dev.raniery.itaubackend.controller;
 
 import challenge.dev.raniery.itaubackend.docs.StatisticControllerInterface;
-import challenge.dev.raniery.itaubackend.dto.StatisticResponse;
+import challenge.dev.raniery.itaubackend.engine.TopValues;
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+import challenge.dev.raniery.itaubackend.service.StatisticsWatch;
 import challenge.dev.raniery.itaubackend.service.TransactionalService;
+import challenge.dev.raniery.itaubackend.validation.TransactionValidator;
+import challenge.dev.raniery.itaubackend.wire.StatisticsEtag;
+import challenge.dev.raniery.itaubackend.wire.WireFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
 
 @RestController
 @RequestMapping("/estatistica")
 public class StatisticController implements StatisticControllerInterface {
 
+    private static final String PREFER = "Prefer";
+
     private final TransactionalService transactionalService;
+    private final StatisticsWatch statisticsWatch;
 
-    public StatisticController(TransactionalService transactionalService) {
+    public StatisticController(TransactionalService transactionalService, StatisticsWatch statisticsWatch) {
         this.transactionalService = transactionalService;
+        this.statisticsWatch = statisticsWatch;
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, "application/cbor"})
+    public ResponseEntity<byte[]> getStatistic(@RequestParam(required = false) String conta,
+                                               @RequestParam(required = false) String asOf,
+                                               @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (!TransactionValidator.isValidConta(conta)) {
+            return ResponseEntity.badRequest().build();
+        }
+        WireFormat format = WireFormat.forAccept(accept);
+        if (conta == null && asOf == null) {
+            return currentStatistics(format, ifNoneMatch);
+        }
+        StatisticSnapshot snapshot;
+        if (asOf != null) {
+            OffsetDateTime instant = conta == null ? TransactionValidator.parseAsOf(asOf) : null;
+            snapshot = instant == null ? null : transactionalService.getStatisticsAsOf(instant.toInstant().toEpochMilli());
+            if (snapshot == null) {
+                return ResponseEntity.badRequest().build();
+            }
+        } else {
+            snapshot = transactionalService.getStatistics(conta);
+        }
+        byte[] body = snapshot.body(format);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(format.mediaType()))
+            .contentLength(body.length)
+            .body(body);
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, "application/cbor"}, headers = PREFER)
+    public DeferredResult<ResponseEntity<byte[]>> watchStatistic(@RequestParam(required = false) String conta,
+                                                                 @RequestParam(required = false) String asOf,
+                                                                 @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                                 @RequestHeader(PREFER) String prefer) {
+        Duration wait = statisticsWatch.preferredWait(prefer);
+        WireFormat format = WireFormat.forAccept(accept);
+        StatisticsEtag.Tag held = wait == null || conta != null || asOf != null ? null : statisticsWatch.currentTag(ifNoneMatch, format);
+        if (held == null) {
+            DeferredResult<ResponseEntity<byte[]>> result = new DeferredResult<>();
+            result.setResult(getStatistic(conta, asOf, accept, ifNoneMatch));
+            return result;
+        }
+        DeferredResult<ResponseEntity<byte[]>> result = new DeferredResult<>(wait.toMillis() + 1_000);
+        result.onTimeout(() -> result.setResult(currentStatistics(format, ifNoneMatch)));
+        statisticsWatch.awaitChange(held, wait).thenRun(() -> result.setResult(currentStatistics(format, ifNoneMatch)));
+        return result;
+    }
+
+    private ResponseEntity<byte[]> currentStatistics(WireFormat format, String ifNoneMatch) {
+        StatisticsEtag.Tag held = statisticsWatch.currentTag(ifNoneMatch, format);
+        if (held != null) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(held.value()).build();
+        }
+        long generation = transactionalService.getGeneration();
+        StatisticSnapshot snapshot = transactionalService.getStatistics();
+        String etag = StatisticsEtag.of(generation, snapshot, format);
+        if (StatisticsEtag.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        byte[] body = snapshot.body(format);
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .contentType(MediaType.parseMediaType(format.mediaType()))
+            .contentLength(body.length)
+            .body(body);
+    }
+
+    @GetMapping(value = "/topk", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getTopValues(@RequestParam(required = false) Integer k) {
+        int limit = k == null ? TopValues.DEFAULT_K : k;
+        if (limit < 1 || limit > transactionalService.getMaxTopValues()) {
+            return ResponseEntity.badRequest().build();
+        }
+        byte[] body = transactionalService.getTopValues(limit).jsonBody();
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .contentLength(body.length)
+            .body(body);
     }
 
-    @GetMapping
-    public ResponseEntity<StatisticResponse> getStatistic() {
-        return ResponseEntity.ok(new StatisticResponse(transactionalService.getStatistics()));
+    @GetMapping(value = "/histograma", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getHistogram() {
+        byte[] body = transactionalService.getHistogram().jsonBody();
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .contentLength(body.length)
+            .body(body);
     }
 }
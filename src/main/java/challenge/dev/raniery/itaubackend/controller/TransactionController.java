@@ -1,34 +1,66 @@
 package challenge.dev.raniery.itaubackend.controller;
 
 import challenge.dev.raniery.itaubackend.docs.TransactionControllerInterface;
-import challenge.dev.raniery.itaubackend.dto.TransactionRequest;
-import challenge.dev.raniery.itaubackend.model.Transaction;
+import challenge.dev.raniery.itaubackend.dto.LoteResponse;
+import challenge.dev.raniery.itaubackend.ingestion.IntakeOutcome;
+import challenge.dev.raniery.itaubackend.ingestion.LoteOutcome;
+import challenge.dev.raniery.itaubackend.ingestion.TransactionIntake;
 import challenge.dev.raniery.itaubackend.service.TransactionalService;
-import jakarta.validation.Valid;
-import org.springframework.http.HttpStatus;
+import challenge.dev.raniery.itaubackend.wire.WireFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.OffsetDateTime;
-
 @RestController
 @RequestMapping("/transacao")
 public class TransactionController implements TransactionControllerInterface {
 
+    private static final String APPLICATION_CBOR = "application/cbor";
+    private static final String APPLICATION_RECORDS = "application/vnd.itau.transacao+binary";
+
     private final TransactionalService transacaoService;
+    private final TransactionIntake transactionIntake;
 
-    public TransactionController(TransactionalService transacaoService) {
+    public TransactionController(TransactionalService transacaoService, TransactionIntake transactionIntake) {
         this.transacaoService = transacaoService;
+        this.transactionIntake = transactionIntake;
     }
 
-    @PostMapping
-    public ResponseEntity<Void> createTransaction(@RequestBody @Valid TransactionRequest request) {
-        if (request.dataHora().isAfter(OffsetDateTime.now())) {
-            return ResponseEntity.unprocessableEntity().build();
+    @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_CBOR, APPLICATION_RECORDS})
+    public ResponseEntity<Void> createTransaction(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                  @RequestBody byte[] body) {
+        IntakeOutcome outcome = transactionIntake.submit(body, WireFormat.fromContentType(contentType));
+        if (outcome.isShed()) {
+            return ResponseEntity.status(outcome.httpStatus()).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+
+        if (outcome == IntakeOutcome.DUPLICATE) {
+            return ResponseEntity.status(outcome.httpStatus()).header(IntakeOutcome.IDEMPOTENT_REPLAYED_HEADER, "true").build();
+        }
+
+        return ResponseEntity.status(outcome.httpStatus()).build();
+    }
+
+    @PostMapping(value = "/lote", consumes = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_CBOR, APPLICATION_RECORDS},
+        produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_CBOR})
+    public ResponseEntity<byte[]> createTransactions(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                     @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                     @RequestBody byte[] body) {
+        LoteOutcome outcome = transactionIntake.submitLote(body, WireFormat.fromContentType(contentType));
+        if (outcome.isShed()) {
+            return ResponseEntity.status(outcome.httpStatus()).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+        if (!outcome.hasBody()) {
+            return ResponseEntity.status(outcome.httpStatus()).build();
         }
 
-        transacaoService.addTransaction(new Transaction(request.valor(), request.dataHora()));
-        return ResponseEntity.status(HttpStatus.CREATED).build();
+        WireFormat format = WireFormat.forAccept(accept);
+        byte[] response = new LoteResponse(outcome).toBody(format);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(format.mediaType()))
+            .contentLength(response.length)
+            .body(response);
     }
 
     @DeleteMapping
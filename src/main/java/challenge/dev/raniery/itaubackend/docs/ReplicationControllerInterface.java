@@ -0,0 +1,27 @@
+package challenge.dev.raniery.itaubackend.docs;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+
+@Tag(name = "Replication", description = "Controller for primary/standby replication")
+public interface ReplicationControllerInterface {
+
+    @Operation(
+        summary = "Promote Standby",
+        description = "Stops receiving replication and starts accepting transactions from clients, keeping the replicated window"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "The standby was promoted",
+        content = @Content
+    )
+    @ApiResponse(
+        responseCode = "409",
+        description = "Conflict - itau.replication.role is not STANDBY or the instance was already promoted",
+        content = @Content
+    )
+    ResponseEntity<Void> promote();
+}
@@ -1,12 +1,16 @@
 package challenge.dev.raniery.itaubackend.docs;
 
+import challenge.dev.raniery.itaubackend.dto.HistogramResponse;
 import challenge.dev.raniery.itaubackend.dto.StatisticResponse;
+import challenge.dev.raniery.itaubackend.dto.TopValuesResponse;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
 
 @Tag(name = "Statistic", description = "Controller for statistics")
 public interface StatisticControllerInterface {
@@ -17,8 +21,76 @@ public interface StatisticControllerInterface {
     )
     @ApiResponse(
         responseCode = "200",
-        description = "Returns the statistics of the application in the last 60 seconds",
-        content = @Content(schema = @Schema(implementation = StatisticResponse.class))
+        description = "Returns the statistics of the application in the last 60 seconds, as CBOR when Accept asks for application/cbor, with an ETag when neither conta nor asOf is given",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = StatisticResponse.class))
     )
-    ResponseEntity<StatisticResponse> getStatistic();
+    @ApiResponse(
+        responseCode = "304",
+        description = "Not Modified - the ETag sent in If-None-Match still describes the window; nothing is computed",
+        content = @Content
+    )
+    @ApiResponse(
+        responseCode = "400",
+        description = "Bad Request - conta is blank or longer than 64 characters, or asOf is malformed, combined with conta, in the future or older than itau.log.history-retention",
+        content = @Content
+    )
+    ResponseEntity<byte[]> getStatistic(
+        @Parameter(description = "Restricts the statistics to one account, aggregated in itau.accounts.bucket slices")
+        String conta,
+        @Parameter(description = "RFC 3339 instant; returns the 60-second window ending then instead of now, within itau.log.history-retention")
+        String asOf,
+        String accept,
+        @Parameter(description = "ETag of a previous response; answered with 304 while the window is unchanged")
+        String ifNoneMatch);
+
+    @Operation(
+        summary = "Wait for Application Statistics to Change",
+        description = "With Prefer: wait=<seconds> and a current ETag in If-None-Match, holds the request until the window changes or the wait, capped at itau.statistics.max-wait, runs out"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "The window changed; returns the new statistics and ETag",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = StatisticResponse.class))
+    )
+    @ApiResponse(
+        responseCode = "304",
+        description = "Not Modified - the wait ran out with the window unchanged",
+        content = @Content
+    )
+    DeferredResult<ResponseEntity<byte[]>> watchStatistic(
+        String conta,
+        String asOf,
+        String accept,
+        String ifNoneMatch,
+        @Parameter(description = "RFC 7240 preferences; wait=<seconds> turns the request into a long poll")
+        String prefer);
+
+    @Operation(
+        summary = "Get Largest Transactions",
+        description = "Fetches the K largest transaction values of the last 60 seconds, largest first"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Returns up to K transactions of the last 60 seconds ordered by valor",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = TopValuesResponse.class))
+    )
+    @ApiResponse(
+        responseCode = "400",
+        description = "Bad Request - k is not between 1 and itau.top-values.max-k",
+        content = @Content
+    )
+    ResponseEntity<byte[]> getTopValues(
+        @Parameter(description = "Number of transactions to return, 10 by default")
+        Integer k);
+
+    @Operation(
+        summary = "Get Value Histogram",
+        description = "Fetches how many transactions of the last 60 seconds fall in each itau.histogram.bounds value range"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Returns the count per value range; from is inclusive, to is exclusive and null on the last range",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = HistogramResponse.class))
+    )
+    ResponseEntity<byte[]> getHistogram();
 }
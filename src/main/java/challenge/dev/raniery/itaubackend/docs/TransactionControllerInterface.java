@@ -1,15 +1,15 @@
 package challenge.dev.raniery.itaubackend.docs;
 
+import challenge.dev.raniery.itaubackend.dto.LoteResponse;
 import challenge.dev.raniery.itaubackend.dto.TransactionRequest;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.RequestBody;
 
 @Tag(name = "Transaction", description = "Controller for transactions")
 public interface TransactionControllerInterface {
@@ -24,6 +24,19 @@ public interface TransactionControllerInterface {
             description = "Transaction created successfully",
             content = @Content(schema = @Schema(implementation = TransactionRequest.class))
         ),
+        @ApiResponse(
+            responseCode = "200",
+            description = "Duplicate - A transaction with the same chaveIdempotencia was already accepted within the window; "
+                + "it is not counted again and the response carries Idempotent-Replayed: true",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "202",
+            description = "Accepted - Ingestion runs through the ring with itau.ingestion.ack=APPLIED and the transaction was "
+                + "enqueued but not applied within itau.ingestion.apply-timeout, or dataHora is ahead of the server clock within "
+                + "itau.clock.future-tolerance and the transaction will be counted once it arrives; no retry is needed",
+            content = @Content
+        ),
         @ApiResponse(
             responseCode = "400",
             description = "Invalid transaction data provided",
@@ -33,9 +46,67 @@ public interface TransactionControllerInterface {
             responseCode = "422",
             description = "Unprocessable Entity - The transaction could not be processed due to validation errors",
             content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "429",
+            description = "Too Many Requests - The configured rate limit was exceeded, retry after the Retry-After header",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "503",
+            description = "Service Unavailable - The request was shed to protect latency or memory, retry after the Retry-After header",
+            content = @Content
+        )
+    })
+    ResponseEntity<Void> createTransaction(
+        String contentType,
+        @RequestBody(
+            required = true,
+            description = "JSON by default; the same map as CBOR (application/cbor), or one 16-byte record of little-endian "
+                + "epoch millis and valor in micro-units (application/vnd.itau.transacao+binary)",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TransactionRequest.class))
+        ) byte[] body);
+
+    @Operation(
+        summary = "Create Transactions In Batch",
+        description = "Validates and ingests many transactions in one request, admitted as a single request. Each transaction "
+            + "gets the outcome it would have on its own, and the response counts them."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Batch processed; counts per outcome, as JSON or CBOR according to Accept",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = LoteResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "413",
+            description = "Payload Too Large - More transactions than itau.ingestion.max-lote-size",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "422",
+            description = "Unprocessable Entity - The batch could not be decoded; nothing was ingested",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "429",
+            description = "Too Many Requests - The configured rate limit was exceeded, retry after the Retry-After header",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "503",
+            description = "Service Unavailable - The batch was shed to protect latency or memory, retry after the Retry-After header",
+            content = @Content
         )
     })
-    ResponseEntity<Void> createTransaction(@RequestBody @Valid TransactionRequest request);
+    ResponseEntity<byte[]> createTransactions(
+        String contentType,
+        String accept,
+        @RequestBody(
+            required = true,
+            description = "A JSON or CBOR array of transactions, or a sequence of 16-byte records (application/vnd.itau.transacao+binary)",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TransactionRequest[].class))
+        ) byte[] body);
 
     @Operation(
         summary = "Delete Transactions",
@@ -0,0 +1,53 @@
+package challenge.dev.raniery.itaubackend.dto;
+
+import challenge.dev.raniery.itaubackend.engine.Amounts;
+import challenge.dev.raniery.itaubackend.model.HistogramSnapshot;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class HistogramResponse {
+
+    private final long count;
+    private final List<Range> buckets;
+
+    public HistogramResponse(HistogramSnapshot snapshot) {
+        this.count = snapshot.getTotal();
+        this.buckets = new ArrayList<>(snapshot.ranges());
+        for (int range = 0; range < snapshot.ranges(); range++) {
+            long upper = snapshot.getUpperBound(range);
+            buckets.add(new Range(toValor(snapshot.getLowerBound(range)), upper < 0 ? null : toValor(upper), snapshot.getCount(range)));
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public List<Range> getBuckets() {
+        return buckets;
+    }
+
+    public byte[] toJson() {
+        StringBuilder json = new StringBuilder(32 + buckets.size() * 48).append("{\"count\":").append(count).append(",\"buckets\":[");
+        for (int i = 0; i < buckets.size(); i++) {
+            Range range = buckets.get(i);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"from\":").append(range.from().toPlainString())
+                .append(",\"to\":").append(range.to() == null ? "null" : range.to().toPlainString())
+                .append(",\"count\":").append(range.count()).append('}');
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static BigDecimal toValor(long scaled) {
+        return BigDecimal.valueOf(scaled, Amounts.SCALE).stripTrailingZeros();
+    }
+
+    public record Range(BigDecimal from, BigDecimal to, long count) {
+    }
+}
@@ -0,0 +1,67 @@
+package challenge.dev.raniery.itaubackend.dto;
+
+import challenge.dev.raniery.itaubackend.ingestion.LoteOutcome;
+import challenge.dev.raniery.itaubackend.wire.CborWriter;
+import challenge.dev.raniery.itaubackend.wire.WireFormat;
+
+import java.nio.charset.StandardCharsets;
+
+public class LoteResponse {
+
+    private final int created;
+    private final int accepted;
+    private final int duplicates;
+    private final int rejected;
+    private final int unavailable;
+
+    public LoteResponse(LoteOutcome outcome) {
+        this.created = outcome.getCreated();
+        this.accepted = outcome.getAccepted();
+        this.duplicates = outcome.getDuplicates();
+        this.rejected = outcome.getRejected();
+        this.unavailable = outcome.getUnavailable();
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getAccepted() {
+        return accepted;
+    }
+
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public int getUnavailable() {
+        return unavailable;
+    }
+
+    public byte[] toBody(WireFormat format) {
+        return format == WireFormat.CBOR ? toCbor() : toJson();
+    }
+
+    public byte[] toJson() {
+        return ("{\"created\":" + created
+            + ",\"accepted\":" + accepted
+            + ",\"duplicates\":" + duplicates
+            + ",\"rejected\":" + rejected
+            + ",\"unavailable\":" + unavailable
+            + "}").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public byte[] toCbor() {
+        return new CborWriter(80).map(5)
+            .text("created").integer(created)
+            .text("accepted").integer(accepted)
+            .text("duplicates").integer(duplicates)
+            .text("rejected").integer(rejected)
+            .text("unavailable").integer(unavailable)
+            .toByteArray();
+    }
+}
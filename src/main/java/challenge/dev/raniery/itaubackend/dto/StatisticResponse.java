@@ -1,6 +1,9 @@
 package challenge.dev.raniery.itaubackend.dto;
 
-import java.util.DoubleSummaryStatistics;
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+import challenge.dev.raniery.itaubackend.wire.CborWriter;
+
+import java.nio.charset.StandardCharsets;
 
 public class StatisticResponse {
 
@@ -9,13 +12,15 @@ public class StatisticResponse {
     private final double avg;
     private final double min;
     private final double max;
+    private final boolean approximate;
 
-    public StatisticResponse(DoubleSummaryStatistics stats) {
-        this.count = stats.getCount();
-        this.sum = stats.getCount() == 0 ? 0.0 : stats.getSum();
-        this.avg = stats.getCount() == 0 ? 0.0 : stats.getAverage();
-        this.min = stats.getCount() == 0 ? 0.0 : stats.getMin();
-        this.max = stats.getCount() == 0 ? 0.0 : stats.getMax();
+    public StatisticResponse(StatisticSnapshot snapshot) {
+        this.count = snapshot.getCount();
+        this.sum = snapshot.getSum();
+        this.avg = snapshot.getAverage();
+        this.min = snapshot.getMin();
+        this.max = snapshot.getMax();
+        this.approximate = snapshot.isApproximate();
     }
 
     public long getCount() {
@@ -37,4 +42,30 @@ public class StatisticResponse {
     public double getMax() {
         return max;
     }
+
+    public boolean isApproximate() {
+        return approximate;
+    }
+
+    public byte[] toJson() {
+        return ("{\"count\":" + count
+            + ",\"sum\":" + sum
+            + ",\"avg\":" + avg
+            + ",\"min\":" + min
+            + ",\"max\":" + max
+            + (approximate ? ",\"approximate\":true}" : "}")).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public byte[] toCbor() {
+        CborWriter cbor = new CborWriter(64).map(approximate ? 6 : 5)
+            .text("count").integer(count)
+            .text("sum").float64(sum)
+            .text("avg").float64(avg)
+            .text("min").float64(min)
+            .text("max").float64(max);
+        if (approximate) {
+            cbor.text("approximate").bool(true);
+        }
+        return cbor.toByteArray();
+    }
 }
@@ -0,0 +1,40 @@
+package challenge.dev.raniery.itaubackend.dto;
+
+import challenge.dev.raniery.itaubackend.model.TopValuesSnapshot;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TopValuesResponse {
+
+    private final List<TopValue> top;
+
+    public TopValuesResponse(TopValuesSnapshot snapshot) {
+        this.top = new ArrayList<>(snapshot.size());
+        for (int rank = 0; rank < snapshot.size(); rank++) {
+            top.add(new TopValue(snapshot.getValor(rank), Instant.ofEpochMilli(snapshot.getEpochMillis(rank)).toString()));
+        }
+    }
+
+    public List<TopValue> getTop() {
+        return top;
+    }
+
+    public byte[] toJson() {
+        StringBuilder json = new StringBuilder(16 + top.size() * 56).append("{\"top\":[");
+        for (int i = 0; i < top.size(); i++) {
+            TopValue value = top.get(i);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"valor\":").append(value.valor())
+                .append(",\"dataHora\":\"").append(value.dataHora()).append("\"}");
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public record TopValue(double valor, String dataHora) {
+    }
+}
@@ -1,20 +1,31 @@
 package challenge.dev.raniery.itaubackend.dto;
 
-import jakarta.validation.constraints.Min;
-import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.PastOrPresent;
+import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
 public record TransactionRequest(
 
-    @NotNull
-    @Min(0)
+    @Schema(requiredMode = Schema.RequiredMode.REQUIRED, minimum = "0")
     BigDecimal valor,
 
-    @NotNull
-    @PastOrPresent
-    OffsetDateTime dataHora) {
+    @Schema(requiredMode = Schema.RequiredMode.REQUIRED, description = "Must not be in the future")
+    OffsetDateTime dataHora,
 
+    @Schema(requiredMode = Schema.RequiredMode.NOT_REQUIRED, maxLength = 128,
+        description = "Optional idempotency key; retries carrying the same key within the window are counted only once")
+    String chaveIdempotencia,
+
+    @Schema(requiredMode = Schema.RequiredMode.NOT_REQUIRED, maxLength = 64,
+        description = "Optional account; enables GET /estatistica?conta= for it")
+    String conta) {
+
+    public TransactionRequest(BigDecimal valor, OffsetDateTime dataHora) {
+        this(valor, dataHora, null, null);
+    }
+
+    public TransactionRequest(BigDecimal valor, OffsetDateTime dataHora, String chaveIdempotencia) {
+        this(valor, dataHora, chaveIdempotencia, null);
+    }
 }
@@ -0,0 +1,306 @@
+package challenge.dev.raniery.itaubackend.engine;
+
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Sliding windows per account for {@code GET /estatistica?conta=}. Each account owns a ring of time
+ * buckets (count, sum, min, max) packed into flat primitive arrays and is found through an
+ * open-addressing table of entry ids, so a lookup only probes primitive arrays and never allocates.
+ * Accounts are spread over independently locked segments that grow on demand up to their share of
+ * the memory budget; a full segment evicts its least recently touched account and reuses the entry.
+ * A bucket counts while any part of it overlaps the window, so the oldest one may carry rows up to
+ * one bucket older than the window.
+ */
+public final class AccountWindows {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long EMPTY_BUCKET = Long.MIN_VALUE;
+    private static final int NONE = -1;
+    private static final int BUCKET_BYTES = Long.BYTES + Integer.BYTES + Double.BYTES + 2 * Long.BYTES;
+    private static final int ENTRY_OVERHEAD_BYTES = 2 * Integer.BYTES + 3 * Integer.BYTES + 64;
+
+    private final long windowMillis;
+    private final long bucketMillis;
+    private final int buckets;
+    private final int segmentBits;
+    private final int maxEntriesPerSegment;
+    private final AtomicReferenceArray<Segment> segments;
+
+    public AccountWindows(long windowMillis, long bucketMillis, long memoryBudgetBytes, int segmentCount) {
+        this(windowMillis, bucketMillis, memoryBudgetBytes, segmentCount, 0);
+    }
+
+    /**
+     * Each account's ring also covers {@code aheadMillis} past the clock, at the cost of the extra
+     * buckets in every entry.
+     */
+    public AccountWindows(long windowMillis, long bucketMillis, long memoryBudgetBytes, int segmentCount, long aheadMillis) {
+        if (Integer.bitCount(segmentCount) != 1) {
+            throw new IllegalArgumentException("O número de segmentos deve ser potência de dois: " + segmentCount);
+        }
+        this.windowMillis = windowMillis;
+        this.bucketMillis = bucketMillis;
+        this.buckets = (int) ((windowMillis + aheadMillis + bucketMillis - 1) / bucketMillis) + 1;
+        this.segmentBits = Integer.numberOfTrailingZeros(segmentCount);
+        this.maxEntriesPerSegment = (int) Math.max(1, Math.min(Integer.MAX_VALUE / 2 / buckets, memoryBudgetBytes / bytesPerKey() / segmentCount));
+        this.segments = new AtomicReferenceArray<>(segmentCount);
+    }
+
+    public void record(String conta, long epochMillis, long amount) {
+        int hash = spread(conta.hashCode());
+        int index = segmentIndex(hash);
+        Segment segment = segments.get(index);
+        if (segment == null) {
+            segments.compareAndSet(index, null, new Segment());
+            segment = segments.get(index);
+        }
+        segment.record(conta, hash, Math.floorDiv(epochMillis, bucketMillis), amount);
+    }
+
+    public StatisticSnapshot snapshot(String conta, long nowMillis, long version) {
+        int hash = spread(conta.hashCode());
+        WindowAccumulator accumulator = new WindowAccumulator();
+        Segment segment = segments.get(segmentIndex(hash));
+        if (segment != null) {
+            segment.accumulate(conta, hash, nowMillis, accumulator);
+        }
+        return accumulator.toSnapshot(version, windowMillis);
+    }
+
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < segments.length(); i++) {
+            Segment segment = segments.get(i);
+            if (segment != null) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public long evictions() {
+        long evictions = 0;
+        for (int i = 0; i < segments.length(); i++) {
+            Segment segment = segments.get(i);
+            if (segment != null) {
+                evictions += segment.evictions();
+            }
+        }
+        return evictions;
+    }
+
+    public long bytesPerKey() {
+        return (long) buckets * BUCKET_BYTES + ENTRY_OVERHEAD_BYTES;
+    }
+
+    public int maxKeys() {
+        return maxEntriesPerSegment * segments.length();
+    }
+
+    private int segmentIndex(int hash) {
+        return segmentBits == 0 ? 0 : hash >>> (Integer.SIZE - segmentBits);
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private final class Segment {
+
+        private int capacity;
+        private int size;
+        private long evictions;
+        private int lruHead = NONE;
+        private int lruTail = NONE;
+
+        private int[] table;
+        private int tableMask;
+        private String[] keys;
+        private int[] hashes;
+        private int[] newer;
+        private int[] older;
+
+        private long[] bucketIds;
+        private int[] counts;
+        private double[] sums;
+        private long[] mins;
+        private long[] maxes;
+
+        private Segment() {
+            resize(Math.min(INITIAL_CAPACITY, maxEntriesPerSegment));
+        }
+
+        synchronized void record(String conta, int hash, long bucketId, long amount) {
+            int entry = find(conta, hash);
+            if (entry == NONE) {
+                entry = insert(conta, hash);
+            } else {
+                touch(entry);
+            }
+
+            int slot = entry * buckets + (int) Math.floorMod(bucketId, (long) buckets);
+            long current = bucketIds[slot];
+            if (current != bucketId) {
+                if (current > bucketId) {
+                    return;
+                }
+                bucketIds[slot] = bucketId;
+                counts[slot] = 0;
+                sums[slot] = 0;
+                mins[slot] = Long.MAX_VALUE;
+                maxes[slot] = Long.MIN_VALUE;
+            }
+            counts[slot]++;
+            sums[slot] += amount;
+            mins[slot] = Math.min(mins[slot], amount);
+            maxes[slot] = Math.max(maxes[slot], amount);
+        }
+
+        synchronized void accumulate(String conta, int hash, long nowMillis, WindowAccumulator accumulator) {
+            int entry = find(conta, hash);
+            if (entry == NONE) {
+                return;
+            }
+            touch(entry);
+
+            long windowStart = nowMillis - windowMillis;
+            int first = entry * buckets;
+            for (int slot = first; slot < first + buckets; slot++) {
+                long bucketId = bucketIds[slot];
+                if (bucketId == EMPTY_BUCKET) {
+                    continue;
+                }
+                long bucketStart = bucketId * bucketMillis;
+                if (bucketStart + bucketMillis > windowStart && bucketStart <= nowMillis) {
+                    accumulator.addSummary(counts[slot], sums[slot], mins[slot], maxes[slot], bucketStart);
+                }
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized long evictions() {
+            return evictions;
+        }
+
+        private int find(String conta, int hash) {
+            for (int i = hash & tableMask; ; i = (i + 1) & tableMask) {
+                int entry = table[i] - 1;
+                if (entry == NONE) {
+                    return NONE;
+                }
+                if (hashes[entry] == hash && keys[entry].equals(conta)) {
+                    return entry;
+                }
+            }
+        }
+
+        private int insert(String conta, int hash) {
+            int entry;
+            if (size < capacity) {
+                entry = size++;
+            } else if (capacity < maxEntriesPerSegment) {
+                resize((int) Math.min(2L * capacity, maxEntriesPerSegment));
+                entry = size++;
+            } else {
+                entry = lruTail;
+                removeFromTable(entry);
+                unlink(entry);
+                Arrays.fill(bucketIds, entry * buckets, (entry + 1) * buckets, EMPTY_BUCKET);
+                evictions++;
+            }
+            keys[entry] = conta;
+            hashes[entry] = hash;
+            placeInTable(entry);
+            linkAsNewest(entry);
+            return entry;
+        }
+
+        private void touch(int entry) {
+            if (entry != lruHead) {
+                unlink(entry);
+                linkAsNewest(entry);
+            }
+        }
+
+        private void linkAsNewest(int entry) {
+            newer[entry] = NONE;
+            older[entry] = lruHead;
+            if (lruHead != NONE) {
+                newer[lruHead] = entry;
+            }
+            lruHead = entry;
+            if (lruTail == NONE) {
+                lruTail = entry;
+            }
+        }
+
+        private void unlink(int entry) {
+            int before = newer[entry];
+            int after = older[entry];
+            if (before == NONE) {
+                lruHead = after;
+            } else {
+                older[before] = after;
+            }
+            if (after == NONE) {
+                lruTail = before;
+            } else {
+                newer[after] = before;
+            }
+        }
+
+        private void placeInTable(int entry) {
+            int i = hashes[entry] & tableMask;
+            while (table[i] != 0) {
+                i = (i + 1) & tableMask;
+            }
+            table[i] = entry + 1;
+        }
+
+        private void removeFromTable(int entry) {
+            int hole = hashes[entry] & tableMask;
+            while (table[hole] != entry + 1) {
+                hole = (hole + 1) & tableMask;
+            }
+            for (int i = (hole + 1) & tableMask; table[i] != 0; i = (i + 1) & tableMask) {
+                int home = hashes[table[i] - 1] & tableMask;
+                boolean reachable = hole <= i ? hole < home && home <= i : hole < home || home <= i;
+                if (!reachable) {
+                    table[hole] = table[i];
+                    hole = i;
+                }
+            }
+            table[hole] = 0;
+        }
+
+        private void resize(int newCapacity) {
+            int oldCapacity = capacity;
+            capacity = newCapacity;
+            keys = keys == null ? new String[newCapacity] : Arrays.copyOf(keys, newCapacity);
+            hashes = hashes == null ? new int[newCapacity] : Arrays.copyOf(hashes, newCapacity);
+            newer = newer == null ? new int[newCapacity] : Arrays.copyOf(newer, newCapacity);
+            older = older == null ? new int[newCapacity] : Arrays.copyOf(older, newCapacity);
+
+            int slots = newCapacity * buckets;
+            bucketIds = bucketIds == null ? new long[slots] : Arrays.copyOf(bucketIds, slots);
+            counts = counts == null ? new int[slots] : Arrays.copyOf(counts, slots);
+            sums = sums == null ? new double[slots] : Arrays.copyOf(sums, slots);
+            mins = mins == null ? new long[slots] : Arrays.copyOf(mins, slots);
+            maxes = maxes == null ? new long[slots] : Arrays.copyOf(maxes, slots);
+            Arrays.fill(bucketIds, oldCapacity * buckets, slots, EMPTY_BUCKET);
+
+            table = new int[Integer.highestOneBit(Math.max(2, newCapacity) * 2 - 1) << 1];
+            tableMask = table.length - 1;
+            for (int entry = 0; entry < size; entry++) {
+                placeInTable(entry);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package challenge.dev.raniery.itaubackend.engine;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point representation of {@code valor} used by the columnar log: amounts are stored as
+ * {@code long} micro-units, so a window scan only reads primitive arrays. Values at or above
+ * {@link #MAX_VALOR} do not fit and are rejected at validation.
+ */
+public final class Amounts {
+
+    public static final int SCALE = 6;
+    public static final BigDecimal MAX_VALOR = new BigDecimal("1E12");
+    public static final long MAX_SCALED = 1_000_000_000_000_000_000L;
+
+    private static final double UNIT = 1_000_000.0;
+
+    private Amounts() {
+    }
+
+    public static boolean isRepresentable(BigDecimal valor) {
+        return valor.compareTo(MAX_VALOR) < 0;
+    }
+
+    public static boolean isRepresentable(long scaled) {
+        return scaled < MAX_SCALED;
+    }
+
+    public static long toScaled(BigDecimal valor) {
+        if (valor.scale() - valor.precision() > SCALE) {
+            return 0;
+        }
+        return valor.setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    public static double toValor(double scaled) {
+        return scaled / UNIT;
+    }
+}
@@ -0,0 +1,63 @@
+package challenge.dev.raniery.itaubackend.engine;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Clock whose {@link #millis()} is a volatile read of the time sampled by a ticker thread, so
+ * validation, window bucketing and expiry stop calling into the OS clock on every request. The
+ * value lags the wall clock by at most one tick plus scheduling delay; {@link #instant()} still
+ * delegates to the precise clock for callers that must not observe that lag.
+ */
+public final class CoarseClock extends Clock implements AutoCloseable {
+
+    private final Clock delegate;
+    private final long tickNanos;
+    private final Thread ticker;
+
+    private volatile long millis;
+    private volatile boolean running = true;
+
+    public CoarseClock(Clock delegate, Duration tick) {
+        this.delegate = delegate;
+        this.tickNanos = tick.toNanos();
+        this.millis = delegate.millis();
+        this.ticker = Thread.ofPlatform().name("coarse-clock").daemon().start(this::tick);
+    }
+
+    @Override
+    public long millis() {
+        return millis;
+    }
+
+    @Override
+    public Instant instant() {
+        return delegate.instant();
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return delegate.getZone();
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return delegate.withZone(zone);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(ticker);
+    }
+
+    private void tick() {
+        while (running) {
+            LockSupport.parkNanos(this, tickNanos);
+            millis = delegate.millis();
+        }
+    }
+}
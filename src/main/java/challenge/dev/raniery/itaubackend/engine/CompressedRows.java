@@ -0,0 +1,110 @@
+package challenge.dev.raniery.itaubackend.engine;
+
+import java.util.Arrays;
+
+/**
+ * Compact encoding of a sealed chunk. The first byte holds the largest power of ten dividing every
+ * amount of the chunk; each row follows as the zigzag varint delta of its timestamp from the
+ * previous row and the zigzag varint of its amount with that power divided out. Arrival order keeps
+ * the deltas to one or two bytes, and amounts in cents lose four of their six decimal digits before
+ * encoding. Rows are decoded in one forward pass; there is no random access.
+ */
+final class CompressedRows {
+
+    private static final int MAX_VARINT_BYTES = 10;
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private CompressedRows() {
+    }
+
+    static byte[] encode(long[] epochMillis, long[] amounts, int rows) {
+        int exponent = POWERS_OF_TEN.length - 1;
+        for (int i = 0; i < rows && exponent > 0; i++) {
+            while (exponent > 0 && amounts[i] % POWERS_OF_TEN[exponent] != 0) {
+                exponent--;
+            }
+        }
+        long divisor = POWERS_OF_TEN[exponent];
+
+        byte[] buf = new byte[1 + rows * 2 * MAX_VARINT_BYTES];
+        buf[0] = (byte) exponent;
+        int pos = 1;
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            pos = writeVarint(buf, pos, zigzag(epochMillis[i] - previous));
+            pos = writeVarint(buf, pos, zigzag(amounts[i] / divisor));
+            previous = epochMillis[i];
+        }
+        return Arrays.copyOf(buf, pos);
+    }
+
+    static void accumulate(byte[] encoded, int rows, long windowStart, WindowAccumulator accumulator) {
+        Reader reader = new Reader(encoded);
+        long multiplier = POWERS_OF_TEN[encoded[0]];
+        long epoch = 0;
+        for (int i = 0; i < rows; i++) {
+            epoch += unzigzag(reader.varint());
+            long amount = unzigzag(reader.varint()) * multiplier;
+            if (epoch > windowStart) {
+                accumulator.addRow(epoch, amount);
+            }
+        }
+    }
+
+    static void decode(byte[] encoded, int rows, long[] epochMillis, long[] amounts) {
+        Reader reader = new Reader(encoded);
+        long multiplier = POWERS_OF_TEN[encoded[0]];
+        long epoch = 0;
+        for (int i = 0; i < rows; i++) {
+            epoch += unzigzag(reader.varint());
+            epochMillis[i] = epoch;
+            amounts[i] = unzigzag(reader.varint()) * multiplier;
+        }
+    }
+
+    private static int writeVarint(byte[] buf, int pos, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf[pos++] = (byte) value;
+        return pos;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Reader {
+
+        private final byte[] buf;
+        private int pos = 1;
+
+        private Reader(byte[] buf) {
+            this.buf = buf;
+        }
+
+        long varint() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buf[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+}
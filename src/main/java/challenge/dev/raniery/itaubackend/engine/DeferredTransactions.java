@@ -0,0 +1,54 @@
+package challenge.dev.raniery.itaubackend.engine;
+
+import java.util.PriorityQueue;
+
+/**
+ * Transactions accepted with a {@code dataHora} slightly ahead of the server clock, held in
+ * timestamp order until it arrives. The earliest pending timestamp is mirrored in a volatile field,
+ * so a read that finds nothing due pays one volatile load instead of taking the lock; due rows are
+ * appended to the log before that field advances, so a reader never skips a due transaction.
+ */
+public final class DeferredTransactions {
+
+    private final PriorityQueue<Pending> pending = new PriorityQueue<>();
+
+    private volatile long nextDueMillis = Long.MAX_VALUE;
+    private volatile int size;
+
+    public synchronized void add(long epochMillis, long amount) {
+        pending.add(new Pending(epochMillis, amount));
+        nextDueMillis = pending.peek().epochMillis;
+        size = pending.size();
+    }
+
+    public void activateDue(TransactionLog log, long nowMillis) {
+        if (nowMillis < nextDueMillis) {
+            return;
+        }
+        synchronized (this) {
+            int due = 0;
+            for (Pending next = pending.peek(); next != null && next.epochMillis <= nowMillis; next = pending.peek()) {
+                due++;
+                pending.poll();
+                log.append(next.epochMillis, next.amount);
+            }
+            if (due > 0) {
+                Pending next = pending.peek();
+                nextDueMillis = next == null ? Long.MAX_VALUE : next.epochMillis;
+                size = pending.size();
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private record Pending(long epochMillis, long amount) implements Comparable<Pending> {
+
+        @Override
+        public int compareTo(Pending other) {
+            return Long.compare(epochMillis, other.epochMillis);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package challenge.dev.raniery.itaubackend.engine;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Preallocated multi-producer, single-consumer ring in front of {@link TransactionLog}. Producers
+ * claim a sequence with a CAS, fill the slot with plain writes and flag it as available; the single
+ * applier thread drains contiguous available slots and appends them as one batch, so the only
+ * atomics are the claim counter and the per-slot availability flags. Each slot remembers the log it
+ * was aimed at, so a reset that swaps generations still orders earlier writes before it.
+ */
+public final class IngestionRing {
+
+    private static final int SPINS_BEFORE_YIELD = Runtime.getRuntime().availableProcessors() > 1 ? 64 : 0;
+    private static final int YIELDS_BEFORE_PARK = 16;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final int capacity;
+    private final int mask;
+    private final int maxBatch;
+    private final long[] epochMillis;
+    private final long[] amounts;
+    private final TransactionLog[] targets;
+    private final AtomicLongArray available;
+
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long applied;
+    private volatile boolean sleeping;
+    private volatile boolean running;
+    private Thread applier;
+
+    private final long[] batchEpochMillis;
+    private final long[] batchAmounts;
+
+    public IngestionRing(int capacity, int maxBatch) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("A capacidade do anel deve ser potência de dois: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.maxBatch = Math.min(maxBatch, capacity);
+        this.epochMillis = new long[capacity];
+        this.amounts = new long[capacity];
+        this.targets = new TransactionLog[capacity];
+        this.available = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            available.set(i, -1);
+        }
+        this.batchEpochMillis = new long[this.maxBatch];
+        this.batchAmounts = new long[this.maxBatch];
+    }
+
+    public synchronized void start(String threadName) {
+        if (running) {
+            return;
+        }
+        running = true;
+        applier = Thread.ofPlatform().name(threadName).daemon().start(this::applyLoop);
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(applier);
+        try {
+            applier.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        applier = null;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long offer(TransactionLog target, long epoch, long amount, long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        long sequence;
+        int idle = 0;
+        while (true) {
+            sequence = claimed.get();
+            if (sequence - applied < capacity) {
+                if (claimed.compareAndSet(sequence, sequence + 1)) {
+                    break;
+                }
+            } else if (System.nanoTime() - deadline >= 0) {
+                return -1;
+            } else {
+                idle = backOff(idle);
+            }
+        }
+
+        int slot = (int) (sequence & mask);
+        epochMillis[slot] = epoch;
+        amounts[slot] = amount;
+        targets[slot] = target;
+        available.set(slot, sequence);
+
+        if (sleeping) {
+            LockSupport.unpark(applier);
+        }
+        return sequence;
+    }
+
+    public boolean awaitApplied(long sequence, long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        int idle = 0;
+        while (applied <= sequence) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            idle = backOff(idle);
+        }
+        return true;
+    }
+
+    public long backlog() {
+        return claimed.get() - applied;
+    }
+
+    private void applyLoop() {
+        long next = applied;
+        int idle = 0;
+        while (running || available.get((int) (next & mask)) == next) {
+            int drained = drain(next);
+            if (drained == 0) {
+                idle = idleWait(idle);
+                continue;
+            }
+            idle = 0;
+            next += drained;
+            applied = next;
+        }
+    }
+
+    private int drain(long next) {
+        int count = 0;
+        TransactionLog batchTarget = null;
+        while (count < maxBatch && available.get((int) ((next + count) & mask)) == next + count) {
+            int slot = (int) ((next + count) & mask);
+            TransactionLog target = targets[slot];
+            if (batchTarget != null && target != batchTarget) {
+                break;
+            }
+            batchTarget = target;
+            batchEpochMillis[count] = epochMillis[slot];
+            batchAmounts[count] = amounts[slot];
+            targets[slot] = null;
+            count++;
+        }
+        if (count > 0) {
+            batchTarget.appendBatch(batchEpochMillis, batchAmounts, 0, count);
+        }
+        return count;
+    }
+
+    private int idleWait(int idle) {
+        if (idle < SPINS_BEFORE_YIELD) {
+            Thread.onSpinWait();
+        } else if (idle < SPINS_BEFORE_YIELD + YIELDS_BEFORE_PARK) {
+            Thread.yield();
+        } else {
+            sleeping = true;
+            if (available.get((int) (applied & mask)) != applied && running) {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+            sleeping = false;
+        }
+        return idle + 1;
+    }
+
+    private static int backOff(int idle) {
+        if (idle < SPINS_BEFORE_YIELD) {
+            Thread.onSpinWait();
+        } else if (idle < SPINS_BEFORE_YIELD + YIELDS_BEFORE_PARK) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        return idle + 1;
+    }
+}
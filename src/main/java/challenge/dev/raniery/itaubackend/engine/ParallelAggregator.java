@@ -0,0 +1,91 @@
+package challenge.dev.raniery.itaubackend.engine;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Splits a window snapshot across a dedicated fork/join pool once the retained rows reach a
+ * threshold. Each shard aggregates a contiguous run of chunks into its own accumulator and the
+ * partial results are merged pairwise; count, sum, min, max and the oldest timestamp all merge
+ * associatively, so the result equals the serial scan up to the order of the floating-point sum.
+ * Submitting the task publishes the chunks the caller read under the cursor to the workers.
+ */
+public final class ParallelAggregator implements AutoCloseable {
+
+    private static final ParallelAggregator SERIAL = new ParallelAggregator(1, Long.MAX_VALUE, Integer.MAX_VALUE);
+
+    private final ForkJoinPool pool;
+    private final long parallelThreshold;
+    private final int shardChunks;
+
+    public ParallelAggregator(int parallelism, long parallelThreshold, int shardSize) {
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism, ParallelAggregator::newWorker, null, false) : null;
+        this.parallelThreshold = parallelThreshold;
+        this.shardChunks = Math.max(1, shardSize >> TransactionLog.CHUNK_SHIFT);
+    }
+
+    public static ParallelAggregator serial() {
+        return SERIAL;
+    }
+
+    public int getParallelism() {
+        return pool == null ? 1 : pool.getParallelism();
+    }
+
+    boolean shouldSplit(long retainedRows) {
+        return pool != null && retainedRows >= parallelThreshold && !pool.isShutdown();
+    }
+
+    WindowAccumulator aggregate(TransactionLog log, TransactionLog.Chunk[] chunks, long cursor, long windowStart) {
+        return pool.invoke(new ShardTask(log, chunks, 0, chunks.length, cursor, windowStart));
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        worker.setName("statistics-aggregator-" + worker.getPoolIndex());
+        return worker;
+    }
+
+    private final class ShardTask extends RecursiveTask<WindowAccumulator> {
+
+        private final TransactionLog log;
+        private final TransactionLog.Chunk[] chunks;
+        private final int from;
+        private final int to;
+        private final long cursor;
+        private final long windowStart;
+
+        private ShardTask(TransactionLog log, TransactionLog.Chunk[] chunks, int from, int to, long cursor, long windowStart) {
+            this.log = log;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+            this.cursor = cursor;
+            this.windowStart = windowStart;
+        }
+
+        @Override
+        protected WindowAccumulator compute() {
+            if (to - from <= shardChunks) {
+                WindowAccumulator accumulator = new WindowAccumulator();
+                for (int i = from; i < to; i++) {
+                    log.accumulate(chunks[i], cursor, windowStart, accumulator);
+                }
+                return accumulator;
+            }
+            int middle = (from + to) >>> 1;
+            ShardTask left = new ShardTask(log, chunks, from, middle, cursor, windowStart);
+            left.fork();
+            WindowAccumulator right = new ShardTask(log, chunks, middle, to, cursor, windowStart).compute();
+            return left.join().merge(right);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package challenge.dev.raniery.itaubackend.engine;
+
+/**
+ * Row-by-row aggregation of the chunks that straddle the window edge. {@link #VECTOR} filters and
+ * reduces whole SIMD lanes through {@code jdk.incubator.vector}; it is only chosen when that module
+ * was added to the boot layer ({@code --add-modules jdk.incubator.vector}), otherwise the scalar
+ * loop is used and the vector classes are never loaded.
+ */
+public enum RowScanner {
+
+    SCALAR {
+        @Override
+        void accumulate(long[] epochMillis, long[] amounts, int from, int to, long windowStart, WindowAccumulator accumulator) {
+            for (int i = from; i < to; i++) {
+                long epoch = epochMillis[i];
+                if (epoch > windowStart) {
+                    accumulator.addRow(epoch, amounts[i]);
+                }
+            }
+        }
+    },
+
+    VECTOR {
+        @Override
+        void accumulate(long[] epochMillis, long[] amounts, int from, int to, long windowStart, WindowAccumulator accumulator) {
+            VectorRowScan.accumulate(epochMillis, amounts, from, to, windowStart, accumulator);
+        }
+    };
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final RowScanner PREFERRED = VECTOR.isAvailable() ? VECTOR : SCALAR;
+
+    abstract void accumulate(long[] epochMillis, long[] amounts, int from, int to, long windowStart, WindowAccumulator accumulator);
+
+    public boolean isAvailable() {
+        return this == SCALAR || ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+    }
+
+    public static RowScanner preferred() {
+        return PREFERRED;
+    }
+}
@@ -0,0 +1,216 @@
+package challenge.dev.raniery.itaubackend.engine;
+
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Approximate statistics of the window, served instead of a log scan while the log retains more
+ * rows than {@code itau.statistics.approximate.threshold}. Each time bucket keeps its exact count,
+ * sum, extremes and timestamp range next to a uniform reservoir sample of its rows (algorithm L), so
+ * a write is a few atomic updates and, once the reservoir is full, takes the bucket lock only for the
+ * rare row the sample admits; a query costs O(buckets + sample size) whatever the volume. A slot is
+ * recycled by the first write of a new interval, which records its row into a fresh slot and
+ * publishes it under the window's lock. Writers racing that turnover wait for it and land in the new
+ * slot, and a published slot always holds a row; a write only misses a slot when its bucket has
+ * already been recycled, that is, once it has left the window.
+ * <p>
+ * A bucket whose rows all lie inside the window contributes its exact figures. Only the buckets
+ * straddling an edge of the window, the one leaving it and the one still receiving rows ahead of the
+ * clock, are estimated from their sample, which is the whole bucket while it holds no more rows than
+ * the sample size. For such a bucket of {@code n} rows and a sample of {@code k}:
+ * <ul>
+ *   <li>count and sum scale the sampled rows inside the window by {@code n / k}; the standard error
+ *       is at most {@code n / (2·√k)} rows, about 1.6% of one bucket for {@code k = 1024}, so the
+ *       average stays exact up to that share of a bucket;</li>
+ *   <li>min and max are exact whenever the extreme lies in an inner bucket. Otherwise the reported
+ *       value is the extreme of the {@code m} sampled rows inside the window, which falls among the
+ *       most extreme fraction {@code q} of that bucket's rows with probability
+ *       {@code 1 - (1 - q)^m}: within 0.45% for {@code m = 1024} at 99%.</li>
+ * </ul>
+ */
+public final class SampledWindow {
+
+    private final long windowMillis;
+    private final long bucketMillis;
+    private final int sampleSize;
+    private final AtomicReferenceArray<Slot> slots;
+
+    public SampledWindow(long windowMillis, long bucketMillis, int sampleSize) {
+        this(windowMillis, bucketMillis, sampleSize, 0);
+    }
+
+    /**
+     * Also keeps slots for the buckets up to {@code aheadMillis} past the clock, where future-dated
+     * rows land before they are due.
+     */
+    public SampledWindow(long windowMillis, long bucketMillis, int sampleSize, long aheadMillis) {
+        if (sampleSize < 1) {
+            throw new IllegalArgumentException("O tamanho da amostra deve ser positivo: " + sampleSize);
+        }
+        this.windowMillis = windowMillis;
+        this.bucketMillis = bucketMillis;
+        this.sampleSize = sampleSize;
+        this.slots = new AtomicReferenceArray<>((int) ((windowMillis + aheadMillis + bucketMillis - 1) / bucketMillis) + 1);
+    }
+
+    public void record(long epochMillis, long amount) {
+        long bucketId = Math.floorDiv(epochMillis, bucketMillis);
+        int index = (int) Math.floorMod(bucketId, (long) slots.length());
+        Slot slot = slots.get(index);
+        if (slot == null || slot.id < bucketId) {
+            slot = turnOver(index, bucketId, epochMillis, amount);
+        }
+        if (slot != null && slot.id == bucketId) {
+            slot.record(epochMillis, amount);
+        }
+    }
+
+    /**
+     * Returns {@code null} once the row has opened the slot for {@code bucketId}, or the slot another
+     * writer has meanwhile published there.
+     */
+    private synchronized Slot turnOver(int index, long bucketId, long epochMillis, long amount) {
+        Slot slot = slots.get(index);
+        if (slot != null && slot.id >= bucketId) {
+            return slot;
+        }
+        Slot fresh = new Slot(bucketId, sampleSize);
+        fresh.record(epochMillis, amount);
+        slots.set(index, fresh);
+        return null;
+    }
+
+    public StatisticSnapshot snapshot(long nowMillis, long version) {
+        long windowStart = nowMillis - windowMillis;
+        WindowAccumulator accumulator = new WindowAccumulator();
+        for (int i = 0; i < slots.length(); i++) {
+            Slot slot = slots.get(i);
+            if (slot == null) {
+                continue;
+            }
+            long bucketStart = slot.id * bucketMillis;
+            if (bucketStart + bucketMillis <= windowStart || bucketStart > nowMillis) {
+                continue;
+            }
+            if (slot.minEpochMillis.get() > windowStart && slot.maxEpochMillis.get() <= nowMillis) {
+                accumulator.addSummary(slot.rows.get(), slot.sum.sum(), slot.min.get(), slot.max.get(), slot.minEpochMillis.get());
+            } else {
+                slot.estimate(windowStart, nowMillis, accumulator);
+            }
+        }
+        return accumulator.toSnapshot(version, windowMillis, true);
+    }
+
+    private static final class Slot {
+
+        private final long id;
+        private final AtomicLong rows = new AtomicLong();
+        private final DoubleAdder sum = new DoubleAdder();
+        private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicLong minEpochMillis = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong maxEpochMillis = new AtomicLong(Long.MIN_VALUE);
+
+        private final long[] sampledEpochMillis;
+        private final long[] sampledAmounts;
+        private int sampled;
+        private double weight;
+        private volatile long nextTaken;
+
+        private Slot(long id, int sampleSize) {
+            this.id = id;
+            this.sampledEpochMillis = new long[sampleSize];
+            this.sampledAmounts = new long[sampleSize];
+            this.weight = Math.exp(Math.log(uniform()) / sampleSize);
+            this.nextTaken = sampleSize + skip(weight);
+        }
+
+        void record(long epochMillis, long amount) {
+            long row = rows.getAndIncrement();
+            sum.add(amount);
+            lower(min, amount);
+            raise(max, amount);
+            lower(minEpochMillis, epochMillis);
+            raise(maxEpochMillis, epochMillis);
+            if (row < sampledAmounts.length || row >= nextTaken) {
+                sample(row, epochMillis, amount);
+            }
+        }
+
+        /**
+         * Algorithm L: after the reservoir fills, jumps straight to the next row that replaces a
+         * random entry instead of drawing a number per row.
+         */
+        private synchronized void sample(long row, long epochMillis, long amount) {
+            if (sampled < sampledAmounts.length) {
+                sampledEpochMillis[sampled] = epochMillis;
+                sampledAmounts[sampled] = amount;
+                sampled++;
+                return;
+            }
+            if (row < nextTaken) {
+                return;
+            }
+            int replaced = ThreadLocalRandom.current().nextInt(sampledAmounts.length);
+            sampledEpochMillis[replaced] = epochMillis;
+            sampledAmounts[replaced] = amount;
+            weight *= Math.exp(Math.log(uniform()) / sampledAmounts.length);
+            nextTaken = row + 1 + skip(weight);
+        }
+
+        synchronized void estimate(long windowStart, long nowMillis, WindowAccumulator accumulator) {
+            if (sampled == 0) {
+                return;
+            }
+            long inside = 0;
+            double insideSum = 0;
+            long insideMin = Long.MAX_VALUE;
+            long insideMax = Long.MIN_VALUE;
+            long oldest = Long.MAX_VALUE;
+            for (int i = 0; i < sampled; i++) {
+                long epochMillis = sampledEpochMillis[i];
+                if (epochMillis > windowStart && epochMillis <= nowMillis) {
+                    long amount = sampledAmounts[i];
+                    inside++;
+                    insideSum += amount;
+                    insideMin = Math.min(insideMin, amount);
+                    insideMax = Math.max(insideMax, amount);
+                    oldest = Math.min(oldest, epochMillis);
+                }
+            }
+            if (inside == 0) {
+                return;
+            }
+            double scale = (double) Math.max(rows.get(), sampled) / sampled;
+            accumulator.addSummary(Math.round(inside * scale), insideSum * scale, insideMin, insideMax, oldest);
+        }
+
+        private static long skip(double weight) {
+            return (long) Math.min(Math.floor(Math.log(uniform()) / Math.log1p(-weight)), Long.MAX_VALUE >> 1);
+        }
+
+        private static double uniform() {
+            return 1.0 - ThreadLocalRandom.current().nextDouble();
+        }
+
+        private static void lower(AtomicLong bound, long value) {
+            for (long current = bound.get(); value < current; current = bound.get()) {
+                if (bound.compareAndSet(current, value)) {
+                    return;
+                }
+            }
+        }
+
+        private static void raise(AtomicLong bound, long value) {
+            for (long current = bound.get(); value > current; current = bound.get()) {
+                if (bound.compareAndSet(current, value)) {
+                    return;
+                }
+            }
+        }
+    }
+}
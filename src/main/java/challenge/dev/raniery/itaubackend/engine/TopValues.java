@@ -0,0 +1,193 @@
+package challenge.dev.raniery.itaubackend.engine;
+
+import challenge.dev.raniery.itaubackend.model.TopValuesSnapshot;
+
+/**
+ * Largest amounts of the window for {@code GET /estatistica/topk}. Each time bucket keeps a bounded
+ * min-heap of its largest rows, and a query merges the heaps of the buckets overlapping the window,
+ * so it costs O(buckets · K) whatever the volume. A bucket is reset by the first write of the
+ * interval that reuses its slot. Once a heap is full its smallest amount is mirrored in a volatile
+ * floor, so the usual write, which cannot enter it, is turned away without taking the bucket lock.
+ * A turnover resets the floor before publishing the new interval, so a write that sees the new
+ * interval never compares against the previous one's floor.
+ * Rows are filtered by their own timestamp at query time, so nothing outside the window is reported;
+ * the oldest bucket may only miss a row whose place in its heap was taken by larger, already expired
+ * rows.
+ */
+public final class TopValues {
+
+    public static final int DEFAULT_K = 10;
+
+    private static final long EMPTY_BUCKET = Long.MIN_VALUE;
+
+    private final long windowMillis;
+    private final long bucketMillis;
+    private final int capacity;
+    private final Bucket[] buckets;
+
+    public TopValues(long windowMillis, long bucketMillis, int capacity) {
+        this(windowMillis, bucketMillis, capacity, 0);
+    }
+
+    /**
+     * {@code aheadMillis} is how far ahead of the clock rows may be stamped; the ring gets the extra
+     * buckets, so such a row never takes the slot of a bucket still at the window's trailing edge.
+     */
+    public TopValues(long windowMillis, long bucketMillis, int capacity, long aheadMillis) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("A capacidade do top-K deve ser positiva: " + capacity);
+        }
+        this.windowMillis = windowMillis;
+        this.bucketMillis = bucketMillis;
+        this.capacity = capacity;
+        this.buckets = new Bucket[(int) ((windowMillis + aheadMillis + bucketMillis - 1) / bucketMillis) + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket(capacity);
+        }
+    }
+
+    public void record(long epochMillis, long amount) {
+        long bucketId = Math.floorDiv(epochMillis, bucketMillis);
+        buckets[(int) Math.floorMod(bucketId, (long) buckets.length)].record(bucketId, epochMillis, amount);
+    }
+
+    public TopValuesSnapshot top(int k, long nowMillis) {
+        int limit = Math.min(k, capacity);
+        long windowStart = nowMillis - windowMillis;
+        Heap merged = new Heap(limit);
+        for (Bucket bucket : buckets) {
+            bucket.collect(windowStart, nowMillis, merged);
+        }
+        return merged.drainDescending();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private static final class Bucket {
+
+        private final Heap heap;
+
+        private volatile long id = EMPTY_BUCKET;
+        private volatile long floor = Long.MIN_VALUE;
+
+        private Bucket(int capacity) {
+            this.heap = new Heap(capacity);
+        }
+
+        void record(long bucketId, long epochMillis, long amount) {
+            if (id == bucketId && amount <= floor) {
+                return;
+            }
+            synchronized (this) {
+                if (id != bucketId) {
+                    if (id > bucketId) {
+                        return;
+                    }
+                    floor = Long.MIN_VALUE;
+                    heap.clear();
+                    id = bucketId;
+                }
+                if (heap.offer(epochMillis, amount) && heap.isFull()) {
+                    floor = heap.smallest();
+                }
+            }
+        }
+
+        synchronized void collect(long windowStart, long nowMillis, Heap target) {
+            if (id == EMPTY_BUCKET) {
+                return;
+            }
+            for (int i = 0; i < heap.size; i++) {
+                long epochMillis = heap.epochMillis[i];
+                if (epochMillis > windowStart && epochMillis <= nowMillis) {
+                    target.offer(epochMillis, heap.amounts[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Bounded min-heap over parallel primitive arrays: the root is the smallest amount kept, and a
+     * row only enters a full heap by replacing it.
+     */
+    private static final class Heap {
+
+        private final long[] amounts;
+        private final long[] epochMillis;
+        private int size;
+
+        private Heap(int capacity) {
+            this.amounts = new long[capacity];
+            this.epochMillis = new long[capacity];
+        }
+
+        boolean offer(long epoch, long amount) {
+            if (size < amounts.length) {
+                int i = size++;
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (amounts[parent] <= amount) {
+                        break;
+                    }
+                    amounts[i] = amounts[parent];
+                    epochMillis[i] = epochMillis[parent];
+                    i = parent;
+                }
+                amounts[i] = amount;
+                epochMillis[i] = epoch;
+                return true;
+            }
+            if (amount <= amounts[0]) {
+                return false;
+            }
+            siftDown(epoch, amount, size);
+            return true;
+        }
+
+        boolean isFull() {
+            return size == amounts.length;
+        }
+
+        long smallest() {
+            return amounts[0];
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        TopValuesSnapshot drainDescending() {
+            long[] sortedAmounts = new long[size];
+            long[] sortedEpochs = new long[size];
+            for (int i = sortedAmounts.length - 1; i >= 0; i--) {
+                sortedAmounts[i] = amounts[0];
+                sortedEpochs[i] = epochMillis[0];
+                size--;
+                siftDown(epochMillis[size], amounts[size], size);
+            }
+            return new TopValuesSnapshot(sortedAmounts, sortedEpochs);
+        }
+
+        private void siftDown(long epoch, long amount, int length) {
+            int i = 0;
+            int child;
+            while ((child = 2 * i + 1) < length) {
+                if (child + 1 < length && amounts[child + 1] < amounts[child]) {
+                    child++;
+                }
+                if (amount <= amounts[child]) {
+                    break;
+                }
+                amounts[i] = amounts[child];
+                epochMillis[i] = epochMillis[child];
+                i = child;
+            }
+            if (length > 0) {
+                amounts[i] = amount;
+                epochMillis[i] = epoch;
+            }
+        }
+    }
+}
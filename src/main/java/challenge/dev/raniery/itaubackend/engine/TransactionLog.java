@@ -0,0 +1,378 @@
+package challenge.dev.raniery.itaubackend.engine;
+
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only log of accepted transactions, stored in fixed-size chunks. Writers draw a ticket and
+ * publish strictly in ticket order, so the published cursor always covers a gap-free prefix of the
+ * log: a reader that loads the cursor once sees exactly the writes that completed before that load,
+ * never a partial one, and never blocks a writer. Each chunk carries a summary maintained by the
+ * writer holding the turn, so sealed chunks are aggregated without touching their rows. Readers load
+ * the head before reading the clock, so a chunk reclaimed concurrently has already expired for them.
+ * Rows are stored column-wise as parallel {@code long[]} arrays of epoch millis and scaled amounts,
+ * so the chunks straddling the window edge are scanned by a {@link RowScanner} over primitives only.
+ * With compression on, the writer that fills a chunk replaces its columns with a
+ * {@link CompressedRows} encoding before publishing the last row; the summary still lets whole
+ * chunks be counted or skipped without decoding them. In arrival order only the chunk at the window
+ * edge needs its rows, so one decoded chunk is kept until it is reclaimed and scanned like an open
+ * one; any other straddling chunk is decoded on the fly.
+ * <p>
+ * Timestamps are only roughly ordered, so a chunk cannot be found by its own time range. Instead each
+ * sealed chunk records its ceiling, the largest timestamp of that chunk and every chunk before it,
+ * which never decreases along the log. The index maps each ceiling to the earliest retained chunk
+ * that reached it, so the first chunk that may hold rows after a given instant is one
+ * {@code higherEntry} away and every chunk before it is skipped without being visited. Reclaim points
+ * the head's ceiling at the head before dropping the entries of the chunks it passed.
+ */
+public final class TransactionLog {
+
+    static final int CHUNK_SHIFT = 12;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int SPINS_BEFORE_YIELD = Runtime.getRuntime().availableProcessors() > 1 ? 64 : 0;
+    private static final long ARRAY_HEADER_BYTES = 16;
+    private static final long RAW_CHUNK_BYTES = 2 * (ARRAY_HEADER_BYTES + (long) CHUNK_SIZE * Long.BYTES);
+
+    private final AtomicLong tickets = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicBoolean reclaiming = new AtomicBoolean();
+    private final ConcurrentSkipListMap<Long, Chunk> sealed = new ConcurrentSkipListMap<>();
+
+    private final RowScanner scanner;
+    private final boolean compressSealed;
+
+    private volatile Chunk head;
+    private Chunk tail;
+    private long ceilingEpochMillis = Long.MIN_VALUE;
+    private volatile DecodedChunk decoded;
+
+    public TransactionLog() {
+        this(RowScanner.preferred());
+    }
+
+    public TransactionLog(RowScanner scanner) {
+        this(scanner, false);
+    }
+
+    public TransactionLog(RowScanner scanner, boolean compressSealed) {
+        this.scanner = scanner;
+        this.compressSealed = compressSealed;
+        this.head = new Chunk(0, compressSealed);
+        this.tail = head;
+    }
+
+    public long append(long epochMillis, long amount) {
+        long index = tickets.getAndIncrement();
+        awaitTurn(index);
+
+        write(index, epochMillis, amount);
+
+        published.set(index + 1);
+        return index;
+    }
+
+    public long appendBatch(long[] epochMillis, long[] amounts, int offset, int length) {
+        long first = tickets.getAndAdd(length);
+        awaitTurn(first);
+
+        for (int i = 0; i < length; i++) {
+            write(first + i, epochMillis[offset + i], amounts[offset + i]);
+        }
+
+        published.set(first + length);
+        return first;
+    }
+
+    public long cursor() {
+        return published.get();
+    }
+
+    public long retained() {
+        return published.get() - head.base;
+    }
+
+    /**
+     * Estimated bytes held by the retained chunks: the two columns of each open chunk, or the
+     * encoding of each compressed one.
+     */
+    public long retainedBytes() {
+        long bytes = 0;
+        for (Chunk chunk = head; chunk != null; chunk = chunk.next) {
+            bytes += chunk.bytes();
+        }
+        return decoded == null ? bytes : bytes + RAW_CHUNK_BYTES;
+    }
+
+    public StatisticSnapshot snapshot(Clock clock, long windowMillis) {
+        return snapshot(clock, windowMillis, ParallelAggregator.serial());
+    }
+
+    public StatisticSnapshot snapshot(Clock clock, long windowMillis, ParallelAggregator aggregator) {
+        Chunk first = head;
+        long cursor = published.get();
+        long windowStart = clock.millis() - windowMillis;
+        Chunk from = seek(first, windowStart);
+
+        WindowAccumulator accumulator;
+        if (aggregator.shouldSplit(cursor - from.base)) {
+            accumulator = aggregator.aggregate(this, chunksBelow(from, cursor), cursor, windowStart);
+        } else {
+            accumulator = new WindowAccumulator();
+            for (Chunk chunk = from; chunk != null && chunk.base < cursor; chunk = chunk.next) {
+                accumulate(chunk, cursor, windowStart, accumulator);
+            }
+        }
+
+        return accumulator.toSnapshot(cursor, windowMillis);
+    }
+
+    /**
+     * The window {@code (asOfMillis - windowMillis, asOfMillis]} over the retained rows, as
+     * {@code /estatistica} would have computed it at that instant from the rows known now.
+     */
+    public StatisticSnapshot snapshotAsOf(long asOfMillis, long windowMillis) {
+        Chunk first = head;
+        long cursor = published.get();
+        long windowStart = asOfMillis - windowMillis;
+
+        WindowAccumulator accumulator = new WindowAccumulator();
+        for (Chunk chunk = seek(first, windowStart); chunk != null && chunk.base < cursor; chunk = chunk.next) {
+            accumulateBetween(chunk, cursor, windowStart, asOfMillis, accumulator);
+        }
+        return accumulator.toSnapshot(cursor, windowMillis);
+    }
+
+    /**
+     * First retained chunk that may hold a row after {@code windowStart}: every chunk before the one
+     * that first raised the ceiling past it has only older rows.
+     */
+    private Chunk seek(Chunk first, long windowStart) {
+        Map.Entry<Long, Chunk> entry = sealed.higherEntry(windowStart);
+        if (entry == null) {
+            entry = sealed.lastEntry();
+        }
+        if (entry == null || entry.getValue().base < first.base) {
+            return first;
+        }
+        return entry.getValue();
+    }
+
+    void accumulate(Chunk chunk, long cursor, long windowStart, WindowAccumulator accumulator) {
+        int rows = (int) Math.min(cursor - chunk.base, CHUNK_SIZE);
+        if (rows == CHUNK_SIZE) {
+            if (chunk.maxEpochMillis <= windowStart) {
+                return;
+            }
+            if (chunk.minEpochMillis > windowStart) {
+                accumulator.addSummary(CHUNK_SIZE, chunk.sum, chunk.min, chunk.max, chunk.minEpochMillis);
+                return;
+            }
+        }
+
+        long[] epochColumn = chunk.epochMillis;
+        long[] amountColumn = chunk.amounts;
+        if (epochColumn == null || amountColumn == null) {
+            DecodedChunk edge = decodedEdge(chunk, windowStart);
+            if (edge == null) {
+                CompressedRows.accumulate(chunk.encoded, rows, windowStart, accumulator);
+                return;
+            }
+            epochColumn = edge.epochMillis;
+            amountColumn = edge.amounts;
+        }
+        scanner.accumulate(epochColumn, amountColumn, 0, rows, windowStart, accumulator);
+    }
+
+    private void accumulateBetween(Chunk chunk, long cursor, long windowStart, long windowEnd, WindowAccumulator accumulator) {
+        int rows = (int) Math.min(cursor - chunk.base, CHUNK_SIZE);
+        if (rows == CHUNK_SIZE) {
+            if (chunk.maxEpochMillis <= windowStart || chunk.minEpochMillis > windowEnd) {
+                return;
+            }
+            if (chunk.minEpochMillis > windowStart && chunk.maxEpochMillis <= windowEnd) {
+                accumulator.addSummary(CHUNK_SIZE, chunk.sum, chunk.min, chunk.max, chunk.minEpochMillis);
+                return;
+            }
+        }
+
+        long[] epochColumn = chunk.epochMillis;
+        long[] amountColumn = chunk.amounts;
+        if (epochColumn == null || amountColumn == null) {
+            epochColumn = new long[CHUNK_SIZE];
+            amountColumn = new long[CHUNK_SIZE];
+            CompressedRows.decode(chunk.encoded, rows, epochColumn, amountColumn);
+        }
+        for (int i = 0; i < rows; i++) {
+            long epoch = epochColumn[i];
+            if (epoch > windowStart && epoch <= windowEnd) {
+                accumulator.addRow(epoch, amountColumn[i]);
+            }
+        }
+    }
+
+    /**
+     * Decoded columns of a compressed chunk, or {@code null} while the slot still serves another
+     * chunk at the window edge. Racing readers may both decode the same chunk; their copies are
+     * identical.
+     */
+    private DecodedChunk decodedEdge(Chunk chunk, long windowStart) {
+        DecodedChunk edge = decoded;
+        if (edge != null && edge.chunk == chunk) {
+            return edge;
+        }
+        if (edge != null && edge.chunk.base >= head.base && edge.chunk.maxEpochMillis > windowStart) {
+            return null;
+        }
+        edge = new DecodedChunk(chunk, new long[CHUNK_SIZE], new long[CHUNK_SIZE]);
+        CompressedRows.decode(chunk.encoded, CHUNK_SIZE, edge.epochMillis, edge.amounts);
+        decoded = edge;
+        return edge;
+    }
+
+    public void reclaimExpired(long windowStart) {
+        if (!reclaiming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long cursor = published.get();
+            Chunk reclaimed = head;
+            Chunk chunk = reclaimed;
+            while (chunk.base + CHUNK_SIZE <= cursor && chunk.next != null && chunk.maxEpochMillis <= windowStart) {
+                chunk = chunk.next;
+            }
+            if (chunk == reclaimed) {
+                return;
+            }
+            head = chunk;
+            long ceiling = chunk.ceilingEpochMillis;
+            if (ceiling != Long.MIN_VALUE) {
+                sealed.put(ceiling, chunk);
+            }
+            for (; reclaimed != chunk; reclaimed = reclaimed.next) {
+                sealed.remove(reclaimed.ceilingEpochMillis, reclaimed);
+            }
+        } finally {
+            reclaiming.set(false);
+        }
+    }
+
+    /**
+     * Writes one row under the turn; the row that fills a chunk also indexes it. An entry still held
+     * by a reclaimed chunk is taken over, in case reclaim read the ceiling before it was set.
+     */
+    private void write(long index, long epochMillis, long amount) {
+        Chunk chunk = chunkFor(index);
+        int offset = (int) (index & CHUNK_MASK);
+        chunk.write(offset, epochMillis, amount);
+        if (offset == CHUNK_MASK) {
+            ceilingEpochMillis = Math.max(ceilingEpochMillis, chunk.maxEpochMillis);
+            chunk.ceilingEpochMillis = ceilingEpochMillis;
+            sealed.compute(ceilingEpochMillis, (ceiling, indexed) -> indexed == null || indexed.base < head.base ? chunk : indexed);
+        }
+    }
+
+    private Chunk chunkFor(long index) {
+        Chunk chunk = tail;
+        if ((index & CHUNK_MASK) == 0 && index != 0) {
+            Chunk next = new Chunk(index, compressSealed);
+            chunk.next = next;
+            tail = next;
+            chunk = next;
+        }
+        return chunk;
+    }
+
+    private static Chunk[] chunksBelow(Chunk first, long cursor) {
+        Chunk[] chunks = new Chunk[(int) ((cursor - first.base + CHUNK_SIZE - 1) >> CHUNK_SHIFT)];
+        Chunk chunk = first;
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = chunk;
+            chunk = chunk.next;
+        }
+        return chunks;
+    }
+
+    Chunk head() {
+        return head;
+    }
+
+    private void awaitTurn(long index) {
+        int spins = 0;
+        while (published.get() != index) {
+            if (++spins < SPINS_BEFORE_YIELD) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    static final class Chunk {
+
+        final long base;
+        private final boolean compress;
+        private volatile long[] epochMillis = new long[CHUNK_SIZE];
+        private volatile long[] amounts = new long[CHUNK_SIZE];
+        private volatile byte[] encoded;
+        volatile Chunk next;
+
+        double sum;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        long minEpochMillis = Long.MAX_VALUE;
+        long maxEpochMillis = Long.MIN_VALUE;
+        volatile long ceilingEpochMillis = Long.MIN_VALUE;
+
+        Chunk(long base, boolean compress) {
+            this.base = base;
+            this.compress = compress;
+        }
+
+        void write(int offset, long epoch, long amount) {
+            epochMillis[offset] = epoch;
+            amounts[offset] = amount;
+            sum += amount;
+            min = Math.min(min, amount);
+            max = Math.max(max, amount);
+            minEpochMillis = Math.min(minEpochMillis, epoch);
+            maxEpochMillis = Math.max(maxEpochMillis, epoch);
+            if (compress && offset == CHUNK_MASK) {
+                seal();
+            }
+        }
+
+        /**
+         * Swaps the columns for their encoding. The encoding is published first, so a reader that
+         * finds a column already dropped is guaranteed to see it.
+         */
+        private void seal() {
+            encoded = CompressedRows.encode(epochMillis, amounts, CHUNK_SIZE);
+            epochMillis = null;
+            amounts = null;
+        }
+
+        long[] amountColumn() {
+            long[] amountColumn = amounts;
+            if (amountColumn != null) {
+                return amountColumn;
+            }
+            long[] decoded = new long[CHUNK_SIZE];
+            CompressedRows.decode(encoded, CHUNK_SIZE, new long[CHUNK_SIZE], decoded);
+            return decoded;
+        }
+
+        long bytes() {
+            byte[] encoding = encoded;
+            return encoding == null ? RAW_CHUNK_BYTES : ARRAY_HEADER_BYTES + encoding.length;
+        }
+    }
+
+    private record DecodedChunk(Chunk chunk, long[] epochMillis, long[] amounts) {
+    }
+}
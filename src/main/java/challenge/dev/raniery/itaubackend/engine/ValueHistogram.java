@@ -0,0 +1,86 @@
+package challenge.dev.raniery.itaubackend.engine;
+
+import challenge.dev.raniery.itaubackend.model.HistogramSnapshot;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Distribution of amounts in the window for {@code GET /estatistica/histograma}. Each time bucket
+ * holds one fixed-size counter array indexed by value range, so a write is a binary search over the
+ * range bounds plus one atomic increment, and a read merges a few small arrays. A slot is recycled
+ * by swapping in a fresh counter array for the new interval, so a writer racing the turnover still
+ * increments the retired array instead of leaking a stale row into the new one. Like the per-account
+ * windows, a time bucket counts while it overlaps the window.
+ */
+public final class ValueHistogram {
+
+    private final long windowMillis;
+    private final long bucketMillis;
+    private final long[] upperBounds;
+    private final AtomicReferenceArray<Slot> slots;
+
+    public ValueHistogram(long windowMillis, long bucketMillis, long[] upperBounds) {
+        this(windowMillis, bucketMillis, upperBounds, 0);
+    }
+
+    /**
+     * Keeps slots for rows up to {@code aheadMillis} past the clock as well, so they do not recycle
+     * the slot of the oldest bucket in the window.
+     */
+    public ValueHistogram(long windowMillis, long bucketMillis, long[] upperBounds, long aheadMillis) {
+        for (int i = 0; i < upperBounds.length; i++) {
+            if (upperBounds[i] <= 0 || (i > 0 && upperBounds[i] <= upperBounds[i - 1])) {
+                throw new IllegalArgumentException("Os limites do histograma devem ser positivos e crescentes: " + Arrays.toString(upperBounds));
+            }
+        }
+        this.windowMillis = windowMillis;
+        this.bucketMillis = bucketMillis;
+        this.upperBounds = upperBounds.clone();
+        this.slots = new AtomicReferenceArray<>((int) ((windowMillis + aheadMillis + bucketMillis - 1) / bucketMillis) + 1);
+    }
+
+    public void record(long epochMillis, long amount) {
+        long bucketId = Math.floorDiv(epochMillis, bucketMillis);
+        int index = (int) Math.floorMod(bucketId, (long) slots.length());
+        Slot slot = slots.get(index);
+        while (slot == null || slot.id < bucketId) {
+            Slot fresh = new Slot(bucketId, new AtomicLongArray(upperBounds.length + 1));
+            if (slots.compareAndSet(index, slot, fresh)) {
+                slot = fresh;
+                break;
+            }
+            slot = slots.get(index);
+        }
+        if (slot.id == bucketId) {
+            slot.counts.getAndIncrement(rangeOf(amount));
+        }
+    }
+
+    public HistogramSnapshot snapshot(long nowMillis) {
+        long windowStart = nowMillis - windowMillis;
+        long[] counts = new long[upperBounds.length + 1];
+        for (int i = 0; i < slots.length(); i++) {
+            Slot slot = slots.get(i);
+            if (slot == null) {
+                continue;
+            }
+            long bucketStart = slot.id * bucketMillis;
+            if (bucketStart + bucketMillis > windowStart && bucketStart <= nowMillis) {
+                for (int range = 0; range < counts.length; range++) {
+                    counts[range] += slot.counts.get(range);
+                }
+            }
+        }
+        return new HistogramSnapshot(upperBounds, counts);
+    }
+
+    int rangeOf(long amount) {
+        int found = Arrays.binarySearch(upperBounds, amount);
+        return found >= 0 ? found + 1 : -found - 1;
+    }
+
+    private record Slot(long id, AtomicLongArray counts) {
+    }
+}
@@ -0,0 +1,47 @@
+package challenge.dev.raniery.itaubackend.engine;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+final class VectorRowScan {
+
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLES = VectorSpecies.of(double.class, LONGS.vectorShape());
+
+    private VectorRowScan() {
+    }
+
+    static void accumulate(long[] epochMillis, long[] amounts, int from, int to, long windowStart, WindowAccumulator accumulator) {
+        int bound = from + LONGS.loopBound(to - from);
+        long count = 0;
+        DoubleVector sums = DoubleVector.zero(DOUBLES);
+        LongVector mins = LongVector.broadcast(LONGS, Long.MAX_VALUE);
+        LongVector maxes = LongVector.broadcast(LONGS, Long.MIN_VALUE);
+        LongVector oldest = LongVector.broadcast(LONGS, Long.MAX_VALUE);
+
+        int i = from;
+        for (; i < bound; i += LONGS.length()) {
+            LongVector epochs = LongVector.fromArray(LONGS, epochMillis, i);
+            VectorMask<Long> live = epochs.compare(VectorOperators.GT, windowStart);
+            if (!live.anyTrue()) {
+                continue;
+            }
+            LongVector values = LongVector.fromArray(LONGS, amounts, i);
+            count += live.trueCount();
+            sums = sums.add((DoubleVector) values.convertShape(VectorOperators.L2D, DOUBLES, 0), live.cast(DOUBLES));
+            mins = mins.lanewise(VectorOperators.MIN, values, live);
+            maxes = maxes.lanewise(VectorOperators.MAX, values, live);
+            oldest = oldest.lanewise(VectorOperators.MIN, epochs, live);
+        }
+        if (count > 0) {
+            accumulator.addSummary(count, sums.reduceLanes(VectorOperators.ADD),
+                mins.reduceLanes(VectorOperators.MIN), maxes.reduceLanes(VectorOperators.MAX),
+                oldest.reduceLanes(VectorOperators.MIN));
+        }
+
+        RowScanner.SCALAR.accumulate(epochMillis, amounts, i, to, windowStart, accumulator);
+    }
+}
@@ -0,0 +1,42 @@
+package challenge.dev.raniery.itaubackend.engine;
+
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+
+final class WindowAccumulator {
+
+    private long count;
+    private double sum;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+    private long oldestEpochMillis = Long.MAX_VALUE;
+
+    void addRow(long epochMillis, long amount) {
+        count++;
+        sum += amount;
+        min = Math.min(min, amount);
+        max = Math.max(max, amount);
+        oldestEpochMillis = Math.min(oldestEpochMillis, epochMillis);
+    }
+
+    void addSummary(long rows, double rowsSum, long rowsMin, long rowsMax, long rowsOldestEpochMillis) {
+        count += rows;
+        sum += rowsSum;
+        min = Math.min(min, rowsMin);
+        max = Math.max(max, rowsMax);
+        oldestEpochMillis = Math.min(oldestEpochMillis, rowsOldestEpochMillis);
+    }
+
+    WindowAccumulator merge(WindowAccumulator other) {
+        addSummary(other.count, other.sum, other.min, other.max, other.oldestEpochMillis);
+        return this;
+    }
+
+    StatisticSnapshot toSnapshot(long version, long windowMillis) {
+        return toSnapshot(version, windowMillis, false);
+    }
+
+    StatisticSnapshot toSnapshot(long version, long windowMillis, boolean approximate) {
+        long validUntil = count == 0 ? Long.MAX_VALUE : oldestEpochMillis + windowMillis;
+        return new StatisticSnapshot(count, Amounts.toValor(sum), Amounts.toValor(min), Amounts.toValor(max), version, validUntil, approximate);
+    }
+}
@@ -0,0 +1,145 @@
+package challenge.dev.raniery.itaubackend.idempotency;
+
+import challenge.dev.raniery.itaubackend.config.IdempotencyProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exact duplicate detection over a sliding retention window. Each key maps to the time slice
+ * in which it was first seen, and is also queued on that slice; once a slice falls out of the
+ * window its queue is drained and its keys removed. Lookups are a single
+ * {@link ConcurrentHashMap#putIfAbsent}, so there is no global lock on the hot path, and the
+ * number of retained keys is capped by {@code maxKeys}.
+ */
+@Component
+public class IdempotencyRegistry implements MeterBinder {
+
+    private final IdempotencyProperties properties;
+    private final Clock clock;
+    private final long sliceMillis;
+    private final long retentionSlices;
+    private final Queue<String>[] slices;
+
+    private final ConcurrentHashMap<String, Long> keys = new ConcurrentHashMap<>();
+    private final AtomicLong expiredThrough;
+    private final AtomicBoolean expiring = new AtomicBoolean();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder untracked = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public IdempotencyRegistry(IdempotencyProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.sliceMillis = Math.max(1, properties.slice().toMillis());
+        this.retentionSlices = Math.max(1, Math.ceilDiv(properties.retention().toMillis(), sliceMillis));
+        this.slices = new Queue[(int) retentionSlices + 2];
+        for (int i = 0; i < slices.length; i++) {
+            slices[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.expiredThrough = new AtomicLong(clock.millis() / sliceMillis - retentionSlices - 1);
+    }
+
+    public boolean register(String key) {
+        if (!properties.enabled()) {
+            return true;
+        }
+
+        long slice = clock.millis() / sliceMillis;
+        expire(slice);
+
+        while (true) {
+            Long seenAt = keys.get(key);
+            if (seenAt == null) {
+                if (keys.mappingCount() >= properties.maxKeys()) {
+                    untracked.increment();
+                    return true;
+                }
+                if (keys.putIfAbsent(key, slice) == null) {
+                    slices[slot(slice)].add(key);
+                    return true;
+                }
+            } else if (seenAt < slice - retentionSlices) {
+                if (keys.replace(key, seenAt, slice)) {
+                    slices[slot(slice)].add(key);
+                    return true;
+                }
+            } else {
+                duplicates.increment();
+                return false;
+            }
+        }
+    }
+
+    public void forget(String key) {
+        if (properties.enabled()) {
+            keys.remove(key);
+        }
+    }
+
+    public long getDuplicateCount() {
+        return duplicates.sum();
+    }
+
+    public long getRetainedKeyCount() {
+        return keys.mappingCount();
+    }
+
+    private void expire(long currentSlice) {
+        long through = currentSlice - retentionSlices - 1;
+        long done = expiredThrough.get();
+        if (done >= through || !expiring.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            done = expiredThrough.get();
+            for (long slice = Math.max(done + 1, through - slices.length + 1); slice <= through; slice++) {
+                drain(slot(slice), through);
+            }
+            expiredThrough.set(Math.max(done, through));
+        } finally {
+            expiring.set(false);
+        }
+    }
+
+    private void drain(int slot, long through) {
+        Iterator<String> iterator = slices[slot].iterator();
+        while (iterator.hasNext()) {
+            String key = iterator.next();
+            Long seenAt = keys.get(key);
+            if (seenAt != null && seenAt <= through) {
+                keys.remove(key, seenAt);
+                iterator.remove();
+            } else if (seenAt == null || slot(seenAt) != slot) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private int slot(long slice) {
+        return (int) Math.floorMod(slice, (long) slices.length);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("transactions.duplicates", duplicates, LongAdder::sum)
+            .description("Transactions ignored because their idempotency key was already seen")
+            .register(registry);
+        FunctionCounter.builder("idempotency.untracked", untracked, LongAdder::sum)
+            .description("Idempotency keys accepted without tracking because the key budget was full")
+            .register(registry);
+        Gauge.builder("idempotency.keys", keys, ConcurrentHashMap::mappingCount)
+            .register(registry);
+    }
+}
@@ -0,0 +1,46 @@
+package challenge.dev.raniery.itaubackend.ingestion;
+
+import challenge.dev.raniery.itaubackend.engine.AccountWindows;
+import challenge.dev.raniery.itaubackend.service.TransactionalService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+@Component
+public class AccountMetrics implements MeterBinder {
+
+    private final TransactionalService transactionalService;
+
+    public AccountMetrics(TransactionalService transactionalService) {
+        this.transactionalService = transactionalService;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        gauge(registry, "accounts.active", "Accounts with a window since the last reset", AccountWindows::size);
+        gauge(registry, "accounts.evicted", "Idle accounts evicted by the memory budget since the last reset", AccountWindows::evictions);
+        gauge(registry, "accounts.max", "Accounts that fit in itau.accounts.memory-budget", AccountWindows::maxKeys);
+        Gauge.builder("accounts.bytes-per-key", this, metrics -> read(metrics, AccountWindows::bytesPerKey))
+            .description("Estimated memory held by each active account window")
+            .baseUnit("bytes")
+            .register(registry);
+        Gauge.builder("accounts.memory", this, metrics -> read(metrics, windows -> (double) windows.size() * windows.bytesPerKey()))
+            .description("Estimated memory held by all active account windows")
+            .baseUnit("bytes")
+            .register(registry);
+    }
+
+    private void gauge(MeterRegistry registry, String name, String description, ToDoubleFunction<AccountWindows> value) {
+        Gauge.builder(name, this, metrics -> read(metrics, value))
+            .description(description)
+            .register(registry);
+    }
+
+    private static double read(AccountMetrics metrics, ToDoubleFunction<AccountWindows> value) {
+        AccountWindows windows = metrics.transactionalService.getAccountWindows();
+        return windows == null ? 0 : value.applyAsDouble(windows);
+    }
+}
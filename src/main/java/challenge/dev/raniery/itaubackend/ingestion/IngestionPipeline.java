@@ -0,0 +1,168 @@
+package challenge.dev.raniery.itaubackend.ingestion;
+
+import challenge.dev.raniery.itaubackend.aspect.LoggingAspect;
+import challenge.dev.raniery.itaubackend.config.IngestionProperties;
+import challenge.dev.raniery.itaubackend.engine.IngestionRing;
+import challenge.dev.raniery.itaubackend.model.Transaction;
+import challenge.dev.raniery.itaubackend.replication.Replication;
+import challenge.dev.raniery.itaubackend.service.TransactionalService;
+import challenge.dev.raniery.itaubackend.service.TransactionalService.Generation;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class IngestionPipeline implements SmartLifecycle, MeterBinder {
+
+    private final IngestionProperties properties;
+    private final TransactionalService transactionalService;
+    private final Replication replication;
+    private final IngestionRing ring;
+    private final long offerTimeoutNanos;
+    private final long applyTimeoutNanos;
+    private final LongAdder ringFull = new LongAdder();
+
+    public IngestionPipeline(IngestionProperties properties, TransactionalService transactionalService, Replication replication) {
+        this.properties = properties;
+        this.transactionalService = LoggingAspect.unadvised(transactionalService);
+        this.replication = replication;
+        this.ring = properties.mode() == IngestionProperties.Mode.RING
+            ? new IngestionRing(properties.ringSize(), properties.maxBatch())
+            : null;
+        this.offerTimeoutNanos = properties.offerTimeout().toNanos();
+        this.applyTimeoutNanos = properties.applyTimeout().toNanos();
+    }
+
+    public IntakeOutcome submit(Transaction transaction) {
+        return submit(transaction, null);
+    }
+
+    public IntakeOutcome submit(Transaction transaction, String chave) {
+        return submit(transaction.getEpochMillis(), transaction.getScaledValor(), transaction.getConta(), chave);
+    }
+
+    public IntakeOutcome submit(long epochMillis, long amount, String conta) {
+        return submit(epochMillis, amount, conta, null);
+    }
+
+    public IntakeOutcome submit(long epochMillis, long amount, String conta, String chave) {
+        if (!replication.acceptsWrites()) {
+            return IntakeOutcome.SERVICE_UNAVAILABLE;
+        }
+        Generation generation = transactionalService.currentGeneration();
+        if (transactionalService.deferIfFuture(generation, epochMillis, amount)) {
+            transactionalService.indexTransaction(generation, epochMillis, amount, conta);
+            replication.publish(generation.id(), epochMillis, amount, conta, chave);
+            return IntakeOutcome.ACCEPTED;
+        }
+        if (ring == null) {
+            transactionalService.addTransaction(generation, epochMillis, amount);
+            transactionalService.indexTransaction(generation, epochMillis, amount, conta);
+            replication.publish(generation.id(), epochMillis, amount, conta, chave);
+            return IntakeOutcome.CREATED;
+        }
+
+        long sequence = ring.offer(generation.log(), epochMillis, amount, offerTimeoutNanos);
+        if (sequence < 0) {
+            ringFull.increment();
+            return IntakeOutcome.SERVICE_UNAVAILABLE;
+        }
+        transactionalService.indexTransaction(generation, epochMillis, amount, conta);
+        replication.publish(generation.id(), epochMillis, amount, conta, chave);
+        if (properties.ack() == IngestionProperties.Ack.ENQUEUE || ring.awaitApplied(sequence, applyTimeoutNanos)) {
+            return IntakeOutcome.CREATED;
+        }
+        return IntakeOutcome.ACCEPTED;
+    }
+
+    /**
+     * Ingests the first {@code length} rows and returns how many were taken, always a prefix: in ring
+     * mode the batch stops at the first row the ring refuses, and the rest count as unavailable. A
+     * direct batch is appended under one ticket; a ring batch waits only for its last row. A standby
+     * takes none.
+     */
+    int submitBatch(long[] epochMillis, long[] amounts, String[] contas, String[] chaves, int length, LoteOutcome outcome) {
+        if (length == 0) {
+            return 0;
+        }
+        if (!replication.acceptsWrites()) {
+            outcome.count(IntakeOutcome.SERVICE_UNAVAILABLE, length);
+            return 0;
+        }
+        Generation generation = transactionalService.currentGeneration();
+        if (ring == null) {
+            int deferred = transactionalService.addBatch(generation, epochMillis, amounts, length);
+            transactionalService.indexBatch(generation, epochMillis, amounts, contas, length);
+            replication.publishBatch(generation.id(), epochMillis, amounts, contas, chaves, length);
+            outcome.count(IntakeOutcome.CREATED, length - deferred);
+            outcome.count(IntakeOutcome.ACCEPTED, deferred);
+            return length;
+        }
+
+        int deferred = 0;
+        int offered = 0;
+        long lastSequence = -1;
+        for (int i = 0; i < length; i++) {
+            if (transactionalService.deferIfFuture(generation, epochMillis[i], amounts[i])) {
+                deferred++;
+            } else {
+                long sequence = ring.offer(generation.log(), epochMillis[i], amounts[i], offerTimeoutNanos);
+                if (sequence < 0) {
+                    ringFull.increment();
+                    outcome.count(IntakeOutcome.SERVICE_UNAVAILABLE, length - i);
+                    length = i;
+                    break;
+                }
+                lastSequence = sequence;
+                offered++;
+            }
+        }
+        transactionalService.indexBatch(generation, epochMillis, amounts, contas, length);
+        replication.publishBatch(generation.id(), epochMillis, amounts, contas, chaves, length);
+        outcome.count(IntakeOutcome.ACCEPTED, deferred);
+        boolean applied = lastSequence < 0 || properties.ack() == IngestionProperties.Ack.ENQUEUE
+            || ring.awaitApplied(lastSequence, applyTimeoutNanos);
+        outcome.count(applied ? IntakeOutcome.CREATED : IntakeOutcome.ACCEPTED, offered);
+        return length;
+    }
+
+    @Override
+    public void start() {
+        if (ring != null) {
+            ring.start("transaction-applier");
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (ring != null) {
+            ring.stop();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return ring != null && ring.isRunning();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ingestion.deferred", transactionalService, TransactionalService::getDeferredCount)
+            .description("Future-dated transactions waiting for their timestamp")
+            .register(registry);
+        if (ring == null) {
+            return;
+        }
+        Gauge.builder("ingestion.ring.backlog", ring, IngestionRing::backlog)
+            .description("Transactions enqueued and not yet applied")
+            .register(registry);
+        FunctionCounter.builder("ingestion.ring.full", ringFull, LongAdder::sum)
+            .description("Transactions refused because the ingestion ring stayed full")
+            .register(registry);
+    }
+}
@@ -0,0 +1,33 @@
+package challenge.dev.raniery.itaubackend.ingestion;
+
+import challenge.dev.raniery.itaubackend.admission.AdmissionDecision;
+
+public enum IntakeOutcome {
+
+    CREATED(201),
+    DUPLICATE(200),
+    ACCEPTED(202),
+    UNPROCESSABLE(422),
+    TOO_MANY_REQUESTS(429),
+    SERVICE_UNAVAILABLE(503);
+
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final int httpStatus;
+
+    IntakeOutcome(int httpStatus) {
+        this.httpStatus = httpStatus;
+    }
+
+    public int httpStatus() {
+        return httpStatus;
+    }
+
+    public boolean isShed() {
+        return this == TOO_MANY_REQUESTS || this == SERVICE_UNAVAILABLE;
+    }
+
+    static IntakeOutcome shed(AdmissionDecision decision) {
+        return decision == AdmissionDecision.RATE_LIMITED ? TOO_MANY_REQUESTS : SERVICE_UNAVAILABLE;
+    }
+}
@@ -0,0 +1,43 @@
+package challenge.dev.raniery.itaubackend.ingestion;
+
+import challenge.dev.raniery.itaubackend.engine.TransactionLog;
+import challenge.dev.raniery.itaubackend.service.TransactionalService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LogMetrics implements MeterBinder {
+
+    private final TransactionalService transactionalService;
+
+    public LogMetrics(TransactionalService transactionalService) {
+        this.transactionalService = transactionalService;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("log.memory", transactionalService, service -> service.currentLog().retainedBytes())
+            .description("Estimated memory held by the retained chunks of the transaction log")
+            .baseUnit("bytes")
+            .register(registry);
+        Gauge.builder("log.bytes-per-transaction", transactionalService, LogMetrics::bytesPerTransaction)
+            .description("Estimated log memory per retained transaction, open chunks included")
+            .baseUnit("bytes")
+            .register(registry);
+        FunctionCounter.builder("statistics.computations", transactionalService, TransactionalService::getStatisticsComputations)
+            .description("Window statistics computed; concurrent requests sharing one count once")
+            .register(registry);
+        FunctionCounter.builder("statistics.computations.approximate", transactionalService, TransactionalService::getApproximateComputations)
+            .description("Window statistics answered from the sampled window while the log is over the threshold")
+            .register(registry);
+    }
+
+    private static double bytesPerTransaction(TransactionalService transactionalService) {
+        TransactionLog log = transactionalService.currentLog();
+        long retained = log.retained();
+        return retained == 0 ? 0 : (double) log.retainedBytes() / retained;
+    }
+}
@@ -0,0 +1,84 @@
+package challenge.dev.raniery.itaubackend.ingestion;
+
+/**
+ * Result of a {@code POST /transacao/lote}: either the whole batch was refused (shed by admission,
+ * malformed or too large) or each transaction was counted under the outcome it would have had on
+ * its own.
+ */
+public final class LoteOutcome {
+
+    private static final LoteOutcome MALFORMED = new LoteOutcome(422, null);
+    private static final LoteOutcome TOO_LARGE = new LoteOutcome(413, null);
+
+    private final int httpStatus;
+    private final IntakeOutcome shed;
+
+    private int created;
+    private int accepted;
+    private int duplicates;
+    private int rejected;
+    private int unavailable;
+
+    LoteOutcome() {
+        this(200, null);
+    }
+
+    private LoteOutcome(int httpStatus, IntakeOutcome shed) {
+        this.httpStatus = httpStatus;
+        this.shed = shed;
+    }
+
+    static LoteOutcome shed(IntakeOutcome outcome) {
+        return new LoteOutcome(outcome.httpStatus(), outcome);
+    }
+
+    static LoteOutcome malformed() {
+        return MALFORMED;
+    }
+
+    static LoteOutcome tooLarge() {
+        return TOO_LARGE;
+    }
+
+    void count(IntakeOutcome outcome, int transactions) {
+        switch (outcome) {
+            case CREATED -> created += transactions;
+            case ACCEPTED -> accepted += transactions;
+            case DUPLICATE -> duplicates += transactions;
+            case UNPROCESSABLE -> rejected += transactions;
+            case TOO_MANY_REQUESTS, SERVICE_UNAVAILABLE -> unavailable += transactions;
+        }
+    }
+
+    public int httpStatus() {
+        return httpStatus;
+    }
+
+    public boolean isShed() {
+        return shed != null;
+    }
+
+    public boolean hasBody() {
+        return httpStatus == 200;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getAccepted() {
+        return accepted;
+    }
+
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public int getUnavailable() {
+        return unavailable;
+    }
+}
@@ -0,0 +1,42 @@
+package challenge.dev.raniery.itaubackend.ingestion;
+
+import challenge.dev.raniery.itaubackend.validation.ValidationResult;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class RejectionMetrics implements MeterBinder {
+
+    private final Map<ValidationResult, LongAdder> rejections = new EnumMap<>(ValidationResult.class);
+
+    public RejectionMetrics() {
+        for (ValidationResult result : ValidationResult.values()) {
+            if (!result.isValid()) {
+                rejections.put(result, new LongAdder());
+            }
+        }
+    }
+
+    public void increment(ValidationResult result) {
+        rejections.get(result).increment();
+    }
+
+    public long count(ValidationResult result) {
+        return rejections.get(result).sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        rejections.forEach((result, counter) -> FunctionCounter.builder("transactions.rejected", counter, LongAdder::sum)
+            .description("Transactions rejected before reaching the service")
+            .tag("reason", result.name().toLowerCase(Locale.ROOT))
+            .register(registry));
+    }
+}
@@ -0,0 +1,219 @@
+package challenge.dev.raniery.itaubackend.ingestion;
+
+import challenge.dev.raniery.itaubackend.admission.AdmissionController;
+import challenge.dev.raniery.itaubackend.admission.AdmissionDecision;
+import challenge.dev.raniery.itaubackend.config.IngestionProperties;
+import challenge.dev.raniery.itaubackend.dto.TransactionRequest;
+import challenge.dev.raniery.itaubackend.idempotency.IdempotencyRegistry;
+import challenge.dev.raniery.itaubackend.model.Transaction;
+import challenge.dev.raniery.itaubackend.validation.CborPayloadReader;
+import challenge.dev.raniery.itaubackend.validation.TransactionPayloadReader;
+import challenge.dev.raniery.itaubackend.validation.TransactionValidator;
+import challenge.dev.raniery.itaubackend.validation.ValidationResult;
+import challenge.dev.raniery.itaubackend.wire.TransactionRecords;
+import challenge.dev.raniery.itaubackend.wire.WireFormat;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class TransactionIntake {
+
+    private final AdmissionController admissionController;
+    private final IdempotencyRegistry idempotencyRegistry;
+    private final TransactionPayloadReader payloadReader;
+    private final CborPayloadReader cborReader;
+    private final TransactionValidator transactionValidator;
+    private final RejectionMetrics rejectionMetrics;
+    private final IngestionPipeline ingestionPipeline;
+    private final int maxLoteSize;
+
+    public TransactionIntake(AdmissionController admissionController,
+                             IdempotencyRegistry idempotencyRegistry,
+                             TransactionPayloadReader payloadReader,
+                             CborPayloadReader cborReader,
+                             TransactionValidator transactionValidator,
+                             RejectionMetrics rejectionMetrics,
+                             IngestionPipeline ingestionPipeline,
+                             IngestionProperties ingestionProperties) {
+        this.admissionController = admissionController;
+        this.idempotencyRegistry = idempotencyRegistry;
+        this.payloadReader = payloadReader;
+        this.cborReader = cborReader;
+        this.transactionValidator = transactionValidator;
+        this.rejectionMetrics = rejectionMetrics;
+        this.ingestionPipeline = ingestionPipeline;
+        this.maxLoteSize = ingestionProperties.maxLoteSize();
+    }
+
+    public IntakeOutcome submit(byte[] body) {
+        return submit(body, WireFormat.JSON);
+    }
+
+    public IntakeOutcome submit(byte[] body, WireFormat format) {
+        AdmissionDecision decision = admissionController.tryAdmit();
+        if (!decision.isAdmitted()) {
+            return IntakeOutcome.shed(decision);
+        }
+
+        long admittedAt = System.nanoTime();
+        try {
+            return format == WireFormat.RECORDS ? acceptRecord(body) : accept(body, format);
+        } finally {
+            admissionController.release(admittedAt);
+        }
+    }
+
+    /**
+     * Admits a batch with one permit per transaction and ingests its valid transactions together;
+     * invalid or duplicate ones are counted without failing the rest. Binary records are counted from
+     * their length before admission; a JSON or CBOR batch is admitted on its first permit, parsed no
+     * further than {@code maxLoteSize} transactions, and then charged for the rest.
+     */
+    public LoteOutcome submitLote(byte[] body, WireFormat format) {
+        return format == WireFormat.RECORDS ? acceptRecords(body) : acceptLote(body, format);
+    }
+
+    private IntakeOutcome acceptRecord(byte[] body) {
+        ValidationResult result = TransactionRecords.count(body) != 1
+            ? ValidationResult.MALFORMED_PAYLOAD
+            : transactionValidator.validate(TransactionRecords.epochMillis(body, 0), TransactionRecords.amount(body, 0));
+        if (!result.isValid()) {
+            rejectionMetrics.increment(result);
+            return IntakeOutcome.UNPROCESSABLE;
+        }
+        return ingestionPipeline.submit(TransactionRecords.epochMillis(body, 0), TransactionRecords.amount(body, 0), null);
+    }
+
+    private LoteOutcome acceptRecords(byte[] body) {
+        int records = TransactionRecords.count(body);
+        if (records < 0) {
+            rejectionMetrics.increment(ValidationResult.MALFORMED_PAYLOAD);
+            return LoteOutcome.malformed();
+        }
+        if (records > maxLoteSize) {
+            return LoteOutcome.tooLarge();
+        }
+
+        int permits = Math.max(1, records);
+        AdmissionDecision decision = admissionController.tryAdmit(permits);
+        if (!decision.isAdmitted()) {
+            return LoteOutcome.shed(IntakeOutcome.shed(decision));
+        }
+
+        long admittedAt = System.nanoTime();
+        try {
+            return ingestRecords(body, records);
+        } finally {
+            admissionController.release(admittedAt, permits);
+        }
+    }
+
+    private LoteOutcome ingestRecords(byte[] body, int records) {
+        LoteOutcome outcome = new LoteOutcome();
+        long[] epochMillis = new long[records];
+        long[] amounts = new long[records];
+        int valid = 0;
+        for (int i = 0; i < records; i++) {
+            long epoch = TransactionRecords.epochMillis(body, i);
+            long amount = TransactionRecords.amount(body, i);
+            ValidationResult result = transactionValidator.validate(epoch, amount);
+            if (result.isValid()) {
+                epochMillis[valid] = epoch;
+                amounts[valid] = amount;
+                valid++;
+            } else {
+                rejectionMetrics.increment(result);
+                outcome.count(IntakeOutcome.UNPROCESSABLE, 1);
+            }
+        }
+        ingestionPipeline.submitBatch(epochMillis, amounts, null, null, valid, outcome);
+        return outcome;
+    }
+
+    private LoteOutcome acceptLote(byte[] body, WireFormat format) {
+        AdmissionDecision decision = admissionController.tryAdmit();
+        if (!decision.isAdmitted()) {
+            return LoteOutcome.shed(IntakeOutcome.shed(decision));
+        }
+
+        long admittedAt = System.nanoTime();
+        int permits = 1;
+        try {
+            List<TransactionRequest> requests = format == WireFormat.CBOR
+                ? cborReader.readBatch(body, maxLoteSize)
+                : payloadReader.readBatch(body, maxLoteSize);
+            if (requests == null) {
+                rejectionMetrics.increment(ValidationResult.MALFORMED_PAYLOAD);
+                return LoteOutcome.malformed();
+            }
+            if (requests.size() > maxLoteSize) {
+                return LoteOutcome.tooLarge();
+            }
+            if (requests.size() > permits) {
+                admissionController.charge(requests.size() - permits);
+                permits = requests.size();
+            }
+            return ingestLote(requests);
+        } finally {
+            admissionController.release(admittedAt, permits);
+        }
+    }
+
+    private LoteOutcome ingestLote(List<TransactionRequest> requests) {
+        LoteOutcome outcome = new LoteOutcome();
+        long[] epochMillis = new long[requests.size()];
+        long[] amounts = new long[requests.size()];
+        String[] contas = new String[requests.size()];
+        String[] chaves = new String[requests.size()];
+        int valid = 0;
+        for (TransactionRequest request : requests) {
+            ValidationResult result = transactionValidator.validate(request);
+            if (!result.isValid()) {
+                rejectionMetrics.increment(result);
+                outcome.count(IntakeOutcome.UNPROCESSABLE, 1);
+                continue;
+            }
+            String chaveIdempotencia = request.chaveIdempotencia();
+            if (chaveIdempotencia != null && !idempotencyRegistry.register(chaveIdempotencia)) {
+                outcome.count(IntakeOutcome.DUPLICATE, 1);
+                continue;
+            }
+            Transaction transaction = new Transaction(request.valor(), request.dataHora(), request.conta());
+            epochMillis[valid] = transaction.getEpochMillis();
+            amounts[valid] = transaction.getScaledValor();
+            contas[valid] = transaction.getConta();
+            chaves[valid] = chaveIdempotencia;
+            valid++;
+        }
+
+        int ingested = ingestionPipeline.submitBatch(epochMillis, amounts, contas, chaves, valid, outcome);
+        for (int i = ingested; i < valid; i++) {
+            if (chaves[i] != null) {
+                idempotencyRegistry.forget(chaves[i]);
+            }
+        }
+        return outcome;
+    }
+
+    private IntakeOutcome accept(byte[] body, WireFormat format) {
+        TransactionRequest request = format == WireFormat.CBOR ? cborReader.read(body) : payloadReader.read(body);
+        ValidationResult result = request == null ? ValidationResult.MALFORMED_PAYLOAD : transactionValidator.validate(request);
+
+        if (!result.isValid()) {
+            rejectionMetrics.increment(result);
+            return IntakeOutcome.UNPROCESSABLE;
+        }
+
+        String chaveIdempotencia = request.chaveIdempotencia();
+        if (chaveIdempotencia != null && !idempotencyRegistry.register(chaveIdempotencia)) {
+            return IntakeOutcome.DUPLICATE;
+        }
+
+        IntakeOutcome outcome = ingestionPipeline.submit(new Transaction(request.valor(), request.dataHora(), request.conta()), chaveIdempotencia);
+        if (outcome.isShed() && chaveIdempotencia != null) {
+            idempotencyRegistry.forget(chaveIdempotencia);
+        }
+        return outcome;
+    }
+}
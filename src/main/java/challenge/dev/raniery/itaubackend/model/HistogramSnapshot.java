@@ -0,0 +1,48 @@
+package challenge.dev.raniery.itaubackend.model;
+
+import challenge.dev.raniery.itaubackend.dto.HistogramResponse;
+
+public class HistogramSnapshot {
+
+    private final long[] upperBounds;
+    private final long[] counts;
+
+    public HistogramSnapshot(long[] upperBounds, long[] counts) {
+        this.upperBounds = upperBounds;
+        this.counts = counts;
+    }
+
+    public int ranges() {
+        return counts.length;
+    }
+
+    public long getCount(int range) {
+        return counts[range];
+    }
+
+    public long getTotal() {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Scaled lower bound of a range, inclusive; the first range starts at zero.
+     */
+    public long getLowerBound(int range) {
+        return range == 0 ? 0 : upperBounds[range - 1];
+    }
+
+    /**
+     * Scaled upper bound of a range, exclusive, or {@code -1} for the last, unbounded one.
+     */
+    public long getUpperBound(int range) {
+        return range == upperBounds.length ? -1 : upperBounds[range];
+    }
+
+    public byte[] jsonBody() {
+        return new HistogramResponse(this).toJson();
+    }
+}
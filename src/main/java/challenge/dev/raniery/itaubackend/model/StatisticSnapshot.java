@@ -0,0 +1,90 @@
+package challenge.dev.raniery.itaubackend.model;
+
+import challenge.dev.raniery.itaubackend.dto.StatisticResponse;
+import challenge.dev.raniery.itaubackend.wire.WireFormat;
+
+public class StatisticSnapshot {
+
+    private final long count;
+    private final double sum;
+    private final double min;
+    private final double max;
+    private final long version;
+    private final long validUntil;
+    private final boolean approximate;
+
+    private volatile byte[] jsonBody;
+    private volatile byte[] cborBody;
+
+    public StatisticSnapshot(long count, double sum, double min, double max, long version, long validUntil) {
+        this(count, sum, min, max, version, validUntil, false);
+    }
+
+    public StatisticSnapshot(long count, double sum, double min, double max, long version, long validUntil, boolean approximate) {
+        this.count = count;
+        this.sum = count == 0 ? 0.0 : sum;
+        this.min = count == 0 ? 0.0 : min;
+        this.max = count == 0 ? 0.0 : max;
+        this.version = version;
+        this.validUntil = validUntil;
+        this.approximate = approximate;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public double getAverage() {
+        return count == 0 ? 0.0 : sum / count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getValidUntil() {
+        return validUntil;
+    }
+
+    public boolean isApproximate() {
+        return approximate;
+    }
+
+    public boolean isValidFor(long version, long nowMillis) {
+        return this.version >= version && nowMillis < validUntil;
+    }
+
+    public byte[] jsonBody() {
+        byte[] body = jsonBody;
+        if (body == null) {
+            body = new StatisticResponse(this).toJson();
+            jsonBody = body;
+        }
+        return body;
+    }
+
+    public byte[] cborBody() {
+        byte[] body = cborBody;
+        if (body == null) {
+            body = new StatisticResponse(this).toCbor();
+            cborBody = body;
+        }
+        return body;
+    }
+
+    public byte[] body(WireFormat format) {
+        return format == WireFormat.CBOR ? cborBody() : jsonBody();
+    }
+}
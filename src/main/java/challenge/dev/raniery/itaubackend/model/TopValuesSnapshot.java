@@ -0,0 +1,37 @@
+package challenge.dev.raniery.itaubackend.model;
+
+import challenge.dev.raniery.itaubackend.dto.TopValuesResponse;
+import challenge.dev.raniery.itaubackend.engine.Amounts;
+
+public class TopValuesSnapshot {
+
+    private static final TopValuesSnapshot EMPTY = new TopValuesSnapshot(new long[0], new long[0]);
+
+    private final long[] amounts;
+    private final long[] epochMillis;
+
+    public TopValuesSnapshot(long[] amounts, long[] epochMillis) {
+        this.amounts = amounts;
+        this.epochMillis = epochMillis;
+    }
+
+    public static TopValuesSnapshot empty() {
+        return EMPTY;
+    }
+
+    public int size() {
+        return amounts.length;
+    }
+
+    public double getValor(int rank) {
+        return Amounts.toValor(amounts[rank]);
+    }
+
+    public long getEpochMillis(int rank) {
+        return epochMillis[rank];
+    }
+
+    public byte[] jsonBody() {
+        return new TopValuesResponse(this).toJson();
+    }
+}
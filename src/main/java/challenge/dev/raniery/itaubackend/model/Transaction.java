@@ -1,5 +1,7 @@
 package challenge.dev.raniery.itaubackend.model;
 
+import challenge.dev.raniery.itaubackend.engine.Amounts;
+
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
@@ -7,10 +9,20 @@ public class Transaction {
 
     private final BigDecimal valor;
     private final OffsetDateTime dataHora;
+    private final long epochMillis;
+    private final long scaledValor;
+    private final String conta;
 
     public Transaction(BigDecimal valor, OffsetDateTime dataHora) {
+        this(valor, dataHora, null);
+    }
+
+    public Transaction(BigDecimal valor, OffsetDateTime dataHora, String conta) {
         this.valor = valor;
         this.dataHora = dataHora;
+        this.epochMillis = dataHora.toEpochSecond() * 1_000L + dataHora.getNano() / 1_000_000;
+        this.scaledValor = Amounts.toScaled(valor);
+        this.conta = conta;
     }
 
     public Double getValor() {
@@ -20,4 +32,16 @@ public class Transaction {
     public OffsetDateTime getDataHora() {
         return dataHora;
     }
+
+    public long getEpochMillis() {
+        return epochMillis;
+    }
+
+    public long getScaledValor() {
+        return scaledValor;
+    }
+
+    public String getConta() {
+        return conta;
+    }
 }
@@ -0,0 +1,153 @@
+package challenge.dev.raniery.itaubackend.replication;
+
+import challenge.dev.raniery.itaubackend.aspect.LoggingAspect;
+import challenge.dev.raniery.itaubackend.config.ReplicationProperties;
+import challenge.dev.raniery.itaubackend.idempotency.IdempotencyRegistry;
+import challenge.dev.raniery.itaubackend.service.TransactionalService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+
+/**
+ * Hot-standby replication of the window. A primary streams every accepted transaction, tagged with
+ * the generation it was applied to and its idempotency key, to the standby at
+ * {@code itau.replication.host:port}; the standby applies them to its own {@link TransactionalService}
+ * and {@link IdempotencyRegistry} and refuses writes from clients until it is
+ * promoted, after which it stops listening and ingests like any instance.
+ */
+@Component
+public class Replication implements SmartLifecycle, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(Replication.class);
+
+    private final ReplicationSender sender;
+    private final ReplicationReceiver receiver;
+
+    private volatile boolean promoted;
+
+    public Replication(ReplicationProperties properties, TransactionalService transactionalService,
+                       IdempotencyRegistry idempotencyRegistry, Clock clock) {
+        TransactionalService target = LoggingAspect.unadvised(transactionalService);
+        this.sender = properties.role() == ReplicationProperties.Role.PRIMARY
+            ? new ReplicationSender(properties, target::getGeneration, clock)
+            : null;
+        this.receiver = properties.role() == ReplicationProperties.Role.STANDBY
+            ? new ReplicationReceiver(properties, target, idempotencyRegistry, clock)
+            : null;
+    }
+
+    public boolean acceptsWrites() {
+        return receiver == null || promoted;
+    }
+
+    public void publish(long generation, long epochMillis, long amount, String conta, String chave) {
+        if (sender != null) {
+            sender.publish(generation, epochMillis, amount, conta, chave);
+        }
+    }
+
+    public void publishBatch(long generation, long[] epochMillis, long[] amounts, String[] contas, String[] chaves, int length) {
+        if (sender == null) {
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            sender.publish(generation, epochMillis[i], amounts[i], contas == null ? null : contas[i], chaves == null ? null : chaves[i]);
+        }
+    }
+
+    /**
+     * Turns a standby into a writable instance. Returns {@code false} when this instance is not a
+     * standby or was already promoted.
+     */
+    public synchronized boolean promote() {
+        if (receiver == null || promoted) {
+            return false;
+        }
+        receiver.stop();
+        promoted = true;
+        logger.info("Standby promovido após aplicar {} transações replicadas", receiver.applied());
+        return true;
+    }
+
+    public boolean isConnected() {
+        return sender != null ? sender.isConnected() : receiver != null && receiver.isConnected();
+    }
+
+    public long getLag() {
+        return sender == null ? 0 : sender.lag();
+    }
+
+    public long getApplied() {
+        return receiver == null ? 0 : receiver.applied();
+    }
+
+    public int getPort() {
+        return receiver == null ? -1 : receiver.getPort();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (sender != null) {
+            sender.start();
+        }
+        if (receiver != null && !promoted) {
+            receiver.start();
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (sender != null) {
+            sender.stop();
+        }
+        if (receiver != null) {
+            receiver.stop();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return (sender != null && sender.isRunning()) || (receiver != null && receiver.isRunning());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (sender != null) {
+            Gauge.builder("replication.connected", sender, s -> s.isConnected() ? 1 : 0)
+                .description("Whether the primary is connected to its standby")
+                .register(registry);
+            Gauge.builder("replication.lag", sender, ReplicationSender::lag)
+                .description("Transactions accepted here and not yet acknowledged by the standby")
+                .register(registry);
+            Gauge.builder("replication.lag.time", sender, ReplicationSender::lagMillis)
+                .description("Age of the oldest transaction not yet acknowledged by the standby")
+                .baseUnit("milliseconds")
+                .register(registry);
+            FunctionCounter.builder("replication.replicated", sender, ReplicationSender::replicated)
+                .description("Transactions acknowledged by the standby")
+                .register(registry);
+            FunctionCounter.builder("replication.dropped", sender, ReplicationSender::dropped)
+                .description("Transactions lost to a full queue or a dropped connection")
+                .register(registry);
+        }
+        if (receiver != null) {
+            Gauge.builder("replication.connected", receiver, r -> r.isConnected() ? 1 : 0)
+                .description("Whether a primary is streaming to this standby")
+                .register(registry);
+            Gauge.builder("replication.staleness", receiver, ReplicationReceiver::stalenessMillis)
+                .description("Time since the primary sent the last frame applied here")
+                .baseUnit("milliseconds")
+                .register(registry);
+            FunctionCounter.builder("replication.applied", receiver, ReplicationReceiver::applied)
+                .description("Replicated transactions applied to this standby")
+                .register(registry);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package challenge.dev.raniery.itaubackend.replication;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Wire format between primary and standby, big-endian over one TCP connection. The primary opens
+ * with a handshake (magic, version, instance id) and then sends frames: row count, generation, frame
+ * number and the primary clock, followed by each row as epoch millis, scaled amount, then the conta and
+ * the idempotency key, each in UTF-8 behind a signed length ({@code -1} for none). A frame without rows
+ * is a heartbeat. The standby answers every applied frame with its number.
+ */
+final class ReplicationProtocol {
+
+    static final int MAGIC = 0x49544155;
+    static final byte VERSION = 2;
+    static final int MAX_ROWS = 1 << 16;
+    static final int MAX_CONTA_BYTES = 256;
+    static final int MAX_CHAVE_BYTES = 512;
+
+    private ReplicationProtocol() {
+    }
+
+    static void writeHandshake(DataOutputStream out, long instanceId) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(instanceId);
+    }
+
+    static long readHandshake(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+            throw new IOException("Handshake de replicação inválido");
+        }
+        return in.readLong();
+    }
+
+    static void writeFrame(DataOutputStream out, Frame frame) throws IOException {
+        out.writeInt(frame.rows);
+        out.writeLong(frame.generation);
+        out.writeLong(frame.number);
+        out.writeLong(frame.sentMillis);
+        for (int i = 0; i < frame.rows; i++) {
+            out.writeLong(frame.epochMillis[i]);
+            out.writeLong(frame.amounts[i]);
+            writeText(out, frame.contas[i]);
+            writeText(out, frame.chaves[i]);
+        }
+    }
+
+    /**
+     * Reads the next frame into {@code frame}, reusing its arrays.
+     */
+    static void readFrame(DataInputStream in, Frame frame) throws IOException {
+        int rows = in.readInt();
+        if (rows < 0 || rows > MAX_ROWS) {
+            throw new IOException("Quadro de replicação com " + rows + " linhas");
+        }
+        frame.ensureCapacity(rows);
+        frame.rows = rows;
+        frame.generation = in.readLong();
+        frame.number = in.readLong();
+        frame.sentMillis = in.readLong();
+        for (int i = 0; i < rows; i++) {
+            frame.epochMillis[i] = in.readLong();
+            frame.amounts[i] = in.readLong();
+            frame.contas[i] = readText(in, MAX_CONTA_BYTES, "Conta");
+            frame.chaves[i] = readText(in, MAX_CHAVE_BYTES, "Chave de idempotência");
+        }
+    }
+
+    private static void writeText(DataOutputStream out, String text) throws IOException {
+        if (text == null) {
+            out.writeShort(-1);
+        } else {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            out.writeShort(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readText(DataInputStream in, int maxBytes, String field) throws IOException {
+        int length = in.readShort();
+        if (length > maxBytes) {
+            throw new IOException(field + " replicada com " + length + " bytes");
+        }
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static final class Frame {
+
+        int rows;
+        long generation;
+        long number;
+        long sentMillis;
+        long[] epochMillis;
+        long[] amounts;
+        String[] contas;
+        String[] chaves;
+
+        Frame(int capacity) {
+            epochMillis = new long[capacity];
+            amounts = new long[capacity];
+            contas = new String[capacity];
+            chaves = new String[capacity];
+        }
+
+        void ensureCapacity(int rows) {
+            if (rows > epochMillis.length) {
+                epochMillis = new long[rows];
+                amounts = new long[rows];
+                contas = new String[rows];
+                chaves = new String[rows];
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package challenge.dev.raniery.itaubackend.replication;
+
+import challenge.dev.raniery.itaubackend.config.ReplicationProperties;
+import challenge.dev.raniery.itaubackend.idempotency.IdempotencyRegistry;
+import challenge.dev.raniery.itaubackend.replication.ReplicationProtocol.Frame;
+import challenge.dev.raniery.itaubackend.service.TransactionalService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Standby side: serves one primary connection at a time and applies each frame to the local
+ * {@link TransactionalService} as a batch, like a direct-mode ingestion. A frame of a newer
+ * generation first resets the local state, as the {@code DELETE} that produced it did on the primary;
+ * rows of an older generation had been discarded there and are skipped. Idempotency keys are
+ * registered locally for every row, skipped ones included, since the primary keeps them across a
+ * {@code DELETE}, so a client retrying against a promoted standby is still recognized. A connection
+ * from a new primary instance starts over from its first generation.
+ */
+final class ReplicationReceiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicationReceiver.class);
+
+    private final ReplicationProperties properties;
+    private final TransactionalService transactionalService;
+    private final IdempotencyRegistry idempotencyRegistry;
+    private final Clock clock;
+    private final LongAdder applied = new LongAdder();
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile long lastSentMillis = Long.MIN_VALUE;
+    private volatile ServerSocket server;
+    private volatile Socket socket;
+    private Thread thread;
+
+    private long primaryInstance;
+    private long generation = -1;
+
+    ReplicationReceiver(ReplicationProperties properties, TransactionalService transactionalService,
+                        IdempotencyRegistry idempotencyRegistry, Clock clock) {
+        this.properties = properties;
+        this.transactionalService = transactionalService;
+        this.idempotencyRegistry = idempotencyRegistry;
+        this.clock = clock;
+    }
+
+    synchronized void start() {
+        if (running) {
+            return;
+        }
+        try {
+            server = new ServerSocket();
+            server.setReuseAddress(true);
+            server.bind(new InetSocketAddress(properties.port()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir a porta de replicação " + properties.port(), e);
+        }
+        running = true;
+        thread = Thread.ofPlatform().daemon().name("replication-receiver").start(this::run);
+        logger.info("Standby aguardando replicação na porta {}", getPort());
+    }
+
+    synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        close(server);
+        close(socket);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    boolean isConnected() {
+        return connected;
+    }
+
+    int getPort() {
+        ServerSocket listening = server;
+        return listening == null ? -1 : listening.getLocalPort();
+    }
+
+    long applied() {
+        return applied.sum();
+    }
+
+    /**
+     * Time since the primary sent the last frame applied here, by the primary clock; heartbeats keep
+     * it below {@code itau.replication.heartbeat} while the primary is alive.
+     */
+    double stalenessMillis() {
+        long sent = lastSentMillis;
+        return sent == Long.MIN_VALUE ? Double.NaN : clock.millis() - sent;
+    }
+
+    private void run() {
+        while (running) {
+            try (Socket connection = server.accept()) {
+                socket = connection;
+                serve(connection);
+            } catch (IOException e) {
+                if (running) {
+                    logger.warn("Conexão de replicação encerrada: {}", e.getMessage());
+                }
+            } finally {
+                connected = false;
+                socket = null;
+            }
+        }
+    }
+
+    private void serve(Socket connection) throws IOException {
+        connection.setTcpNoDelay(true);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream(), 1 << 16));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+        long instance = ReplicationProtocol.readHandshake(in);
+        if (instance != primaryInstance) {
+            primaryInstance = instance;
+            generation = -1;
+        }
+        connected = true;
+        logger.info("Recebendo replicação de {}", connection.getRemoteSocketAddress());
+
+        Frame frame = new Frame(properties.maxBatch());
+        while (running) {
+            ReplicationProtocol.readFrame(in, frame);
+            apply(frame);
+            out.writeLong(frame.number);
+            out.flush();
+        }
+    }
+
+    private void apply(Frame frame) {
+        if (frame.generation > generation) {
+            transactionalService.clearTransactions();
+            generation = frame.generation;
+        }
+        if (frame.generation == generation && frame.rows > 0) {
+            transactionalService.addBatch(frame.epochMillis, frame.amounts, frame.rows);
+            transactionalService.indexBatch(frame.epochMillis, frame.amounts, frame.contas, frame.rows);
+            applied.add(frame.rows);
+        }
+        for (int i = 0; i < frame.rows; i++) {
+            if (frame.chaves[i] != null) {
+                idempotencyRegistry.register(frame.chaves[i]);
+            }
+        }
+        lastSentMillis = frame.sentMillis;
+    }
+
+    private static void close(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package challenge.dev.raniery.itaubackend.replication;
+
+import challenge.dev.raniery.itaubackend.config.ReplicationProperties;
+import challenge.dev.raniery.itaubackend.replication.ReplicationProtocol.Frame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.Clock;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Primary side: request threads enqueue accepted rows and a single thread drains them into frames of
+ * up to {@code max-batch} rows of one generation, writing the next frame while the acknowledgements
+ * of earlier ones are still on their way. Rows queue up while the standby is unreachable; once the
+ * queue is full, and for frames in flight when the connection drops, they are counted as dropped.
+ */
+final class ReplicationSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicationSender.class);
+
+    private final ReplicationProperties properties;
+    private final LongSupplier generation;
+    private final Clock clock;
+    private final long instanceId = ThreadLocalRandom.current().nextLong();
+    private final ArrayBlockingQueue<Row> queue;
+    private final ConcurrentLinkedQueue<InFlight> inFlight = new ConcurrentLinkedQueue<>();
+    private final AtomicLong inFlightRows = new AtomicLong();
+    private final LongAdder replicated = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile Socket socket;
+    private Thread thread;
+    private long frameEnqueuedNanos;
+
+    ReplicationSender(ReplicationProperties properties, LongSupplier generation, Clock clock) {
+        this.properties = properties;
+        this.generation = generation;
+        this.clock = clock;
+        this.queue = new ArrayBlockingQueue<>(properties.queueSize());
+    }
+
+    void publish(long rowGeneration, long epochMillis, long amount, String conta, String chave) {
+        if (!queue.offer(new Row(rowGeneration, epochMillis, amount, conta, chave, System.nanoTime()))) {
+            dropped.increment();
+        }
+    }
+
+    synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = Thread.ofPlatform().daemon().name("replication-sender").start(this::run);
+    }
+
+    synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        closeSocket();
+        thread.interrupt();
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    boolean isConnected() {
+        return connected;
+    }
+
+    long lag() {
+        return queue.size() + inFlightRows.get();
+    }
+
+    /**
+     * Age of the oldest row not yet acknowledged by the standby, or zero when it is caught up.
+     */
+    double lagMillis() {
+        long oldest = 0;
+        for (InFlight frame : inFlight) {
+            if (frame.rows > 0) {
+                oldest = frame.enqueuedNanos;
+                break;
+            }
+        }
+        if (oldest == 0) {
+            Row head = queue.peek();
+            if (head == null) {
+                return 0;
+            }
+            oldest = head.enqueuedNanos;
+        }
+        return (System.nanoTime() - oldest) / 1_000_000.0;
+    }
+
+    long replicated() {
+        return replicated.sum();
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    private void run() {
+        Frame frame = new Frame(properties.maxBatch());
+        long frameNumber = 0;
+        Row carried = null;
+        while (running) {
+            try (Socket connection = new Socket()) {
+                connection.connect(new InetSocketAddress(properties.host(), properties.port()), (int) properties.reconnectDelay().toMillis());
+                connection.setTcpNoDelay(true);
+                socket = connection;
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream(), 1 << 16));
+                DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+                ReplicationProtocol.writeHandshake(out, instanceId);
+                out.flush();
+                Thread.ofVirtual().name("replication-acks").start(() -> readAcks(in));
+                connected = true;
+                logger.info("Replicando para {}:{}", properties.host(), properties.port());
+
+                while (running) {
+                    carried = fill(frame, carried);
+                    frame.number = ++frameNumber;
+                    frame.sentMillis = clock.millis();
+                    inFlight.add(new InFlight(frame.number, frame.rows, frameEnqueuedNanos));
+                    inFlightRows.addAndGet(frame.rows);
+                    ReplicationProtocol.writeFrame(out, frame);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                if (running) {
+                    logger.warn("Standby {}:{} indisponível: {}", properties.host(), properties.port(), e.getMessage());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                connected = false;
+                socket = null;
+                discardInFlight();
+            }
+            pause();
+        }
+    }
+
+    /**
+     * Fills the frame with queued rows of one generation, waiting up to a heartbeat for the first.
+     * Returns the row that opened a new generation, to lead the next frame.
+     */
+    private Row fill(Frame frame, Row carried) throws InterruptedException {
+        Row row = carried != null ? carried : queue.poll(properties.heartbeat().toNanos(), TimeUnit.NANOSECONDS);
+        frame.rows = 0;
+        if (row == null) {
+            frame.generation = generation.getAsLong();
+            frameEnqueuedNanos = 0;
+            return null;
+        }
+        frame.generation = row.generation;
+        frameEnqueuedNanos = row.enqueuedNanos;
+        while (row != null) {
+            if (row.generation != frame.generation) {
+                return row;
+            }
+            frame.epochMillis[frame.rows] = row.epochMillis;
+            frame.amounts[frame.rows] = row.amount;
+            frame.contas[frame.rows] = row.conta;
+            frame.chaves[frame.rows] = row.chave;
+            if (++frame.rows == frame.epochMillis.length) {
+                return null;
+            }
+            row = queue.poll();
+        }
+        return null;
+    }
+
+    private void readAcks(DataInputStream in) {
+        try {
+            while (true) {
+                long acknowledged = in.readLong();
+                InFlight frame;
+                while ((frame = inFlight.peek()) != null && frame.number <= acknowledged) {
+                    if (inFlight.remove(frame)) {
+                        inFlightRows.addAndGet(-frame.rows);
+                        replicated.add(frame.rows);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            closeSocket();
+        }
+    }
+
+    private void discardInFlight() {
+        InFlight frame;
+        while ((frame = inFlight.poll()) != null) {
+            inFlightRows.addAndGet(-frame.rows);
+            dropped.add(frame.rows);
+        }
+    }
+
+    private void closeSocket() {
+        Socket connection = socket;
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void pause() {
+        if (!running) {
+            return;
+        }
+        try {
+            Thread.sleep(properties.reconnectDelay());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private record Row(long generation, long epochMillis, long amount, String conta, String chave, long enqueuedNanos) {
+    }
+
+    private record InFlight(long number, int rows, long enqueuedNanos) {
+    }
+}
@@ -0,0 +1,294 @@
+package challenge.dev.raniery.itaubackend.server;
+
+import challenge.dev.raniery.itaubackend.aspect.LoggingAspect;
+import challenge.dev.raniery.itaubackend.config.LeanServerProperties;
+import challenge.dev.raniery.itaubackend.dto.LoteResponse;
+import challenge.dev.raniery.itaubackend.engine.TopValues;
+import challenge.dev.raniery.itaubackend.ingestion.IntakeOutcome;
+import challenge.dev.raniery.itaubackend.ingestion.LoteOutcome;
+import challenge.dev.raniery.itaubackend.ingestion.TransactionIntake;
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+import challenge.dev.raniery.itaubackend.service.StatisticsWatch;
+import challenge.dev.raniery.itaubackend.service.TransactionalService;
+import challenge.dev.raniery.itaubackend.validation.TransactionValidator;
+import challenge.dev.raniery.itaubackend.wire.StatisticsEtag;
+import challenge.dev.raniery.itaubackend.wire.WireFormat;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Component
+public class LeanHttpServer implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeanHttpServer.class);
+
+    private static final String TRANSACAO = "/transacao";
+    private static final String LOTE = TRANSACAO + "/lote";
+    private static final String ESTATISTICA = "/estatistica";
+    private static final String TOP_VALUES = ESTATISTICA + "/topk";
+    private static final String HISTOGRAMA = ESTATISTICA + "/histograma";
+    private static final long NO_BODY = -1;
+
+    private final LeanServerProperties properties;
+    private final TransactionIntake transactionIntake;
+    private final TransactionalService transactionalService;
+    private final StatisticsWatch statisticsWatch;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public LeanHttpServer(LeanServerProperties properties,
+                          TransactionIntake transactionIntake,
+                          TransactionalService transactionalService,
+                          StatisticsWatch statisticsWatch) {
+        this.properties = properties;
+        this.transactionIntake = transactionIntake;
+        this.transactionalService = LoggingAspect.unadvised(transactionalService);
+        this.statisticsWatch = LoggingAspect.unadvised(statisticsWatch);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!properties.enabled() || server != null) {
+            return;
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(properties.port()), properties.backlog());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir a porta " + properties.port(), e);
+        }
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext(TRANSACAO, this::handleTransacao);
+        server.createContext(ESTATISTICA, this::handleEstatistica);
+        server.start();
+        logger.info("Servidor enxuto escutando na porta {}", getPort());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.close();
+        server = null;
+        executor = null;
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return server != null;
+    }
+
+    public synchronized int getPort() {
+        return server == null ? -1 : server.getAddress().getPort();
+    }
+
+    private void handleTransacao(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            if (LOTE.equals(path)) {
+                if ("POST".equals(exchange.getRequestMethod())) {
+                    createTransactions(exchange);
+                } else {
+                    methodNotAllowed(exchange, "POST");
+                }
+                return;
+            }
+            if (!TRANSACAO.equals(path)) {
+                exchange.sendResponseHeaders(404, NO_BODY);
+                return;
+            }
+            switch (exchange.getRequestMethod()) {
+                case "POST" -> createTransaction(exchange);
+                case "DELETE" -> {
+                    transactionalService.clearTransactions();
+                    exchange.sendResponseHeaders(200, NO_BODY);
+                }
+                default -> methodNotAllowed(exchange, "POST, DELETE");
+            }
+        }
+    }
+
+    private void createTransaction(HttpExchange exchange) throws IOException {
+        WireFormat format = WireFormat.fromContentType(exchange.getRequestHeaders().getFirst("Content-Type"));
+        if (format == null) {
+            exchange.sendResponseHeaders(415, NO_BODY);
+            return;
+        }
+
+        IntakeOutcome outcome = transactionIntake.submit(readBody(exchange), format);
+        if (outcome.isShed()) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+        } else if (outcome == IntakeOutcome.DUPLICATE) {
+            exchange.getResponseHeaders().set(IntakeOutcome.IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+        exchange.sendResponseHeaders(outcome.httpStatus(), NO_BODY);
+    }
+
+    private void createTransactions(HttpExchange exchange) throws IOException {
+        WireFormat format = WireFormat.fromContentType(exchange.getRequestHeaders().getFirst("Content-Type"));
+        if (format == null) {
+            exchange.sendResponseHeaders(415, NO_BODY);
+            return;
+        }
+
+        LoteOutcome outcome = transactionIntake.submitLote(readBody(exchange), format);
+        if (outcome.isShed()) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+        }
+        if (!outcome.hasBody()) {
+            exchange.sendResponseHeaders(outcome.httpStatus(), NO_BODY);
+            return;
+        }
+        WireFormat responseFormat = WireFormat.forAccept(exchange.getRequestHeaders().getFirst("Accept"));
+        send(exchange, responseFormat, new LoteResponse(outcome).toBody(responseFormat));
+    }
+
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return in.readAllBytes();
+        }
+    }
+
+    private void handleEstatistica(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            if (!ESTATISTICA.equals(path) && !TOP_VALUES.equals(path) && !HISTOGRAMA.equals(path)) {
+                exchange.sendResponseHeaders(404, NO_BODY);
+                return;
+            }
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                methodNotAllowed(exchange, "GET");
+                return;
+            }
+            if (TOP_VALUES.equals(path)) {
+                sendTopValues(exchange);
+                return;
+            }
+            if (HISTOGRAMA.equals(path)) {
+                send(exchange, WireFormat.JSON, transactionalService.getHistogram().jsonBody());
+                return;
+            }
+
+            String query = exchange.getRequestURI().getRawQuery();
+            String conta = queryParameter(query, "conta");
+            String asOf = queryParameter(query, "asOf");
+            if (!TransactionValidator.isValidConta(conta)) {
+                exchange.sendResponseHeaders(400, NO_BODY);
+                return;
+            }
+            WireFormat format = WireFormat.forAccept(exchange.getRequestHeaders().getFirst("Accept"));
+            if (conta == null && asOf == null) {
+                sendCurrentStatistics(exchange, format);
+                return;
+            }
+            StatisticSnapshot snapshot;
+            if (asOf != null) {
+                OffsetDateTime instant = conta == null ? TransactionValidator.parseAsOf(asOf) : null;
+                snapshot = instant == null ? null : transactionalService.getStatisticsAsOf(instant.toInstant().toEpochMilli());
+                if (snapshot == null) {
+                    exchange.sendResponseHeaders(400, NO_BODY);
+                    return;
+                }
+            } else {
+                snapshot = transactionalService.getStatistics(conta);
+            }
+            send(exchange, format, snapshot.body(format));
+        }
+    }
+
+    /**
+     * Conditional {@code GET /estatistica}, long-polled under {@code Prefer: wait}. The exchange runs
+     * on a virtual thread, so waiting simply blocks it.
+     */
+    private void sendCurrentStatistics(HttpExchange exchange, WireFormat format) throws IOException {
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        StatisticsEtag.Tag held = statisticsWatch.currentTag(ifNoneMatch, format);
+        Duration wait = held == null ? null : statisticsWatch.preferredWait(exchange.getRequestHeaders().getFirst("Prefer"));
+        if (wait != null) {
+            statisticsWatch.awaitChange(held, wait).join();
+            held = statisticsWatch.currentTag(ifNoneMatch, format);
+        }
+        if (held != null) {
+            notModified(exchange, held.value());
+            return;
+        }
+        long generation = transactionalService.getGeneration();
+        StatisticSnapshot snapshot = transactionalService.getStatistics();
+        String etag = StatisticsEtag.of(generation, snapshot, format);
+        if (StatisticsEtag.matches(ifNoneMatch, etag)) {
+            notModified(exchange, etag);
+            return;
+        }
+        exchange.getResponseHeaders().set("ETag", etag);
+        send(exchange, format, snapshot.body(format));
+    }
+
+    private static void notModified(HttpExchange exchange, String etag) throws IOException {
+        exchange.getResponseHeaders().set("ETag", etag);
+        exchange.sendResponseHeaders(304, NO_BODY);
+    }
+
+    private void sendTopValues(HttpExchange exchange) throws IOException {
+        String k = queryParameter(exchange.getRequestURI().getRawQuery(), "k");
+        int limit;
+        try {
+            limit = k == null ? TopValues.DEFAULT_K : Integer.parseInt(k);
+        } catch (NumberFormatException e) {
+            limit = 0;
+        }
+        if (limit < 1 || limit > transactionalService.getMaxTopValues()) {
+            exchange.sendResponseHeaders(400, NO_BODY);
+            return;
+        }
+        send(exchange, WireFormat.JSON, transactionalService.getTopValues(limit).jsonBody());
+    }
+
+    private static void send(HttpExchange exchange, WireFormat format, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", format.mediaType());
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String queryParameter(String rawQuery, String name) {
+        if (rawQuery == null) {
+            return null;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            String key = separator < 0 ? pair : pair.substring(0, separator);
+            if (key.equals(name)) {
+                try {
+                    return separator < 0 ? "" : URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+                } catch (IllegalArgumentException e) {
+                    return "";
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void methodNotAllowed(HttpExchange exchange, String allow) throws IOException {
+        exchange.getResponseHeaders().set("Allow", allow);
+        exchange.sendResponseHeaders(405, NO_BODY);
+    }
+}
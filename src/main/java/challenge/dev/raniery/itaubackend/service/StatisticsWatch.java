@@ -0,0 +1,171 @@
+package challenge.dev.raniery.itaubackend.service;
+
+import challenge.dev.raniery.itaubackend.aspect.LoggingAspect;
+import challenge.dev.raniery.itaubackend.config.StatisticsProperties;
+import challenge.dev.raniery.itaubackend.wire.StatisticsEtag;
+import challenge.dev.raniery.itaubackend.wire.WireFormat;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Conditional and long-polled {@code GET /estatistica}. A client's entity tag is checked against the
+ * service without computing a snapshot; a long poll parks until the tag goes stale or its wait runs
+ * out. One thread re-checks every parked tag each {@code itau.statistics.watch-interval}, so the
+ * write path pays nothing for waiting clients, and completions run on virtual threads so that the
+ * follow-up computation never stalls the others.
+ */
+@Component
+public class StatisticsWatch implements SmartLifecycle, MeterBinder {
+
+    private final TransactionalService transactionalService;
+    private final long intervalNanos;
+    private final Duration maxWait;
+    private final ConcurrentLinkedQueue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private ScheduledExecutorService ticker;
+    private ExecutorService completions;
+
+    public StatisticsWatch(StatisticsProperties properties, TransactionalService transactionalService) {
+        this.transactionalService = LoggingAspect.unadvised(transactionalService);
+        this.intervalNanos = properties.watchInterval().toNanos();
+        this.maxWait = properties.maxWait();
+    }
+
+    /**
+     * The first tag of {@code ifNoneMatch} issued for {@code format} that still describes the current
+     * window, or {@code null} when none does.
+     */
+    public StatisticsEtag.Tag currentTag(String ifNoneMatch, WireFormat format) {
+        for (StatisticsEtag.Tag tag : StatisticsEtag.parse(ifNoneMatch, format)) {
+            if (transactionalService.isStatisticsCurrent(tag.generation(), tag.version(), tag.validUntil())) {
+                return tag;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The long-poll wait asked for by a {@code Prefer: wait=<seconds>} header (RFC 7240), capped at
+     * {@code itau.statistics.max-wait}, or {@code null} when there is none to honour.
+     */
+    public Duration preferredWait(String prefer) {
+        if (prefer == null || maxWait.isZero()) {
+            return null;
+        }
+        for (String preference : prefer.split("[,;]")) {
+            String[] pair = preference.trim().split("=", 2);
+            if (pair.length == 2 && pair[0].trim().equalsIgnoreCase("wait")) {
+                long seconds;
+                try {
+                    seconds = Long.parseLong(pair[1].trim());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+                if (seconds <= 0) {
+                    return null;
+                }
+                Duration wait = Duration.ofSeconds(seconds);
+                return wait.compareTo(maxWait) > 0 ? maxWait : wait;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Completes with {@code true} once {@code tag} no longer describes the window, or with
+     * {@code false} when {@code wait} passes first or the watch is stopped.
+     */
+    public CompletableFuture<Boolean> awaitChange(StatisticsEtag.Tag tag, Duration wait) {
+        CompletableFuture<Boolean> changed = new CompletableFuture<>();
+        synchronized (this) {
+            if (ticker == null) {
+                changed.complete(false);
+                return changed;
+            }
+            waiting.incrementAndGet();
+            waiters.add(new Waiter(tag, System.nanoTime() + wait.toNanos(), changed));
+        }
+        return changed;
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        for (Iterator<Waiter> it = waiters.iterator(); it.hasNext(); ) {
+            Waiter waiter = it.next();
+            StatisticsEtag.Tag tag = waiter.tag;
+            boolean stale = !transactionalService.isStatisticsCurrent(tag.generation(), tag.version(), tag.validUntil());
+            if (stale || now - waiter.deadlineNanos >= 0) {
+                it.remove();
+                waiting.decrementAndGet();
+                completions.execute(() -> waiter.changed.complete(stale));
+            }
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (ticker != null) {
+            return;
+        }
+        completions = Executors.newVirtualThreadPerTaskExecutor();
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "statistics-watch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::tick, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (ticker == null) {
+            return;
+        }
+        ticker.shutdownNow();
+        try {
+            ticker.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ticker = null;
+        for (Waiter waiter; (waiter = waiters.poll()) != null; ) {
+            waiting.decrementAndGet();
+            waiter.changed.complete(false);
+        }
+        completions.close();
+        completions = null;
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return ticker != null;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("statistics.waiting", this, StatisticsWatch::getWaiting)
+            .description("Long-polled statistics requests waiting for the window to change")
+            .register(registry);
+    }
+
+    private record Waiter(StatisticsEtag.Tag tag, long deadlineNanos, CompletableFuture<Boolean> changed) {
+    }
+}
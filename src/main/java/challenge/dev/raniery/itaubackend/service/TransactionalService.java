@@ -1,31 +1,408 @@
 package challenge.dev.raniery.itaubackend.service;
 
+import challenge.dev.raniery.itaubackend.config.AccountProperties;
+import challenge.dev.raniery.itaubackend.config.ClockProperties;
+import challenge.dev.raniery.itaubackend.config.HistogramProperties;
+import challenge.dev.raniery.itaubackend.config.LogProperties;
+import challenge.dev.raniery.itaubackend.config.StatisticsProperties;
+import challenge.dev.raniery.itaubackend.config.TopValuesProperties;
+import challenge.dev.raniery.itaubackend.engine.AccountWindows;
+import challenge.dev.raniery.itaubackend.engine.Amounts;
+import challenge.dev.raniery.itaubackend.engine.DeferredTransactions;
+import challenge.dev.raniery.itaubackend.engine.ParallelAggregator;
+import challenge.dev.raniery.itaubackend.engine.RowScanner;
+import challenge.dev.raniery.itaubackend.engine.SampledWindow;
+import challenge.dev.raniery.itaubackend.engine.TopValues;
+import challenge.dev.raniery.itaubackend.engine.TransactionLog;
+import challenge.dev.raniery.itaubackend.engine.ValueHistogram;
+import challenge.dev.raniery.itaubackend.model.HistogramSnapshot;
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+import challenge.dev.raniery.itaubackend.model.TopValuesSnapshot;
 import challenge.dev.raniery.itaubackend.model.Transaction;
 import org.springframework.stereotype.Service;
 
-import java.time.OffsetDateTime;
-import java.util.DoubleSummaryStatistics;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.time.Clock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 public class TransactionalService {
 
-    private final Queue<Transaction> transactions = new ConcurrentLinkedQueue<>();
+    private static final long WINDOW_MILLIS = 60_000L;
+
+    private final AtomicLong generations = new AtomicLong();
+    private final Clock clock;
+    private final ParallelAggregator aggregator;
+    private final AccountProperties accountProperties;
+    private final TopValuesProperties topValuesProperties;
+    private final HistogramProperties histogramProperties;
+    private final LogProperties logProperties;
+    private final long[] histogramBounds;
+    private final long historyRetentionMillis;
+    private final long maxStalenessMillis;
+    private final StatisticsProperties.Approximate approximate;
+    private final long aheadMillis;
+    private final LongAdder statisticsComputations = new LongAdder();
+    private final LongAdder approximateComputations = new LongAdder();
+
+    private volatile Generation generation;
+
+    public TransactionalService(Clock clock, ParallelAggregator aggregator,
+                                AccountProperties accountProperties, TopValuesProperties topValuesProperties,
+                                HistogramProperties histogramProperties, LogProperties logProperties,
+                                StatisticsProperties statisticsProperties, ClockProperties clockProperties) {
+        this.clock = clock;
+        this.aggregator = aggregator;
+        this.accountProperties = accountProperties;
+        this.topValuesProperties = topValuesProperties;
+        this.histogramProperties = histogramProperties;
+        this.logProperties = logProperties;
+        this.histogramBounds = histogramProperties.bounds().stream().mapToLong(Amounts::toScaled).toArray();
+        this.historyRetentionMillis = logProperties.historyRetention().toMillis();
+        this.maxStalenessMillis = statisticsProperties.maxStaleness().toMillis();
+        this.approximate = statisticsProperties.approximate();
+        this.aheadMillis = clockProperties.futureTolerance().toMillis();
+        this.generation = newGeneration(0);
+    }
 
     public void addTransaction(Transaction transaction) {
-        transactions.add(transaction);
+        addTransaction(transaction.getEpochMillis(), transaction.getScaledValor());
+    }
+
+    public void addTransaction(long epochMillis, long amount) {
+        addTransaction(generation, epochMillis, amount);
+    }
+
+    public void addTransaction(Generation target, long epochMillis, long amount) {
+        target.log.append(epochMillis, amount);
+    }
+
+    /**
+     * Appends a batch with one ticket when none of it is future-dated; otherwise the rows ahead of
+     * the clock are deferred one by one. Returns how many were deferred.
+     */
+    public int addBatch(long[] epochMillis, long[] amounts, int length) {
+        return addBatch(generation, epochMillis, amounts, length);
+    }
+
+    public int addBatch(Generation current, long[] epochMillis, long[] amounts, int length) {
+        int deferred = 0;
+        for (int i = 0; i < length; i++) {
+            if (isAhead(epochMillis[i])) {
+                deferred++;
+            }
+        }
+        if (deferred == 0) {
+            current.log.appendBatch(epochMillis, amounts, 0, length);
+            return 0;
+        }
+        for (int i = 0; i < length; i++) {
+            if (isAhead(epochMillis[i])) {
+                current.deferred.add(epochMillis[i], amounts[i]);
+            } else {
+                current.log.append(epochMillis[i], amounts[i]);
+            }
+        }
+        return deferred;
+    }
+
+    public boolean deferIfFuture(Transaction transaction) {
+        return deferIfFuture(transaction.getEpochMillis(), transaction.getScaledValor());
+    }
+
+    public boolean deferIfFuture(long epochMillis, long amount) {
+        return deferIfFuture(generation, epochMillis, amount);
+    }
+
+    public boolean deferIfFuture(Generation target, long epochMillis, long amount) {
+        if (!isAhead(epochMillis)) {
+            return false;
+        }
+        target.deferred.add(epochMillis, amount);
+        return true;
+    }
+
+    /**
+     * Whether {@code epochMillis} is ahead of the precise clock instant, the one validation accepted it
+     * against. The coarse reading only settles the common case: it lags, so a row stamped within the
+     * current tick is not ahead of it and would otherwise be deferred after passing validation.
+     */
+    private boolean isAhead(long epochMillis) {
+        return epochMillis > clock.millis() && epochMillis > clock.instant().toEpochMilli();
+    }
+
+    public void indexTransaction(Transaction transaction) {
+        indexTransaction(transaction.getEpochMillis(), transaction.getScaledValor(), transaction.getConta());
+    }
+
+    public void indexTransaction(long epochMillis, long amount, String conta) {
+        index(generation, epochMillis, amount, conta);
+    }
+
+    public void indexTransaction(Generation target, long epochMillis, long amount, String conta) {
+        index(target, epochMillis, amount, conta);
+    }
+
+    public void indexBatch(long[] epochMillis, long[] amounts, String[] contas, int length) {
+        indexBatch(generation, epochMillis, amounts, contas, length);
+    }
+
+    public void indexBatch(Generation current, long[] epochMillis, long[] amounts, String[] contas, int length) {
+        for (int i = 0; i < length; i++) {
+            index(current, epochMillis[i], amounts[i], contas == null ? null : contas[i]);
+        }
     }
 
     public void clearTransactions() {
-        transactions.clear();
+        generation = newGeneration(generations.incrementAndGet());
+    }
+
+    public AccountWindows getAccountWindows() {
+        return generation.accounts;
+    }
+
+    public TransactionLog currentLog() {
+        return generation.log;
+    }
+
+    /**
+     * The generation writes go to now. A caller that writes, indexes and replicates a row through the
+     * overloads taking it keeps all three in the same generation even if a {@code DELETE} swaps it
+     * meanwhile; the row is then ordered before the reset everywhere, the standby included.
+     */
+    public Generation currentGeneration() {
+        return generation;
     }
 
-    public DoubleSummaryStatistics getStatistics() {
-        OffsetDateTime now = OffsetDateTime.now();
-        return transactions.stream()
-            .filter(t -> t.getDataHora().isAfter(now.minusSeconds(60)))
-            .mapToDouble(Transaction::getValor)
-            .summaryStatistics();
+    public long getVersion() {
+        return generation.log.cursor();
+    }
+
+    public long getGeneration() {
+        return generation.id;
+    }
+
+    public long getRetainedCount() {
+        Generation current = generation;
+        return current.log.retained() + current.deferred.size();
+    }
+
+    public int getDeferredCount() {
+        return generation.deferred.size();
+    }
+
+    public void evictExpired() {
+        generation.log.reclaimExpired(clock.millis() - WINDOW_MILLIS - historyRetentionMillis);
+    }
+
+    /**
+     * Statistics of the current window. Callers share one computation: whoever finds no usable one
+     * starts it, and callers arriving meanwhile wait for its result instead of scanning the log
+     * again. A result is used while nothing was written after it started and no row has left the
+     * window since; {@code itau.statistics.max-staleness} also admits results that started less
+     * than that long ago, writes or not. While the log retains more rows than
+     * {@code itau.statistics.approximate.threshold}, the computation reads the sampled window instead
+     * of the log and the result is flagged approximate; it turns exact again once reclaim brings the
+     * log back under the threshold.
+     */
+    public StatisticSnapshot getStatistics() {
+        Generation current = generation;
+        long now = clock.millis();
+        current.deferred.activateDue(current.log, now);
+        long version = current.log.cursor();
+
+        while (true) {
+            StatisticsFlight flight = current.flight.get();
+            boolean fresh = flight != null && now - flight.startedMillis < maxStalenessMillis;
+            if (flight != null && (flight.version >= version || fresh)) {
+                StatisticSnapshot shared = flight.await();
+                if (shared != null && (fresh || shared.isValidFor(version, now))) {
+                    return shared;
+                }
+            }
+
+            StatisticsFlight started = new StatisticsFlight(version, now);
+            if (!current.flight.compareAndSet(flight, started)) {
+                continue;
+            }
+            try {
+                current.log.reclaimExpired(now - WINDOW_MILLIS - historyRetentionMillis);
+                StatisticSnapshot snapshot;
+                if (current.sample != null && current.log.retained() > approximate.threshold()) {
+                    snapshot = current.sample.snapshot(clock.millis(), version);
+                    approximateComputations.increment();
+                } else {
+                    snapshot = current.log.snapshot(clock, WINDOW_MILLIS, aggregator);
+                }
+                statisticsComputations.increment();
+                started.result.complete(snapshot);
+                return snapshot;
+            } catch (RuntimeException | Error e) {
+                started.result.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Whether {@link #getStatistics()} would still describe the same window as a snapshot taken in
+     * {@code generationId} at {@code version} and valid until {@code validUntil}: nothing was reset or
+     * written since, no future-dated row came due and no row has left the window. Computes nothing.
+     */
+    public boolean isStatisticsCurrent(long generationId, long version, long validUntil) {
+        Generation current = generation;
+        long now = clock.millis();
+        current.deferred.activateDue(current.log, now);
+        return current.id == generationId && current.log.cursor() == version && now < validUntil;
+    }
+
+    public long getStatisticsComputations() {
+        return statisticsComputations.sum();
+    }
+
+    public long getApproximateComputations() {
+        return approximateComputations.sum();
+    }
+
+    /**
+     * Statistics of the window ending at {@code asOfMillis}, or {@code null} when that instant is in
+     * the future or older than {@code itau.log.history-retention}. Rows that arrived late are counted
+     * as if they had been there on time.
+     */
+    public StatisticSnapshot getStatisticsAsOf(long asOfMillis) {
+        Generation current = generation;
+        long now = clock.millis();
+        if (asOfMillis > now || asOfMillis < now - historyRetentionMillis) {
+            return null;
+        }
+        current.deferred.activateDue(current.log, now);
+        return current.log.snapshotAsOf(asOfMillis, WINDOW_MILLIS);
+    }
+
+    public StatisticSnapshot getStatistics(String conta) {
+        Generation current = generation;
+        long now = clock.millis();
+        if (current.accounts == null) {
+            return new StatisticSnapshot(0, 0, 0, 0, current.log.cursor(), now);
+        }
+        return current.accounts.snapshot(conta, now, current.log.cursor());
+    }
+
+    public TopValuesSnapshot getTopValues(int k) {
+        TopValues topValues = generation.topValues;
+        if (topValues == null) {
+            return TopValuesSnapshot.empty();
+        }
+        return topValues.top(k, clock.millis());
+    }
+
+    public HistogramSnapshot getHistogram() {
+        ValueHistogram histogram = generation.histogram;
+        if (histogram == null) {
+            return new HistogramSnapshot(histogramBounds, new long[histogramBounds.length + 1]);
+        }
+        return histogram.snapshot(clock.millis());
+    }
+
+    public int getMaxTopValues() {
+        return topValuesProperties.enabled() ? topValuesProperties.maxK() : 0;
+    }
+
+    private static void index(Generation current, long epochMillis, long amount, String conta) {
+        if (current.topValues != null) {
+            current.topValues.record(epochMillis, amount);
+        }
+        if (current.histogram != null) {
+            current.histogram.record(epochMillis, amount);
+        }
+        if (current.sample != null) {
+            current.sample.record(epochMillis, amount);
+        }
+        if (current.accounts != null && conta != null) {
+            current.accounts.record(conta, epochMillis, amount);
+        }
+    }
+
+    private Generation newGeneration(long id) {
+        TopValues topValues = topValuesProperties.enabled()
+            ? new TopValues(WINDOW_MILLIS, topValuesProperties.bucket().toMillis(), topValuesProperties.maxK(), aheadMillis)
+            : null;
+        ValueHistogram histogram = histogramProperties.enabled()
+            ? new ValueHistogram(WINDOW_MILLIS, histogramProperties.bucket().toMillis(), histogramBounds, aheadMillis)
+            : null;
+        SampledWindow sample = approximate.enabled()
+            ? new SampledWindow(WINDOW_MILLIS, approximate.bucket().toMillis(), approximate.sampleSize(), aheadMillis)
+            : null;
+        TransactionLog log = new TransactionLog(RowScanner.preferred(), logProperties.compressSealed());
+        return new Generation(id, log, newAccountWindows(), topValues, histogram, sample);
+    }
+
+    private AccountWindows newAccountWindows() {
+        if (!accountProperties.enabled()) {
+            return null;
+        }
+        return new AccountWindows(WINDOW_MILLIS, accountProperties.bucket().toMillis(),
+            accountProperties.memoryBudget().toBytes(), accountProperties.segments(), aheadMillis);
+    }
+
+    /**
+     * Everything written since the last reset. {@code DELETE} replaces the whole generation with one
+     * volatile write instead of unlinking each row; the retired one is left to the garbage collector.
+     * A write that read the previous generation just before the swap lands there and is therefore
+     * ordered before the reset. Future-dated transactions still waiting for their timestamp belong to
+     * the generation too and are dropped with it, as are the per-account windows, the top values,
+     * the histogram and the sampled window.
+     */
+    public static final class Generation {
+
+        private final long id;
+        private final TransactionLog log;
+        private final DeferredTransactions deferred = new DeferredTransactions();
+        private final AccountWindows accounts;
+        private final TopValues topValues;
+        private final ValueHistogram histogram;
+        private final SampledWindow sample;
+        private final AtomicReference<StatisticsFlight> flight = new AtomicReference<>();
+
+        private Generation(long id, TransactionLog log, AccountWindows accounts, TopValues topValues, ValueHistogram histogram,
+                           SampledWindow sample) {
+            this.id = id;
+            this.log = log;
+            this.accounts = accounts;
+            this.topValues = topValues;
+            this.histogram = histogram;
+            this.sample = sample;
+        }
+
+        public long id() {
+            return id;
+        }
+
+        public TransactionLog log() {
+            return log;
+        }
+    }
+
+    private static final class StatisticsFlight {
+
+        private final long version;
+        private final long startedMillis;
+        private final CompletableFuture<StatisticSnapshot> result = new CompletableFuture<>();
+
+        private StatisticsFlight(long version, long startedMillis) {
+            this.version = version;
+            this.startedMillis = startedMillis;
+        }
+
+        private StatisticSnapshot await() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                return null;
+            }
+        }
     }
 }
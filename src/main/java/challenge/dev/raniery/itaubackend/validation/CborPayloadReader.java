@@ -0,0 +1,388 @@
+package challenge.dev.raniery.itaubackend.validation;
+
+import challenge.dev.raniery.itaubackend.dto.TransactionRequest;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CBOR (RFC 8949) counterpart of {@link TransactionPayloadReader}: a transaction is a map with the
+ * same keys as the JSON payload. {@code valor} may be an integer, a float or a decimal fraction
+ * (tag 4); {@code dataHora} an RFC 3339 string, optionally tagged 0, or epoch seconds under tag 1.
+ * Unknown keys are skipped and anything malformed yields {@code null}.
+ */
+@Component
+public class CborPayloadReader {
+
+    private static final byte[] VALOR = "valor".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DATA_HORA = "dataHora".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CHAVE_IDEMPOTENCIA = "chaveIdempotencia".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CONTA = "conta".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int MAJOR_UNSIGNED = 0;
+    private static final int MAJOR_NEGATIVE = 1;
+    private static final int MAJOR_BYTES = 2;
+    private static final int MAJOR_TEXT = 3;
+    private static final int MAJOR_ARRAY = 4;
+    private static final int MAJOR_MAP = 5;
+    private static final int MAJOR_TAG = 6;
+    private static final int MAJOR_SIMPLE = 7;
+
+    private static final int TAG_DATE_TIME = 0;
+    private static final int TAG_EPOCH = 1;
+    private static final int TAG_DECIMAL_FRACTION = 4;
+
+    private static final int INDEFINITE = 31;
+    private static final int BREAK = 0xFF;
+    private static final int NULL = 0xF6;
+    private static final int UNDEFINED = 0xF7;
+    private static final int MAX_DEPTH = 32;
+    private static final int MAX_EXPONENT = 64;
+
+    public TransactionRequest read(byte[] body) {
+        Cursor cursor = new Cursor(body);
+        TransactionRequest request = cursor.readTransaction();
+        return request != null && cursor.atEnd() ? request : null;
+    }
+
+    public List<TransactionRequest> readBatch(byte[] body) {
+        return readBatch(body, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Stops at the element past {@code limit} and returns the {@code limit + 1} read so far, so an
+     * oversized batch is told apart without parsing the rest of it.
+     */
+    public List<TransactionRequest> readBatch(byte[] body, int limit) {
+        Cursor cursor = new Cursor(body);
+        List<TransactionRequest> requests = cursor.readTransactions(limit);
+        return requests != null && (requests.size() > limit || cursor.atEnd()) ? requests : null;
+    }
+
+    private static final class Cursor {
+
+        private final byte[] buf;
+        private int pos;
+
+        private int major;
+        private int info;
+        private long argument;
+
+        private Cursor(byte[] buf) {
+            this.buf = buf;
+        }
+
+        private boolean atEnd() {
+            return pos == buf.length;
+        }
+
+        private List<TransactionRequest> readTransactions(int limit) {
+            if (!readHead() || major != MAJOR_ARRAY) {
+                return null;
+            }
+            boolean indefinite = info == INDEFINITE;
+            long items = argument;
+            List<TransactionRequest> requests = new ArrayList<>(indefinite ? 16 : (int) Math.min(items, 1024));
+            for (long i = 0; indefinite || i < items; i++) {
+                if (indefinite && consumeBreak()) {
+                    return requests;
+                }
+                TransactionRequest request = readTransaction();
+                if (request == null) {
+                    return null;
+                }
+                requests.add(request);
+                if (requests.size() > limit) {
+                    return requests;
+                }
+            }
+            return requests;
+        }
+
+        private TransactionRequest readTransaction() {
+            if (!readHead() || major != MAJOR_MAP) {
+                return null;
+            }
+            boolean indefinite = info == INDEFINITE;
+            long entries = argument;
+
+            BigDecimal valor = null;
+            OffsetDateTime dataHora = null;
+            String chaveIdempotencia = null;
+            String conta = null;
+            for (long i = 0; indefinite || i < entries; i++) {
+                if (indefinite && consumeBreak()) {
+                    break;
+                }
+                if (!readHead() || major != MAJOR_TEXT || info == INDEFINITE || !fits()) {
+                    return null;
+                }
+                int nameStart = pos;
+                int nameEnd = pos + (int) argument;
+                pos = nameEnd;
+
+                if (nameEquals(nameStart, nameEnd, VALOR)) {
+                    if (consumeNull()) {
+                        valor = null;
+                    } else if ((valor = readDecimal()) == null) {
+                        return null;
+                    }
+                } else if (nameEquals(nameStart, nameEnd, DATA_HORA)) {
+                    if (consumeNull()) {
+                        dataHora = null;
+                    } else if ((dataHora = readDataHora()) == null) {
+                        return null;
+                    }
+                } else if (nameEquals(nameStart, nameEnd, CHAVE_IDEMPOTENCIA)) {
+                    if (consumeNull()) {
+                        chaveIdempotencia = null;
+                    } else if ((chaveIdempotencia = readText()) == null) {
+                        return null;
+                    }
+                } else if (nameEquals(nameStart, nameEnd, CONTA)) {
+                    if (consumeNull()) {
+                        conta = null;
+                    } else if ((conta = readText()) == null) {
+                        return null;
+                    }
+                } else if (!skipItem(0)) {
+                    return null;
+                }
+            }
+            return new TransactionRequest(valor, dataHora, chaveIdempotencia, conta);
+        }
+
+        private BigDecimal readDecimal() {
+            if (pos == buf.length) {
+                return null;
+            }
+            int initial = buf[pos] & 0xFF;
+            if (initial >= 0xF9 && initial <= 0xFB) {
+                pos++;
+                double value = readFloat(initial);
+                return Double.isFinite(value) ? BigDecimal.valueOf(value) : null;
+            }
+            if (!readHead()) {
+                return null;
+            }
+            if (major == MAJOR_UNSIGNED || major == MAJOR_NEGATIVE) {
+                return new BigDecimal(integerValue());
+            }
+            if (major == MAJOR_TAG && argument == TAG_DECIMAL_FRACTION) {
+                if (!readHead() || major != MAJOR_ARRAY || argument != 2 || info == INDEFINITE) {
+                    return null;
+                }
+                if (!readHead() || (major != MAJOR_UNSIGNED && major != MAJOR_NEGATIVE) || argument < 0 || argument > MAX_EXPONENT) {
+                    return null;
+                }
+                int exponent = major == MAJOR_UNSIGNED ? (int) argument : (int) (-1 - argument);
+                if (!readHead() || (major != MAJOR_UNSIGNED && major != MAJOR_NEGATIVE)) {
+                    return null;
+                }
+                return new BigDecimal(integerValue(), -exponent);
+            }
+            return null;
+        }
+
+        private OffsetDateTime readDataHora() {
+            if (!readHead()) {
+                return null;
+            }
+            if (major == MAJOR_TAG && argument == TAG_EPOCH) {
+                if (pos == buf.length) {
+                    return null;
+                }
+                int initial = buf[pos] & 0xFF;
+                long epochMillis;
+                if (initial >= 0xF9 && initial <= 0xFB) {
+                    pos++;
+                    double seconds = readFloat(initial);
+                    if (!Double.isFinite(seconds) || Math.abs(seconds) > Instant.MAX.getEpochSecond()) {
+                        return null;
+                    }
+                    epochMillis = (long) Math.floor(seconds * 1_000);
+                } else if (readHead() && (major == MAJOR_UNSIGNED || major == MAJOR_NEGATIVE) && argument >= 0 && argument <= Long.MAX_VALUE / 1_000) {
+                    epochMillis = (major == MAJOR_UNSIGNED ? argument : -1 - argument) * 1_000;
+                } else {
+                    return null;
+                }
+                return OffsetDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+            }
+            if (major == MAJOR_TAG && argument == TAG_DATE_TIME && !readHead()) {
+                return null;
+            }
+            if (major != MAJOR_TEXT || info == INDEFINITE || !fits()) {
+                return null;
+            }
+            int start = pos;
+            pos += (int) argument;
+            return TransactionPayloadReader.parseOffsetDateTime(buf, start, pos);
+        }
+
+        private String readText() {
+            if (!readHead() || major != MAJOR_TEXT || info == INDEFINITE || !fits()) {
+                return null;
+            }
+            String text = new String(buf, pos, (int) argument, StandardCharsets.UTF_8);
+            pos += (int) argument;
+            return text;
+        }
+
+        private boolean skipItem(int depth) {
+            if (depth > MAX_DEPTH || !readHead()) {
+                return false;
+            }
+            switch (major) {
+                case MAJOR_UNSIGNED, MAJOR_NEGATIVE -> {
+                    return info != INDEFINITE;
+                }
+                case MAJOR_BYTES, MAJOR_TEXT -> {
+                    if (info == INDEFINITE) {
+                        while (!consumeBreak()) {
+                            if (!skipItem(depth + 1)) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                    if (!fits()) {
+                        return false;
+                    }
+                    pos += (int) argument;
+                    return true;
+                }
+                case MAJOR_ARRAY, MAJOR_MAP -> {
+                    int perEntry = major == MAJOR_MAP ? 2 : 1;
+                    if (info == INDEFINITE) {
+                        while (!consumeBreak()) {
+                            for (int i = 0; i < perEntry; i++) {
+                                if (!skipItem(depth + 1)) {
+                                    return false;
+                                }
+                            }
+                        }
+                        return true;
+                    }
+                    if (!fits()) {
+                        return false;
+                    }
+                    long items = argument * perEntry;
+                    for (long i = 0; i < items; i++) {
+                        if (!skipItem(depth + 1)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+                case MAJOR_TAG -> {
+                    return skipItem(depth + 1);
+                }
+                default -> {
+                    if (info >= 24) {
+                        pos += 1 << (info - 24);
+                    }
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Reads an initial byte and its argument. Float payloads are left for {@link #readFloat}; a
+         * simple value carries its argument in {@code info}.
+         */
+        private boolean readHead() {
+            if (pos == buf.length) {
+                return false;
+            }
+            int initial = buf[pos++] & 0xFF;
+            major = initial >>> 5;
+            info = initial & 0x1F;
+            if (major == MAJOR_SIMPLE) {
+                argument = info;
+                return info < 24 || (info < 28 && pos + (1 << (info - 24)) <= buf.length);
+            }
+            if (info < 24) {
+                argument = info;
+                return true;
+            }
+            if (info == INDEFINITE) {
+                argument = 0;
+                return major == MAJOR_BYTES || major == MAJOR_TEXT || major == MAJOR_ARRAY || major == MAJOR_MAP;
+            }
+            if (info > 27) {
+                return false;
+            }
+            int bytes = 1 << (info - 24);
+            if (pos + bytes > buf.length) {
+                return false;
+            }
+            argument = readBigEndian(bytes);
+            return true;
+        }
+
+        private boolean fits() {
+            return argument >= 0 && argument <= buf.length - pos;
+        }
+
+        private BigInteger integerValue() {
+            BigInteger magnitude = argument >= 0 ? BigInteger.valueOf(argument) : new BigInteger(Long.toUnsignedString(argument));
+            return major == MAJOR_UNSIGNED ? magnitude : magnitude.negate().subtract(BigInteger.ONE);
+        }
+
+        private double readFloat(int initial) {
+            int bytes = 1 << (initial - 0xF9 + 1);
+            if (pos + bytes > buf.length) {
+                return Double.NaN;
+            }
+            long bits = readBigEndian(bytes);
+            return switch (bytes) {
+                case 2 -> Float.float16ToFloat((short) bits);
+                case 4 -> Float.intBitsToFloat((int) bits);
+                default -> Double.longBitsToDouble(bits);
+            };
+        }
+
+        private long readBigEndian(int bytes) {
+            long value = 0;
+            for (int i = 0; i < bytes; i++) {
+                value = (value << 8) | (buf[pos++] & 0xFF);
+            }
+            return value;
+        }
+
+        private boolean consumeNull() {
+            if (pos < buf.length && ((buf[pos] & 0xFF) == NULL || (buf[pos] & 0xFF) == UNDEFINED)) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean consumeBreak() {
+            if (pos < buf.length && (buf[pos] & 0xFF) == BREAK) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean nameEquals(int start, int end, byte[] name) {
+            if (end - start != name.length) {
+                return false;
+            }
+            for (int i = 0; i < name.length; i++) {
+                if (buf[start + i] != name[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,511 @@
+package challenge.dev.raniery.itaubackend.validation;
+
+import challenge.dev.raniery.itaubackend.dto.TransactionRequest;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class TransactionPayloadReader {
+
+    private static final byte[] VALOR = {'v', 'a', 'l', 'o', 'r'};
+    private static final byte[] DATA_HORA = {'d', 'a', 't', 'a', 'H', 'o', 'r', 'a'};
+    private static final byte[] CHAVE_IDEMPOTENCIA = "chaveIdempotencia".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CONTA = {'c', 'o', 'n', 't', 'a'};
+
+    private static final int MAX_NUMBER_LENGTH = 64;
+    private static final int MAX_EXPONENT_DIGITS = 9;
+    private static final int MAX_DEPTH = 32;
+
+    public TransactionRequest read(byte[] body) {
+        Cursor cursor = new Cursor(body);
+        TransactionRequest request = cursor.readTransaction();
+        return request != null && cursor.atEnd() ? request : null;
+    }
+
+    public List<TransactionRequest> readBatch(byte[] body) {
+        return readBatch(body, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Stops at the element past {@code limit} and returns the {@code limit + 1} read so far, so an
+     * oversized batch is told apart without parsing the rest of it.
+     */
+    public List<TransactionRequest> readBatch(byte[] body, int limit) {
+        Cursor cursor = new Cursor(body);
+        List<TransactionRequest> requests = cursor.readTransactions(limit);
+        return requests != null && (requests.size() > limit || cursor.atEnd()) ? requests : null;
+    }
+
+    private static final class Cursor {
+
+        private final byte[] buf;
+        private int pos;
+
+        private BigDecimal valor;
+        private OffsetDateTime dataHora;
+        private String chaveIdempotencia;
+        private String conta;
+
+        private Cursor(byte[] buf) {
+            this.buf = buf;
+        }
+
+        private boolean atEnd() {
+            skipWhitespace();
+            return pos == buf.length;
+        }
+
+        private List<TransactionRequest> readTransactions(int limit) {
+            skipWhitespace();
+            if (!consume('[')) {
+                return null;
+            }
+            List<TransactionRequest> requests = new ArrayList<>();
+            skipWhitespace();
+            if (consume(']')) {
+                return requests;
+            }
+            do {
+                TransactionRequest request = readTransaction();
+                if (request == null) {
+                    return null;
+                }
+                requests.add(request);
+                if (requests.size() > limit) {
+                    return requests;
+                }
+                skipWhitespace();
+            } while (consume(','));
+            return consume(']') ? requests : null;
+        }
+
+        private TransactionRequest readTransaction() {
+            valor = null;
+            dataHora = null;
+            chaveIdempotencia = null;
+            conta = null;
+            skipWhitespace();
+            if (!consume('{')) {
+                return null;
+            }
+            skipWhitespace();
+            if (!consume('}')) {
+                do {
+                    skipWhitespace();
+                    if (!readMember()) {
+                        return null;
+                    }
+                    skipWhitespace();
+                } while (consume(','));
+                if (!consume('}')) {
+                    return null;
+                }
+            }
+            return new TransactionRequest(valor, dataHora, chaveIdempotencia, conta);
+        }
+
+        private boolean readMember() {
+            if (!consume('"')) {
+                return false;
+            }
+            int nameStart = pos;
+            if (!skipStringBody()) {
+                return false;
+            }
+            int nameEnd = pos - 1;
+            skipWhitespace();
+            if (!consume(':')) {
+                return false;
+            }
+            skipWhitespace();
+
+            if (nameEquals(nameStart, nameEnd, VALOR)) {
+                return readValor();
+            }
+            if (nameEquals(nameStart, nameEnd, DATA_HORA)) {
+                return readDataHora();
+            }
+            if (nameEquals(nameStart, nameEnd, CHAVE_IDEMPOTENCIA)) {
+                return readChaveIdempotencia();
+            }
+            if (nameEquals(nameStart, nameEnd, CONTA)) {
+                return readConta();
+            }
+            return skipValue(0);
+        }
+
+        private boolean readValor() {
+            if (consumeLiteral("null")) {
+                valor = null;
+                return true;
+            }
+            boolean quoted = consume('"');
+            int start = pos;
+            if (!skipNumber()) {
+                return false;
+            }
+            int end = pos;
+            if (quoted && !consume('"')) {
+                return false;
+            }
+            if (end - start > MAX_NUMBER_LENGTH) {
+                return false;
+            }
+            char[] digits = new char[end - start];
+            for (int i = 0; i < digits.length; i++) {
+                digits[i] = (char) buf[start + i];
+            }
+            valor = new BigDecimal(digits);
+            return true;
+        }
+
+        private boolean readDataHora() {
+            if (consumeLiteral("null")) {
+                dataHora = null;
+                return true;
+            }
+            if (!consume('"')) {
+                return false;
+            }
+            int start = pos;
+            while (pos < buf.length && buf[pos] != '"') {
+                if (buf[pos] == '\\') {
+                    return false;
+                }
+                pos++;
+            }
+            if (pos == buf.length) {
+                return false;
+            }
+            dataHora = parseOffsetDateTime(buf, start, pos);
+            pos++;
+            return dataHora != null;
+        }
+
+        private boolean readChaveIdempotencia() {
+            if (consumeLiteral("null")) {
+                chaveIdempotencia = null;
+                return true;
+            }
+            chaveIdempotencia = readString();
+            return chaveIdempotencia != null;
+        }
+
+        private boolean readConta() {
+            if (consumeLiteral("null")) {
+                conta = null;
+                return true;
+            }
+            conta = readString();
+            return conta != null;
+        }
+
+        private String readString() {
+            if (!consume('"')) {
+                return null;
+            }
+            int start = pos;
+            if (!skipStringBody()) {
+                return null;
+            }
+            return decodeString(start, pos - 1);
+        }
+
+        private String decodeString(int start, int end) {
+            int escape = start;
+            while (escape < end && buf[escape] != '\\') {
+                escape++;
+            }
+            if (escape == end) {
+                return new String(buf, start, end - start, StandardCharsets.UTF_8);
+            }
+
+            StringBuilder decoded = new StringBuilder(end - start).append(new String(buf, start, escape - start, StandardCharsets.UTF_8));
+            int p = escape;
+            while (p < end) {
+                int chunkStart = p;
+                while (p < end && buf[p] != '\\') {
+                    p++;
+                }
+                decoded.append(new String(buf, chunkStart, p - chunkStart, StandardCharsets.UTF_8));
+                if (p == end) {
+                    break;
+                }
+                byte escaped = buf[p + 1];
+                p += 2;
+                switch (escaped) {
+                    case '"', '\\', '/' -> decoded.append((char) escaped);
+                    case 'b' -> decoded.append('\b');
+                    case 'f' -> decoded.append('\f');
+                    case 'n' -> decoded.append('\n');
+                    case 'r' -> decoded.append('\r');
+                    case 't' -> decoded.append('\t');
+                    case 'u' -> {
+                        int code = p + 4 <= end ? hex(p) : -1;
+                        if (code < 0) {
+                            return null;
+                        }
+                        decoded.append((char) code);
+                        p += 4;
+                    }
+                    default -> {
+                        return null;
+                    }
+                }
+            }
+            return decoded.toString();
+        }
+
+        private int hex(int from) {
+            int value = 0;
+            for (int i = from; i < from + 4; i++) {
+                int digit = Character.digit(buf[i], 16);
+                if (digit < 0) {
+                    return -1;
+                }
+                value = value * 16 + digit;
+            }
+            return value;
+        }
+
+        private boolean skipValue(int depth) {
+            if (depth > MAX_DEPTH || pos == buf.length) {
+                return false;
+            }
+            byte b = buf[pos];
+            if (b == '{' || b == '[') {
+                pos++;
+                char closing = b == '{' ? '}' : ']';
+                skipWhitespace();
+                if (consume(closing)) {
+                    return true;
+                }
+                do {
+                    skipWhitespace();
+                    if (b == '{' && !skipMemberName()) {
+                        return false;
+                    }
+                    skipWhitespace();
+                    if (!skipValue(depth + 1)) {
+                        return false;
+                    }
+                    skipWhitespace();
+                } while (consume(','));
+                return consume(closing);
+            }
+            if (b == '"') {
+                pos++;
+                return skipStringBody();
+            }
+            if (b == '-' || isDigit(b)) {
+                return skipNumber();
+            }
+            return consumeLiteral("true") || consumeLiteral("false") || consumeLiteral("null");
+        }
+
+        private boolean skipMemberName() {
+            skipWhitespace();
+            if (!consume('"') || !skipStringBody()) {
+                return false;
+            }
+            skipWhitespace();
+            return consume(':');
+        }
+
+        private boolean skipStringBody() {
+            while (pos < buf.length) {
+                byte b = buf[pos++];
+                if (b == '"') {
+                    return true;
+                }
+                if (b == '\\') {
+                    if (pos == buf.length) {
+                        return false;
+                    }
+                    pos++;
+                } else if (b >= 0 && b < 0x20) {
+                    return false;
+                }
+            }
+            return false;
+        }
+
+        private boolean skipNumber() {
+            consume('-');
+            if (consume('0')) {
+                if (pos < buf.length && isDigit(buf[pos])) {
+                    return false;
+                }
+            } else if (skipDigits() == 0) {
+                return false;
+            }
+            if (consume('.') && skipDigits() == 0) {
+                return false;
+            }
+            if (consume('e') || consume('E')) {
+                if (!consume('+')) {
+                    consume('-');
+                }
+                int exponentDigits = skipDigits();
+                return exponentDigits > 0 && exponentDigits <= MAX_EXPONENT_DIGITS;
+            }
+            return true;
+        }
+
+        private int skipDigits() {
+            int start = pos;
+            while (pos < buf.length && isDigit(buf[pos])) {
+                pos++;
+            }
+            return pos - start;
+        }
+
+        private boolean nameEquals(int start, int end, byte[] name) {
+            if (end - start != name.length) {
+                return false;
+            }
+            for (int i = 0; i < name.length; i++) {
+                if (buf[start + i] != name[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean consumeLiteral(String literal) {
+            if (pos + literal.length() > buf.length) {
+                return false;
+            }
+            for (int i = 0; i < literal.length(); i++) {
+                if (buf[pos + i] != literal.charAt(i)) {
+                    return false;
+                }
+            }
+            pos += literal.length();
+            return true;
+        }
+
+        private boolean consume(char expected) {
+            if (pos < buf.length && buf[pos] == expected) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void skipWhitespace() {
+            while (pos < buf.length) {
+                byte b = buf[pos];
+                if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                    return;
+                }
+                pos++;
+            }
+        }
+    }
+
+    static OffsetDateTime parseOffsetDateTime(byte[] buf, int start, int end) {
+        int p = start;
+        if (end - p < 16) {
+            return null;
+        }
+        int year = digits(buf, p, 4);
+        int month = digits(buf, p + 5, 2);
+        int day = digits(buf, p + 8, 2);
+        int hour = digits(buf, p + 11, 2);
+        int minute = digits(buf, p + 14, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || hour < 0 || hour > 23 || minute < 0 || minute > 59
+            || buf[p + 4] != '-' || buf[p + 7] != '-' || (buf[p + 10] != 'T' && buf[p + 10] != 't') || buf[p + 13] != ':') {
+            return null;
+        }
+        if (day > lengthOfMonth(year, month)) {
+            return null;
+        }
+        p += 16;
+
+        int second = 0;
+        int nano = 0;
+        if (p < end && buf[p] == ':') {
+            second = digits(buf, p + 1, 2);
+            if (second < 0 || second > 59 || p + 3 > end) {
+                return null;
+            }
+            p += 3;
+            if (p < end && buf[p] == '.') {
+                p++;
+                int fractionDigits = 0;
+                while (p < end && isDigit(buf[p])) {
+                    if (++fractionDigits > 9) {
+                        return null;
+                    }
+                    nano = nano * 10 + (buf[p++] - '0');
+                }
+                if (fractionDigits == 0) {
+                    return null;
+                }
+                for (int i = fractionDigits; i < 9; i++) {
+                    nano *= 10;
+                }
+            }
+        }
+
+        if (p >= end) {
+            return null;
+        }
+        int offsetSeconds;
+        if ((buf[p] == 'Z' || buf[p] == 'z') && p + 1 == end) {
+            offsetSeconds = 0;
+        } else if (buf[p] == '+' || buf[p] == '-') {
+            int sign = buf[p] == '-' ? -1 : 1;
+            int length = end - p - 1;
+            int offsetHours = digits(buf, p + 1, 2);
+            int offsetMinutes = length >= 5 && buf[p + 3] == ':' ? digits(buf, p + 4, 2) : -1;
+            int offsetSecondsPart = 0;
+            if (length == 8) {
+                offsetSecondsPart = buf[p + 6] == ':' ? digits(buf, p + 7, 2) : -1;
+            } else if (length != 5) {
+                return null;
+            }
+            if (offsetHours < 0 || offsetMinutes < 0 || offsetMinutes > 59 || offsetSecondsPart < 0 || offsetSecondsPart > 59) {
+                return null;
+            }
+            offsetSeconds = sign * (offsetHours * 3600 + offsetMinutes * 60 + offsetSecondsPart);
+            if (Math.abs(offsetSeconds) > 18 * 3600) {
+                return null;
+            }
+        } else {
+            return null;
+        }
+
+        return OffsetDateTime.of(year, month, day, hour, minute, second, nano, ZoneOffset.ofTotalSeconds(offsetSeconds));
+    }
+
+    private static int digits(byte[] buf, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            if (i >= buf.length || !isDigit(buf[i])) {
+                return -1;
+            }
+            value = value * 10 + (buf[i] - '0');
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+}
@@ -0,0 +1,108 @@
+package challenge.dev.raniery.itaubackend.validation;
+
+import challenge.dev.raniery.itaubackend.config.ClockProperties;
+import challenge.dev.raniery.itaubackend.dto.TransactionRequest;
+import challenge.dev.raniery.itaubackend.engine.Amounts;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+
+@Component
+public class TransactionValidator {
+
+    static final int MAX_CHAVE_IDEMPOTENCIA_LENGTH = 128;
+    static final int MAX_CONTA_LENGTH = 64;
+
+    private final Clock clock;
+    private final long futureToleranceMillis;
+
+    public TransactionValidator(Clock clock, ClockProperties clockProperties) {
+        this.clock = clock;
+        this.futureToleranceMillis = clockProperties.futureTolerance().toMillis();
+    }
+
+    public ValidationResult validate(TransactionRequest request) {
+        ValidationResult result = validate(request.valor(), request.dataHora(), clock.millis() + futureToleranceMillis);
+        if (result == ValidationResult.FUTURE_DATA_HORA && !request.dataHora().toInstant().isAfter(latestAccepted())) {
+            result = ValidationResult.VALID;
+        }
+        if (result.isValid() && !isValidChaveIdempotencia(request.chaveIdempotencia())) {
+            return ValidationResult.INVALID_CHAVE_IDEMPOTENCIA;
+        }
+        if (result.isValid() && !isValidConta(request.conta())) {
+            return ValidationResult.INVALID_CONTA;
+        }
+        return result;
+    }
+
+    public ValidationResult validate(long epochMillis, long amount) {
+        if (amount < 0) {
+            return ValidationResult.NEGATIVE_VALOR;
+        }
+        if (!Amounts.isRepresentable(amount)) {
+            return ValidationResult.VALOR_OUT_OF_RANGE;
+        }
+        if (epochMillis > clock.millis() + futureToleranceMillis
+            && epochMillis > clock.instant().toEpochMilli() + futureToleranceMillis) {
+            return ValidationResult.FUTURE_DATA_HORA;
+        }
+        return ValidationResult.VALID;
+    }
+
+    /**
+     * The latest {@code dataHora} accepted right now: the precise clock instant plus
+     * {@code itau.clock.future-tolerance}.
+     */
+    public Instant latestAccepted() {
+        return clock.instant().plusMillis(futureToleranceMillis);
+    }
+
+    public static boolean isValidConta(String conta) {
+        return conta == null || (!conta.isBlank() && conta.length() <= MAX_CONTA_LENGTH);
+    }
+
+    /**
+     * Parses the {@code asOf} query parameter with the same RFC 3339 rules as {@code dataHora}, or
+     * returns {@code null} when it is malformed.
+     */
+    public static OffsetDateTime parseAsOf(String asOf) {
+        byte[] text = asOf.getBytes(StandardCharsets.US_ASCII);
+        return TransactionPayloadReader.parseOffsetDateTime(text, 0, text.length);
+    }
+
+    static boolean isValidChaveIdempotencia(String chaveIdempotencia) {
+        return chaveIdempotencia == null
+            || (!chaveIdempotencia.isBlank() && chaveIdempotencia.length() <= MAX_CHAVE_IDEMPOTENCIA_LENGTH);
+    }
+
+    ValidationResult validate(BigDecimal valor, OffsetDateTime dataHora, long nowMillis) {
+        if (valor == null) {
+            return ValidationResult.MISSING_VALOR;
+        }
+        if (valor.signum() < 0) {
+            return ValidationResult.NEGATIVE_VALOR;
+        }
+        if (!Amounts.isRepresentable(valor)) {
+            return ValidationResult.VALOR_OUT_OF_RANGE;
+        }
+        if (dataHora == null) {
+            return ValidationResult.MISSING_DATA_HORA;
+        }
+        if (ceilEpochMillis(dataHora) > nowMillis) {
+            return ValidationResult.FUTURE_DATA_HORA;
+        }
+        return ValidationResult.VALID;
+    }
+
+    /**
+     * Rounds sub-millisecond timestamps up, so the millisecond comparison never accepts a
+     * {@code dataHora} that is ahead of {@code nowMillis} by less than a millisecond.
+     */
+    private static long ceilEpochMillis(OffsetDateTime dataHora) {
+        return dataHora.toEpochSecond() * 1_000L + (dataHora.getNano() + 999_999) / 1_000_000;
+    }
+}
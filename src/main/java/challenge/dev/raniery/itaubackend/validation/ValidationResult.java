@@ -0,0 +1,18 @@
+package challenge.dev.raniery.itaubackend.validation;
+
+public enum ValidationResult {
+
+    VALID,
+    MALFORMED_PAYLOAD,
+    MISSING_VALOR,
+    NEGATIVE_VALOR,
+    VALOR_OUT_OF_RANGE,
+    MISSING_DATA_HORA,
+    FUTURE_DATA_HORA,
+    INVALID_CHAVE_IDEMPOTENCIA,
+    INVALID_CONTA;
+
+    public boolean isValid() {
+        return this == VALID;
+    }
+}
@@ -0,0 +1,98 @@
+package challenge.dev.raniery.itaubackend.wire;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Minimal CBOR (RFC 8949) encoder for the response bodies: definite-length maps and arrays, text
+ * strings, integers, booleans and doubles.
+ */
+public final class CborWriter {
+
+    private static final int MAJOR_UNSIGNED = 0;
+    private static final int MAJOR_NEGATIVE = 1;
+    private static final int MAJOR_TEXT = 3;
+    private static final int MAJOR_ARRAY = 4;
+    private static final int MAJOR_MAP = 5;
+    private static final int FALSE = 0xF4;
+    private static final int TRUE = 0xF5;
+    private static final int FLOAT64 = 0xFB;
+
+    private byte[] buf;
+    private int size;
+
+    public CborWriter(int initialCapacity) {
+        this.buf = new byte[initialCapacity];
+    }
+
+    public CborWriter map(int entries) {
+        return head(MAJOR_MAP, entries);
+    }
+
+    public CborWriter array(int items) {
+        return head(MAJOR_ARRAY, items);
+    }
+
+    public CborWriter text(String value) {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        head(MAJOR_TEXT, utf8.length);
+        ensure(utf8.length);
+        System.arraycopy(utf8, 0, buf, size, utf8.length);
+        size += utf8.length;
+        return this;
+    }
+
+    public CborWriter integer(long value) {
+        return value < 0 ? head(MAJOR_NEGATIVE, -1 - value) : head(MAJOR_UNSIGNED, value);
+    }
+
+    public CborWriter bool(boolean value) {
+        ensure(1);
+        buf[size++] = (byte) (value ? TRUE : FALSE);
+        return this;
+    }
+
+    public CborWriter float64(double value) {
+        ensure(9);
+        buf[size++] = (byte) FLOAT64;
+        writeBigEndian(Double.doubleToLongBits(value), 8);
+        return this;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buf, size);
+    }
+
+    private CborWriter head(int major, long argument) {
+        ensure(9);
+        int type = major << 5;
+        if (argument < 24) {
+            buf[size++] = (byte) (type | argument);
+        } else if (argument < 1L << 8) {
+            buf[size++] = (byte) (type | 24);
+            writeBigEndian(argument, 1);
+        } else if (argument < 1L << 16) {
+            buf[size++] = (byte) (type | 25);
+            writeBigEndian(argument, 2);
+        } else if (argument < 1L << 32) {
+            buf[size++] = (byte) (type | 26);
+            writeBigEndian(argument, 4);
+        } else {
+            buf[size++] = (byte) (type | 27);
+            writeBigEndian(argument, 8);
+        }
+        return this;
+    }
+
+    private void writeBigEndian(long value, int bytes) {
+        for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8) {
+            buf[size++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + extra));
+        }
+    }
+}
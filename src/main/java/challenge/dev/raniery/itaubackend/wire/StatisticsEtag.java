@@ -0,0 +1,77 @@
+package challenge.dev.raniery.itaubackend.wire;
+
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entity tag of {@code GET /estatistica}: the generation, the log version the snapshot was computed
+ * at, the instant its oldest row leaves the window and the wire format. Those three numbers are all
+ * it takes to tell whether the window changed, so a tag presented in {@code If-None-Match} can be
+ * checked without computing a snapshot.
+ */
+public final class StatisticsEtag {
+
+    private StatisticsEtag() {
+    }
+
+    public static String of(long generation, StatisticSnapshot snapshot, WireFormat format) {
+        return "\"" + generation + '-' + snapshot.getVersion() + '-' + snapshot.getValidUntil() + '-' + suffix(format) + '"';
+    }
+
+    /**
+     * Tags of an {@code If-None-Match} header issued for {@code format}, skipping entries that are
+     * not statistics tags.
+     */
+    public static List<Tag> parse(String ifNoneMatch, WireFormat format) {
+        if (ifNoneMatch == null) {
+            return List.of();
+        }
+        List<Tag> tags = new ArrayList<>(1);
+        for (String entry : ifNoneMatch.split(",")) {
+            String value = opaque(entry);
+            String[] parts = value.substring(1, value.length() - 1).split("-");
+            if (parts.length != 4 || !parts[3].equals(suffix(format))) {
+                continue;
+            }
+            try {
+                tags.add(new Tag(value, Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2])));
+            } catch (NumberFormatException e) {
+                // not one of ours
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * Weak comparison of {@code If-None-Match} against the current tag, as a {@code GET} requires.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String entry : ifNoneMatch.split(",")) {
+            String value = entry.trim();
+            if (value.equals("*") || opaque(value).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String entry) {
+        String value = entry.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        return value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"") ? value : "\"\"";
+    }
+
+    private static String suffix(WireFormat format) {
+        return format == WireFormat.CBOR ? "cbor" : "json";
+    }
+
+    public record Tag(String value, long generation, long version, long validUntil) {
+    }
+}
@@ -0,0 +1,44 @@
+package challenge.dev.raniery.itaubackend.wire;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Fixed-layout transaction records for {@link WireFormat#RECORDS}: each record is 16 bytes, the
+ * epoch millis of {@code dataHora} followed by {@code valor} in micro-units, both little-endian
+ * {@code long}s. Fields are read in place from the request buffer, so decoding creates no objects.
+ */
+public final class TransactionRecords {
+
+    public static final int RECORD_BYTES = 2 * Long.BYTES;
+
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private TransactionRecords() {
+    }
+
+    /**
+     * Number of records in the buffer, or {@code -1} when its length is not a whole number of them.
+     */
+    public static int count(byte[] buf) {
+        return buf.length % RECORD_BYTES == 0 ? buf.length / RECORD_BYTES : -1;
+    }
+
+    public static long epochMillis(byte[] buf, int record) {
+        return (long) LONG_LE.get(buf, record * RECORD_BYTES);
+    }
+
+    public static long amount(byte[] buf, int record) {
+        return (long) LONG_LE.get(buf, record * RECORD_BYTES + Long.BYTES);
+    }
+
+    public static byte[] encode(long[] epochMillis, long[] amounts) {
+        byte[] buf = new byte[epochMillis.length * RECORD_BYTES];
+        for (int i = 0; i < epochMillis.length; i++) {
+            LONG_LE.set(buf, i * RECORD_BYTES, epochMillis[i]);
+            LONG_LE.set(buf, i * RECORD_BYTES + Long.BYTES, amounts[i]);
+        }
+        return buf;
+    }
+}
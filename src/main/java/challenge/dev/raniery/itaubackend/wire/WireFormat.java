@@ -0,0 +1,57 @@
+package challenge.dev.raniery.itaubackend.wire;
+
+/**
+ * Encodings accepted by {@code POST /transacao} and {@code /transacao/lote} and produced by
+ * {@code GET /estatistica}. JSON stays the default; {@link #RECORDS} is only an ingestion format.
+ */
+public enum WireFormat {
+
+    JSON("application/json"),
+    CBOR("application/cbor"),
+    RECORDS("application/vnd.itau.transacao+binary");
+
+    private final String mediaType;
+
+    WireFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Format named by a {@code Content-Type} header, ignoring parameters, or {@code null} when it is
+     * missing or not supported.
+     */
+    public static WireFormat fromContentType(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        int parameters = contentType.indexOf(';');
+        String mediaType = (parameters < 0 ? contentType : contentType.substring(0, parameters)).trim();
+        for (WireFormat format : values()) {
+            if (format.mediaType.equalsIgnoreCase(mediaType)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Response format for an {@code Accept} header: the first listed range naming CBOR or JSON wins,
+     * and anything else, including a missing header or a wildcard, falls back to JSON.
+     */
+    public static WireFormat forAccept(String accept) {
+        if (accept == null) {
+            return JSON;
+        }
+        for (String range : accept.split(",")) {
+            WireFormat format = fromContentType(range);
+            if (format == JSON || format == CBOR) {
+                return format;
+            }
+        }
+        return JSON;
+    }
+}
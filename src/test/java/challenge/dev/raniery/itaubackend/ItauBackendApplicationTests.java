@@ -1,13 +1,69 @@
 package challenge.dev.raniery.itaubackend;
 
+import challenge.dev.raniery.itaubackend.admission.AdmissionController;
+import challenge.dev.raniery.itaubackend.config.ReplicationProperties;
+import challenge.dev.raniery.itaubackend.idempotency.IdempotencyRegistry;
+import challenge.dev.raniery.itaubackend.ingestion.IngestionPipeline;
+import challenge.dev.raniery.itaubackend.replication.Replication;
+import challenge.dev.raniery.itaubackend.replication.ReplicationTest;
+import challenge.dev.raniery.itaubackend.server.LeanHttpServer;
+import challenge.dev.raniery.itaubackend.service.StatisticsWatch;
+import challenge.dev.raniery.itaubackend.service.TransactionalService;
 import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 class ItauBackendApplicationTests {
 
+    @Autowired
+    private TransactionalService transactionalService;
+
+    @Autowired
+    private LeanHttpServer leanHttpServer;
+
+    @Autowired
+    private AdmissionController admissionController;
+
+    @Autowired
+    private IngestionPipeline ingestionPipeline;
+
+    @Autowired
+    private StatisticsWatch statisticsWatch;
+
+    @Autowired
+    private IdempotencyRegistry idempotencyRegistry;
+
     @Test
     void contextLoads() {
     }
 
+    @Test
+    void perTransactionPathsBypassTheLoggingAspect() {
+        assertTrue(AopUtils.isAopProxy(transactionalService));
+        assertUnadvised(ReflectionTestUtils.getField(leanHttpServer, "transactionalService"));
+        assertUnadvised(ReflectionTestUtils.getField(leanHttpServer, "statisticsWatch"));
+        assertUnadvised(ReflectionTestUtils.getField(ingestionPipeline, "transactionalService"));
+        StatisticsWatch watchTarget = AopTestUtils.getTargetObject(statisticsWatch);
+        assertUnadvised(ReflectionTestUtils.getField(watchTarget, "transactionalService"));
+        assertUnadvised(ReflectionTestUtils.getField(admissionController, "transactionalService"));
+
+        Replication standby = new Replication(ReplicationTest.properties(ReplicationProperties.Role.STANDBY, 0), transactionalService, idempotencyRegistry, Clock.systemUTC());
+        assertUnadvised(ReflectionTestUtils.getField(ReflectionTestUtils.getField(standby, "receiver"), "transactionalService"));
+    }
+
+    private static void assertUnadvised(Object bean) {
+        assertNotNull(bean);
+        assertFalse(AopUtils.isAopProxy(bean));
+    }
+
 }
@@ -0,0 +1,247 @@
+package challenge.dev.raniery.itaubackend.admission;
+
+import challenge.dev.raniery.itaubackend.config.AdmissionProperties;
+import challenge.dev.raniery.itaubackend.model.Transaction;
+import challenge.dev.raniery.itaubackend.service.TransactionalService;
+import challenge.dev.raniery.itaubackend.service.TransactionalServiceTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AdmissionController Tests")
+public class AdmissionControllerTest {
+
+    public static AdmissionProperties properties(long permitsPerSecond, int concurrencyLimit, long maxRetainedTransactions) {
+        return new AdmissionProperties(
+            true,
+            new AdmissionProperties.RateLimit(permitsPerSecond, 1),
+            new AdmissionProperties.Concurrency(concurrencyLimit, 1, concurrencyLimit, 2.0, Duration.ofMillis(100)),
+            new AdmissionProperties.Budget(maxRetainedTransactions, 1.0, Duration.ofMillis(250)));
+    }
+
+    private static Transaction transactionAt(Instant instant) {
+        return new Transaction(BigDecimal.TEN, OffsetDateTime.ofInstant(instant, ZoneOffset.UTC));
+    }
+
+    @Nested
+    @DisplayName("Rate Limit Tests")
+    class RateLimitTests {
+
+        @Test
+        @DisplayName("Should reject requests beyond the burst with RATE_LIMITED")
+        void shouldRejectRequestsBeyondBurst() {
+            AdmissionController controller = new AdmissionController(properties(1, 256, Long.MAX_VALUE), TransactionalServiceTest.newService(Clock.systemUTC()));
+
+            assertEquals(AdmissionDecision.ADMITTED, controller.tryAdmit());
+            assertEquals(AdmissionDecision.RATE_LIMITED, controller.tryAdmit());
+            assertEquals(1, controller.shedCount(AdmissionDecision.RATE_LIMITED));
+        }
+
+        @Test
+        @DisplayName("Should refill permits as time passes")
+        void shouldRefillPermitsAsTimePasses() {
+            TokenBucket bucket = new TokenBucket(10, 2, 0);
+
+            assertTrue(bucket.tryAcquire(0));
+            assertTrue(bucket.tryAcquire(0));
+            assertFalse(bucket.tryAcquire(0));
+            assertTrue(bucket.tryAcquire(100_000_000L));
+        }
+    }
+
+    @Nested
+    @DisplayName("Concurrency Limit Tests")
+    class ConcurrencyLimitTests {
+
+        @Test
+        @DisplayName("Should reject requests above the in-flight limit until one is released")
+        void shouldRejectRequestsAboveInFlightLimit() {
+            AdmissionController controller = new AdmissionController(properties(0, 2, Long.MAX_VALUE), TransactionalServiceTest.newService(Clock.systemUTC()));
+            long start = System.nanoTime();
+
+            assertEquals(AdmissionDecision.ADMITTED, controller.tryAdmit());
+            assertEquals(AdmissionDecision.ADMITTED, controller.tryAdmit());
+            assertEquals(AdmissionDecision.CONCURRENCY_LIMITED, controller.tryAdmit());
+
+            controller.release(start);
+            assertEquals(AdmissionDecision.ADMITTED, controller.tryAdmit());
+        }
+
+        @Test
+        @DisplayName("Should give back the rate permit of a request refused for concurrency")
+        void shouldRefundRatePermitOnConcurrencyRejection() {
+            AdmissionProperties limited = properties(1, 1, Long.MAX_VALUE);
+            AdmissionProperties burst = new AdmissionProperties(true, new AdmissionProperties.RateLimit(1, 2), limited.concurrency(), limited.budget());
+            AdmissionController controller = new AdmissionController(burst, TransactionalServiceTest.newService(Clock.systemUTC()));
+            long start = System.nanoTime();
+
+            assertEquals(AdmissionDecision.ADMITTED, controller.tryAdmit());
+            for (int i = 0; i < 5; i++) {
+                assertEquals(AdmissionDecision.CONCURRENCY_LIMITED, controller.tryAdmit());
+            }
+
+            controller.release(start);
+            assertEquals(AdmissionDecision.ADMITTED, controller.tryAdmit());
+        }
+
+        @Test
+        @DisplayName("Should shrink the limit when latency rises well above the baseline")
+        void shouldShrinkLimitWhenLatencyRises() {
+            AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 10, 1000, 2.0, 10, 0);
+
+            assertTrue(limit.tryAcquire());
+            limit.release(1_000, 10);
+            for (int i = 0; i < 20; i++) {
+                assertTrue(limit.tryAcquire());
+                limit.release(100_000, 20L + i * 10);
+            }
+
+            assertTrue(limit.getLimit() < 100);
+            assertTrue(limit.getLimit() >= 10);
+        }
+
+        @Test
+        @DisplayName("Should grow the limit while latency stays at the baseline and demand is high")
+        void shouldGrowLimitWhenLatencyIsStable() {
+            AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 1000, 2.0, 10, 0);
+
+            for (int round = 1; round <= 20; round++) {
+                for (int i = 0; i < 4; i++) {
+                    assertTrue(limit.tryAcquire());
+                }
+                for (int i = 0; i < 4; i++) {
+                    limit.release(1_000, round * 10L);
+                }
+            }
+
+            assertTrue(limit.getLimit() > 4);
+        }
+    }
+
+    @Nested
+    @DisplayName("Batch Tests")
+    class BatchTests {
+
+        @Test
+        @DisplayName("Should charge a batch one rate permit per transaction")
+        void shouldChargeRatePermitPerTransaction() {
+            TokenBucket bucket = new TokenBucket(10, 2, 0);
+
+            assertTrue(bucket.tryAcquire(0, 5));
+            assertFalse(bucket.tryAcquire(0));
+            assertFalse(bucket.tryAcquire(300_000_000L));
+            assertTrue(bucket.tryAcquire(400_000_000L));
+        }
+
+        @Test
+        @DisplayName("Should hold one in-flight permit per transaction of an admitted batch")
+        void shouldHoldConcurrencyPermitPerTransaction() {
+            AdmissionController controller = new AdmissionController(properties(0, 4, Long.MAX_VALUE), TransactionalServiceTest.newService(Clock.systemUTC()));
+            long start = System.nanoTime();
+
+            assertEquals(AdmissionDecision.ADMITTED, controller.tryAdmit(3));
+            assertEquals(AdmissionDecision.ADMITTED, controller.tryAdmit());
+            assertEquals(AdmissionDecision.CONCURRENCY_LIMITED, controller.tryAdmit());
+
+            controller.release(start, 3);
+            assertEquals(AdmissionDecision.ADMITTED, controller.tryAdmit());
+        }
+
+        @Test
+        @DisplayName("Should charge the rest of a batch admitted on its first permit")
+        void shouldChargeRestOfAdmittedBatch() {
+            TokenBucket bucket = new TokenBucket(10, 2, 0);
+            assertTrue(bucket.tryAcquire(0));
+            bucket.charge(0, 3);
+            assertFalse(bucket.tryAcquire(250_000_000L));
+
+            AdmissionController controller = new AdmissionController(properties(0, 4, Long.MAX_VALUE), TransactionalServiceTest.newService(Clock.systemUTC()));
+            long start = System.nanoTime();
+            assertEquals(AdmissionDecision.ADMITTED, controller.tryAdmit());
+            controller.charge(3);
+            assertEquals(AdmissionDecision.CONCURRENCY_LIMITED, controller.tryAdmit());
+
+            controller.release(start, 4);
+            assertEquals(AdmissionDecision.ADMITTED, controller.tryAdmit());
+        }
+
+        @Test
+        @DisplayName("Should keep batch latency out of the limit's gradient")
+        void shouldKeepBatchLatencyOutOfGradient() {
+            AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 10, 1000, 2.0, 10, 0);
+
+            assertTrue(limit.tryAcquire());
+            limit.release(1_000, 10);
+            for (int i = 0; i < 20; i++) {
+                assertTrue(limit.tryAcquire(50));
+                limit.release(50, 100_000, 20L + i * 10);
+                assertTrue(limit.tryAcquire());
+                limit.release(1_000, 25L + i * 10);
+            }
+
+            assertTrue(limit.getLimit() >= 100);
+            assertEquals(0, limit.getInFlight());
+        }
+
+        @Test
+        @DisplayName("Should count every transaction of a shed batch")
+        void shouldCountEveryShedTransaction() {
+            AdmissionController controller = new AdmissionController(properties(1, 256, Long.MAX_VALUE), TransactionalServiceTest.newService(Clock.systemUTC()));
+
+            assertEquals(AdmissionDecision.ADMITTED, controller.tryAdmit(50));
+            assertEquals(AdmissionDecision.RATE_LIMITED, controller.tryAdmit(50));
+            assertEquals(50, controller.shedCount(AdmissionDecision.RATE_LIMITED));
+        }
+    }
+
+    @Nested
+    @DisplayName("Budget Tests")
+    class BudgetTests {
+
+        @Test
+        @DisplayName("Should shed with BACKLOG_EXCEEDED when retained transactions reach the budget")
+        void shouldShedWhenBacklogIsFull() {
+            TransactionalService service = TransactionalServiceTest.newService(Clock.systemUTC());
+            service.addTransaction(transactionAt(Instant.now()));
+            service.addTransaction(transactionAt(Instant.now()));
+            AdmissionController controller = new AdmissionController(properties(0, 256, 2), service);
+
+            assertEquals(AdmissionDecision.BACKLOG_EXCEEDED, controller.tryAdmit());
+            assertEquals(1, controller.shedCount(AdmissionDecision.BACKLOG_EXCEEDED));
+        }
+
+        @Test
+        @DisplayName("Should evict expired transactions before shedding on backlog")
+        void shouldEvictExpiredTransactionsBeforeShedding() {
+            TransactionalService service = TransactionalServiceTest.newService(Clock.systemUTC());
+            for (int i = 0; i < 10_000; i++) {
+                service.addTransaction(transactionAt(Instant.now().minusSeconds(120)));
+            }
+            AdmissionController controller = new AdmissionController(properties(0, 256, 10_000), service);
+
+            assertEquals(AdmissionDecision.ADMITTED, controller.tryAdmit());
+            assertTrue(service.getRetainedCount() < 10_000);
+        }
+
+        @Test
+        @DisplayName("Should admit everything when admission control is disabled")
+        void shouldAdmitEverythingWhenDisabled() {
+            AdmissionProperties enabled = properties(1, 1, 0);
+            AdmissionProperties disabled = new AdmissionProperties(false, enabled.rateLimit(), enabled.concurrency(), enabled.budget());
+            AdmissionController controller = new AdmissionController(disabled, TransactionalServiceTest.newService(Clock.systemUTC()));
+
+            for (int i = 0; i < 10; i++) {
+                assertEquals(AdmissionDecision.ADMITTED, controller.tryAdmit());
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package challenge.dev.raniery.itaubackend.benchmark;
+
+import challenge.dev.raniery.itaubackend.engine.AccountWindows;
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-account record and lookup over a few hundred thousand accounts; run with {@code -prof gc} to
+ * check that recording into an existing account allocates nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AccountWindowsBenchmark {
+
+    private static final long WINDOW_MILLIS = 60_000L;
+    private static final long NOW = 1_748_352_600_000L;
+
+    @Param({"10000", "300000"})
+    private int accounts;
+
+    private AccountWindows windows;
+    private String[] contas;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        windows = new AccountWindows(WINDOW_MILLIS, 2_000L, 1L << 30, 64);
+        contas = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            contas[i] = "conta-" + i;
+            windows.record(contas[i], NOW - i % WINDOW_MILLIS, 1_000_000L);
+        }
+    }
+
+    @Benchmark
+    public void record() {
+        String conta = contas[next++ % accounts];
+        windows.record(conta, NOW, 2_000_000L);
+    }
+
+    @Benchmark
+    public StatisticSnapshot snapshot() {
+        return windows.snapshot(contas[next++ % accounts], NOW, 0);
+    }
+}
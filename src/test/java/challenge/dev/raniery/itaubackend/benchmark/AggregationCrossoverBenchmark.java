@@ -0,0 +1,59 @@
+package challenge.dev.raniery.itaubackend.benchmark;
+
+import challenge.dev.raniery.itaubackend.engine.ParallelAggregator;
+import challenge.dev.raniery.itaubackend.engine.TransactionLog;
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serial versus fork/join snapshots by retained size, with every chunk straddling the window edge.
+ * The smallest row count where a parallelism above 1 wins is the value for
+ * {@code itau.aggregation.parallel-threshold} on that machine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "--add-modules", "jdk.incubator.vector"})
+public class AggregationCrossoverBenchmark {
+
+    private static final long WINDOW_MILLIS = 60_000L;
+    private static final Instant NOW = Instant.parse("2025-05-27T13:30:00Z");
+
+    @Param({"16384", "65536", "262144", "1048576", "4194304"})
+    private int rows;
+
+    @Param({"1", "2", "4"})
+    private int parallelism;
+
+    private final Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+    private TransactionLog log;
+    private ParallelAggregator aggregator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(7);
+        log = new TransactionLog();
+        for (int i = 0; i < rows; i++) {
+            log.append(NOW.toEpochMilli() - random.nextLong(2 * WINDOW_MILLIS), random.nextLong(1, 100_000_000_000L));
+        }
+        aggregator = new ParallelAggregator(parallelism, 0, 65_536);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        aggregator.close();
+    }
+
+    @Benchmark
+    public StatisticSnapshot snapshot() {
+        return log.snapshot(clock, WINDOW_MILLIS, aggregator);
+    }
+}
@@ -0,0 +1,66 @@
+package challenge.dev.raniery.itaubackend.benchmark;
+
+import challenge.dev.raniery.itaubackend.config.StatisticsProperties;
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+import challenge.dev.raniery.itaubackend.service.TransactionalService;
+import challenge.dev.raniery.itaubackend.service.TransactionalServiceTest;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A write followed by {@code /estatistica} over a full window, so every read computes. Exact mode
+ * visits each chunk summary of the window and scans the chunks at its edge; approximate mode sums
+ * the time buckets and scans the sample of the bucket at the edge, whatever the volume. The
+ * tear-down prints how far the approximate answer drifted from the exact one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ApproximateStatisticsBenchmark {
+
+    @Param({"1000000", "8000000"})
+    private int rows;
+
+    @Param({"false", "true"})
+    private boolean approximate;
+
+    private TransactionalService transactionalService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        transactionalService = TransactionalServiceTest.newService(Clock.systemUTC(), Duration.ZERO, Duration.ZERO,
+            new StatisticsProperties.Approximate(approximate, 0, 1024, Duration.ofSeconds(1)));
+        SplittableRandom random = new SplittableRandom(7);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < rows; i++) {
+            long epochMillis = now - 59_999 + (long) i * 60_000 / rows;
+            long amount = random.nextLong(1, 10_000_000) * 10_000;
+            transactionalService.addTransaction(epochMillis, amount);
+            transactionalService.indexTransaction(epochMillis, amount, null);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        StatisticSnapshot answered = transactionalService.getStatistics();
+        StatisticSnapshot exact = transactionalService.currentLog().snapshot(Clock.systemUTC(), 60_000);
+        System.out.printf("%ncount %d (exato %d), avg %.4f (exato %.4f), min %.2f (exato %.2f), max %.2f (exato %.2f)%n",
+            answered.getCount(), exact.getCount(), answered.getAverage(), exact.getAverage(),
+            answered.getMin(), exact.getMin(), answered.getMax(), exact.getMax());
+    }
+
+    @Benchmark
+    public StatisticSnapshot writeThenRead() {
+        long now = System.currentTimeMillis();
+        transactionalService.addTransaction(now, 1_000_000);
+        transactionalService.indexTransaction(now, 1_000_000, null);
+        return transactionalService.getStatistics();
+    }
+}
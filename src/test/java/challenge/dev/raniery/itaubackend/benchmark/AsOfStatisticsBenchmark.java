@@ -0,0 +1,58 @@
+package challenge.dev.raniery.itaubackend.benchmark;
+
+import challenge.dev.raniery.itaubackend.engine.RowScanner;
+import challenge.dev.raniery.itaubackend.engine.TransactionLog;
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics over ten minutes of retained history at 5000 transactions per second. {@code asOf}
+ * asks for the window ending {@code ageSeconds} ago and {@code live} for the current one; both start
+ * from the chunk found in the ceiling index, so the older history costs no more than a few summaries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AsOfStatisticsBenchmark {
+
+    private static final long WINDOW_MILLIS = 60_000L;
+    private static final long HISTORY_MILLIS = 10 * WINDOW_MILLIS;
+    private static final int ROWS = 3_000_000;
+    private static final Instant NOW = Instant.parse("2025-05-27T13:30:00Z");
+
+    @Param({"0", "270", "540"})
+    private long ageSeconds;
+
+    private final Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+    private TransactionLog log;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(7);
+        log = new TransactionLog(RowScanner.preferred(), false);
+        long start = NOW.toEpochMilli() - HISTORY_MILLIS;
+        for (int i = 0; i < ROWS; i++) {
+            long arrival = start + (long) i * HISTORY_MILLIS / ROWS;
+            log.append(arrival - random.nextLong(200), random.nextLong(1, 10_000_000) * 10_000);
+        }
+    }
+
+    @Benchmark
+    public StatisticSnapshot asOf() {
+        return log.snapshotAsOf(NOW.toEpochMilli() - ageSeconds * 1_000, WINDOW_MILLIS);
+    }
+
+    @Benchmark
+    public StatisticSnapshot live() {
+        return log.snapshot(clock, WINDOW_MILLIS);
+    }
+}
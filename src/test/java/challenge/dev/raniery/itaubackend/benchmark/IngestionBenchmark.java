@@ -0,0 +1,64 @@
+package challenge.dev.raniery.itaubackend.benchmark;
+
+import challenge.dev.raniery.itaubackend.config.IngestionProperties;
+import challenge.dev.raniery.itaubackend.ingestion.IngestionPipeline;
+import challenge.dev.raniery.itaubackend.ingestion.IngestionPipelineTest;
+import challenge.dev.raniery.itaubackend.ingestion.IntakeOutcome;
+import challenge.dev.raniery.itaubackend.model.Transaction;
+import challenge.dev.raniery.itaubackend.service.TransactionalService;
+import challenge.dev.raniery.itaubackend.service.TransactionalServiceTest;
+import challenge.dev.raniery.itaubackend.replication.ReplicationTest;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Direct concurrent appends versus the MPSC ring. Run once per producer count, e.g.
+ * {@code -Dbenchmark.args="IngestionBenchmark -t 16"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class IngestionBenchmark {
+
+    @Param({"direct", "ring-enqueue", "ring-applied"})
+    private String mode;
+
+    private TransactionalService transactionalService;
+    private IngestionPipeline pipeline;
+    private Transaction transaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        transactionalService = TransactionalServiceTest.newService(Clock.systemUTC());
+        IngestionProperties properties = switch (mode) {
+            case "ring-enqueue" -> IngestionPipelineTest.properties(IngestionProperties.Mode.RING, IngestionProperties.Ack.ENQUEUE);
+            case "ring-applied" -> IngestionPipelineTest.properties(IngestionProperties.Mode.RING, IngestionProperties.Ack.APPLIED);
+            default -> IngestionPipelineTest.properties(IngestionProperties.Mode.DIRECT, IngestionProperties.Ack.APPLIED);
+        };
+        pipeline = new IngestionPipeline(properties, transactionalService, ReplicationTest.disabled(transactionalService));
+        pipeline.start();
+        transaction = new Transaction(BigDecimal.TEN, OffsetDateTime.now().minusSeconds(5));
+    }
+
+    @Setup(Level.Iteration)
+    public void resetGeneration() {
+        transactionalService.clearTransactions();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pipeline.stop();
+    }
+
+    @Benchmark
+    public IntakeOutcome submit() {
+        return pipeline.submit(transaction);
+    }
+}
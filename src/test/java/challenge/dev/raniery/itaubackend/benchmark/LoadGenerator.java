@@ -0,0 +1,384 @@
+package challenge.dev.raniery.itaubackend.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for {@code POST /transacao} and {@code GET /estatistica}. Requests are
+ * issued on a fixed schedule at the configured rate, each on its own virtual thread over a bounded
+ * number of keep-alive connections, so a slow response never delays the next send. Latency is measured from the
+ * scheduled start rather than from the actual send, so time spent waiting for a connection counts
+ * too; this corrects for coordinated omission; the
+ * uncorrected service time is kept alongside for comparison. The JSON report carries percentiles,
+ * status counts and the encoded histograms, and {@code --baseline} prints the deltas to a previous
+ * report.
+ */
+public final class LoadGenerator {
+
+    private static final String USAGE = """
+        Uso: LoadGenerator [--opção=valor ...]
+          --url=http://localhost:8080   endereço da aplicação
+          --rate=1000                   requisições por segundo (laço aberto)
+          --duration=60s                duração da medição
+          --warmup=10s                  aquecimento descartado do relatório
+          --read-ratio=0.1              fração de GET /estatistica
+          --invalid-ratio=0.01          fração de POST /transacao com payload inválido
+          --max-age=30s                 idade máxima de dataHora nas transações válidas
+          --skew=0ms                    desvio de relógio aplicado a dataHora, para mais ou para menos
+          --connections=64              conexões keep-alive simultâneas
+          --timeout=5s                  tempo limite por requisição
+          --max-in-flight=10000         requisições pendentes antes de descartar envios
+          --label=                      rótulo da execução, por exemplo a versão
+          --report=target/load-report.json
+          --baseline=                   relatório anterior para comparação
+        """;
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final Options options;
+    private final HttpClient httpClient;
+    private final Map<Operation, Stats> stats = new LinkedHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Semaphore connections;
+
+    LoadGenerator(Options options) {
+        this.options = options;
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(options.timeout())
+            .build();
+        this.connections = new Semaphore(options.connections());
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(USAGE);
+            System.exit(2);
+            return;
+        }
+        new LoadGenerator(options).run();
+    }
+
+    private void run() throws Exception {
+        System.out.printf("Carga de %d req/s por %ds (+%ds de aquecimento) em %s%n",
+            options.rate(), options.duration().toSeconds(), options.warmup().toSeconds(), options.url());
+
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+        double intervalNanos = 1e9 / options.rate();
+        Instant startedAt = Instant.now();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long intended = start + (long) (i * intervalNanos);
+                if (intended >= end) {
+                    break;
+                }
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Operation operation = Operation.pick(options);
+                boolean measured = intended >= measureFrom;
+                if (inFlight.get() >= options.maxInFlight()) {
+                    if (measured) {
+                        stats.get(operation).count("saturated");
+                    }
+                    continue;
+                }
+                inFlight.incrementAndGet();
+                executor.execute(() -> {
+                    try {
+                        send(operation, intended, measured);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+        }
+
+        Map<String, Object> report = report(startedAt);
+        Files.createDirectories(options.report().toAbsolutePath().getParent());
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        mapper.writeValue(options.report().toFile(), report);
+        printSummary();
+        System.out.println("Relatório gravado em " + options.report());
+        if (options.baseline() != null) {
+            compare(mapper.readTree(options.baseline().toFile()), mapper.valueToTree(report));
+        }
+    }
+
+    private void send(Operation operation, long intended, boolean measured) {
+        HttpRequest request = operation.request(options);
+        connections.acquireUninterruptibly();
+        long sent = System.nanoTime();
+        String outcome;
+        try {
+            outcome = Integer.toString(httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+        } catch (Exception e) {
+            outcome = e.getClass().getSimpleName();
+        } finally {
+            connections.release();
+        }
+        long done = System.nanoTime();
+        if (measured) {
+            Stats operationStats = stats.get(operation);
+            operationStats.corrected.recordValue(Math.max(0, (done - intended) / 1_000));
+            operationStats.uncorrected.recordValue(Math.max(0, (done - sent) / 1_000));
+            operationStats.count(outcome);
+        }
+    }
+
+    private Map<String, Object> report(Instant startedAt) {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("url", options.url().toString());
+        config.put("rate", options.rate());
+        config.put("durationSeconds", options.duration().toSeconds());
+        config.put("warmupSeconds", options.warmup().toSeconds());
+        config.put("readRatio", options.readRatio());
+        config.put("invalidRatio", options.invalidRatio());
+        config.put("maxAgeMillis", options.maxAge().toMillis());
+        config.put("skewMillis", options.skew().toMillis());
+        config.put("connections", options.connections());
+        config.put("timeoutMillis", options.timeout().toMillis());
+        config.put("maxInFlight", options.maxInFlight());
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Stats operationStats = entry.getValue();
+            Map<String, Object> operation = new LinkedHashMap<>();
+            operation.put("requests", operationStats.corrected.getTotalCount());
+            operation.put("throughputPerSecond", (double) operationStats.corrected.getTotalCount() / options.duration().toSeconds());
+            operation.put("statuses", operationStats.statuses());
+            operation.put("latencyMicros", latency(operationStats.corrected));
+            operation.put("serviceTimeMicros", latency(operationStats.uncorrected));
+            operations.put(entry.getKey().key, operation);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", options.label());
+        report.put("startedAt", startedAt.toString());
+        report.put("javaVersion", Runtime.version().toString());
+        report.put("config", config);
+        report.put("operations", operations);
+        return report;
+    }
+
+    private static Map<String, Object> latency(Histogram histogram) {
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("mean", histogram.getTotalCount() == 0 ? 0 : histogram.getMean());
+        for (double percentile : PERCENTILES) {
+            latency.put("p" + percentileName(percentile), histogram.getValueAtPercentile(percentile));
+        }
+        latency.put("max", histogram.getMaxValue());
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        latency.put("histogram", Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length)));
+        return latency;
+    }
+
+    private static String percentileName(double percentile) {
+        return percentile == Math.rint(percentile) ? Integer.toString((int) percentile) : Double.toString(percentile).replace(".", "");
+    }
+
+    private void printSummary() {
+        System.out.printf("%-16s %9s %9s %9s %9s %9s %9s  %s%n", "operação", "total", "p50 µs", "p99 µs", "p99.9 µs", "max µs", "p99 srv", "status");
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Histogram corrected = entry.getValue().corrected;
+            System.out.printf("%-16s %9d %9d %9d %9d %9d %9d  %s%n", entry.getKey().key, corrected.getTotalCount(),
+                corrected.getValueAtPercentile(50), corrected.getValueAtPercentile(99), corrected.getValueAtPercentile(99.9),
+                corrected.getMaxValue(), entry.getValue().uncorrected.getValueAtPercentile(99), entry.getValue().statuses());
+        }
+    }
+
+    private static void compare(JsonNode baseline, JsonNode current) {
+        System.out.printf("Comparação com \"%s\" (%s):%n", baseline.path("label").asText(), baseline.path("startedAt").asText());
+        current.path("operations").properties().forEach(operation -> {
+            JsonNode before = baseline.path("operations").path(operation.getKey()).path("latencyMicros");
+            JsonNode after = operation.getValue().path("latencyMicros");
+            StringBuilder line = new StringBuilder(String.format("%-16s", operation.getKey()));
+            for (String field : new String[]{"p50", "p99", "p999", "max"}) {
+                long was = before.path(field).asLong();
+                long now = after.path(field).asLong();
+                line.append(String.format(" %s %d→%d µs (%s)", field, was, now, was == 0 ? "n/d" : String.format("%+.1f%%", 100.0 * (now - was) / was)));
+            }
+            System.out.println(line);
+        });
+    }
+
+    enum Operation {
+        WRITE("write"),
+        INVALID_WRITE("invalidWrite"),
+        READ("read");
+
+        private final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+
+        static Operation pick(Options options) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < options.readRatio()) {
+                return READ;
+            }
+            return random.nextDouble() < options.invalidRatio() ? INVALID_WRITE : WRITE;
+        }
+
+        HttpRequest request(Options options) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(options.timeout());
+            return switch (this) {
+                case READ -> builder.uri(options.url().resolve("/estatistica")).GET().build();
+                case WRITE -> post(builder, options, validPayload(options));
+                case INVALID_WRITE -> post(builder, options, invalidPayload());
+            };
+        }
+
+        private static HttpRequest post(HttpRequest.Builder builder, Options options, String body) {
+            return builder.uri(options.url().resolve("/transacao"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        }
+
+        static String validPayload(Options options) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long ageMillis = options.maxAge().isZero() ? 0 : random.nextLong(options.maxAge().toMillis() + 1);
+            long skewMillis = options.skew().isZero() ? 0 : random.nextLong(-options.skew().toMillis(), options.skew().toMillis() + 1);
+            OffsetDateTime dataHora = OffsetDateTime.now(ZoneOffset.UTC).minusNanos((ageMillis - skewMillis) * 1_000_000);
+            long cents = random.nextLong(1, 100_000_00);
+            return "{\"valor\":%d.%02d,\"dataHora\":\"%s\"}".formatted(cents / 100, cents % 100, dataHora);
+        }
+
+        static String invalidPayload() {
+            String dataHora = OffsetDateTime.now(ZoneOffset.UTC).toString();
+            return switch (ThreadLocalRandom.current().nextInt(4)) {
+                case 0 -> "{\"valor\":-1.00,\"dataHora\":\"%s\"}".formatted(dataHora);
+                case 1 -> "{\"valor\":1.00,\"dataHora\":\"%s\"}".formatted(OffsetDateTime.now(ZoneOffset.UTC).plusHours(1));
+                case 2 -> "{\"dataHora\":\"%s\"}".formatted(dataHora);
+                default -> "{\"valor\":1.00,\"dataHora\":";
+            };
+        }
+    }
+
+    private static final class Stats {
+
+        private final Histogram corrected = new ConcurrentHistogram(3);
+        private final Histogram uncorrected = new ConcurrentHistogram(3);
+        private final ConcurrentHashMap<String, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        void count(String outcome) {
+            statuses.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+        }
+
+        Map<String, Long> statuses() {
+            Map<String, Long> counts = new TreeMap<>();
+            statuses.forEach((outcome, count) -> counts.put(outcome, count.sum()));
+            return counts;
+        }
+    }
+
+    record Options(URI url, int rate, Duration duration, Duration warmup, double readRatio, double invalidRatio,
+                   Duration maxAge, Duration skew, int connections, Duration timeout, int maxInFlight, String label, Path report, Path baseline) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new LinkedHashMap<>();
+            values.put("url", "http://localhost:8080");
+            values.put("rate", "1000");
+            values.put("duration", "60s");
+            values.put("warmup", "10s");
+            values.put("read-ratio", "0.1");
+            values.put("invalid-ratio", "0.01");
+            values.put("max-age", "30s");
+            values.put("skew", "0ms");
+            values.put("connections", "64");
+            values.put("timeout", "5s");
+            values.put("max-in-flight", "10000");
+            values.put("label", "");
+            values.put("report", "target/load-report.json");
+            values.put("baseline", "");
+            for (String arg : args) {
+                int equals = arg.indexOf('=');
+                String key = arg.startsWith("--") && equals > 2 ? arg.substring(2, equals) : null;
+                if (key == null || !values.containsKey(key)) {
+                    throw new IllegalArgumentException("Opção desconhecida: " + arg);
+                }
+                values.put(key, arg.substring(equals + 1));
+            }
+            try {
+                Options options = new Options(
+                    URI.create(values.get("url")),
+                    Integer.parseInt(values.get("rate")),
+                    duration(values.get("duration")),
+                    duration(values.get("warmup")),
+                    Double.parseDouble(values.get("read-ratio")),
+                    Double.parseDouble(values.get("invalid-ratio")),
+                    duration(values.get("max-age")),
+                    duration(values.get("skew")),
+                    Integer.parseInt(values.get("connections")),
+                    duration(values.get("timeout")),
+                    Integer.parseInt(values.get("max-in-flight")),
+                    values.get("label"),
+                    Path.of(values.get("report")),
+                    values.get("baseline").isEmpty() ? null : Path.of(values.get("baseline")));
+                if (options.rate() <= 0 || options.duration().toSeconds() <= 0 || options.connections() <= 0 || options.maxInFlight() <= 0
+                    || options.readRatio() < 0 || options.readRatio() > 1 || options.invalidRatio() < 0 || options.invalidRatio() > 1) {
+                    throw new IllegalArgumentException("Opções fora do intervalo válido: " + values);
+                }
+                return options;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Valor inválido: " + e.getMessage());
+            }
+        }
+
+        private static Duration duration(String value) {
+            int unit = 0;
+            while (unit < value.length() && Character.isDigit(value.charAt(unit))) {
+                unit++;
+            }
+            long amount = Long.parseLong(value.substring(0, unit));
+            return switch (value.substring(unit)) {
+                case "ms" -> Duration.ofMillis(amount);
+                case "s", "" -> Duration.ofSeconds(amount);
+                case "m" -> Duration.ofMinutes(amount);
+                default -> throw new IllegalArgumentException("Duração inválida: " + value);
+            };
+        }
+    }
+}
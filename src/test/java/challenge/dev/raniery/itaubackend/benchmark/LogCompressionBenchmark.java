@@ -0,0 +1,75 @@
+package challenge.dev.raniery.itaubackend.benchmark;
+
+import challenge.dev.raniery.itaubackend.engine.RowScanner;
+import challenge.dev.raniery.itaubackend.engine.TransactionLog;
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Raw columns versus compressed sealed chunks for a log in arrival order with amounts in cents.
+ * {@code snapshot} reads a window whose edge falls inside one chunk ({@code edge}) or inside every
+ * chunk ({@code scattered}, the worst case, where all rows are decoded); {@code append} includes the
+ * cost of sealing one chunk in every {@code CHUNK_SIZE} writes. Bytes per transaction are printed at
+ * setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class LogCompressionBenchmark {
+
+    private static final long WINDOW_MILLIS = 60_000L;
+    private static final int ROWS = 1_000_000;
+    private static final Instant NOW = Instant.parse("2025-05-27T13:30:00Z");
+
+    @Param({"false", "true"})
+    private boolean compressSealed;
+
+    @Param({"edge", "scattered"})
+    private String layout;
+
+    private final Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+    private TransactionLog log;
+    private TransactionLog appendLog;
+    private long appendEpochMillis;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(7);
+        log = new TransactionLog(RowScanner.preferred(), compressSealed);
+        long start = NOW.toEpochMilli() - 2 * WINDOW_MILLIS;
+        for (int i = 0; i < ROWS; i++) {
+            long epochMillis = layout.equals("edge")
+                ? start + (long) i * 2 * WINDOW_MILLIS / ROWS
+                : start + random.nextLong(2 * WINDOW_MILLIS);
+            log.append(epochMillis, random.nextLong(1, 10_000_000) * 10_000);
+        }
+        System.out.printf("%ncompressSealed=%s, %s: %.2f bytes por transação%n",
+            compressSealed, layout, (double) log.retainedBytes() / log.retained());
+    }
+
+    @Setup(Level.Iteration)
+    public void resetAppendLog() {
+        appendLog = new TransactionLog(RowScanner.preferred(), compressSealed);
+        appendEpochMillis = NOW.toEpochMilli();
+    }
+
+    @Benchmark
+    public StatisticSnapshot snapshot() {
+        return log.snapshot(clock, WINDOW_MILLIS);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public long append() {
+        return appendLog.append(appendEpochMillis++ >> 2, 12_340_000);
+    }
+}
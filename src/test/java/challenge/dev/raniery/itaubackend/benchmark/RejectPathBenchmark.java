@@ -0,0 +1,89 @@
+package challenge.dev.raniery.itaubackend.benchmark;
+
+import challenge.dev.raniery.itaubackend.admission.AdmissionController;
+import challenge.dev.raniery.itaubackend.admission.AdmissionControllerTest;
+import challenge.dev.raniery.itaubackend.config.ClockProperties;
+import challenge.dev.raniery.itaubackend.config.IdempotencyProperties;
+import challenge.dev.raniery.itaubackend.config.IngestionProperties;
+import challenge.dev.raniery.itaubackend.dto.TransactionRequest;
+import challenge.dev.raniery.itaubackend.idempotency.IdempotencyRegistry;
+import challenge.dev.raniery.itaubackend.ingestion.IntakeOutcome;
+import challenge.dev.raniery.itaubackend.ingestion.IngestionPipeline;
+import challenge.dev.raniery.itaubackend.ingestion.IngestionPipelineTest;
+import challenge.dev.raniery.itaubackend.ingestion.RejectionMetrics;
+import challenge.dev.raniery.itaubackend.ingestion.TransactionIntake;
+import challenge.dev.raniery.itaubackend.service.TransactionalService;
+import challenge.dev.raniery.itaubackend.service.TransactionalServiceTest;
+import challenge.dev.raniery.itaubackend.validation.CborPayloadReader;
+import challenge.dev.raniery.itaubackend.validation.TransactionPayloadReader;
+import challenge.dev.raniery.itaubackend.validation.TransactionValidator;
+import challenge.dev.raniery.itaubackend.replication.ReplicationTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RejectPathBenchmark {
+
+    @Param({"malformed", "negative", "future"})
+    public String payload;
+
+    private byte[] body;
+    private TransactionIntake intake;
+    private ObjectMapper objectMapper;
+    private Clock clock;
+
+    @Setup
+    public void setUp() {
+        String json = switch (payload) {
+            case "malformed" -> "{\"valor\": 100.50, \"dataHora\": \"invalid-date-format\"}";
+            case "negative" -> "{\"valor\": -10.50, \"dataHora\": \"2025-05-27T10:30:00.000-03:00\"}";
+            default -> "{\"valor\": 10.50, \"dataHora\": \"" + OffsetDateTime.now().plusYears(1) + "\"}";
+        };
+        body = json.getBytes(StandardCharsets.UTF_8);
+        clock = Clock.systemUTC();
+        TransactionalService transactionalService = TransactionalServiceTest.newService(clock);
+        intake = new TransactionIntake(
+            new AdmissionController(AdmissionControllerTest.properties(0, 256, Long.MAX_VALUE), transactionalService),
+            new IdempotencyRegistry(new IdempotencyProperties(true, Duration.ofSeconds(60), Duration.ofSeconds(1), 1_000), clock),
+            new TransactionPayloadReader(),
+            new CborPayloadReader(),
+            new TransactionValidator(clock, new ClockProperties(false, Duration.ofMillis(1), Duration.ZERO)),
+            new RejectionMetrics(),
+            new IngestionPipeline(IngestionPipelineTest.properties(IngestionProperties.Mode.DIRECT, IngestionProperties.Ack.APPLIED), transactionalService, ReplicationTest.disabled(transactionalService)),
+            IngestionPipelineTest.properties(IngestionProperties.Mode.DIRECT, IngestionProperties.Ack.APPLIED));
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    }
+
+    @Benchmark
+    public IntakeOutcome intakeReject() {
+        return intake.submit(body);
+    }
+
+    @Benchmark
+    public Object jacksonAndThrowReject() {
+        try {
+            TransactionRequest request = objectMapper.readValue(body, TransactionRequest.class);
+            if (request.valor() == null || request.valor().signum() < 0 || request.dataHora() == null) {
+                throw new IllegalArgumentException("invalid transaction");
+            }
+            if (request.dataHora().isAfter(OffsetDateTime.now(clock))) {
+                throw new IllegalArgumentException("future transaction");
+            }
+            return request;
+        } catch (Exception e) {
+            return e;
+        }
+    }
+}
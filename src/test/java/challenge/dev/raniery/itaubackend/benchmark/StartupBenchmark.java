@@ -0,0 +1,157 @@
+package challenge.dev.raniery.itaubackend.benchmark;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+public final class StartupBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(120);
+
+    private final Path jar;
+    private final Path workDir;
+    private final int runs;
+    private final String java;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    private StartupBenchmark(Path jar, int runs) {
+        this.jar = jar;
+        this.workDir = jar.resolveSibling("startup-benchmark");
+        this.runs = runs;
+        this.java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Uso: StartupBenchmark <app.jar> [execuções]");
+            System.exit(2);
+        }
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        new StartupBenchmark(Path.of(args[0]).toAbsolutePath(), runs).run();
+    }
+
+    private void run() throws Exception {
+        Files.createDirectories(workDir);
+        Path extracted = extract();
+        List<String> archiveFlags = train(extracted);
+
+        Map<String, List<String>> configurations = new LinkedHashMap<>();
+        configurations.put("jar", List.of("-jar", jar.toString()));
+        configurations.put("extracted+aot", concat(List.of("-Dspring.aot.enabled=true", "-Dspring.profiles.active=fast-start"), List.of("-jar", extracted.toString())));
+        configurations.put("extracted+aot+archive", concat(archiveFlags, List.of("-Dspring.aot.enabled=true", "-Dspring.profiles.active=fast-start", "-jar", extracted.toString())));
+
+        StringBuilder report = new StringBuilder("configuration,median_ms,runs_ms\n");
+        for (Map.Entry<String, List<String>> configuration : configurations.entrySet()) {
+            long[] samples = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                samples[i] = timeToFirstRequest(configuration.getValue());
+            }
+            long[] sorted = samples.clone();
+            Arrays.sort(sorted);
+            long median = sorted[runs / 2];
+            System.out.printf("%-24s mediana %5d ms  %s%n", configuration.getKey(), median, Arrays.toString(samples));
+            report.append(configuration.getKey()).append(',').append(median).append(',')
+                .append(Arrays.toString(samples).replace(", ", " ")).append('\n');
+        }
+        Files.writeString(workDir.resolve("startup-benchmark.csv"), report);
+    }
+
+    private Path extract() throws Exception {
+        Path destination = workDir.resolve("extracted");
+        exec(List.of(java, "-Djarmode=tools", "-jar", jar.toString(), "extract", "--force", "--destination", destination.toString()));
+        try (Stream<Path> files = Files.list(destination)) {
+            return files.filter(file -> file.toString().endsWith(".jar")).findFirst()
+                .orElseThrow(() -> new IllegalStateException("Jar extraído não encontrado em " + destination));
+        }
+    }
+
+    private List<String> train(Path extracted) throws Exception {
+        List<String> training = List.of("-Dspring.aot.enabled=true", "-Dspring.profiles.active=fast-start",
+            "-Dspring.context.exit=onRefresh", "-jar", extracted.toString());
+
+        if (Runtime.version().feature() >= 24) {
+            Path configuration = workDir.resolve("app.aotconf");
+            Path cache = workDir.resolve("app.aot");
+            exec(concat(List.of(java, "-XX:AOTMode=record", "-XX:AOTConfiguration=" + configuration), training));
+            exec(concat(List.of(java, "-XX:AOTMode=create", "-XX:AOTConfiguration=" + configuration, "-XX:AOTCache=" + cache), training));
+            return List.of("-XX:AOTCache=" + cache);
+        }
+
+        Path archive = workDir.resolve("app.jsa");
+        exec(concat(List.of(java, "-XX:ArchiveClassesAtExit=" + archive), training));
+        return List.of("-XX:SharedArchiveFile=" + archive);
+    }
+
+    private long timeToFirstRequest(List<String> arguments) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(arguments);
+        command.add("--server.port=" + port);
+        command.add("--logging.level.root=WARN");
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/estatistica"))
+            .timeout(Duration.ofSeconds(1))
+            .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true)
+            .redirectOutput(workDir.resolve("last-run.log").toFile())
+            .start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Aplicação encerrou com código " + process.exitValue());
+                }
+                try {
+                    if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    Thread.sleep(5);
+                }
+            }
+            throw new IllegalStateException("Aplicação não respondeu em " + TIMEOUT);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private void exec(List<String> command) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command).redirectErrorStream(true)
+            .redirectOutput(workDir.resolve("last-step.log").toFile())
+            .start();
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException("Falha (" + exitCode + ") ao executar " + String.join(" ", command));
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static List<String> concat(List<String> first, List<String> second) {
+        List<String> result = new ArrayList<>(first);
+        result.addAll(second);
+        return result;
+    }
+}
@@ -0,0 +1,43 @@
+package challenge.dev.raniery.itaubackend.benchmark;
+
+import challenge.dev.raniery.itaubackend.dto.StatisticResponse;
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatisticSerializationBenchmark {
+
+    private StatisticSnapshot snapshot;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        snapshot = new StatisticSnapshot(3, 350.0, 50.0, 200.0, 1, Long.MAX_VALUE);
+        snapshot.jsonBody();
+        objectMapper = new ObjectMapper();
+    }
+
+    @Benchmark
+    public byte[] jacksonPerRequest() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(new StatisticResponse(snapshot));
+    }
+
+    @Benchmark
+    public byte[] renderPerRequest() {
+        return new StatisticResponse(snapshot).toJson();
+    }
+
+    @Benchmark
+    public byte[] cachedPerSnapshot() {
+        return snapshot.jsonBody();
+    }
+}
@@ -0,0 +1,65 @@
+package challenge.dev.raniery.itaubackend.benchmark;
+
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+import challenge.dev.raniery.itaubackend.service.TransactionalService;
+import challenge.dev.raniery.itaubackend.service.TransactionalServiceTest;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A refresh storm: seven threads read {@code /estatistica} over a full window while one keeps
+ * writing, so every read sees a new version. Without staleness the readers still share whatever
+ * computation is in flight when no write lands in between; {@code maxStalenessMillis} lets them
+ * share across writes too. The tear-down prints how many log scans the reads cost.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class StatisticsCoalescingBenchmark {
+
+    private static final int ROWS = 1_000_000;
+
+    @Param({"0", "5"})
+    private long maxStalenessMillis;
+
+    private TransactionalService transactionalService;
+    private final LongAdder reads = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        transactionalService = TransactionalServiceTest.newService(Clock.systemUTC(), Duration.ZERO, Duration.ofMillis(maxStalenessMillis));
+        SplittableRandom random = new SplittableRandom(7);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < ROWS; i++) {
+            transactionalService.addTransaction(now - 50_000 + (long) i * 50_000 / ROWS, random.nextLong(1, 10_000_000) * 10_000);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n%d computações para %d leituras%n", transactionalService.getStatisticsComputations(), reads.sum());
+    }
+
+    @Benchmark
+    @Group("storm")
+    @GroupThreads(7)
+    public StatisticSnapshot read() {
+        reads.increment();
+        return transactionalService.getStatistics();
+    }
+
+    @Benchmark
+    @Group("storm")
+    @GroupThreads(1)
+    public void write() {
+        transactionalService.addTransaction(System.currentTimeMillis(), 1_000_000);
+    }
+}
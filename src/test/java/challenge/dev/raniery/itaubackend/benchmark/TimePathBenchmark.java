@@ -0,0 +1,101 @@
+package challenge.dev.raniery.itaubackend.benchmark;
+
+import challenge.dev.raniery.itaubackend.admission.AdmissionController;
+import challenge.dev.raniery.itaubackend.admission.AdmissionControllerTest;
+import challenge.dev.raniery.itaubackend.config.ClockProperties;
+import challenge.dev.raniery.itaubackend.config.IdempotencyProperties;
+import challenge.dev.raniery.itaubackend.config.IngestionProperties;
+import challenge.dev.raniery.itaubackend.engine.CoarseClock;
+import challenge.dev.raniery.itaubackend.idempotency.IdempotencyRegistry;
+import challenge.dev.raniery.itaubackend.ingestion.IngestionPipeline;
+import challenge.dev.raniery.itaubackend.ingestion.IngestionPipelineTest;
+import challenge.dev.raniery.itaubackend.ingestion.IntakeOutcome;
+import challenge.dev.raniery.itaubackend.ingestion.RejectionMetrics;
+import challenge.dev.raniery.itaubackend.ingestion.TransactionIntake;
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+import challenge.dev.raniery.itaubackend.service.TransactionalService;
+import challenge.dev.raniery.itaubackend.service.TransactionalServiceTest;
+import challenge.dev.raniery.itaubackend.validation.CborPayloadReader;
+import challenge.dev.raniery.itaubackend.validation.TransactionPayloadReader;
+import challenge.dev.raniery.itaubackend.validation.TransactionValidator;
+import challenge.dev.raniery.itaubackend.replication.ReplicationTest;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Precise system clock versus the ticker-driven coarse clock on the paths that read the time per
+ * request: a bare read, an accepted {@code POST /transacao} with an idempotency key, and a
+ * {@code GET /estatistica} whose cached snapshot is revalidated against the clock.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "--add-modules", "jdk.incubator.vector"})
+public class TimePathBenchmark {
+
+    @Param({"system", "coarse"})
+    private String clockType;
+
+    private Clock clock;
+    private TransactionalService transactionalService;
+    private TransactionIntake intake;
+    private byte[] body;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        clock = "coarse".equals(clockType) ? new CoarseClock(Clock.systemUTC(), Duration.ofMillis(1)) : Clock.systemUTC();
+        transactionalService = TransactionalServiceTest.newService(clock);
+        intake = new TransactionIntake(
+            new AdmissionController(AdmissionControllerTest.properties(0, 4096, Long.MAX_VALUE), transactionalService),
+            new IdempotencyRegistry(new IdempotencyProperties(true, Duration.ofSeconds(60), Duration.ofSeconds(1), Integer.MAX_VALUE), clock),
+            new TransactionPayloadReader(),
+            new CborPayloadReader(),
+            new TransactionValidator(clock, new ClockProperties(false, Duration.ofMillis(1), Duration.ZERO)),
+            new RejectionMetrics(),
+            new IngestionPipeline(IngestionPipelineTest.properties(IngestionProperties.Mode.DIRECT, IngestionProperties.Ack.APPLIED), transactionalService, ReplicationTest.disabled(transactionalService)),
+            IngestionPipelineTest.properties(IngestionProperties.Mode.DIRECT, IngestionProperties.Ack.APPLIED));
+        body = ("{\"valor\": 10.50, \"dataHora\": \"" + OffsetDateTime.now().minusSeconds(5) + "\", \"chaveIdempotencia\": \"")
+            .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetGeneration() {
+        transactionalService.clearTransactions();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (clock instanceof CoarseClock coarse) {
+            coarse.close();
+        }
+    }
+
+    @Benchmark
+    public long millis() {
+        return clock.millis();
+    }
+
+    @Benchmark
+    public IntakeOutcome acceptedIntake() {
+        byte[] key = Long.toString(sequence++).getBytes(StandardCharsets.US_ASCII);
+        byte[] request = new byte[body.length + key.length + 2];
+        System.arraycopy(body, 0, request, 0, body.length);
+        System.arraycopy(key, 0, request, body.length, key.length);
+        request[request.length - 2] = '"';
+        request[request.length - 1] = '}';
+        return intake.submit(request);
+    }
+
+    @Benchmark
+    public StatisticSnapshot cachedStatistics() {
+        return transactionalService.getStatistics();
+    }
+}
@@ -0,0 +1,62 @@
+package challenge.dev.raniery.itaubackend.benchmark;
+
+import challenge.dev.raniery.itaubackend.engine.TopValues;
+import challenge.dev.raniery.itaubackend.model.TopValuesSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-K of the window from per-bucket heaps against sorting every retained amount; the heap query
+ * should stay flat as the window grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TopValuesBenchmark {
+
+    private static final long WINDOW_MILLIS = 60_000L;
+    private static final long NOW = 1_748_352_600_000L;
+    private static final int K = 10;
+
+    @Param({"100000", "1000000"})
+    private int rows;
+
+    private TopValues topValues;
+    private long[] amounts;
+    private long next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(7);
+        topValues = new TopValues(WINDOW_MILLIS, 1_000L, 100);
+        amounts = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            amounts[i] = random.nextLong(1, 1_000_000_000L);
+            topValues.record(NOW - random.nextLong(WINDOW_MILLIS), amounts[i]);
+        }
+    }
+
+    @Benchmark
+    public TopValuesSnapshot heaps() {
+        return topValues.top(K, NOW);
+    }
+
+    @Benchmark
+    public long[] sortWindow() {
+        long[] sorted = amounts.clone();
+        Arrays.sort(sorted);
+        return Arrays.copyOfRange(sorted, sorted.length - K, sorted.length);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void record() {
+        topValues.record(NOW - 1, amounts[(int) (next++ % rows)]);
+    }
+}
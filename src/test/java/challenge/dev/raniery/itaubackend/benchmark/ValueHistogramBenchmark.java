@@ -0,0 +1,52 @@
+package challenge.dev.raniery.itaubackend.benchmark;
+
+import challenge.dev.raniery.itaubackend.engine.ValueHistogram;
+import challenge.dev.raniery.itaubackend.model.HistogramSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Histogram write and read cost; run with {@code -prof gc} to check that a write into the current
+ * interval allocates nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ValueHistogramBenchmark {
+
+    private static final long NOW = 1_748_352_600_000L;
+    private static final long[] DECADES = {
+        10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+        10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L,
+        100_000_000_000_000L, 1_000_000_000_000_000L};
+
+    private ValueHistogram histogram;
+    private long[] amounts;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(11);
+        histogram = new ValueHistogram(60_000L, 1_000L, DECADES);
+        amounts = new long[1 << 16];
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] = (long) Math.pow(10, random.nextDouble(3, 15));
+            histogram.record(NOW - random.nextLong(60_000L), amounts[i]);
+        }
+    }
+
+    @Benchmark
+    public void record() {
+        histogram.record(NOW - 1, amounts[next++ & (amounts.length - 1)]);
+    }
+
+    @Benchmark
+    public HistogramSnapshot snapshot() {
+        return histogram.snapshot(NOW);
+    }
+}
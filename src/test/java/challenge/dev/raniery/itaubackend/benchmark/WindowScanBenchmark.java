@@ -0,0 +1,51 @@
+package challenge.dev.raniery.itaubackend.benchmark;
+
+import challenge.dev.raniery.itaubackend.engine.RowScanner;
+import challenge.dev.raniery.itaubackend.engine.TransactionLog;
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Worst case for the chunk summaries: timestamps spread over two windows, so every chunk straddles
+ * the window edge and has to be scanned row by row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "--add-modules", "jdk.incubator.vector"})
+public class WindowScanBenchmark {
+
+    private static final long WINDOW_MILLIS = 60_000L;
+    private static final Instant NOW = Instant.parse("2025-05-27T13:30:00Z");
+
+    @Param({"SCALAR", "VECTOR"})
+    private RowScanner scanner;
+
+    @Param({"1000000", "4000000"})
+    private int rows;
+
+    private final Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+    private TransactionLog log;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(7);
+        log = new TransactionLog(scanner);
+        for (int i = 0; i < rows; i++) {
+            log.append(NOW.toEpochMilli() - random.nextLong(2 * WINDOW_MILLIS), random.nextLong(1, 100_000_000_000L));
+        }
+    }
+
+    @Benchmark
+    public StatisticSnapshot snapshot() {
+        return log.snapshot(clock, WINDOW_MILLIS);
+    }
+}
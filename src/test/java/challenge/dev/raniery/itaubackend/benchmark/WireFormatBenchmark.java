@@ -0,0 +1,129 @@
+package challenge.dev.raniery.itaubackend.benchmark;
+
+import challenge.dev.raniery.itaubackend.admission.AdmissionController;
+import challenge.dev.raniery.itaubackend.admission.AdmissionControllerTest;
+import challenge.dev.raniery.itaubackend.config.ClockProperties;
+import challenge.dev.raniery.itaubackend.config.IdempotencyProperties;
+import challenge.dev.raniery.itaubackend.config.IngestionProperties;
+import challenge.dev.raniery.itaubackend.idempotency.IdempotencyRegistry;
+import challenge.dev.raniery.itaubackend.ingestion.IntakeOutcome;
+import challenge.dev.raniery.itaubackend.ingestion.IngestionPipeline;
+import challenge.dev.raniery.itaubackend.ingestion.IngestionPipelineTest;
+import challenge.dev.raniery.itaubackend.ingestion.LoteOutcome;
+import challenge.dev.raniery.itaubackend.ingestion.RejectionMetrics;
+import challenge.dev.raniery.itaubackend.ingestion.TransactionIntake;
+import challenge.dev.raniery.itaubackend.service.TransactionalService;
+import challenge.dev.raniery.itaubackend.service.TransactionalServiceTest;
+import challenge.dev.raniery.itaubackend.validation.CborPayloadReader;
+import challenge.dev.raniery.itaubackend.validation.TransactionPayloadReader;
+import challenge.dev.raniery.itaubackend.validation.TransactionValidator;
+import challenge.dev.raniery.itaubackend.wire.CborWriter;
+import challenge.dev.raniery.itaubackend.wire.TransactionRecords;
+import challenge.dev.raniery.itaubackend.wire.WireFormat;
+import challenge.dev.raniery.itaubackend.replication.ReplicationTest;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse, validate and ingest cost per transaction for each wire format, one transaction per request
+ * versus batches of {@link #LOTE_SIZE}. The body sizes per transaction are printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class WireFormatBenchmark {
+
+    private static final int LOTE_SIZE = 100;
+
+    @Param({"JSON", "CBOR", "RECORDS"})
+    private WireFormat format;
+
+    private TransactionalService transactionalService;
+    private TransactionIntake intake;
+    private byte[] single;
+    private byte[] lote;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Clock clock = Clock.systemUTC();
+        transactionalService = TransactionalServiceTest.newService(clock);
+        IngestionProperties properties = new IngestionProperties(IngestionProperties.Mode.DIRECT, IngestionProperties.Ack.APPLIED,
+            1024, 64, Duration.ofMillis(10), Duration.ofSeconds(1), LOTE_SIZE);
+        intake = new TransactionIntake(
+            new AdmissionController(AdmissionControllerTest.properties(0, 256, Long.MAX_VALUE), transactionalService),
+            new IdempotencyRegistry(new IdempotencyProperties(true, Duration.ofSeconds(60), Duration.ofSeconds(1), 1_000), clock),
+            new TransactionPayloadReader(),
+            new CborPayloadReader(),
+            new TransactionValidator(clock, new ClockProperties(false, Duration.ofMillis(1), Duration.ZERO)),
+            new RejectionMetrics(),
+            new IngestionPipeline(properties, transactionalService, ReplicationTest.disabled(transactionalService)),
+            properties);
+
+        long epochMillis = clock.millis() - 5_000;
+        single = encode(1, epochMillis, false);
+        lote = encode(LOTE_SIZE, epochMillis, true);
+        System.out.printf("%n%s: %d bytes por transação avulsa, %.1f bytes por transação em lote%n",
+            format, single.length, (double) lote.length / LOTE_SIZE);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetGeneration() {
+        transactionalService.clearTransactions();
+    }
+
+    @Benchmark
+    public IntakeOutcome single() {
+        return intake.submit(single, format);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE_SIZE)
+    public LoteOutcome lote() {
+        return intake.submitLote(lote, format);
+    }
+
+    private byte[] encode(int count, long epochMillis, boolean array) {
+        long[] epochs = new long[count];
+        long[] amounts = new long[count];
+        for (int i = 0; i < count; i++) {
+            epochs[i] = epochMillis - i;
+            amounts[i] = 1_000_000L + i * 12_340_000L;
+        }
+        return switch (format) {
+            case RECORDS -> TransactionRecords.encode(epochs, amounts);
+            case CBOR -> {
+                CborWriter writer = new CborWriter(64 * count);
+                if (array) {
+                    writer.array(count);
+                }
+                for (int i = 0; i < count; i++) {
+                    writer.map(2).text("valor").float64(amounts[i] / 1e6).text("dataHora").text(dataHora(epochs[i]));
+                }
+                yield writer.toByteArray();
+            }
+            case JSON -> {
+                StringBuilder json = new StringBuilder(array ? "[" : "");
+                for (int i = 0; i < count; i++) {
+                    json.append(i > 0 ? "," : "")
+                        .append("{\"valor\":").append(amounts[i] / 1e6)
+                        .append(",\"dataHora\":\"").append(dataHora(epochs[i])).append("\"}");
+                }
+                yield json.append(array ? "]" : "").toString().getBytes(StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    private static String dataHora(long epochMillis) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.ofHours(-3)).toString();
+    }
+}
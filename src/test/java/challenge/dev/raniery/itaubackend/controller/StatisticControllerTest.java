@@ -1,6 +1,13 @@
 package challenge.dev.raniery.itaubackend.controller;
 
+import challenge.dev.raniery.itaubackend.model.HistogramSnapshot;
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+import challenge.dev.raniery.itaubackend.model.TopValuesSnapshot;
+import challenge.dev.raniery.itaubackend.service.StatisticsWatch;
 import challenge.dev.raniery.itaubackend.service.TransactionalService;
+import challenge.dev.raniery.itaubackend.wire.CborWriter;
+import challenge.dev.raniery.itaubackend.wire.StatisticsEtag;
+import challenge.dev.raniery.itaubackend.wire.WireFormat;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -8,10 +15,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.DoubleSummaryStatistics;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -25,6 +37,13 @@ public class StatisticControllerTest {
     @MockitoBean
     private TransactionalService transactionalService;
 
+    @MockitoBean
+    private StatisticsWatch statisticsWatch;
+
+    private static StatisticSnapshot snapshotOf(DoubleSummaryStatistics stats) {
+        return new StatisticSnapshot(stats.getCount(), stats.getSum(), stats.getMin(), stats.getMax(), 0, Long.MAX_VALUE);
+    }
+
     @Nested
     @DisplayName("GET /estatistica Tests")
     class GetStatisticsTests {
@@ -38,7 +57,7 @@ public class StatisticControllerTest {
             stats.accept(200.0);
             stats.accept(50.0);
 
-            when(transactionalService.getStatistics()).thenReturn(stats);
+            when(transactionalService.getStatistics()).thenReturn(snapshotOf(stats));
 
             mockMvc.perform(get("/estatistica"))
                 .andExpect(status().isOk())
@@ -57,7 +76,7 @@ public class StatisticControllerTest {
         void shouldReturn200WithZeroStatisticsWhenNoTransactionsExistInLast60Seconds() throws Exception {
 
             DoubleSummaryStatistics emptyStats = new DoubleSummaryStatistics();
-            when(transactionalService.getStatistics()).thenReturn(emptyStats);
+            when(transactionalService.getStatistics()).thenReturn(snapshotOf(emptyStats));
             mockMvc.perform(get("/estatistica"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType("application/json"))
@@ -77,7 +96,7 @@ public class StatisticControllerTest {
             DoubleSummaryStatistics stats = new DoubleSummaryStatistics();
             stats.accept(123.45);
 
-            when(transactionalService.getStatistics()).thenReturn(stats);
+            when(transactionalService.getStatistics()).thenReturn(snapshotOf(stats));
 
             mockMvc.perform(get("/estatistica"))
                 .andExpect(status().isOk())
@@ -100,7 +119,7 @@ public class StatisticControllerTest {
             stats.accept(100.0);
             stats.accept(100.0);
 
-            when(transactionalService.getStatistics()).thenReturn(stats);
+            when(transactionalService.getStatistics()).thenReturn(snapshotOf(stats));
             mockMvc.perform(get("/estatistica"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType("application/json"))
@@ -122,7 +141,7 @@ public class StatisticControllerTest {
             stats.accept(50.0);
             stats.accept(100.0);
 
-            when(transactionalService.getStatistics()).thenReturn(stats);
+            when(transactionalService.getStatistics()).thenReturn(snapshotOf(stats));
 
             mockMvc.perform(get("/estatistica"))
                 .andExpect(status().isOk())
@@ -144,7 +163,7 @@ public class StatisticControllerTest {
             stats.accept(999999999.99);
             stats.accept(888888888.88);
 
-            when(transactionalService.getStatistics()).thenReturn(stats);
+            when(transactionalService.getStatistics()).thenReturn(snapshotOf(stats));
 
             mockMvc.perform(get("/estatistica"))
                 .andExpect(status().isOk())
@@ -167,7 +186,7 @@ public class StatisticControllerTest {
             stats.accept(0.02);
             stats.accept(0.03);
 
-            when(transactionalService.getStatistics()).thenReturn(stats);
+            when(transactionalService.getStatistics()).thenReturn(snapshotOf(stats));
 
             mockMvc.perform(get("/estatistica"))
                 .andExpect(status().isOk())
@@ -187,7 +206,7 @@ public class StatisticControllerTest {
 
             DoubleSummaryStatistics stats = new DoubleSummaryStatistics();
             stats.accept(100.0);
-            when(transactionalService.getStatistics()).thenReturn(stats);
+            when(transactionalService.getStatistics()).thenReturn(snapshotOf(stats));
 
             mockMvc.perform(get("/estatistica"))
                 .andExpect(status().isOk())
@@ -205,13 +224,230 @@ public class StatisticControllerTest {
         void shouldReturnCorrectContentTypeHeader() throws Exception {
 
             DoubleSummaryStatistics stats = new DoubleSummaryStatistics();
-            when(transactionalService.getStatistics()).thenReturn(stats);
+            when(transactionalService.getStatistics()).thenReturn(snapshotOf(stats));
+
+            mockMvc.perform(get("/estatistica"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/json"))
+                .andExpect(header().longValue("Content-Length", snapshotOf(stats).jsonBody().length));
+
+            verify(transactionalService, times(1)).getStatistics();
+        }
+
+        @Test
+        @DisplayName("Should return the statistics of a single account when conta is given")
+        void shouldReturnAccountStatistics() throws Exception {
+            DoubleSummaryStatistics stats = new DoubleSummaryStatistics();
+            stats.accept(42.0);
+            when(transactionalService.getStatistics("0001-9")).thenReturn(snapshotOf(stats));
+
+            mockMvc.perform(get("/estatistica").param("conta", "0001-9"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(1))
+                .andExpect(jsonPath("$.sum").value(42.0));
+
+            verify(transactionalService, never()).getStatistics();
+        }
+
+        @Test
+        @DisplayName("Should return 400 for a blank conta")
+        void shouldRejectBlankConta() throws Exception {
+            mockMvc.perform(get("/estatistica").param("conta", " "))
+                .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(transactionalService);
+        }
+
+        @Test
+        @DisplayName("Should return the window ending at asOf")
+        void shouldReturnStatisticsAsOf() throws Exception {
+            DoubleSummaryStatistics stats = new DoubleSummaryStatistics();
+            stats.accept(42.0);
+            long asOf = Instant.parse("2025-05-27T14:03:27Z").toEpochMilli();
+            when(transactionalService.getStatisticsAsOf(asOf)).thenReturn(snapshotOf(stats));
+
+            mockMvc.perform(get("/estatistica").param("asOf", "2025-05-27T11:03:27.000-03:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(1))
+                .andExpect(jsonPath("$.sum").value(42.0));
+
+            verify(transactionalService, never()).getStatistics();
+        }
+
+        @Test
+        @DisplayName("Should return 400 for a malformed asOf, one outside the retention or one combined with conta")
+        void shouldRejectInvalidAsOf() throws Exception {
+            when(transactionalService.getStatisticsAsOf(anyLong())).thenReturn(null);
+
+            mockMvc.perform(get("/estatistica").param("asOf", "ontem"))
+                .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/estatistica").param("asOf", "2025-05-27T14:03:27Z").param("conta", "0001-9"))
+                .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/estatistica").param("asOf", "2025-05-27T14:03:27Z"))
+                .andExpect(status().isBadRequest());
+
+            verify(transactionalService, times(1)).getStatisticsAsOf(anyLong());
+        }
+
+        @Test
+        @DisplayName("Should answer in CBOR when the Accept header asks for it")
+        void shouldReturnCborWhenAccepted() throws Exception {
+
+            DoubleSummaryStatistics stats = new DoubleSummaryStatistics();
+            stats.accept(100.0);
+            stats.accept(50.0);
+            when(transactionalService.getStatistics()).thenReturn(snapshotOf(stats));
+
+            mockMvc.perform(get("/estatistica").header("Accept", "application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andExpect(content().bytes(new CborWriter(64).map(5)
+                    .text("count").integer(2)
+                    .text("sum").float64(150.0)
+                    .text("avg").float64(75.0)
+                    .text("min").float64(50.0)
+                    .text("max").float64(100.0)
+                    .toByteArray()));
+        }
+    }
+
+    @Nested
+    @DisplayName("Conditional GET /estatistica Tests")
+    class ConditionalStatisticsTests {
+
+        private static final String ETAG = "\"3-7-" + Long.MAX_VALUE + "-json\"";
+        private static final StatisticsEtag.Tag TAG = new StatisticsEtag.Tag(ETAG, 3, 7, Long.MAX_VALUE);
+
+        private StatisticSnapshot snapshot() {
+            DoubleSummaryStatistics stats = new DoubleSummaryStatistics();
+            stats.accept(42.0);
+            return new StatisticSnapshot(stats.getCount(), stats.getSum(), stats.getMin(), stats.getMax(), 7, Long.MAX_VALUE);
+        }
+
+        @Test
+        @DisplayName("Should tag the response and answer 304 to a current tag without computing")
+        void shouldAnswerNotModified() throws Exception {
+            when(transactionalService.getGeneration()).thenReturn(3L);
+            when(transactionalService.getStatistics()).thenReturn(snapshot());
 
             mockMvc.perform(get("/estatistica"))
                 .andExpect(status().isOk())
-                .andExpect(header().string("Content-Type", "application/json"));
+                .andExpect(header().string("ETag", ETAG));
+
+            when(statisticsWatch.currentTag(ETAG, WireFormat.JSON)).thenReturn(TAG);
+
+            mockMvc.perform(get("/estatistica").header("If-None-Match", ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", ETAG))
+                .andExpect(content().bytes(new byte[0]));
 
             verify(transactionalService, times(1)).getStatistics();
         }
+
+        @Test
+        @DisplayName("Should answer 304 when a stale-looking tag still matches the served snapshot")
+        void shouldCompareWithServedSnapshot() throws Exception {
+            when(transactionalService.getGeneration()).thenReturn(3L);
+            when(transactionalService.getStatistics()).thenReturn(snapshot());
+
+            mockMvc.perform(get("/estatistica").header("If-None-Match", "W/" + ETAG))
+                .andExpect(status().isNotModified());
+        }
+
+        @Test
+        @DisplayName("Should hold a long poll until the window changes")
+        void shouldHoldLongPoll() throws Exception {
+            CompletableFuture<Boolean> changed = new CompletableFuture<>();
+            when(statisticsWatch.preferredWait("wait=5")).thenReturn(Duration.ofSeconds(5));
+            when(statisticsWatch.currentTag(ETAG, WireFormat.JSON)).thenReturn(TAG, (StatisticsEtag.Tag) null);
+            when(statisticsWatch.awaitChange(TAG, Duration.ofSeconds(5))).thenReturn(changed);
+            when(transactionalService.getGeneration()).thenReturn(4L);
+            when(transactionalService.getStatistics()).thenReturn(snapshot());
+
+            MvcResult pending = mockMvc.perform(get("/estatistica").header("If-None-Match", ETAG).header("Prefer", "wait=5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            verify(transactionalService, never()).getStatistics();
+
+            changed.complete(true);
+
+            mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4-7-" + Long.MAX_VALUE + "-json\""))
+                .andExpect(jsonPath("$.count").value(1));
+        }
+
+        @Test
+        @DisplayName("Should answer a long poll at once when the tag is already stale")
+        void shouldAnswerStaleLongPollAtOnce() throws Exception {
+            when(statisticsWatch.preferredWait("wait=5")).thenReturn(Duration.ofSeconds(5));
+            when(transactionalService.getStatistics()).thenReturn(snapshot());
+
+            MvcResult result = mockMvc.perform(get("/estatistica").header("If-None-Match", ETAG).header("Prefer", "wait=5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(1));
+            verify(statisticsWatch, never()).awaitChange(any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /estatistica/topk Tests")
+    class GetTopValuesTests {
+
+        @Test
+        @DisplayName("Should return the largest values, 10 by default")
+        void shouldReturnTopValues() throws Exception {
+            when(transactionalService.getMaxTopValues()).thenReturn(100);
+            when(transactionalService.getTopValues(10)).thenReturn(new TopValuesSnapshot(
+                new long[]{250_500_000L, 10_000_000L}, new long[]{1_748_352_570_000L, 1_748_352_580_000L}));
+
+            mockMvc.perform(get("/estatistica/topk"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/json"))
+                .andExpect(jsonPath("$.top.length()").value(2))
+                .andExpect(jsonPath("$.top[0].valor").value(250.5))
+                .andExpect(jsonPath("$.top[0].dataHora").value("2025-05-27T13:29:30Z"))
+                .andExpect(jsonPath("$.top[1].valor").value(10.0));
+        }
+
+        @Test
+        @DisplayName("Should return 400 when k is outside 1..max-k")
+        void shouldRejectInvalidK() throws Exception {
+            when(transactionalService.getMaxTopValues()).thenReturn(100);
+
+            mockMvc.perform(get("/estatistica/topk").param("k", "0"))
+                .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/estatistica/topk").param("k", "101"))
+                .andExpect(status().isBadRequest());
+
+            verify(transactionalService, never()).getTopValues(anyInt());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /estatistica/histograma Tests")
+    class GetHistogramTests {
+
+        @Test
+        @DisplayName("Should return the count per value range with an open last range")
+        void shouldReturnHistogram() throws Exception {
+            when(transactionalService.getHistogram()).thenReturn(new HistogramSnapshot(
+                new long[]{10_000L, 1_000_000_000L}, new long[]{2, 5, 1}));
+
+            mockMvc.perform(get("/estatistica/histograma"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/json"))
+                .andExpect(jsonPath("$.count").value(8))
+                .andExpect(jsonPath("$.buckets.length()").value(3))
+                .andExpect(jsonPath("$.buckets[0].from").value(0))
+                .andExpect(jsonPath("$.buckets[0].to").value(0.01))
+                .andExpect(jsonPath("$.buckets[1].count").value(5))
+                .andExpect(jsonPath("$.buckets[2].from").value(1000))
+                .andExpect(jsonPath("$.buckets[2].to").doesNotExist());
+        }
     }
 }
@@ -1,31 +1,64 @@
 package challenge.dev.raniery.itaubackend.controller;
 
+import challenge.dev.raniery.itaubackend.admission.AdmissionController;
+import challenge.dev.raniery.itaubackend.config.AdmissionProperties;
+import challenge.dev.raniery.itaubackend.config.ClockConfig;
+import challenge.dev.raniery.itaubackend.config.ClockProperties;
+import challenge.dev.raniery.itaubackend.config.IdempotencyProperties;
+import challenge.dev.raniery.itaubackend.config.IngestionProperties;
+import challenge.dev.raniery.itaubackend.config.ReplicationProperties;
 import challenge.dev.raniery.itaubackend.dto.TransactionRequest;
-import challenge.dev.raniery.itaubackend.model.Transaction;
+import challenge.dev.raniery.itaubackend.idempotency.IdempotencyRegistry;
+import challenge.dev.raniery.itaubackend.ingestion.IngestionPipeline;
+import challenge.dev.raniery.itaubackend.ingestion.RejectionMetrics;
+import challenge.dev.raniery.itaubackend.ingestion.TransactionIntake;
+import challenge.dev.raniery.itaubackend.replication.Replication;
 import challenge.dev.raniery.itaubackend.service.TransactionalService;
+import challenge.dev.raniery.itaubackend.service.TransactionalServiceTest;
+import challenge.dev.raniery.itaubackend.validation.CborPayloadReader;
+import challenge.dev.raniery.itaubackend.validation.TransactionPayloadReader;
+import challenge.dev.raniery.itaubackend.validation.TransactionValidator;
+import challenge.dev.raniery.itaubackend.wire.CborWriter;
+import challenge.dev.raniery.itaubackend.wire.TransactionRecords;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.json.JsonCompareMode;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.Clock;
 import java.time.OffsetDateTime;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TransactionController.class)
+@EnableConfigurationProperties({AdmissionProperties.class, IdempotencyProperties.class, IngestionProperties.class, ClockProperties.class, ReplicationProperties.class})
+@Import({AdmissionController.class, IdempotencyRegistry.class, IngestionPipeline.class, Replication.class, TransactionIntake.class, TransactionPayloadReader.class, CborPayloadReader.class, TransactionValidator.class, RejectionMetrics.class, ClockConfig.class})
 @DisplayName("TransactionController Tests")
 public class TransactionControllerTest {
 
+    private static final MediaType APPLICATION_CBOR = MediaType.parseMediaType("application/cbor");
+    private static final MediaType APPLICATION_RECORDS = MediaType.parseMediaType("application/vnd.itau.transacao+binary");
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -35,6 +68,11 @@ public class TransactionControllerTest {
     @MockitoBean
     private TransactionalService transactionalService;
 
+    @BeforeEach
+    void setUp() {
+        when(transactionalService.currentGeneration()).thenReturn(TransactionalServiceTest.newService(Clock.systemUTC()).currentGeneration());
+    }
+
     @Nested
     @DisplayName("POST /transacao Tests")
     class CreateTransactionTests {
@@ -53,7 +91,7 @@ public class TransactionControllerTest {
                     .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated());
 
-            verify(transactionalService, times(1)).addTransaction(any(Transaction.class));
+            verify(transactionalService, times(1)).addTransaction(any(), anyLong(), anyLong());
         }
 
         @Test
@@ -69,7 +107,7 @@ public class TransactionControllerTest {
                     .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated());
 
-            verify(transactionalService, times(1)).addTransaction(any(Transaction.class));
+            verify(transactionalService, times(1)).addTransaction(any(), anyLong(), anyLong());
         }
 
         @Test
@@ -86,7 +124,7 @@ public class TransactionControllerTest {
                     .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isUnprocessableEntity());
 
-            verify(transactionalService, never()).addTransaction(any(Transaction.class));
+            verify(transactionalService, never()).addTransaction(any(), anyLong(), anyLong());
         }
 
         @Test
@@ -103,7 +141,7 @@ public class TransactionControllerTest {
                     .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isUnprocessableEntity());
 
-            verify(transactionalService, never()).addTransaction(any(Transaction.class));
+            verify(transactionalService, never()).addTransaction(any(), anyLong(), anyLong());
         }
 
         @Test
@@ -122,7 +160,7 @@ public class TransactionControllerTest {
                     .content(jsonWithNullValue))
                 .andExpect(status().isUnprocessableEntity());
 
-            verify(transactionalService, never()).addTransaction(any(Transaction.class));
+            verify(transactionalService, never()).addTransaction(any(), anyLong(), anyLong());
         }
 
         @Test
@@ -141,7 +179,7 @@ public class TransactionControllerTest {
                     .content(jsonWithNullDataHora))
                 .andExpect(status().isUnprocessableEntity());
 
-            verify(transactionalService, never()).addTransaction(any(Transaction.class));
+            verify(transactionalService, never()).addTransaction(any(), anyLong(), anyLong());
         }
 
         @Test
@@ -159,7 +197,7 @@ public class TransactionControllerTest {
                     .content(incompleteJson))
                 .andExpect(status().isUnprocessableEntity());
 
-            verify(transactionalService, never()).addTransaction(any(Transaction.class));
+            verify(transactionalService, never()).addTransaction(any(), anyLong(), anyLong());
         }
 
         @Test
@@ -178,7 +216,7 @@ public class TransactionControllerTest {
                     .content(malformedJson))
                 .andExpect(status().isUnprocessableEntity());
 
-            verify(transactionalService, never()).addTransaction(any(Transaction.class));
+            verify(transactionalService, never()).addTransaction(any(), anyLong(), anyLong());
         }
 
         @Test
@@ -192,7 +230,7 @@ public class TransactionControllerTest {
                     .content(invalidJson))
                 .andExpect(status().isUnprocessableEntity());
 
-            verify(transactionalService, never()).addTransaction(any(Transaction.class));
+            verify(transactionalService, never()).addTransaction(any(), anyLong(), anyLong());
         }
 
         @Test
@@ -208,7 +246,7 @@ public class TransactionControllerTest {
                     .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isUnsupportedMediaType());
 
-            verify(transactionalService, never()).addTransaction(any(Transaction.class));
+            verify(transactionalService, never()).addTransaction(any(), anyLong(), anyLong());
         }
 
         @Test
@@ -225,7 +263,7 @@ public class TransactionControllerTest {
                     .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated());
 
-            verify(transactionalService, times(1)).addTransaction(any(Transaction.class));
+            verify(transactionalService, times(1)).addTransaction(any(), anyLong(), anyLong());
         }
 
         @Test
@@ -242,7 +280,192 @@ public class TransactionControllerTest {
                     .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated());
 
-            verify(transactionalService, times(1)).addTransaction(any(Transaction.class));
+            verify(transactionalService, times(1)).addTransaction(any(), anyLong(), anyLong());
+        }
+
+        @Test
+        @DisplayName("Should return 200 with Idempotent-Replayed and not count a retried transaction again")
+        void shouldReturn200WhenIdempotencyKeyIsRepeated() throws Exception {
+
+            TransactionRequest request = new TransactionRequest(
+                BigDecimal.valueOf(10.0),
+                OffsetDateTime.now().minusMinutes(1),
+                "controller-retry-" + System.nanoTime()
+            );
+
+            mockMvc.perform(post("/transacao")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+            mockMvc.perform(post("/transacao")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"));
+
+            verify(transactionalService, times(1)).addTransaction(any(), anyLong(), anyLong());
+        }
+
+        @Test
+        @DisplayName("Should return 503 with Retry-After when the retained backlog is over budget")
+        void shouldReturn503WhenBacklogIsOverBudget() throws Exception {
+
+            when(transactionalService.getRetainedCount()).thenReturn(Long.MAX_VALUE);
+            TransactionRequest request = new TransactionRequest(
+                BigDecimal.valueOf(10.0),
+                OffsetDateTime.now().minusMinutes(1)
+            );
+
+            mockMvc.perform(post("/transacao")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+
+            verify(transactionalService, never()).addTransaction(any(), anyLong(), anyLong());
+        }
+
+        @Test
+        @DisplayName("Should return 201 for a CBOR transaction")
+        void shouldReturn201ForCborTransaction() throws Exception {
+
+            byte[] body = new CborWriter(64).map(2)
+                .text("valor").float64(10.5)
+                .text("dataHora").text(OffsetDateTime.now().minusMinutes(1).toString())
+                .toByteArray();
+
+            mockMvc.perform(post("/transacao")
+                    .contentType(APPLICATION_CBOR)
+                    .content(body))
+                .andExpect(status().isCreated());
+
+            verify(transactionalService, times(1)).addTransaction(any(), anyLong(), eq(10_500_000L));
+        }
+
+        @Test
+        @DisplayName("Should return 201 for a single fixed-layout record and 422 for a partial one")
+        void shouldAcceptSingleRecord() throws Exception {
+
+            long epochMillis = System.currentTimeMillis() - 60_000;
+            byte[] body = TransactionRecords.encode(new long[]{epochMillis}, new long[]{2_000_000});
+
+            mockMvc.perform(post("/transacao")
+                    .contentType(APPLICATION_RECORDS)
+                    .content(body))
+                .andExpect(status().isCreated());
+            mockMvc.perform(post("/transacao")
+                    .contentType(APPLICATION_RECORDS)
+                    .content(new byte[TransactionRecords.RECORD_BYTES - 1]))
+                .andExpect(status().isUnprocessableEntity());
+
+            verify(transactionalService, times(1)).addTransaction(any(), eq(epochMillis), eq(2_000_000L));
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /transacao/lote Tests")
+    class CreateTransactionsTests {
+
+        private static String transaction(String valor) {
+            return "{\"valor\": " + valor + ", \"dataHora\": \"" + OffsetDateTime.now().minusMinutes(1) + "\"}";
+        }
+
+        @Test
+        @DisplayName("Should ingest the valid rows of a JSON batch and count the rejected ones")
+        void shouldIngestJsonBatch() throws Exception {
+
+            String body = "[" + transaction("1.5") + "," + transaction("-2") + "," + transaction("3") + "]";
+
+            mockMvc.perform(post("/transacao/lote")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json("{\"created\":2,\"accepted\":0,\"duplicates\":0,\"rejected\":1,\"unavailable\":0}", JsonCompareMode.STRICT));
+
+            verify(transactionalService, times(1)).addBatch(any(), any(long[].class), any(long[].class), eq(2));
+        }
+
+        @Test
+        @DisplayName("Should ingest a batch of fixed-layout records and answer in CBOR when asked")
+        void shouldIngestRecordsAndAnswerInCbor() throws Exception {
+
+            long now = System.currentTimeMillis();
+            byte[] body = TransactionRecords.encode(new long[]{now - 1_000, now - 2_000}, new long[]{1_000_000, 2_000_000});
+            byte[] expected = new CborWriter(80).map(5)
+                .text("created").integer(2)
+                .text("accepted").integer(0)
+                .text("duplicates").integer(0)
+                .text("rejected").integer(0)
+                .text("unavailable").integer(0)
+                .toByteArray();
+
+            mockMvc.perform(post("/transacao/lote")
+                    .contentType(APPLICATION_RECORDS)
+                    .accept(APPLICATION_CBOR)
+                    .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(APPLICATION_CBOR))
+                .andExpect(content().bytes(expected));
+
+            verify(transactionalService, times(1)).addBatch(any(), any(long[].class), any(long[].class), eq(2));
+        }
+
+        @Test
+        @DisplayName("Should ingest a CBOR batch")
+        void shouldIngestCborBatch() throws Exception {
+
+            CborWriter writer = new CborWriter(128).array(2);
+            for (String valor : List.of("1", "2")) {
+                writer.map(2).text("valor").integer(Long.parseLong(valor)).text("dataHora").text(OffsetDateTime.now().minusMinutes(1).toString());
+            }
+
+            mockMvc.perform(post("/transacao/lote")
+                    .contentType(APPLICATION_CBOR)
+                    .content(writer.toByteArray()))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"created\":2}"));
+        }
+
+        @Test
+        @DisplayName("Should return 422 and ingest nothing when the batch is malformed")
+        void shouldReturn422WhenBatchIsMalformed() throws Exception {
+
+            mockMvc.perform(post("/transacao/lote")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[" + transaction("1") + ","))
+                .andExpect(status().isUnprocessableEntity());
+            mockMvc.perform(post("/transacao/lote")
+                    .contentType(APPLICATION_RECORDS)
+                    .content(new byte[TransactionRecords.RECORD_BYTES + 1]))
+                .andExpect(status().isUnprocessableEntity());
+
+            verify(transactionalService, never()).addBatch(any(), any(long[].class), any(long[].class), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should return 413 when the batch exceeds the configured size")
+        void shouldReturn413WhenBatchIsTooLarge() throws Exception {
+
+            mockMvc.perform(post("/transacao/lote")
+                    .contentType(APPLICATION_RECORDS)
+                    .content(new byte[10_001 * TransactionRecords.RECORD_BYTES]))
+                .andExpect(status().isPayloadTooLarge());
+
+            verify(transactionalService, never()).addBatch(any(), any(long[].class), any(long[].class), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should return 503 with Retry-After when the retained backlog is over budget")
+        void shouldReturn503WhenBacklogIsOverBudget() throws Exception {
+
+            when(transactionalService.getRetainedCount()).thenReturn(Long.MAX_VALUE);
+
+            mockMvc.perform(post("/transacao/lote")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[" + transaction("1") + "]"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
         }
     }
 
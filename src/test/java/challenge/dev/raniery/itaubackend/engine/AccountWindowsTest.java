@@ -0,0 +1,152 @@
+package challenge.dev.raniery.itaubackend.engine;
+
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static challenge.dev.raniery.itaubackend.engine.TransactionLogTest.scaled;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AccountWindows Tests")
+public class AccountWindowsTest {
+
+    private static final long WINDOW_MILLIS = 60_000L;
+    private static final long BUCKET_MILLIS = 1_000L;
+    private static final long NOW = 1_748_352_600_000L;
+
+    private static AccountWindows windows(int maxKeys, int segments) {
+        long bytesPerKey = new AccountWindows(WINDOW_MILLIS, BUCKET_MILLIS, 0, 1).bytesPerKey();
+        return new AccountWindows(WINDOW_MILLIS, BUCKET_MILLIS, bytesPerKey * maxKeys, segments);
+    }
+
+    @Nested
+    @DisplayName("Window Tests")
+    class WindowTests {
+
+        @Test
+        @DisplayName("Should aggregate each account separately within the window")
+        void shouldAggregatePerAccount() {
+            AccountWindows accounts = windows(1_000, 4);
+            accounts.record("conta-1", NOW - 1_000, scaled(10.0));
+            accounts.record("conta-1", NOW - 30_000, scaled(30.0));
+            accounts.record("conta-2", NOW - 5_000, scaled(7.5));
+
+            StatisticSnapshot first = accounts.snapshot("conta-1", NOW, 3);
+            StatisticSnapshot second = accounts.snapshot("conta-2", NOW, 3);
+
+            assertEquals(2, first.getCount());
+            assertEquals(40.0, first.getSum());
+            assertEquals(10.0, first.getMin());
+            assertEquals(30.0, first.getMax());
+            assertEquals(1, second.getCount());
+            assertEquals(7.5, second.getSum());
+            assertEquals(0, accounts.snapshot("desconhecida", NOW, 3).getCount());
+        }
+
+        @Test
+        @DisplayName("Should drop buckets once they leave the window and ignore rows older than the ring")
+        void shouldExpireBuckets() {
+            AccountWindows accounts = windows(1_000, 1);
+            accounts.record("conta", NOW - 59_500, scaled(1.0));
+            accounts.record("conta", NOW - 1_000, scaled(2.0));
+
+            assertEquals(2, accounts.snapshot("conta", NOW, 0).getCount());
+            assertEquals(1, accounts.snapshot("conta", NOW + 2_000, 0).getCount());
+
+            accounts.record("conta", NOW - 120_000, scaled(50.0));
+            assertEquals(2.0, accounts.snapshot("conta", NOW + 2_000, 0).getMax());
+        }
+
+        @Test
+        @DisplayName("Should not count rows whose bucket has not started yet")
+        void shouldHideFutureBuckets() {
+            AccountWindows accounts = windows(1_000, 1);
+            accounts.record("conta", NOW + 5_000, scaled(1.0));
+
+            assertEquals(0, accounts.snapshot("conta", NOW, 0).getCount());
+            assertEquals(1, accounts.snapshot("conta", NOW + 5_000, 0).getCount());
+        }
+
+        @Test
+        @DisplayName("Should keep the edge bucket when a row lands one bucket ahead of the clock")
+        void shouldKeepEdgeBucketPastRowsAhead() {
+            AccountWindows accounts = new AccountWindows(WINDOW_MILLIS, BUCKET_MILLIS, 1 << 20, 1, BUCKET_MILLIS);
+            accounts.record("conta", NOW - WINDOW_MILLIS + 500, scaled(1.0));
+            accounts.record("conta", NOW + BUCKET_MILLIS, scaled(2.0));
+
+            assertEquals(1, accounts.snapshot("conta", NOW, 0).getCount());
+            assertEquals(2.0, accounts.snapshot("conta", NOW + BUCKET_MILLIS, 0).getMax());
+        }
+    }
+
+    @Nested
+    @DisplayName("Memory Budget Tests")
+    class MemoryBudgetTests {
+
+        @Test
+        @DisplayName("Should evict the least recently touched account once the budget is full")
+        void shouldEvictLeastRecentlyUsed() {
+            AccountWindows accounts = windows(2, 1);
+            accounts.record("a", NOW, scaled(1.0));
+            accounts.record("b", NOW, scaled(1.0));
+            accounts.snapshot("a", NOW, 0);
+
+            accounts.record("c", NOW, scaled(1.0));
+
+            assertEquals(2, accounts.size());
+            assertEquals(1, accounts.evictions());
+            assertEquals(1, accounts.snapshot("a", NOW, 0).getCount());
+            assertEquals(0, accounts.snapshot("b", NOW, 0).getCount());
+            assertEquals(1, accounts.snapshot("c", NOW, 0).getCount());
+        }
+
+        @Test
+        @DisplayName("Should keep exactly the most recently used accounts through growth and evictions")
+        void shouldMatchLruModel() {
+            int maxKeys = 300;
+            AccountWindows accounts = windows(maxKeys, 1);
+            Map<String, Integer> model = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                    return size() > maxKeys;
+                }
+            };
+            SplittableRandom random = new SplittableRandom(3);
+
+            for (int i = 0; i < 50_000; i++) {
+                String conta = "conta-" + random.nextInt(1_000);
+                accounts.record(conta, NOW, scaled(1.0));
+                model.merge(conta, 1, Integer::sum);
+            }
+
+            assertEquals(maxKeys, accounts.size());
+            for (Map.Entry<String, Integer> entry : Map.copyOf(model).entrySet()) {
+                assertEquals((long) entry.getValue(), accounts.snapshot(entry.getKey(), NOW, 0).getCount(), entry.getKey());
+            }
+            assertEquals(maxKeys, accounts.size());
+        }
+
+        @Test
+        @DisplayName("Should size the key budget from the memory budget")
+        void shouldReportMemoryPerKey() {
+            AccountWindows accounts = windows(1_024, 4);
+
+            assertEquals(61, (accounts.bytesPerKey() - 84) / 36);
+            assertEquals(1_024, accounts.maxKeys());
+        }
+
+        @Test
+        @DisplayName("Should fit over 200k accounts in the default budget with 2s buckets")
+        void shouldFitDefaultCapacity() {
+            AccountWindows accounts = new AccountWindows(WINDOW_MILLIS, 2_000, 256L << 20, 64);
+
+            assertEquals(1_200, accounts.bytesPerKey());
+            assertTrue(accounts.maxKeys() > 220_000, "maxKeys=" + accounts.maxKeys());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package challenge.dev.raniery.itaubackend.engine;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Amounts Tests")
+public class AmountsTest {
+
+    @Test
+    @DisplayName("Should scale values to micro-units rounding half to even")
+    void shouldScaleToMicroUnits() {
+        assertEquals(100_500_000L, Amounts.toScaled(new BigDecimal("100.50")));
+        assertEquals(123_456_789L, Amounts.toScaled(new BigDecimal("123.456789")));
+        assertEquals(2L, Amounts.toScaled(new BigDecimal("0.0000025")));
+        assertEquals(0L, Amounts.toScaled(new BigDecimal("1E-999999999")));
+        assertEquals(999_999_999_990_000L, Amounts.toScaled(new BigDecimal("999999999.99")));
+    }
+
+    @Test
+    @DisplayName("Should only represent values below one trillion")
+    void shouldBoundRepresentableValues() {
+        assertTrue(Amounts.isRepresentable(new BigDecimal("999999999999.999999")));
+        assertFalse(Amounts.isRepresentable(new BigDecimal("1E12")));
+        assertFalse(Amounts.isRepresentable(new BigDecimal("1E999999999")));
+        assertEquals(100.5, Amounts.toValor(100_500_000L));
+    }
+}
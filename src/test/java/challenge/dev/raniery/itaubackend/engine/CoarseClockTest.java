@@ -0,0 +1,79 @@
+package challenge.dev.raniery.itaubackend.engine;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CoarseClock Tests")
+public class CoarseClockTest {
+
+    private static final Instant START = Instant.parse("2025-05-27T13:30:00Z");
+
+    @Test
+    @DisplayName("Should serve the last sampled millis and catch up on the next tick")
+    void shouldCatchUpOnTick() throws InterruptedException {
+        MutableClock delegate = new MutableClock(START);
+        try (CoarseClock clock = new CoarseClock(delegate, Duration.ofMillis(1))) {
+            assertEquals(START.toEpochMilli(), clock.millis());
+
+            delegate.advance(Duration.ofSeconds(5));
+            assertEquals(START.plusSeconds(5), clock.instant());
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (clock.millis() != START.plusSeconds(5).toEpochMilli() && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(START.plusSeconds(5).toEpochMilli(), clock.millis());
+        }
+    }
+
+    @Test
+    @DisplayName("Should stop sampling once closed")
+    void shouldStopSamplingWhenClosed() throws InterruptedException {
+        MutableClock delegate = new MutableClock(START);
+        CoarseClock clock = new CoarseClock(delegate, Duration.ofMillis(1));
+        clock.close();
+        Thread.sleep(20);
+
+        delegate.advance(Duration.ofSeconds(5));
+        Thread.sleep(20);
+
+        assertEquals(START.toEpochMilli(), clock.millis());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package challenge.dev.raniery.itaubackend.engine;
+
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ParallelAggregator Tests")
+public class ParallelAggregatorTest {
+
+    private static final long WINDOW_MILLIS = 60_000L;
+    private static final Instant NOW = Instant.parse("2025-05-27T13:30:00Z");
+    private static final Clock CLOCK = Clock.fixed(NOW, ZoneOffset.UTC);
+
+    private final ParallelAggregator aggregator = new ParallelAggregator(4, 0, TransactionLog.CHUNK_SIZE);
+
+    @AfterEach
+    void tearDown() {
+        aggregator.close();
+    }
+
+    @Test
+    @DisplayName("Should merge shard results into the same aggregate as the serial scan")
+    void parallelSnapshotShouldMatchSerialSnapshot() {
+        TransactionLog log = filledLog(TransactionLog.CHUNK_SIZE * 37 + 123);
+
+        StatisticSnapshot serial = log.snapshot(CLOCK, WINDOW_MILLIS);
+        StatisticSnapshot parallel = log.snapshot(CLOCK, WINDOW_MILLIS, aggregator);
+
+        assertTrue(aggregator.shouldSplit(log.retained()));
+        assertEquals(serial.getCount(), parallel.getCount());
+        assertEquals(serial.getSum(), parallel.getSum(), serial.getSum() * 1e-12);
+        assertEquals(serial.getMin(), parallel.getMin());
+        assertEquals(serial.getMax(), parallel.getMax());
+        assertEquals(serial.getValidUntil(), parallel.getValidUntil());
+        assertEquals(serial.getVersion(), parallel.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should stay serial below the threshold, without a pool or after shutdown")
+    void shouldOnlySplitWhenWorthIt() {
+        ParallelAggregator thresholded = new ParallelAggregator(4, 1_000_000, TransactionLog.CHUNK_SIZE);
+        try {
+            assertFalse(thresholded.shouldSplit(999_999));
+            assertTrue(thresholded.shouldSplit(1_000_000));
+        } finally {
+            thresholded.close();
+        }
+        assertFalse(thresholded.shouldSplit(1_000_000));
+        assertFalse(new ParallelAggregator(1, 0, TransactionLog.CHUNK_SIZE).shouldSplit(Long.MAX_VALUE));
+        assertEquals(1, ParallelAggregator.serial().getParallelism());
+    }
+
+    @Test
+    @DisplayName("Should aggregate an empty log")
+    void shouldAggregateEmptyLog() {
+        StatisticSnapshot snapshot = new TransactionLog().snapshot(CLOCK, WINDOW_MILLIS, aggregator);
+
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0.0, snapshot.getSum());
+    }
+
+    private static TransactionLog filledLog(int rows) {
+        SplittableRandom random = new SplittableRandom(11);
+        TransactionLog log = new TransactionLog();
+        for (int i = 0; i < rows; i++) {
+            long epochMillis = i < TransactionLog.CHUNK_SIZE * 10
+                ? NOW.toEpochMilli() - random.nextLong(2 * WINDOW_MILLIS)
+                : NOW.toEpochMilli() - random.nextLong(WINDOW_MILLIS);
+            log.append(epochMillis, random.nextLong(1, 10_000_000_000L));
+        }
+        return log;
+    }
+}
@@ -0,0 +1,67 @@
+package challenge.dev.raniery.itaubackend.engine;
+
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RowScanner Tests")
+public class RowScannerTest {
+
+    private static final long WINDOW_START = 1_000_000L;
+
+    @Test
+    @DisplayName("Should prefer the vector scanner when the incubator module is on the boot layer")
+    void shouldPreferVectorScannerWhenAvailable() {
+        assertTrue(RowScanner.VECTOR.isAvailable());
+        assertEquals(RowScanner.VECTOR, RowScanner.preferred());
+    }
+
+    @ParameterizedTest(name = "rows [{0}, {1})")
+    @CsvSource({"0, 4096", "3, 4093", "0, 7", "5, 5", "1, 4096"})
+    @DisplayName("Vector and scalar scans should produce the same aggregate for any row range")
+    void vectorScanShouldMatchScalarScan(int from, int to) {
+        SplittableRandom random = new SplittableRandom(42);
+        long[] epochMillis = new long[TransactionLog.CHUNK_SIZE];
+        long[] amounts = new long[TransactionLog.CHUNK_SIZE];
+        for (int i = 0; i < epochMillis.length; i++) {
+            epochMillis[i] = WINDOW_START + random.nextLong(-5_000, 5_000);
+            amounts[i] = random.nextLong(0, 1_000_000_000_000L);
+        }
+
+        StatisticSnapshot scalar = scan(RowScanner.SCALAR, epochMillis, amounts, from, to);
+        StatisticSnapshot vector = scan(RowScanner.VECTOR, epochMillis, amounts, from, to);
+
+        assertEquals(scalar.getCount(), vector.getCount());
+        assertEquals(scalar.getSum(), vector.getSum(), Math.abs(scalar.getSum()) * 1e-12);
+        assertEquals(scalar.getMin(), vector.getMin());
+        assertEquals(scalar.getMax(), vector.getMax());
+        assertEquals(scalar.getValidUntil(), vector.getValidUntil());
+    }
+
+    @Test
+    @DisplayName("Should skip rows at or before the window start")
+    void shouldSkipExpiredRows() {
+        long[] epochMillis = {WINDOW_START, WINDOW_START + 1, WINDOW_START - 1, WINDOW_START + 2};
+        long[] amounts = {100, 200, 300, 400};
+
+        for (RowScanner scanner : RowScanner.values()) {
+            StatisticSnapshot snapshot = scan(scanner, epochMillis, amounts, 0, amounts.length);
+
+            assertEquals(2, snapshot.getCount(), scanner.name());
+            assertEquals(Amounts.toValor(600), snapshot.getSum(), 1e-12, scanner.name());
+            assertEquals(Amounts.toValor(200), snapshot.getMin(), scanner.name());
+        }
+    }
+
+    private static StatisticSnapshot scan(RowScanner scanner, long[] epochMillis, long[] amounts, int from, int to) {
+        WindowAccumulator accumulator = new WindowAccumulator();
+        scanner.accumulate(epochMillis, amounts, from, to, WINDOW_START, accumulator);
+        return accumulator.toSnapshot(0, 60_000L);
+    }
+}
@@ -0,0 +1,160 @@
+package challenge.dev.raniery.itaubackend.engine;
+
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static challenge.dev.raniery.itaubackend.engine.TransactionLogTest.scaled;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SampledWindow Tests")
+public class SampledWindowTest {
+
+    private static final long WINDOW_MILLIS = 60_000L;
+    private static final long BUCKET_MILLIS = 1_000L;
+    private static final long NOW = 1_748_352_600_500L;
+
+    @Test
+    @DisplayName("Should be exact while every bucket holds no more rows than the sample")
+    void shouldBeExactForSmallBuckets() {
+        SampledWindow window = new SampledWindow(WINDOW_MILLIS, BUCKET_MILLIS, 16);
+        window.record(NOW - 1_000, scaled(10));
+        window.record(NOW - 30_000, scaled(2.5));
+        window.record(NOW - 59_800, scaled(40));
+        window.record(NOW - 60_200, scaled(1_000));
+        window.record(NOW - 120_000, scaled(5));
+        window.record(NOW + 200, scaled(7));
+
+        StatisticSnapshot snapshot = window.snapshot(NOW, 42);
+
+        assertTrue(snapshot.isApproximate());
+        assertEquals(3, snapshot.getCount());
+        assertEquals(52.5, snapshot.getSum(), 0.000001);
+        assertEquals(2.5, snapshot.getMin(), 0.000001);
+        assertEquals(40.0, snapshot.getMax(), 0.000001);
+        assertEquals(42, snapshot.getVersion());
+        assertEquals(NOW - 59_800 + WINDOW_MILLIS, snapshot.getValidUntil());
+    }
+
+    @Test
+    @DisplayName("Should keep inner buckets exact and estimate the edge bucket within its error bound")
+    void shouldEstimateTheEdgeBucket() {
+        int sampleSize = 1024;
+        SampledWindow window = new SampledWindow(WINDOW_MILLIS, BUCKET_MILLIS, sampleSize);
+        int edgeRows = 100_000;
+        long edgeStart = NOW - 60_500;
+        for (int i = 0; i < edgeRows; i++) {
+            window.record(edgeStart + (long) i * BUCKET_MILLIS / edgeRows, scaled(1 + i % 10));
+        }
+        for (int i = 0; i < 50_000; i++) {
+            window.record(NOW - 30_000 + i % 1_000, scaled(3));
+        }
+        window.record(NOW - 10_000, scaled(0.01));
+        window.record(NOW - 10_000, scaled(9_999));
+
+        StatisticSnapshot snapshot = window.snapshot(NOW, 0);
+
+        double bound = 4.0 * edgeRows / (2 * Math.sqrt(sampleSize));
+        assertEquals(50_002 + edgeRows / 2, snapshot.getCount(), bound);
+        assertEquals(150_000 + 10_000.01 + 5.5 * edgeRows / 2, snapshot.getSum(), bound * 10);
+        assertEquals(0.01, snapshot.getMin(), 0.000001);
+        assertEquals(9_999.0, snapshot.getMax(), 0.000001);
+    }
+
+    @Test
+    @DisplayName("Should count every row of concurrent writers in inner buckets")
+    void shouldCountConcurrentWrites() throws Exception {
+        SampledWindow window = new SampledWindow(WINDOW_MILLIS, BUCKET_MILLIS, 64);
+        int threads = 4;
+        int perThread = 50_000;
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        window.record(NOW - 1 - i % 30_000, scaled(1));
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        }
+
+        StatisticSnapshot snapshot = window.snapshot(NOW, 0);
+
+        assertEquals(threads * perThread, snapshot.getCount());
+        assertEquals(threads * perThread, snapshot.getSum(), 0.000001);
+    }
+
+    @Test
+    @DisplayName("Should keep the edge bucket when a row lands one bucket ahead of the clock")
+    void shouldKeepEdgeBucketPastRowsAhead() {
+        SampledWindow window = new SampledWindow(WINDOW_MILLIS, BUCKET_MILLIS, 16, BUCKET_MILLIS);
+        window.record(NOW - 59_800, scaled(40));
+        window.record(NOW + BUCKET_MILLIS, scaled(7));
+
+        StatisticSnapshot snapshot = window.snapshot(NOW, 0);
+
+        assertEquals(1, snapshot.getCount());
+        assertEquals(40.0, snapshot.getSum(), 0.000001);
+    }
+
+    @Test
+    @DisplayName("Should count every row of writers racing a slot turnover and never expose a half-opened slot")
+    void shouldKeepRowsRacingTurnover() throws Exception {
+        int threads = 4;
+        int rounds = 5_000;
+        SampledWindow window = new SampledWindow(BUCKET_MILLIS, BUCKET_MILLIS, 16);
+        CyclicBarrier barrier = new CyclicBarrier(threads + 1);
+        AtomicInteger recorded = new AtomicInteger();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                executor.submit(() -> {
+                    for (int round = 0; round < rounds; round++) {
+                        barrier.await();
+                        window.record(round * BUCKET_MILLIS + 500, scaled(1));
+                        recorded.incrementAndGet();
+                        barrier.await();
+                    }
+                    return null;
+                });
+            }
+            try {
+                for (int round = 0; round < rounds; round++) {
+                    long now = round * BUCKET_MILLIS + 999;
+                    barrier.await();
+                    while (recorded.get() < threads * (round + 1)) {
+                        StatisticSnapshot racing = window.snapshot(now, 0);
+                        if (racing.getCount() > 0) {
+                            assertEquals(1.0, racing.getMin(), "rodada " + round);
+                            assertEquals(1.0, racing.getMax(), "rodada " + round);
+                        }
+                    }
+                    barrier.await();
+
+                    StatisticSnapshot snapshot = window.snapshot(now, 0);
+                    assertEquals(threads, snapshot.getCount(), "rodada " + round);
+                    assertEquals(threads, snapshot.getSum(), 0.000001, "rodada " + round);
+                }
+            } finally {
+                barrier.reset();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a non-positive sample size")
+    void shouldRejectInvalidSampleSize() {
+        assertThrows(IllegalArgumentException.class, () -> new SampledWindow(WINDOW_MILLIS, BUCKET_MILLIS, 0));
+    }
+}
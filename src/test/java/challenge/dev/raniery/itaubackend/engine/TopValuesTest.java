@@ -0,0 +1,188 @@
+package challenge.dev.raniery.itaubackend.engine;
+
+import challenge.dev.raniery.itaubackend.model.TopValuesSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static challenge.dev.raniery.itaubackend.engine.TransactionLogTest.scaled;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TopValues Tests")
+public class TopValuesTest {
+
+    private static final long WINDOW_MILLIS = 60_000L;
+    private static final long BUCKET_MILLIS = 1_000L;
+    private static final long NOW = 1_748_352_600_000L;
+
+    @Test
+    @DisplayName("Should return the K largest values of the window, largest first")
+    void shouldRankLargestFirst() {
+        TopValues top = new TopValues(WINDOW_MILLIS, BUCKET_MILLIS, 10);
+        top.record(NOW - 1_000, scaled(5.0));
+        top.record(NOW - 20_000, scaled(42.0));
+        top.record(NOW - 20_500, scaled(17.25));
+        top.record(NOW - 59_999, scaled(30.0));
+
+        TopValuesSnapshot snapshot = top.top(3, NOW);
+
+        assertEquals(3, snapshot.size());
+        assertEquals(42.0, snapshot.getValor(0));
+        assertEquals(NOW - 20_000, snapshot.getEpochMillis(0));
+        assertEquals(30.0, snapshot.getValor(1));
+        assertEquals(17.25, snapshot.getValor(2));
+    }
+
+    @Test
+    @DisplayName("Should keep the edge bucket when a row lands one bucket ahead of the clock")
+    void shouldKeepEdgeBucketPastRowsAhead() {
+        TopValues top = new TopValues(WINDOW_MILLIS, BUCKET_MILLIS, 10, BUCKET_MILLIS);
+        top.record(NOW - 59_500, scaled(30.0));
+        top.record(NOW + BUCKET_MILLIS, scaled(1.0));
+
+        TopValuesSnapshot snapshot = top.top(10, NOW);
+
+        assertEquals(1, snapshot.size());
+        assertEquals(30.0, snapshot.getValor(0));
+        assertEquals(1.0, top.top(10, NOW + BUCKET_MILLIS).getValor(0));
+    }
+
+    @Test
+    @DisplayName("Should leave out rows outside the window or not yet due")
+    void shouldFilterByTimestamp() {
+        TopValues top = new TopValues(WINDOW_MILLIS, BUCKET_MILLIS, 10);
+        top.record(NOW - WINDOW_MILLIS, scaled(1_000.0));
+        top.record(NOW - 59_999, scaled(2.0));
+        top.record(NOW + 300, scaled(500.0));
+
+        TopValuesSnapshot snapshot = top.top(10, NOW);
+
+        assertEquals(1, snapshot.size());
+        assertEquals(2.0, snapshot.getValor(0));
+        assertEquals(500.0, top.top(10, NOW + 300).getValor(0));
+    }
+
+    @Test
+    @DisplayName("Should reset a bucket when its slot is reused by a later interval")
+    void shouldExpireReusedBuckets() {
+        TopValues top = new TopValues(WINDOW_MILLIS, BUCKET_MILLIS, 2);
+        top.record(NOW - 1_000, scaled(9.0));
+        top.record(NOW - 1_000, scaled(8.0));
+
+        long later = NOW + WINDOW_MILLIS + BUCKET_MILLIS;
+        top.record(later - 1_000, scaled(1.0));
+
+        TopValuesSnapshot snapshot = top.top(2, later);
+        assertEquals(1, snapshot.size());
+        assertEquals(1.0, snapshot.getValor(0));
+
+        top.record(NOW - 1_000, scaled(100.0));
+        assertEquals(1, top.top(2, later).size());
+    }
+
+    @Test
+    @DisplayName("Should match a full sort of the window for random input")
+    void shouldMatchSortedModel() {
+        SplittableRandom random = new SplittableRandom(41);
+        TopValues top = new TopValues(WINDOW_MILLIS, BUCKET_MILLIS, 25);
+        List<Long> inWindow = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            long epoch = NOW - random.nextLong(WINDOW_MILLIS);
+            long amount = random.nextLong(1, 1_000_000_000L);
+            top.record(epoch, amount);
+            inWindow.add(amount);
+        }
+        inWindow.sort(Comparator.reverseOrder());
+
+        TopValuesSnapshot snapshot = top.top(25, NOW);
+
+        assertEquals(25, snapshot.size());
+        for (int rank = 0; rank < 25; rank++) {
+            assertEquals(inWindow.get(rank) / 1_000_000.0, snapshot.getValor(rank), "rank " + rank);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the largest values under concurrent writers")
+    void shouldRankUnderConcurrentWriters() throws InterruptedException {
+        TopValues top = new TopValues(WINDOW_MILLIS, BUCKET_MILLIS, 5);
+        int writers = 4;
+        int perWriter = 10_000;
+        CountDownLatch done = new CountDownLatch(writers);
+        try (ExecutorService executor = Executors.newFixedThreadPool(writers)) {
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                executor.submit(() -> {
+                    for (int i = 0; i < perWriter; i++) {
+                        top.record(NOW - 500, (long) i * writers + writer);
+                    }
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        }
+
+        TopValuesSnapshot snapshot = top.top(5, NOW);
+        long largest = (long) perWriter * writers - 1;
+        for (int rank = 0; rank < 5; rank++) {
+            assertEquals(Amounts.toValor(largest - rank), snapshot.getValor(rank));
+        }
+    }
+
+    @Test
+    @DisplayName("Should cap k at the configured capacity")
+    void shouldCapK() {
+        TopValues top = new TopValues(WINDOW_MILLIS, BUCKET_MILLIS, 2);
+        top.record(NOW - 10, scaled(1.0));
+        top.record(NOW - 20, scaled(2.0));
+        top.record(NOW - 30, scaled(3.0));
+
+        assertEquals(2, top.top(50, NOW).size());
+        assertThrows(IllegalArgumentException.class, () -> new TopValues(WINDOW_MILLIS, BUCKET_MILLIS, 0));
+    }
+
+    @Test
+    @DisplayName("Should not drop rows of a new interval racing the turnover of a full bucket")
+    void shouldKeepRowsRacingTurnover() throws Exception {
+        int threads = 4;
+        int rounds = 5_000;
+        TopValues top = new TopValues(BUCKET_MILLIS, BUCKET_MILLIS, 1);
+        CyclicBarrier barrier = new CyclicBarrier(threads + 1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                long amount = scaled(t + 1);
+                executor.submit(() -> {
+                    for (int round = 0; round < rounds; round++) {
+                        barrier.await();
+                        top.record((4L * round + 2) * BUCKET_MILLIS, amount);
+                        barrier.await();
+                    }
+                    return null;
+                });
+            }
+            try {
+                for (int round = 0; round < rounds; round++) {
+                    long bucketStart = 4L * round * BUCKET_MILLIS;
+                    top.record(bucketStart, scaled(1_000_000));
+                    barrier.await();
+                    barrier.await();
+
+                    TopValuesSnapshot snapshot = top.top(1, bucketStart + 3 * BUCKET_MILLIS - 1);
+                    assertEquals(1, snapshot.size(), "rodada " + round);
+                    assertEquals(threads, snapshot.getValor(0), "rodada " + round);
+                }
+            } finally {
+                barrier.reset();
+            }
+        }
+    }
+}
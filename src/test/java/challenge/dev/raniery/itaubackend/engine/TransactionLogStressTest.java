@@ -0,0 +1,190 @@
+package challenge.dev.raniery.itaubackend.engine;
+
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static challenge.dev.raniery.itaubackend.engine.TransactionLogTest.scaled;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrency tests in the style of jcstress: each scenario runs its actors against a fresh log many
+ * times, and every observed outcome must belong to the set allowed by a linearizable store.
+ */
+@DisplayName("TransactionLog Stress Tests")
+public class TransactionLogStressTest {
+
+    private static final long WINDOW_MILLIS = 60_000L;
+    private static final int ITERATIONS = 5_000;
+
+    private final Clock clock = Clock.systemUTC();
+
+    private long now() {
+        return clock.millis();
+    }
+
+    private Map<String, Integer> runActors(int iterations, List<Actor> actors) throws Exception {
+        Map<String, Integer> outcomes = new TreeMap<>();
+        CyclicBarrier start = new CyclicBarrier(actors.size());
+        try (ExecutorService executorService = Executors.newFixedThreadPool(actors.size())) {
+            for (int iteration = 0; iteration < iterations; iteration++) {
+                TransactionLog log = new TransactionLog();
+                AtomicBoolean signal = new AtomicBoolean();
+                Map<Integer, String> results = new ConcurrentHashMap<>();
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < actors.size(); i++) {
+                    int actor = i;
+                    futures.add(executorService.submit(() -> {
+                        start.await();
+                        results.put(actor, actors.get(actor).act(log, signal));
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get(10, TimeUnit.SECONDS);
+                }
+                String outcome = String.join(" | ", new TreeMap<>(results).values().stream().filter(result -> !result.isEmpty()).toList());
+                outcomes.merge(outcome, 1, Integer::sum);
+            }
+        }
+        return outcomes;
+    }
+
+    private static String describe(StatisticSnapshot snapshot) {
+        return snapshot.getCount() + ":" + snapshot.getSum() + ":" + snapshot.getMin() + ":" + snapshot.getMax();
+    }
+
+    @FunctionalInterface
+    private interface Actor {
+        String act(TransactionLog log, AtomicBoolean signal) throws Exception;
+    }
+
+    @Nested
+    @DisplayName("Outcome Tests")
+    class OutcomeTests {
+
+        @Test
+        @DisplayName("Two writers and a reader: the reader sees none, either, or both writes, never a torn aggregate")
+        void readerSeesWholeWritesOnly() throws Exception {
+            Map<String, Integer> outcomes = runActors(ITERATIONS, List.of(
+                (log, signal) -> {
+                    log.append(now(), scaled(1.0));
+                    return "";
+                },
+                (log, signal) -> {
+                    log.append(now(), scaled(2.0));
+                    return "";
+                },
+                (log, signal) -> describe(log.snapshot(clock, WINDOW_MILLIS))));
+
+            Set<String> allowed = Set.of("0:0.0:0.0:0.0", "1:1.0:1.0:1.0", "1:2.0:2.0:2.0", "2:3.0:1.0:2.0");
+            assertTrue(allowed.containsAll(outcomes.keySet()), () -> "Forbidden outcomes observed: " + outcomes);
+        }
+
+        @Test
+        @DisplayName("A write that completed before the read started is always visible")
+        void completedWriteIsAlwaysVisible() throws Exception {
+            Map<String, Integer> outcomes = runActors(ITERATIONS, List.of(
+                (log, signal) -> {
+                    log.append(now(), scaled(1.0));
+                    signal.set(true);
+                    return "";
+                },
+                (log, signal) -> {
+                    boolean completedBefore = signal.get();
+                    long count = log.snapshot(clock, WINDOW_MILLIS).getCount();
+                    return completedBefore ? "after:" + count : "racing:" + count;
+                }));
+
+            assertFalse(outcomes.containsKey("after:0"), () -> "A completed write was not visible: " + outcomes);
+        }
+    }
+
+    @Nested
+    @DisplayName("Invariant Tests")
+    class InvariantTests {
+
+        @ParameterizedTest(name = "compressSealed={0}")
+        @ValueSource(booleans = {false, true})
+        @DisplayName("Every snapshot under sustained writes equals the aggregate of a prefix of the log")
+        void everySnapshotIsAPrefix(boolean compressSealed) throws Exception {
+            int writers = 4;
+            int writesPerWriter = 3 * TransactionLog.CHUNK_SIZE;
+            TransactionLog log = new TransactionLog(RowScanner.preferred(), compressSealed);
+            List<StatisticSnapshot> observed = new ArrayList<>();
+            AtomicLong completed = new AtomicLong();
+            CyclicBarrier start = new CyclicBarrier(writers + 1);
+
+            try (ExecutorService executorService = Executors.newFixedThreadPool(writers + 1)) {
+                for (int w = 0; w < writers; w++) {
+                    double valor = w + 1;
+                    executorService.submit(() -> {
+                        start.await();
+                        for (int i = 0; i < writesPerWriter; i++) {
+                            log.append(now(), scaled(valor));
+                            completed.incrementAndGet();
+                        }
+                        return null;
+                    });
+                }
+                Future<?> reader = executorService.submit(() -> {
+                    start.await();
+                    long previousCount = -1;
+                    while (completed.get() < (long) writers * writesPerWriter) {
+                        long completedBefore = completed.get();
+                        StatisticSnapshot snapshot = log.snapshot(clock, WINDOW_MILLIS);
+                        assertTrue(snapshot.getCount() >= completedBefore, "a completed write was not visible");
+                        assertTrue(snapshot.getCount() >= previousCount, "snapshots went backwards");
+                        assertEquals(snapshot.getCount(), snapshot.getVersion(), "count must match the published cursor");
+                        previousCount = snapshot.getCount();
+                        observed.add(snapshot);
+                        Thread.yield();
+                    }
+                    return null;
+                });
+                reader.get(60, TimeUnit.SECONDS);
+            }
+
+            double[] prefixSums = prefixSums(log);
+            for (StatisticSnapshot snapshot : observed) {
+                int cursor = (int) snapshot.getVersion();
+                assertEquals(prefixSums[cursor], snapshot.getSum(), 1e-6, "snapshot at " + cursor + " is not a prefix");
+                if (snapshot.getCount() > 0) {
+                    assertEquals(snapshot.getSum() / snapshot.getCount(), snapshot.getAverage(), 1e-9);
+                }
+            }
+            assertEquals((long) writers * writesPerWriter, log.snapshot(clock, WINDOW_MILLIS).getCount());
+        }
+
+        private double[] prefixSums(TransactionLog log) {
+            int size = (int) log.cursor();
+            double[] sums = new double[size + 1];
+            int index = 0;
+            for (TransactionLog.Chunk chunk = log.head(); chunk != null && index < size; chunk = chunk.next) {
+                long[] amounts = chunk.amountColumn();
+                for (int i = 0; i < TransactionLog.CHUNK_SIZE && index < size; i++, index++) {
+                    sums[index + 1] = sums[index] + Amounts.toValor(amounts[i]);
+                }
+            }
+            return sums;
+        }
+    }
+}
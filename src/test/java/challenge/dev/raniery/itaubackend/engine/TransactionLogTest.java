@@ -0,0 +1,248 @@
+package challenge.dev.raniery.itaubackend.engine;
+
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TransactionLog Tests")
+public class TransactionLogTest {
+
+    private static final long WINDOW_MILLIS = 60_000L;
+    private static final Instant NOW = Instant.parse("2025-05-27T13:30:00Z");
+    private static final Clock CLOCK = Clock.fixed(NOW, ZoneOffset.UTC);
+
+    private final TransactionLog log = new TransactionLog();
+
+    static long scaled(double valor) {
+        return Math.round(valor * 1_000_000);
+    }
+
+    @Nested
+    @DisplayName("Aggregation Tests")
+    class AggregationTests {
+
+        @Test
+        @DisplayName("Should aggregate rows across sealed chunks and the open tail chunk")
+        void shouldAggregateAcrossChunks() {
+            int rows = TransactionLog.CHUNK_SIZE * 2 + 10;
+            for (int i = 0; i < rows; i++) {
+                log.append(NOW.toEpochMilli() - 1_000, scaled(i));
+            }
+
+            StatisticSnapshot snapshot = log.snapshot(CLOCK, WINDOW_MILLIS);
+
+            assertEquals(rows, snapshot.getCount());
+            assertEquals((double) rows * (rows - 1) / 2, snapshot.getSum(), 0.001);
+            assertEquals(0.0, snapshot.getMin());
+            assertEquals(rows - 1, snapshot.getMax());
+            assertEquals(rows, snapshot.getVersion());
+        }
+
+        @Test
+        @DisplayName("Should append a batch across a chunk boundary under a single ticket range")
+        void shouldAppendBatchAcrossChunkBoundary() {
+            for (int i = 0; i < TransactionLog.CHUNK_SIZE - 2; i++) {
+                log.append(NOW.toEpochMilli(), scaled(1.0));
+            }
+            long[] epochMillis = {0, NOW.toEpochMilli(), NOW.toEpochMilli(), NOW.toEpochMilli(), NOW.toEpochMilli()};
+            long[] amounts = {0, scaled(2.0), scaled(3.0), scaled(4.0), scaled(5.0)};
+
+            long first = log.appendBatch(epochMillis, amounts, 1, 4);
+
+            assertEquals(TransactionLog.CHUNK_SIZE - 2, first);
+            StatisticSnapshot snapshot = log.snapshot(CLOCK, WINDOW_MILLIS);
+            assertEquals(TransactionLog.CHUNK_SIZE + 2, snapshot.getCount());
+            assertEquals(TransactionLog.CHUNK_SIZE - 2 + 14.0, snapshot.getSum(), 0.001);
+            assertEquals(5.0, snapshot.getMax());
+        }
+
+        @Test
+        @DisplayName("Should scan sealed chunks that straddle the window edge row by row")
+        void shouldScanChunksStraddlingTheWindow() {
+            for (int i = 0; i < TransactionLog.CHUNK_SIZE; i++) {
+                long epochMillis = i % 2 == 0 ? NOW.toEpochMilli() - WINDOW_MILLIS : NOW.toEpochMilli() - 1_000;
+                log.append(epochMillis, scaled(i % 2 == 0 ? 1_000.0 : 1.0));
+            }
+
+            StatisticSnapshot snapshot = log.snapshot(CLOCK, WINDOW_MILLIS);
+
+            assertEquals(TransactionLog.CHUNK_SIZE / 2, snapshot.getCount());
+            assertEquals(1.0, snapshot.getMax());
+            assertEquals(NOW.toEpochMilli() - 1_000 + WINDOW_MILLIS, snapshot.getValidUntil());
+        }
+    }
+
+    @Nested
+    @DisplayName("Compression Tests")
+    class CompressionTests {
+
+        private final TransactionLog compressed = new TransactionLog(RowScanner.preferred(), true);
+
+        @Test
+        @DisplayName("Should aggregate compressed chunks exactly like raw ones, including rows straddling the window")
+        void shouldAggregateLikeRawChunks() {
+            long[] amounts = {scaled(0.01), scaled(123.45), 0, scaled(999_999_999.99), 7, scaled(1_000)};
+            for (int i = 0; i < TransactionLog.CHUNK_SIZE * 2 + 3; i++) {
+                long epochMillis = i % 3 == 0 ? NOW.toEpochMilli() - WINDOW_MILLIS - i : NOW.toEpochMilli() - i;
+                log.append(epochMillis, amounts[i % amounts.length]);
+                compressed.append(epochMillis, amounts[i % amounts.length]);
+            }
+
+            StatisticSnapshot raw = log.snapshot(CLOCK, WINDOW_MILLIS);
+            StatisticSnapshot snapshot = compressed.snapshot(CLOCK, WINDOW_MILLIS);
+
+            assertEquals(raw.getCount(), snapshot.getCount());
+            assertEquals(raw.getSum(), snapshot.getSum());
+            assertEquals(raw.getMin(), snapshot.getMin());
+            assertEquals(raw.getMax(), snapshot.getMax());
+            assertEquals(raw.getValidUntil(), snapshot.getValidUntil());
+        }
+
+        @Test
+        @DisplayName("Should round-trip extreme timestamps and amounts")
+        void shouldRoundTripExtremes() {
+            long[] epochMillis = {Long.MIN_VALUE, Long.MAX_VALUE, 0, -1, NOW.toEpochMilli()};
+            long[] amounts = {Long.MAX_VALUE, Long.MIN_VALUE, -1, 0, 10_000};
+
+            long[] decodedEpochs = new long[epochMillis.length];
+            long[] decodedAmounts = new long[amounts.length];
+            CompressedRows.decode(CompressedRows.encode(epochMillis, amounts, epochMillis.length), epochMillis.length, decodedEpochs, decodedAmounts);
+
+            assertArrayEquals(epochMillis, decodedEpochs);
+            assertArrayEquals(amounts, decodedAmounts);
+        }
+
+        @Test
+        @DisplayName("Should hold a sealed chunk of cent amounts in a few bytes per transaction")
+        void shouldShrinkSealedChunks() {
+            for (int i = 0; i < TransactionLog.CHUNK_SIZE + 1; i++) {
+                log.append(NOW.toEpochMilli() - 10_000 + i / 4, scaled(10 + (i % 1_000) * 0.37));
+                compressed.append(NOW.toEpochMilli() - 10_000 + i / 4, scaled(10 + (i % 1_000) * 0.37));
+            }
+
+            long openChunkBytes = log.retainedBytes() / 2;
+            long sealedBytes = compressed.retainedBytes() - openChunkBytes;
+
+            assertEquals(2 * openChunkBytes, log.retainedBytes());
+            assertTrue(sealedBytes < 5L * TransactionLog.CHUNK_SIZE, "sealed chunk took " + sealedBytes + " bytes");
+            assertEquals(log.snapshot(CLOCK, WINDOW_MILLIS).getSum(), compressed.snapshot(CLOCK, WINDOW_MILLIS).getSum());
+        }
+    }
+
+    @Nested
+    @DisplayName("Reclamation Tests")
+    class ReclamationTests {
+
+        @Test
+        @DisplayName("Should drop sealed chunks whose rows have all expired, keeping the open chunk")
+        void shouldReclaimExpiredChunks() {
+            for (int i = 0; i < TransactionLog.CHUNK_SIZE * 3; i++) {
+                log.append(NOW.toEpochMilli() - 2 * WINDOW_MILLIS, scaled(1.0));
+            }
+            log.append(NOW.toEpochMilli(), scaled(5.0));
+
+            log.reclaimExpired(NOW.toEpochMilli() - WINDOW_MILLIS);
+
+            assertEquals(1, log.retained());
+            StatisticSnapshot snapshot = log.snapshot(CLOCK, WINDOW_MILLIS);
+            assertEquals(1, snapshot.getCount());
+            assertEquals(5.0, snapshot.getSum());
+        }
+
+        @Test
+        @DisplayName("Should keep a sealed chunk while any of its rows is still in the window")
+        void shouldKeepChunksWithLiveRows() {
+            for (int i = 0; i < TransactionLog.CHUNK_SIZE - 1; i++) {
+                log.append(NOW.toEpochMilli() - 2 * WINDOW_MILLIS, scaled(1.0));
+            }
+            log.append(NOW.toEpochMilli(), scaled(5.0));
+            log.append(NOW.toEpochMilli(), scaled(5.0));
+
+            log.reclaimExpired(NOW.toEpochMilli() - WINDOW_MILLIS);
+
+            assertEquals(TransactionLog.CHUNK_SIZE + 1, log.retained());
+            assertEquals(2, log.snapshot(CLOCK, WINDOW_MILLIS).getCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("History Tests")
+    class HistoryTests {
+
+        private static final int ROWS = TransactionLog.CHUNK_SIZE * 12 + 100;
+        private static final long START = NOW.toEpochMilli() - 10 * WINDOW_MILLIS;
+
+        private final long[] epochMillis = new long[ROWS];
+        private final long[] amounts = new long[ROWS];
+
+        private TransactionLog filled(boolean compressSealed) {
+            TransactionLog history = new TransactionLog(RowScanner.preferred(), compressSealed);
+            Random random = new Random(7);
+            for (int i = 0; i < ROWS; i++) {
+                long arrival = START + (long) i * 10 * WINDOW_MILLIS / ROWS;
+                epochMillis[i] = i % 97 == 0 ? arrival - random.nextInt(3 * (int) WINDOW_MILLIS) : arrival - random.nextInt(500);
+                amounts[i] = scaled(1 + random.nextInt(1_000) / 100.0);
+                history.append(epochMillis[i], amounts[i]);
+            }
+            return history;
+        }
+
+        private long expectedCount(long windowStart, long windowEnd) {
+            long count = 0;
+            for (long epoch : epochMillis) {
+                if (epoch > windowStart && epoch <= windowEnd) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        private double expectedSum(long windowStart, long windowEnd) {
+            double sum = 0;
+            for (int i = 0; i < ROWS; i++) {
+                if (epochMillis[i] > windowStart && epochMillis[i] <= windowEnd) {
+                    sum += amounts[i];
+                }
+            }
+            return sum / 1_000_000;
+        }
+
+        @Test
+        @DisplayName("Should match a full scan for windows ending anywhere in the history, compressed or not")
+        void shouldMatchFullScan() {
+            for (boolean compressSealed : new boolean[]{false, true}) {
+                TransactionLog history = filled(compressSealed);
+                for (long asOf = START - WINDOW_MILLIS; asOf <= NOW.toEpochMilli(); asOf += 7_919) {
+                    StatisticSnapshot snapshot = history.snapshotAsOf(asOf, WINDOW_MILLIS);
+
+                    assertEquals(expectedCount(asOf - WINDOW_MILLIS, asOf), snapshot.getCount(), "asOf " + asOf);
+                    assertEquals(expectedSum(asOf - WINDOW_MILLIS, asOf), snapshot.getSum(), 0.001);
+                }
+                assertEquals(expectedCount(NOW.toEpochMilli() - WINDOW_MILLIS, Long.MAX_VALUE), history.snapshot(CLOCK, WINDOW_MILLIS).getCount());
+            }
+        }
+
+        @Test
+        @DisplayName("Should keep answering after reclaiming the chunks older than the retention")
+        void shouldMatchAfterReclaim() {
+            TransactionLog history = filled(false);
+            long retentionStart = NOW.toEpochMilli() - 5 * WINDOW_MILLIS;
+
+            history.reclaimExpired(retentionStart - WINDOW_MILLIS);
+
+            assertTrue(history.retained() < ROWS);
+            for (long asOf = retentionStart; asOf <= NOW.toEpochMilli(); asOf += 3_001) {
+                assertEquals(expectedCount(asOf - WINDOW_MILLIS, asOf), history.snapshotAsOf(asOf, WINDOW_MILLIS).getCount(), "asOf " + asOf);
+            }
+            assertEquals(expectedCount(NOW.toEpochMilli() - WINDOW_MILLIS, Long.MAX_VALUE), history.snapshot(CLOCK, WINDOW_MILLIS).getCount());
+        }
+    }
+}
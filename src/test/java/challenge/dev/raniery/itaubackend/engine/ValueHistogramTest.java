@@ -0,0 +1,117 @@
+package challenge.dev.raniery.itaubackend.engine;
+
+import challenge.dev.raniery.itaubackend.model.HistogramSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static challenge.dev.raniery.itaubackend.engine.TransactionLogTest.scaled;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ValueHistogram Tests")
+public class ValueHistogramTest {
+
+    private static final long WINDOW_MILLIS = 60_000L;
+    private static final long BUCKET_MILLIS = 1_000L;
+    private static final long NOW = 1_748_352_600_000L;
+    private static final long[] DECADES = {scaled(1), scaled(10), scaled(100)};
+
+    @Test
+    @DisplayName("Should keep the edge bucket when a row lands one bucket ahead of the clock")
+    void shouldKeepEdgeBucketPastRowsAhead() {
+        ValueHistogram histogram = new ValueHistogram(WINDOW_MILLIS, BUCKET_MILLIS, DECADES, BUCKET_MILLIS);
+        histogram.record(NOW - 59_500, scaled(500));
+        histogram.record(NOW + BUCKET_MILLIS, scaled(5));
+
+        HistogramSnapshot snapshot = histogram.snapshot(NOW);
+
+        assertEquals(1, snapshot.getTotal());
+        assertEquals(1, snapshot.getCount(3));
+        assertEquals(1, histogram.snapshot(NOW + BUCKET_MILLIS).getCount(1));
+    }
+
+    @Test
+    @DisplayName("Should place each amount in the range whose upper bound is exclusive")
+    void shouldIndexByRange() {
+        ValueHistogram histogram = new ValueHistogram(WINDOW_MILLIS, BUCKET_MILLIS, DECADES);
+
+        assertEquals(0, histogram.rangeOf(0));
+        assertEquals(0, histogram.rangeOf(scaled(0.99)));
+        assertEquals(1, histogram.rangeOf(scaled(1)));
+        assertEquals(2, histogram.rangeOf(scaled(99.999999)));
+        assertEquals(3, histogram.rangeOf(scaled(100)));
+        assertEquals(3, histogram.rangeOf(scaled(999_999_999)));
+    }
+
+    @Test
+    @DisplayName("Should count the rows of the window per range")
+    void shouldCountWindowRows() {
+        ValueHistogram histogram = new ValueHistogram(WINDOW_MILLIS, BUCKET_MILLIS, DECADES);
+        histogram.record(NOW - 1_000, scaled(0.5));
+        histogram.record(NOW - 20_000, scaled(5));
+        histogram.record(NOW - 40_000, scaled(7));
+        histogram.record(NOW - 59_000, scaled(500));
+        histogram.record(NOW - 120_000, scaled(5));
+
+        HistogramSnapshot snapshot = histogram.snapshot(NOW);
+
+        assertEquals(4, snapshot.getTotal());
+        assertEquals(1, snapshot.getCount(0));
+        assertEquals(2, snapshot.getCount(1));
+        assertEquals(0, snapshot.getCount(2));
+        assertEquals(1, snapshot.getCount(3));
+        assertEquals(0, snapshot.getLowerBound(0));
+        assertEquals(scaled(100), snapshot.getLowerBound(3));
+        assertEquals(-1, snapshot.getUpperBound(3));
+    }
+
+    @Test
+    @DisplayName("Should drop a time bucket once its slot is reused by a later interval")
+    void shouldRecycleSlots() {
+        ValueHistogram histogram = new ValueHistogram(WINDOW_MILLIS, BUCKET_MILLIS, DECADES);
+        histogram.record(NOW - 500, scaled(5));
+
+        long later = NOW + WINDOW_MILLIS + BUCKET_MILLIS;
+        histogram.record(later - 500, scaled(50));
+        histogram.record(NOW - 500, scaled(5));
+
+        HistogramSnapshot snapshot = histogram.snapshot(later);
+        assertEquals(1, snapshot.getTotal());
+        assertEquals(1, snapshot.getCount(2));
+    }
+
+    @Test
+    @DisplayName("Should not lose increments under concurrent writers")
+    void shouldCountConcurrentWrites() throws InterruptedException {
+        ValueHistogram histogram = new ValueHistogram(WINDOW_MILLIS, BUCKET_MILLIS, DECADES);
+        int writers = 4;
+        int perWriter = 25_000;
+        CountDownLatch done = new CountDownLatch(writers);
+        try (ExecutorService executor = Executors.newFixedThreadPool(writers)) {
+            for (int w = 0; w < writers; w++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < perWriter; i++) {
+                        histogram.record(NOW - (i % 10_000), scaled(i % 4 == 0 ? 0.5 : 50));
+                    }
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        }
+
+        HistogramSnapshot snapshot = histogram.snapshot(NOW);
+        assertEquals((long) writers * perWriter, snapshot.getTotal());
+        assertEquals((long) writers * perWriter / 4, snapshot.getCount(0));
+    }
+
+    @Test
+    @DisplayName("Should reject bounds that are not positive and increasing")
+    void shouldRejectInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new ValueHistogram(WINDOW_MILLIS, BUCKET_MILLIS, new long[]{scaled(10), scaled(1)}));
+        assertThrows(IllegalArgumentException.class, () -> new ValueHistogram(WINDOW_MILLIS, BUCKET_MILLIS, new long[]{0, scaled(1)}));
+    }
+}
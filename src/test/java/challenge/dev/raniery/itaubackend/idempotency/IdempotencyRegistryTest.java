@@ -0,0 +1,149 @@
+package challenge.dev.raniery.itaubackend.idempotency;
+
+import challenge.dev.raniery.itaubackend.config.IdempotencyProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IdempotencyRegistry Tests")
+public class IdempotencyRegistryTest {
+
+    private MutableClock clock;
+    private IdempotencyRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-05-27T13:30:00Z"));
+        registry = new IdempotencyRegistry(new IdempotencyProperties(true, Duration.ofSeconds(60), Duration.ofSeconds(1), 1_000), clock);
+    }
+
+    @Nested
+    @DisplayName("Duplicate Detection Tests")
+    class DuplicateDetectionTests {
+
+        @Test
+        @DisplayName("Should accept a key once and flag repeats as duplicates")
+        void shouldFlagRepeatedKeys() {
+            assertTrue(registry.register("pedido-1"));
+            assertFalse(registry.register("pedido-1"));
+            assertTrue(registry.register("pedido-2"));
+
+            assertEquals(1, registry.getDuplicateCount());
+        }
+
+        @Test
+        @DisplayName("Should keep flagging repeats until the retention window has passed")
+        void shouldForgetKeysAfterRetention() {
+            assertTrue(registry.register("pedido-1"));
+
+            clock.advance(Duration.ofSeconds(60));
+            assertFalse(registry.register("pedido-1"));
+
+            clock.advance(Duration.ofSeconds(62));
+            assertTrue(registry.register("pedido-1"));
+        }
+
+        @Test
+        @DisplayName("Should accept exactly one of many concurrent requests with the same key")
+        void shouldAcceptExactlyOneConcurrentRequest() throws InterruptedException {
+            int threads = 16;
+            AtomicInteger accepted = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+
+            try (ExecutorService executorService = Executors.newFixedThreadPool(threads)) {
+                for (int i = 0; i < threads; i++) {
+                    executorService.submit(() -> {
+                        start.await();
+                        if (registry.register("pedido-1")) {
+                            accepted.incrementAndGet();
+                        }
+                        return null;
+                    });
+                }
+                start.countDown();
+                executorService.shutdown();
+                assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+            }
+
+            assertEquals(1, accepted.get());
+            assertEquals(threads - 1, registry.getDuplicateCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("Memory Bound Tests")
+    class MemoryBoundTests {
+
+        @Test
+        @DisplayName("Should release keys of expired slices")
+        void shouldReleaseExpiredKeys() {
+            for (int i = 0; i < 100; i++) {
+                registry.register("pedido-" + i);
+                clock.advance(Duration.ofMillis(500));
+            }
+            assertEquals(100, registry.getRetainedKeyCount());
+
+            clock.advance(Duration.ofMinutes(10));
+            registry.register("pedido-final");
+
+            assertEquals(1, registry.getRetainedKeyCount());
+        }
+
+        @Test
+        @DisplayName("Should stop tracking new keys once the key budget is full")
+        void shouldStopTrackingWhenBudgetIsFull() {
+            IdempotencyRegistry bounded = new IdempotencyRegistry(
+                new IdempotencyProperties(true, Duration.ofSeconds(60), Duration.ofSeconds(1), 2), clock);
+
+            assertTrue(bounded.register("a"));
+            assertTrue(bounded.register("b"));
+            assertTrue(bounded.register("c"));
+            assertTrue(bounded.register("c"));
+
+            assertEquals(2, bounded.getRetainedKeyCount());
+            assertFalse(bounded.register("a"));
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
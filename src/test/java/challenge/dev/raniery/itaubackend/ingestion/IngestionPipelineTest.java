@@ -0,0 +1,288 @@
+package challenge.dev.raniery.itaubackend.ingestion;
+
+import challenge.dev.raniery.itaubackend.config.ClockProperties;
+import challenge.dev.raniery.itaubackend.config.IngestionProperties;
+import challenge.dev.raniery.itaubackend.dto.TransactionRequest;
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+import challenge.dev.raniery.itaubackend.model.Transaction;
+import challenge.dev.raniery.itaubackend.replication.Replication;
+import challenge.dev.raniery.itaubackend.service.TransactionalService;
+import challenge.dev.raniery.itaubackend.service.TransactionalServiceTest;
+import challenge.dev.raniery.itaubackend.replication.ReplicationTest;
+import challenge.dev.raniery.itaubackend.validation.TransactionValidator;
+import challenge.dev.raniery.itaubackend.validation.ValidationResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("IngestionPipeline Tests")
+public class IngestionPipelineTest {
+
+    private final TransactionalService transactionalService = TransactionalServiceTest.newService(Clock.systemUTC());
+    private IngestionPipeline pipeline;
+
+    public static IngestionProperties properties(IngestionProperties.Mode mode, IngestionProperties.Ack ack) {
+        return new IngestionProperties(mode, ack, 1024, 64, Duration.ofMillis(10), Duration.ofSeconds(1), 100);
+    }
+
+    private IngestionPipeline start(IngestionProperties properties) {
+        pipeline = new IngestionPipeline(properties, transactionalService, ReplicationTest.disabled(transactionalService));
+        pipeline.start();
+        return pipeline;
+    }
+
+    private static Transaction transaction(double valor) {
+        return new Transaction(BigDecimal.valueOf(valor), OffsetDateTime.now().minusSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+    }
+
+    @Nested
+    @DisplayName("Direct Mode Tests")
+    class DirectModeTests {
+
+        @Test
+        @DisplayName("Should defer future-dated transactions and answer accepted")
+        void shouldDeferFutureDatedTransactions() {
+            IngestionPipeline direct = start(properties(IngestionProperties.Mode.DIRECT, IngestionProperties.Ack.APPLIED));
+
+            IntakeOutcome outcome = direct.submit(new Transaction(BigDecimal.TEN, OffsetDateTime.now().plusMinutes(5)));
+
+            assertEquals(IntakeOutcome.ACCEPTED, outcome);
+            assertEquals(1, transactionalService.getDeferredCount());
+            assertEquals(0, transactionalService.getStatistics().getCount());
+        }
+
+        @Test
+        @DisplayName("Should create a row stamped within the current coarse tick instead of deferring it")
+        void shouldNotDeferWithinCoarseTick() {
+            Instant precise = Instant.parse("2025-05-27T13:30:00.004Z");
+            Clock lagging = new Clock() {
+                @Override
+                public long millis() {
+                    return precise.toEpochMilli() - 4;
+                }
+
+                @Override
+                public Instant instant() {
+                    return precise;
+                }
+
+                @Override
+                public ZoneId getZone() {
+                    return ZoneOffset.UTC;
+                }
+
+                @Override
+                public Clock withZone(ZoneId zone) {
+                    return this;
+                }
+            };
+            TransactionalService lagged = TransactionalServiceTest.newService(lagging);
+            TransactionValidator validator = new TransactionValidator(lagging, new ClockProperties(true, Duration.ofMillis(1), Duration.ZERO));
+            pipeline = new IngestionPipeline(properties(IngestionProperties.Mode.DIRECT, IngestionProperties.Ack.APPLIED),
+                lagged, ReplicationTest.disabled(lagged));
+            Transaction transaction = new Transaction(BigDecimal.TEN, OffsetDateTime.ofInstant(precise.minusMillis(1), ZoneOffset.UTC));
+
+            assertEquals(ValidationResult.VALID, validator.validate(new TransactionRequest(BigDecimal.TEN, transaction.getDataHora())));
+            assertEquals(IntakeOutcome.CREATED, pipeline.submit(transaction));
+            assertEquals(0, lagged.getDeferredCount());
+            assertEquals(1, lagged.getStatistics().getCount());
+        }
+
+        @Test
+        @DisplayName("Should write straight into the service without an applier thread")
+        void shouldWriteStraightIntoService() {
+            IngestionPipeline direct = start(properties(IngestionProperties.Mode.DIRECT, IngestionProperties.Ack.APPLIED));
+
+            assertEquals(IntakeOutcome.CREATED, direct.submit(transaction(10.0)));
+            assertFalse(direct.isRunning());
+            assertEquals(1, transactionalService.getStatistics().getCount());
+        }
+
+        @Test
+        @DisplayName("Should apply a batch in one call and count deferred rows as accepted")
+        void shouldApplyBatch() {
+            IngestionPipeline direct = start(properties(IngestionProperties.Mode.DIRECT, IngestionProperties.Ack.APPLIED));
+            long now = System.currentTimeMillis();
+            LoteOutcome outcome = new LoteOutcome();
+
+            int ingested = direct.submitBatch(new long[]{now - 5_000, now + 300_000, now - 1_000}, new long[]{1_000_000, 2_000_000, 3_000_000},
+                new String[]{"a", null, "a"}, null, 3, outcome);
+
+            assertEquals(3, ingested);
+            assertEquals(2, outcome.getCreated());
+            assertEquals(1, outcome.getAccepted());
+            assertEquals(2, transactionalService.getStatistics().getCount());
+            assertEquals(1, transactionalService.getDeferredCount());
+        }
+
+        @Test
+        @DisplayName("Should hand idempotency keys to replication with their rows")
+        void shouldPublishIdempotencyKeys() {
+            Replication replication = mock(Replication.class);
+            when(replication.acceptsWrites()).thenReturn(true);
+            IngestionPipeline direct = new IngestionPipeline(properties(IngestionProperties.Mode.DIRECT, IngestionProperties.Ack.APPLIED),
+                transactionalService, replication);
+            long now = System.currentTimeMillis();
+            String[] chaves = {"pedido-1", null};
+
+            direct.submit(now - 1_000, 1_000_000, "a", "pedido-0");
+            direct.submitBatch(new long[]{now - 1_000, now - 1_000}, new long[]{1_000_000, 2_000_000}, null, chaves, 2, new LoteOutcome());
+
+            verify(replication).publish(anyLong(), eq(now - 1_000), eq(1_000_000L), eq("a"), eq("pedido-0"));
+            verify(replication).publishBatch(anyLong(), any(long[].class), any(long[].class), isNull(), same(chaves), eq(2));
+        }
+    }
+
+    @Nested
+    @DisplayName("Ring Mode Tests")
+    class RingModeTests {
+
+        @Test
+        @DisplayName("Should make the transaction visible before acknowledging when ack is APPLIED")
+        void shouldApplyBeforeAcknowledging() {
+            IngestionPipeline ring = start(properties(IngestionProperties.Mode.RING, IngestionProperties.Ack.APPLIED));
+
+            for (int i = 1; i <= 100; i++) {
+                assertEquals(IntakeOutcome.CREATED, ring.submit(transaction(i)));
+                assertEquals(i, transactionalService.getStatistics().getCount());
+            }
+            assertEquals(5050.0, transactionalService.getStatistics().getSum(), 0.001);
+        }
+
+        @Test
+        @DisplayName("Should acknowledge on enqueue and apply shortly after when ack is ENQUEUE")
+        void shouldAcknowledgeOnEnqueue() throws InterruptedException {
+            IngestionPipeline ring = start(properties(IngestionProperties.Mode.RING, IngestionProperties.Ack.ENQUEUE));
+
+            for (int i = 0; i < 500; i++) {
+                assertEquals(IntakeOutcome.CREATED, ring.submit(transaction(1.0)));
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (transactionalService.getStatistics().getCount() < 500 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(500, transactionalService.getStatistics().getCount());
+        }
+
+        @Test
+        @DisplayName("Should refuse with 503 when the ring stays full")
+        void shouldRefuseWhenRingIsFull() {
+            IngestionPipeline stopped = new IngestionPipeline(properties(IngestionProperties.Mode.RING, IngestionProperties.Ack.ENQUEUE), transactionalService, ReplicationTest.disabled(transactionalService));
+
+            for (int i = 0; i < 1024; i++) {
+                assertEquals(IntakeOutcome.CREATED, stopped.submit(transaction(1.0)));
+            }
+
+            assertEquals(IntakeOutcome.SERVICE_UNAVAILABLE, stopped.submit(transaction(1.0)));
+        }
+
+        @Test
+        @DisplayName("Should apply a batch before acknowledging when ack is APPLIED")
+        void shouldApplyBatchBeforeAcknowledging() {
+            IngestionPipeline ring = start(properties(IngestionProperties.Mode.RING, IngestionProperties.Ack.APPLIED));
+            long now = System.currentTimeMillis();
+            LoteOutcome outcome = new LoteOutcome();
+
+            assertEquals(3, ring.submitBatch(new long[]{now - 3_000, now - 2_000, now - 1_000}, new long[]{1_000_000, 2_000_000, 3_000_000},
+                new String[3], null, 3, outcome));
+
+            assertEquals(3, outcome.getCreated());
+            assertEquals(6.0, transactionalService.getStatistics().getSum(), 0.001);
+        }
+
+        @Test
+        @DisplayName("Should stop a batch at the first refusal of a full ring and report the rest as unavailable")
+        void shouldStopBatchWhenRingIsFull() {
+            IngestionPipeline stopped = new IngestionPipeline(properties(IngestionProperties.Mode.RING, IngestionProperties.Ack.ENQUEUE), transactionalService, ReplicationTest.disabled(transactionalService));
+            long[] epochMillis = new long[1_030];
+            long[] amounts = new long[1_030];
+            Arrays.fill(epochMillis, System.currentTimeMillis() - 1_000);
+            LoteOutcome outcome = new LoteOutcome();
+
+            assertEquals(1_024, stopped.submitBatch(epochMillis, amounts, new String[1_030], null, 1_030, outcome));
+
+            assertEquals(1_024, outcome.getCreated());
+            assertEquals(6, outcome.getUnavailable());
+        }
+
+        @Test
+        @DisplayName("Should keep writes enqueued before a reset out of the new generation")
+        void shouldOrderEnqueuedWritesBeforeReset() throws InterruptedException {
+            pipeline = new IngestionPipeline(properties(IngestionProperties.Mode.RING, IngestionProperties.Ack.ENQUEUE), transactionalService, ReplicationTest.disabled(transactionalService));
+            pipeline.submit(transaction(1.0));
+            pipeline.submit(transaction(1.0));
+
+            transactionalService.clearTransactions();
+            pipeline.start();
+            pipeline.submit(transaction(7.0));
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (transactionalService.getVersion() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            StatisticSnapshot snapshot = transactionalService.getStatistics();
+            assertEquals(1, snapshot.getCount());
+            assertEquals(7.0, snapshot.getSum(), 0.001);
+        }
+
+        @Test
+        @DisplayName("Should apply every write from many concurrent producers exactly once")
+        void shouldApplyConcurrentProducersExactlyOnce() throws InterruptedException {
+            IngestionPipeline ring = start(properties(IngestionProperties.Mode.RING, IngestionProperties.Ack.APPLIED));
+            int producers = 16;
+            int writesPerProducer = 2_000;
+            CountDownLatch done = new CountDownLatch(producers);
+
+            try (ExecutorService executorService = Executors.newFixedThreadPool(producers)) {
+                for (int p = 0; p < producers; p++) {
+                    executorService.submit(() -> {
+                        try {
+                            for (int i = 0; i < writesPerProducer; i++) {
+                                assertEquals(IntakeOutcome.CREATED, ring.submit(transaction(1.0)));
+                            }
+                        } finally {
+                            done.countDown();
+                        }
+                    });
+                }
+                assertTrue(done.await(60, TimeUnit.SECONDS));
+            }
+
+            StatisticSnapshot snapshot = transactionalService.getStatistics();
+            assertEquals((long) producers * writesPerProducer, snapshot.getCount());
+            assertEquals(snapshot.getCount(), snapshot.getSum(), 0.001);
+        }
+    }
+}
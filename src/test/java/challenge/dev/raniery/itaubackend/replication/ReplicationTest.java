@@ -0,0 +1,284 @@
+package challenge.dev.raniery.itaubackend.replication;
+
+import challenge.dev.raniery.itaubackend.config.IdempotencyProperties;
+import challenge.dev.raniery.itaubackend.config.IngestionProperties;
+import challenge.dev.raniery.itaubackend.config.ReplicationProperties;
+import challenge.dev.raniery.itaubackend.idempotency.IdempotencyRegistry;
+import challenge.dev.raniery.itaubackend.ingestion.IngestionPipeline;
+import challenge.dev.raniery.itaubackend.ingestion.IngestionPipelineTest;
+import challenge.dev.raniery.itaubackend.ingestion.IntakeOutcome;
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+import challenge.dev.raniery.itaubackend.replication.ReplicationProtocol.Frame;
+import challenge.dev.raniery.itaubackend.service.TransactionalService;
+import challenge.dev.raniery.itaubackend.service.TransactionalServiceTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+@DisplayName("Replication Tests")
+public class ReplicationTest {
+
+    private final TransactionalService primaryService = TransactionalServiceTest.newService(Clock.systemUTC());
+    private final TransactionalService standbyService = TransactionalServiceTest.newService(Clock.systemUTC());
+    private final IdempotencyRegistry primaryRegistry = registry();
+    private final IdempotencyRegistry standbyRegistry = registry();
+
+    private Replication primary;
+    private Replication standby;
+
+    public static ReplicationProperties properties(ReplicationProperties.Role role, int port) {
+        return new ReplicationProperties(role, "localhost", port, 1024, 64, Duration.ofMillis(20), Duration.ofMillis(50));
+    }
+
+    public static Replication disabled(TransactionalService transactionalService) {
+        return new Replication(properties(ReplicationProperties.Role.NONE, 0), transactionalService, registry(), Clock.systemUTC());
+    }
+
+    private static IdempotencyRegistry registry() {
+        return new IdempotencyRegistry(new IdempotencyProperties(true, Duration.ofSeconds(60), Duration.ofSeconds(1), 1_000), Clock.systemUTC());
+    }
+
+    private static IngestionPipeline pipeline(TransactionalService transactionalService, Replication replication) {
+        return new IngestionPipeline(IngestionPipelineTest.properties(IngestionProperties.Mode.DIRECT, IngestionProperties.Ack.APPLIED),
+            transactionalService, replication);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Replicação não convergiu a tempo");
+            Thread.sleep(5);
+        }
+    }
+
+    private static boolean sameWindow(TransactionalService left, TransactionalService right) {
+        StatisticSnapshot a = left.getStatistics();
+        StatisticSnapshot b = right.getStatistics();
+        return a.getCount() == b.getCount() && a.getSum() == b.getSum() && a.getMin() == b.getMin() && a.getMax() == b.getMax();
+    }
+
+    private void startPair(int port) {
+        standby = new Replication(properties(ReplicationProperties.Role.STANDBY, port), standbyService, standbyRegistry, Clock.systemUTC());
+        standby.start();
+        primary = new Replication(properties(ReplicationProperties.Role.PRIMARY, standby.getPort()), primaryService, primaryRegistry, Clock.systemUTC());
+        primary.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (primary != null) {
+            primary.stop();
+        }
+        if (standby != null) {
+            standby.stop();
+        }
+    }
+
+    @Nested
+    @DisplayName("Primary and standby on localhost Tests")
+    class PrimaryStandbyTests {
+
+        @Test
+        @DisplayName("Should mirror single, batched, per-account and future-dated transactions")
+        void shouldMirrorAcceptedTransactions() throws Exception {
+            startPair(0);
+            IngestionPipeline pipeline = pipeline(primaryService, primary);
+            long now = System.currentTimeMillis();
+
+            assertEquals(IntakeOutcome.CREATED, pipeline.submit(now - 1_000, 10_000_000, "0001-9"));
+            assertEquals(IntakeOutcome.ACCEPTED, pipeline.submit(now + 60_000, 20_000_000, null));
+            for (int i = 0; i < 10; i++) {
+                pipeline.submit(now - 2_000, 1_000_000L * (i + 1), i % 2 == 0 ? "0002-7" : null);
+            }
+
+            await(() -> sameWindow(primaryService, standbyService) && primary.getLag() == 0);
+
+            assertEquals(11, standbyService.getStatistics().getCount());
+            assertEquals(1, standbyService.getDeferredCount());
+            assertEquals(10.0, standbyService.getStatistics("0001-9").getSum());
+            assertEquals(5, standbyService.getStatistics("0002-7").getCount());
+            assertEquals(primaryService.getTopValues(3).getValor(0), standbyService.getTopValues(3).getValor(0));
+            assertEquals(primaryService.getHistogram().getTotal(), standbyService.getHistogram().getTotal());
+            assertTrue(primary.isConnected());
+            assertTrue(standby.isConnected());
+            assertEquals(12, standby.getApplied());
+        }
+
+        @Test
+        @DisplayName("Should replay a reset on the standby before the transactions that follow it")
+        void shouldReplicateReset() throws Exception {
+            startPair(0);
+            IngestionPipeline pipeline = pipeline(primaryService, primary);
+            long now = System.currentTimeMillis();
+            pipeline.submit(now - 1_000, 10_000_000, null);
+            pipeline.submit(now - 1_000, 20_000_000, null);
+            await(() -> standbyService.getStatistics().getCount() == 2);
+
+            primaryService.clearTransactions();
+            await(() -> standbyService.getGeneration() == 2 && standbyService.getStatistics().getCount() == 0);
+
+            pipeline.submit(now - 1_000, 5_000_000, null);
+            await(() -> standbyService.getStatistics().getCount() == 1);
+            assertEquals(5.0, standbyService.getStatistics().getSum());
+        }
+
+        @Test
+        @DisplayName("Should publish a row under the generation it landed in when a reset follows the pin")
+        void shouldPublishRowUnderItsGeneration() throws Exception {
+            TransactionalService racing = spy(primaryService);
+            AtomicBoolean resetAfterPin = new AtomicBoolean();
+            doAnswer(invocation -> {
+                Object pinned = invocation.callRealMethod();
+                if (resetAfterPin.getAndSet(false)) {
+                    racing.clearTransactions();
+                }
+                return pinned;
+            }).when(racing).currentGeneration();
+            standby = new Replication(properties(ReplicationProperties.Role.STANDBY, 0), standbyService, standbyRegistry, Clock.systemUTC());
+            standby.start();
+            primary = new Replication(properties(ReplicationProperties.Role.PRIMARY, standby.getPort()), racing, primaryRegistry, Clock.systemUTC());
+            primary.start();
+            IngestionPipeline pipeline = pipeline(racing, primary);
+            long now = System.currentTimeMillis();
+
+            pipeline.submit(now - 1_000, 10_000_000, null);
+            resetAfterPin.set(true);
+            pipeline.submit(now - 1_000, 20_000_000, null);
+            pipeline.submit(now - 1_000, 40_000_000, null);
+
+            await(() -> primary.getLag() == 0 && sameWindow(racing, standbyService));
+            assertEquals(1, standbyService.getStatistics().getCount());
+            assertEquals(40.0, standbyService.getStatistics().getSum());
+        }
+
+        @Test
+        @DisplayName("Should treat a retry on the promoted standby as a duplicate, even of a row a reset discarded")
+        void shouldReplicateIdempotencyKeys() throws Exception {
+            startPair(0);
+            IngestionPipeline pipeline = pipeline(primaryService, primary);
+            long now = System.currentTimeMillis();
+            assertTrue(primaryRegistry.register("pedido-41"));
+            pipeline.submit(now - 1_000, 10_000_000, null, "pedido-41");
+            primaryService.clearTransactions();
+            assertTrue(primaryRegistry.register("pedido-42"));
+            pipeline.submit(now - 1_000, 20_000_000, "0001-9", "pedido-42");
+            pipeline.submit(now - 1_000, 30_000_000, null, null);
+
+            await(() -> standbyRegistry.getRetainedKeyCount() == 2 && primary.getLag() == 0);
+            assertTrue(standby.promote());
+
+            assertFalse(standbyRegistry.register("pedido-41"));
+            assertFalse(standbyRegistry.register("pedido-42"));
+            assertTrue(standbyRegistry.register("pedido-43"));
+            assertEquals(2, standbyService.getStatistics().getCount());
+        }
+
+        @Test
+        @DisplayName("Should refuse client writes on the standby until it is promoted")
+        void shouldRefuseWritesUntilPromoted() throws Exception {
+            startPair(0);
+            IngestionPipeline standbyPipeline = pipeline(standbyService, standby);
+            long now = System.currentTimeMillis();
+
+            assertEquals(IntakeOutcome.SERVICE_UNAVAILABLE, standbyPipeline.submit(now - 1_000, 10_000_000, null));
+            assertFalse(primary.promote());
+
+            assertTrue(standby.promote());
+            assertFalse(standby.promote());
+            assertEquals(IntakeOutcome.CREATED, standbyPipeline.submit(now - 1_000, 10_000_000, null));
+            assertEquals(1, standbyService.getStatistics().getCount());
+            await(() -> !primary.isConnected());
+        }
+
+        @Test
+        @DisplayName("Should queue transactions while the standby is down and deliver them once it listens")
+        void shouldDeliverQueuedTransactionsAfterConnecting() throws Exception {
+            int port;
+            try (ServerSocket probe = new ServerSocket(0)) {
+                port = probe.getLocalPort();
+            }
+            primary = new Replication(properties(ReplicationProperties.Role.PRIMARY, port), primaryService, primaryRegistry, Clock.systemUTC());
+            primary.start();
+            IngestionPipeline pipeline = pipeline(primaryService, primary);
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < 100; i++) {
+                pipeline.submit(now - 1_000, 1_000_000, null);
+            }
+            assertEquals(100, primary.getLag());
+
+            standby = new Replication(properties(ReplicationProperties.Role.STANDBY, port), standbyService, standbyRegistry, Clock.systemUTC());
+            standby.start();
+
+            await(() -> standbyService.getStatistics().getCount() == 100 && primary.getLag() == 0);
+        }
+    }
+
+    @Nested
+    @DisplayName("Protocol Tests")
+    class ProtocolTests {
+
+        @Test
+        @DisplayName("Should round-trip a frame with and without contas and idempotency keys")
+        void shouldRoundTripFrame() throws IOException {
+            Frame frame = new Frame(4);
+            frame.rows = 3;
+            frame.generation = 7;
+            frame.number = 42;
+            frame.sentMillis = 1_716_816_600_000L;
+            frame.epochMillis = new long[]{1, -2, Long.MAX_VALUE, 0};
+            frame.amounts = new long[]{10, 20, Long.MIN_VALUE, 0};
+            frame.contas = new String[]{"0001-9", null, "conta-çã", null};
+            frame.chaves = new String[]{null, "pedido-42", "chave-çã", null};
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            ReplicationProtocol.writeHandshake(out, 99);
+            ReplicationProtocol.writeFrame(out, frame);
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+            Frame read = new Frame(1);
+            assertEquals(99, ReplicationProtocol.readHandshake(in));
+            ReplicationProtocol.readFrame(in, read);
+
+            assertEquals(3, read.rows);
+            assertEquals(7, read.generation);
+            assertEquals(42, read.number);
+            assertEquals(frame.sentMillis, read.sentMillis);
+            assertEquals(Long.MAX_VALUE, read.epochMillis[2]);
+            assertEquals(Long.MIN_VALUE, read.amounts[2]);
+            assertEquals("0001-9", read.contas[0]);
+            assertNull(read.contas[1]);
+            assertEquals("conta-çã", read.contas[2]);
+            assertNull(read.chaves[0]);
+            assertEquals("pedido-42", read.chaves[1]);
+            assertEquals("chave-çã", read.chaves[2]);
+            assertEquals(0, in.available());
+        }
+
+        @Test
+        @DisplayName("Should reject a foreign handshake and an oversized frame")
+        void shouldRejectMalformedInput() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            new DataOutputStream(bytes).writeInt(ReplicationProtocol.MAX_ROWS + 1);
+            byte[] oversized = bytes.toByteArray();
+
+            assertThrows(IOException.class, () -> ReplicationProtocol.readHandshake(new DataInputStream(new ByteArrayInputStream(new byte[13]))));
+            assertThrows(IOException.class, () -> ReplicationProtocol.readFrame(new DataInputStream(new ByteArrayInputStream(oversized)), new Frame(1)));
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package challenge.dev.raniery.itaubackend.server;
+
+import challenge.dev.raniery.itaubackend.admission.AdmissionController;
+import challenge.dev.raniery.itaubackend.admission.AdmissionControllerTest;
+import challenge.dev.raniery.itaubackend.config.ClockProperties;
+import challenge.dev.raniery.itaubackend.config.IdempotencyProperties;
+import challenge.dev.raniery.itaubackend.config.IngestionProperties;
+import challenge.dev.raniery.itaubackend.config.LeanServerProperties;
+import challenge.dev.raniery.itaubackend.idempotency.IdempotencyRegistry;
+import challenge.dev.raniery.itaubackend.ingestion.IngestionPipeline;
+import challenge.dev.raniery.itaubackend.ingestion.IngestionPipelineTest;
+import challenge.dev.raniery.itaubackend.ingestion.RejectionMetrics;
+import challenge.dev.raniery.itaubackend.ingestion.TransactionIntake;
+import challenge.dev.raniery.itaubackend.service.StatisticsWatch;
+import challenge.dev.raniery.itaubackend.service.StatisticsWatchTest;
+import challenge.dev.raniery.itaubackend.service.TransactionalService;
+import challenge.dev.raniery.itaubackend.service.TransactionalServiceTest;
+import challenge.dev.raniery.itaubackend.validation.CborPayloadReader;
+import challenge.dev.raniery.itaubackend.validation.TransactionPayloadReader;
+import challenge.dev.raniery.itaubackend.validation.TransactionValidator;
+import challenge.dev.raniery.itaubackend.wire.CborWriter;
+import challenge.dev.raniery.itaubackend.wire.TransactionRecords;
+import challenge.dev.raniery.itaubackend.replication.ReplicationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("LeanHttpServer Tests")
+public class LeanHttpServerTest {
+
+    private LeanHttpServer leanHttpServer;
+    private StatisticsWatch statisticsWatch;
+    private HttpClient httpClient;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.systemUTC();
+        TransactionalService transactionalService = TransactionalServiceTest.newService(clock);
+        TransactionIntake transactionIntake = new TransactionIntake(
+            new AdmissionController(AdmissionControllerTest.properties(0, 256, Long.MAX_VALUE), transactionalService),
+            new IdempotencyRegistry(new IdempotencyProperties(true, Duration.ofSeconds(60), Duration.ofSeconds(1), 1_000), clock),
+            new TransactionPayloadReader(),
+            new CborPayloadReader(),
+            new TransactionValidator(clock, new ClockProperties(false, Duration.ofMillis(1), Duration.ZERO)),
+            new RejectionMetrics(),
+            new IngestionPipeline(IngestionPipelineTest.properties(IngestionProperties.Mode.DIRECT, IngestionProperties.Ack.APPLIED), transactionalService, ReplicationTest.disabled(transactionalService)),
+            IngestionPipelineTest.properties(IngestionProperties.Mode.DIRECT, IngestionProperties.Ack.APPLIED));
+
+        statisticsWatch = new StatisticsWatch(StatisticsWatchTest.properties(Duration.ofSeconds(30)), transactionalService);
+        statisticsWatch.start();
+        leanHttpServer = new LeanHttpServer(new LeanServerProperties(true, 0, 0), transactionIntake, transactionalService, statisticsWatch);
+        leanHttpServer.start();
+        httpClient = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        httpClient.close();
+        leanHttpServer.stop();
+        statisticsWatch.stop();
+    }
+
+    private HttpResponse<String> send(String method, String path, String contentType, String body) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + leanHttpServer.getPort() + path));
+        if (contentType != null) {
+            builder.header("Content-Type", contentType);
+        }
+        builder.method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<byte[]> sendBytes(String path, String contentType, String accept, byte[] body) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + leanHttpServer.getPort() + path))
+            .header("Content-Type", contentType)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+        if (accept != null) {
+            builder.header("Accept", accept);
+        }
+        return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    @Test
+    @DisplayName("Should serve the transaction and statistics routes with the MVC status codes")
+    void shouldServeRoutesWithSameStatusCodes() throws Exception {
+        String valid = "{\"valor\": 100.50, \"dataHora\": \"" + OffsetDateTime.now().minusSeconds(30) + "\"}";
+        String future = "{\"valor\": 100.50, \"dataHora\": \"" + OffsetDateTime.now().plusMinutes(5) + "\"}";
+
+        assertEquals(201, send("POST", "/transacao", "application/json", valid).statusCode());
+        assertEquals(422, send("POST", "/transacao", "application/json", future).statusCode());
+        assertEquals(422, send("POST", "/transacao", "application/json", "{ invalid json }").statusCode());
+        assertEquals(415, send("POST", "/transacao", "text/plain", valid).statusCode());
+
+        HttpResponse<String> statistics = send("GET", "/estatistica", null, null);
+        assertEquals(200, statistics.statusCode());
+        assertEquals("application/json", statistics.headers().firstValue("Content-Type").orElseThrow());
+        assertEquals("{\"count\":1,\"sum\":100.5,\"avg\":100.5,\"min\":100.5,\"max\":100.5}", statistics.body());
+
+        assertEquals(200, send("DELETE", "/transacao", null, null).statusCode());
+        assertEquals("{\"count\":0,\"sum\":0.0,\"avg\":0.0,\"min\":0.0,\"max\":0.0}", send("GET", "/estatistica", null, null).body());
+    }
+
+    @Test
+    @DisplayName("Should answer 200 with Idempotent-Replayed for a repeated idempotency key")
+    void shouldFlagRepeatedIdempotencyKey() throws Exception {
+        String retried = "{\"valor\": 10, \"dataHora\": \"" + OffsetDateTime.now().minusSeconds(5) + "\", \"chaveIdempotencia\": \"pedido-1\"}";
+
+        assertEquals(201, send("POST", "/transacao", "application/json", retried).statusCode());
+        HttpResponse<String> duplicate = send("POST", "/transacao", "application/json", retried);
+
+        assertEquals(200, duplicate.statusCode());
+        assertEquals("true", duplicate.headers().firstValue("Idempotent-Replayed").orElseThrow());
+        assertEquals("{\"count\":1,\"sum\":10.0,\"avg\":10.0,\"min\":10.0,\"max\":10.0}", send("GET", "/estatistica", null, null).body());
+    }
+
+    @Test
+    @DisplayName("Should list the largest values of the window and validate k")
+    void shouldServeTopValues() throws Exception {
+        OffsetDateTime dataHora = OffsetDateTime.now(ZoneOffset.UTC).minusSeconds(5).withNano(0);
+        send("POST", "/transacao", "application/json", "{\"valor\": 10, \"dataHora\": \"" + dataHora + "\"}");
+        send("POST", "/transacao", "application/json", "{\"valor\": 75.5, \"dataHora\": \"" + dataHora + "\"}");
+        send("POST", "/transacao", "application/json", "{\"valor\": 3, \"dataHora\": \"" + dataHora + "\"}");
+
+        HttpResponse<String> top = send("GET", "/estatistica/topk?k=2", null, null);
+        assertEquals(200, top.statusCode());
+        assertEquals("{\"top\":[{\"valor\":75.5,\"dataHora\":\"" + dataHora.toInstant() + "\"},"
+            + "{\"valor\":10.0,\"dataHora\":\"" + dataHora.toInstant() + "\"}]}", top.body());
+
+        assertEquals(400, send("GET", "/estatistica/topk?k=0", null, null).statusCode());
+        assertEquals(400, send("GET", "/estatistica/topk?k=dez", null, null).statusCode());
+        assertEquals(400, send("GET", "/estatistica/topk?k=101", null, null).statusCode());
+    }
+
+    @Test
+    @DisplayName("Should reject asOf outside the retention, malformed or combined with conta")
+    void shouldValidateAsOf() throws Exception {
+        String past = OffsetDateTime.now(ZoneOffset.UTC).minusHours(1).toString();
+
+        assertEquals(400, send("GET", "/estatistica?asOf=" + past, null, null).statusCode());
+        assertEquals(400, send("GET", "/estatistica?asOf=ontem", null, null).statusCode());
+        assertEquals(400, send("GET", "/estatistica?asOf=" + past + "&conta=0001-9", null, null).statusCode());
+    }
+
+    @Test
+    @DisplayName("Should serve the value histogram of the window")
+    void shouldServeHistogram() throws Exception {
+        String dataHora = OffsetDateTime.now().minusSeconds(5).toString();
+        send("POST", "/transacao", "application/json", "{\"valor\": 0.5, \"dataHora\": \"" + dataHora + "\"}");
+        send("POST", "/transacao", "application/json", "{\"valor\": 50, \"dataHora\": \"" + dataHora + "\"}");
+
+        HttpResponse<String> histogram = send("GET", "/estatistica/histograma", null, null);
+
+        assertEquals(200, histogram.statusCode());
+        assertEquals("{\"count\":2,\"buckets\":[{\"from\":0,\"to\":1,\"count\":1},"
+            + "{\"from\":1,\"to\":10,\"count\":0},{\"from\":10,\"to\":100,\"count\":1},"
+            + "{\"from\":100,\"to\":null,\"count\":0}]}", histogram.body());
+    }
+
+    @Test
+    @DisplayName("Should ingest CBOR, fixed-layout records and batches, and answer in CBOR when asked")
+    void shouldServeBinaryFormatsAndBatches() throws Exception {
+        long now = System.currentTimeMillis();
+        byte[] cbor = new CborWriter(64).map(2)
+            .text("valor").integer(10)
+            .text("dataHora").text(OffsetDateTime.now().minusSeconds(5).toString())
+            .toByteArray();
+        byte[] record = TransactionRecords.encode(new long[]{now - 5_000}, new long[]{20_000_000});
+        byte[] records = TransactionRecords.encode(new long[]{now - 5_000, now + 60_000}, new long[]{30_000_000, 1_000_000});
+        String lote = "[{\"valor\": 40, \"dataHora\": \"" + OffsetDateTime.now().minusSeconds(5) + "\"}, {\"valor\": 1}]";
+
+        assertEquals(201, sendBytes("/transacao", "application/cbor", null, cbor).statusCode());
+        assertEquals(201, sendBytes("/transacao", "application/vnd.itau.transacao+binary", null, record).statusCode());
+        assertEquals("{\"created\":1,\"accepted\":0,\"duplicates\":0,\"rejected\":1,\"unavailable\":0}",
+            new String(sendBytes("/transacao/lote", "application/vnd.itau.transacao+binary", null, records).body()));
+        assertEquals("{\"created\":1,\"accepted\":0,\"duplicates\":0,\"rejected\":1,\"unavailable\":0}",
+            send("POST", "/transacao/lote", "application/json", lote).body());
+        assertEquals(422, sendBytes("/transacao/lote", "application/cbor", null, cbor).statusCode());
+        assertEquals(415, sendBytes("/transacao/lote", "text/plain", null, record).statusCode());
+
+        HttpResponse<byte[]> statistics = httpClient.send(
+            HttpRequest.newBuilder(URI.create("http://localhost:" + leanHttpServer.getPort() + "/estatistica"))
+                .header("Accept", "application/cbor").build(),
+            HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals("application/cbor", statistics.headers().firstValue("Content-Type").orElseThrow());
+        assertArrayEquals(new CborWriter(64).map(5)
+            .text("count").integer(4)
+            .text("sum").float64(100.0)
+            .text("avg").float64(25.0)
+            .text("min").float64(10.0)
+            .text("max").float64(40.0)
+            .toByteArray(), statistics.body());
+    }
+
+    @Test
+    @DisplayName("Should answer 304 to a current ETag and hold a long poll until the next write")
+    void shouldServeConditionalAndLongPolledStatistics() throws Exception {
+        HttpResponse<String> first = send("GET", "/estatistica", null, null);
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+
+        HttpRequest conditional = HttpRequest.newBuilder(URI.create("http://localhost:" + leanHttpServer.getPort() + "/estatistica"))
+            .header("If-None-Match", etag)
+            .build();
+        HttpResponse<String> notModified = httpClient.send(conditional, HttpResponse.BodyHandlers.ofString());
+        assertEquals(304, notModified.statusCode());
+        assertEquals(etag, notModified.headers().firstValue("ETag").orElseThrow());
+
+        HttpRequest longPoll = HttpRequest.newBuilder(conditional.uri())
+            .header("If-None-Match", etag)
+            .header("Prefer", "wait=10")
+            .build();
+        CompletableFuture<HttpResponse<String>> polled = httpClient.sendAsync(longPoll, HttpResponse.BodyHandlers.ofString());
+        Thread.sleep(100);
+        assertFalse(polled.isDone());
+
+        String valid = "{\"valor\": 7, \"dataHora\": \"" + OffsetDateTime.now().minusSeconds(1) + "\"}";
+        assertEquals(201, send("POST", "/transacao", "application/json", valid).statusCode());
+
+        HttpResponse<String> changed = polled.get(5, TimeUnit.SECONDS);
+        assertEquals(200, changed.statusCode());
+        assertTrue(changed.body().startsWith("{\"count\":1,"));
+        assertFalse(etag.equals(changed.headers().firstValue("ETag").orElseThrow()));
+    }
+
+    @Test
+    @DisplayName("Should answer 405 and 404 outside the hot routes")
+    void shouldRejectUnknownMethodsAndPaths() throws Exception {
+        assertEquals(405, send("GET", "/transacao", null, null).statusCode());
+        assertEquals(405, send("POST", "/estatistica", "application/json", "{}").statusCode());
+        assertEquals(404, send("GET", "/transacao/outra", null, null).statusCode());
+        assertEquals(404, send("GET", "/estatistica/outra", null, null).statusCode());
+    }
+
+    @Test
+    @DisplayName("Should stay stopped when disabled")
+    void shouldStayStoppedWhenDisabled() {
+        LeanHttpServer disabled = new LeanHttpServer(new LeanServerProperties(false, 0, 0), null, null, null);
+        disabled.start();
+
+        assertFalse(disabled.isRunning());
+    }
+}
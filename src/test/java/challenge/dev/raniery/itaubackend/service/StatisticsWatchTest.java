@@ -0,0 +1,154 @@
+package challenge.dev.raniery.itaubackend.service;
+
+import challenge.dev.raniery.itaubackend.config.StatisticsProperties;
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+import challenge.dev.raniery.itaubackend.wire.StatisticsEtag;
+import challenge.dev.raniery.itaubackend.wire.WireFormat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StatisticsWatch Tests")
+public class StatisticsWatchTest {
+
+    private final Instant start = Instant.parse("2025-05-27T13:30:00Z");
+    private final AtomicReference<Instant> now = new AtomicReference<>(start);
+    private final TransactionalService service = TransactionalServiceTest.newService(new Clock() {
+        @Override
+        public Instant instant() {
+            return now.get();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    });
+    private final StatisticsWatch watch = new StatisticsWatch(properties(Duration.ofSeconds(30)), service);
+
+    public static StatisticsProperties properties(Duration maxWait) {
+        return new StatisticsProperties(Duration.ZERO, maxWait, Duration.ofMillis(5),
+            new StatisticsProperties.Approximate(false, 0, 1024, Duration.ofSeconds(1)));
+    }
+
+    private String currentEtag(WireFormat format) {
+        long generation = service.getGeneration();
+        StatisticSnapshot snapshot = service.getStatistics();
+        return StatisticsEtag.of(generation, snapshot, format);
+    }
+
+    @AfterEach
+    void tearDown() {
+        watch.stop();
+    }
+
+    @Nested
+    @DisplayName("Entity tag Tests")
+    class EntityTagTests {
+
+        @Test
+        @DisplayName("Should keep a tag current until a write, a reset or the window moving past its oldest row")
+        void shouldTrackTheWindow() {
+            long millis = start.toEpochMilli();
+            service.addTransaction(millis - 10_000, 1_000_000);
+            String etag = currentEtag(WireFormat.JSON);
+
+            assertNotNull(watch.currentTag(etag, WireFormat.JSON));
+            assertNotNull(watch.currentTag("W/" + etag, WireFormat.JSON));
+            assertNull(watch.currentTag(etag, WireFormat.CBOR));
+
+            now.set(start.plusMillis(49_999));
+            assertNotNull(watch.currentTag(etag, WireFormat.JSON));
+            now.set(start.plusMillis(50_000));
+            assertNull(watch.currentTag(etag, WireFormat.JSON));
+
+            etag = currentEtag(WireFormat.JSON);
+            service.addTransaction(millis, 1_000_000);
+            assertNull(watch.currentTag(etag, WireFormat.JSON));
+
+            etag = currentEtag(WireFormat.JSON);
+            service.clearTransactions();
+            assertNull(watch.currentTag(etag, WireFormat.JSON));
+        }
+
+        @Test
+        @DisplayName("Should find a current tag in a list and ignore foreign or malformed entries")
+        void shouldParseTagLists() {
+            String etag = currentEtag(WireFormat.CBOR);
+
+            assertEquals(etag, watch.currentTag("\"outro\", \"1-2\", " + etag, WireFormat.CBOR).value());
+            assertNull(watch.currentTag("\"a-b-c-cbor\", *, sem-aspas", WireFormat.CBOR));
+            assertNull(watch.currentTag(null, WireFormat.CBOR));
+            assertTrue(StatisticsEtag.matches("*", etag));
+            assertTrue(StatisticsEtag.matches("\"x\", W/" + etag, etag));
+            assertFalse(StatisticsEtag.matches("\"x\"", etag));
+        }
+
+        @Test
+        @DisplayName("Should honour Prefer: wait up to max-wait")
+        void shouldReadPreferWait() {
+            assertEquals(Duration.ofSeconds(5), watch.preferredWait("wait=5"));
+            assertEquals(Duration.ofSeconds(5), watch.preferredWait("respond-async, wait = 5"));
+            assertEquals(Duration.ofSeconds(30), watch.preferredWait("wait=600"));
+            assertNull(watch.preferredWait("wait=0"));
+            assertNull(watch.preferredWait("wait=logo"));
+            assertNull(watch.preferredWait("return=minimal"));
+            assertNull(watch.preferredWait(null));
+            assertNull(new StatisticsWatch(properties(Duration.ZERO), service).preferredWait("wait=5"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Long-poll Tests")
+    class LongPollTests {
+
+        @Test
+        @DisplayName("Should complete with true once the window changes")
+        void shouldCompleteOnChange() throws Exception {
+            watch.start();
+            StatisticsEtag.Tag tag = watch.currentTag(currentEtag(WireFormat.JSON), WireFormat.JSON);
+            CompletableFuture<Boolean> changed = watch.awaitChange(tag, Duration.ofSeconds(10));
+
+            Thread.sleep(30);
+            assertFalse(changed.isDone());
+            assertEquals(1, watch.getWaiting());
+
+            service.addTransaction(start.toEpochMilli(), 1_000_000);
+
+            assertTrue(changed.get(5, TimeUnit.SECONDS));
+            assertEquals(0, watch.getWaiting());
+        }
+
+        @Test
+        @DisplayName("Should complete with false when the wait runs out or the watch stops")
+        void shouldCompleteOnTimeoutOrStop() throws Exception {
+            watch.start();
+            StatisticsEtag.Tag tag = watch.currentTag(currentEtag(WireFormat.JSON), WireFormat.JSON);
+
+            assertFalse(watch.awaitChange(tag, Duration.ofMillis(50)).get(5, TimeUnit.SECONDS));
+
+            CompletableFuture<Boolean> pending = watch.awaitChange(tag, Duration.ofSeconds(10));
+            watch.stop();
+
+            assertFalse(pending.get(5, TimeUnit.SECONDS));
+            assertFalse(watch.awaitChange(tag, Duration.ofSeconds(10)).get(5, TimeUnit.SECONDS));
+        }
+    }
+}
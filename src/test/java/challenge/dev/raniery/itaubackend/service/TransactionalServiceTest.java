@@ -1,20 +1,44 @@
 package challenge.dev.raniery.itaubackend.service;
 
+import challenge.dev.raniery.itaubackend.config.AccountProperties;
+import challenge.dev.raniery.itaubackend.config.ClockProperties;
+import challenge.dev.raniery.itaubackend.config.HistogramProperties;
+import challenge.dev.raniery.itaubackend.config.LogProperties;
+import challenge.dev.raniery.itaubackend.config.StatisticsProperties;
+import challenge.dev.raniery.itaubackend.config.TopValuesProperties;
+import challenge.dev.raniery.itaubackend.engine.ParallelAggregator;
+import challenge.dev.raniery.itaubackend.model.HistogramSnapshot;
+import challenge.dev.raniery.itaubackend.model.StatisticSnapshot;
+import challenge.dev.raniery.itaubackend.model.TopValuesSnapshot;
 import challenge.dev.raniery.itaubackend.model.Transaction;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.OffsetDateTime;
-import java.util.DoubleSummaryStatistics;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DisplayName("TransactionalService Tests")
@@ -22,9 +46,32 @@ public class TransactionalServiceTest {
 
     private TransactionalService transactionalService;
 
+    public static TransactionalService newService(Clock clock) {
+        return newService(clock, Duration.ZERO);
+    }
+
+    public static TransactionalService newService(Clock clock, Duration historyRetention) {
+        return newService(clock, historyRetention, Duration.ZERO);
+    }
+
+    public static TransactionalService newService(Clock clock, Duration historyRetention, Duration maxStaleness) {
+        return newService(clock, historyRetention, maxStaleness, new StatisticsProperties.Approximate(false, 0, 1024, Duration.ofSeconds(1)));
+    }
+
+    public static TransactionalService newService(Clock clock, Duration historyRetention, Duration maxStaleness,
+                                                  StatisticsProperties.Approximate approximate) {
+        return new TransactionalService(clock, ParallelAggregator.serial(),
+            new AccountProperties(true, Duration.ofSeconds(2), DataSize.ofMegabytes(16), 4),
+            new TopValuesProperties(true, Duration.ofSeconds(1), 100),
+            new HistogramProperties(true, Duration.ofSeconds(1), List.of(BigDecimal.ONE, BigDecimal.TEN, new BigDecimal("100"))),
+            new LogProperties(true, historyRetention),
+            new StatisticsProperties(maxStaleness, Duration.ofSeconds(30), Duration.ofMillis(10), approximate),
+            new ClockProperties(false, Duration.ofMillis(1), Duration.ZERO));
+    }
+
     @BeforeEach
     void setUp() {
-        transactionalService = new TransactionalService();
+        transactionalService = newService(Clock.systemUTC());
     }
 
     @Nested
@@ -41,7 +88,7 @@ public class TransactionalServiceTest {
 
             transactionalService.addTransaction(transaction);
 
-            DoubleSummaryStatistics stats = transactionalService.getStatistics();
+            StatisticSnapshot stats = transactionalService.getStatistics();
             assertEquals(1, stats.getCount());
             assertEquals(100.50, stats.getSum(), 0.001);
         }
@@ -60,7 +107,7 @@ public class TransactionalServiceTest {
             transactionalService.addTransaction(transaction1);
             transactionalService.addTransaction(transaction2);
 
-            DoubleSummaryStatistics stats = transactionalService.getStatistics();
+            StatisticSnapshot stats = transactionalService.getStatistics();
             assertEquals(2, stats.getCount());
             assertEquals(301.25, stats.getSum(), 0.001);
         }
@@ -75,7 +122,7 @@ public class TransactionalServiceTest {
 
             transactionalService.addTransaction(transaction);
 
-            DoubleSummaryStatistics stats = transactionalService.getStatistics();
+            StatisticSnapshot stats = transactionalService.getStatistics();
             assertEquals(1, stats.getCount());
             assertEquals(0.0, stats.getSum(), 0.001);
         }
@@ -107,7 +154,7 @@ public class TransactionalServiceTest {
             assertTrue(latch.await(10, TimeUnit.SECONDS));
             executorService.shutdown();
 
-            DoubleSummaryStatistics stats = transactionalService.getStatistics();
+            StatisticSnapshot stats = transactionalService.getStatistics();
             assertEquals(numberOfThreads * transactionsPerThread, stats.getCount());
             assertEquals(numberOfThreads * transactionsPerThread * 1.0, stats.getSum(), 0.001);
         }
@@ -131,12 +178,12 @@ public class TransactionalServiceTest {
             transactionalService.addTransaction(transaction1);
             transactionalService.addTransaction(transaction2);
 
-            DoubleSummaryStatistics statsBefore = transactionalService.getStatistics();
+            StatisticSnapshot statsBefore = transactionalService.getStatistics();
             assertEquals(2, statsBefore.getCount());
 
             transactionalService.clearTransactions();
 
-            DoubleSummaryStatistics statsAfter = transactionalService.getStatistics();
+            StatisticSnapshot statsAfter = transactionalService.getStatistics();
             assertEquals(0, statsAfter.getCount());
             assertEquals(0.0, statsAfter.getSum(), 0.001);
         }
@@ -147,7 +194,7 @@ public class TransactionalServiceTest {
 
             transactionalService.clearTransactions();
 
-            DoubleSummaryStatistics stats = transactionalService.getStatistics();
+            StatisticSnapshot stats = transactionalService.getStatistics();
             assertEquals(0, stats.getCount());
             assertEquals(0.0, stats.getSum(), 0.001);
         }
@@ -165,7 +212,7 @@ public class TransactionalServiceTest {
             transactionalService.clearTransactions();
             transactionalService.clearTransactions();
 
-            DoubleSummaryStatistics stats = transactionalService.getStatistics();
+            StatisticSnapshot stats = transactionalService.getStatistics();
             assertEquals(0, stats.getCount());
         }
 
@@ -197,9 +244,71 @@ public class TransactionalServiceTest {
             assertTrue(latch.await(10, TimeUnit.SECONDS));
             executorService.shutdown();
 
-            DoubleSummaryStatistics stats = transactionalService.getStatistics();
+            StatisticSnapshot stats = transactionalService.getStatistics();
             assertEquals(0, stats.getCount());
         }
+
+        @Test
+        @DisplayName("Should switch to a fresh generation and keep accepting writes after a reset")
+        void shouldSwitchToFreshGeneration() {
+
+            for (int i = 0; i < 1_000; i++) {
+                transactionalService.addTransaction(new Transaction(BigDecimal.ONE, OffsetDateTime.now().minusSeconds(10)));
+            }
+            long generationBefore = transactionalService.getGeneration();
+
+            transactionalService.clearTransactions();
+
+            assertEquals(generationBefore + 1, transactionalService.getGeneration());
+            assertEquals(0, transactionalService.getRetainedCount());
+
+            transactionalService.addTransaction(new Transaction(BigDecimal.TEN, OffsetDateTime.now().minusSeconds(10)));
+            StatisticSnapshot stats = transactionalService.getStatistics();
+            assertEquals(1, stats.getCount());
+            assertEquals(10.0, stats.getSum(), 0.001);
+        }
+
+        @Test
+        @DisplayName("Should keep the retained count consistent with the statistics when writes race resets")
+        void shouldKeepCountsConsistentWhenWritesRaceResets() throws InterruptedException {
+
+            int writers = 4;
+            int writesPerWriter = 5_000;
+            ExecutorService executorService = Executors.newFixedThreadPool(writers + 1);
+            CountDownLatch start = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(writers);
+
+            for (int i = 0; i < writers; i++) {
+                executorService.submit(() -> {
+                    try {
+                        start.await();
+                        for (int j = 0; j < writesPerWriter; j++) {
+                            transactionalService.addTransaction(new Transaction(BigDecimal.ONE, OffsetDateTime.now().minusSeconds(10)));
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            executorService.submit(() -> {
+                while (done.getCount() > 0) {
+                    transactionalService.clearTransactions();
+                    Thread.onSpinWait();
+                }
+            });
+
+            start.countDown();
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+            executorService.shutdown();
+            assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+
+            StatisticSnapshot stats = transactionalService.getStatistics();
+            assertEquals(transactionalService.getRetainedCount(), stats.getCount());
+            assertTrue(stats.getCount() <= (long) writers * writesPerWriter);
+            assertEquals(stats.getCount(), stats.getSum(), 0.001);
+        }
     }
 
     @Nested
@@ -219,7 +328,7 @@ public class TransactionalServiceTest {
             transactionalService.addTransaction(transaction2);
             transactionalService.addTransaction(transaction3);
 
-            DoubleSummaryStatistics stats = transactionalService.getStatistics();
+            StatisticSnapshot stats = transactionalService.getStatistics();
 
             assertEquals(3, stats.getCount());
             assertEquals(350.0, stats.getSum(), 0.001);
@@ -239,7 +348,7 @@ public class TransactionalServiceTest {
             transactionalService.addTransaction(recentTransaction);
             transactionalService.addTransaction(oldTransaction);
 
-            DoubleSummaryStatistics stats = transactionalService.getStatistics();
+            StatisticSnapshot stats = transactionalService.getStatistics();
 
             assertEquals(1, stats.getCount());
             assertEquals(100.0, stats.getSum(), 0.001);
@@ -256,7 +365,7 @@ public class TransactionalServiceTest {
             Transaction oldTransaction = new Transaction(BigDecimal.valueOf(100.0), now.minusSeconds(70));
             transactionalService.addTransaction(oldTransaction);
 
-            DoubleSummaryStatistics stats = transactionalService.getStatistics();
+            StatisticSnapshot stats = transactionalService.getStatistics();
 
             assertEquals(0, stats.getCount());
             assertEquals(0.0, stats.getSum(), 0.001);
@@ -271,7 +380,7 @@ public class TransactionalServiceTest {
         @Test
         @DisplayName("Should return empty statistics when no transactions exist")
         void shouldReturnEmptyStatisticsWhenNoTransactionsExist() {
-            DoubleSummaryStatistics stats = transactionalService.getStatistics();
+            StatisticSnapshot stats = transactionalService.getStatistics();
 
             assertEquals(0, stats.getCount());
             assertEquals(0.0, stats.getSum(), 0.001);
@@ -294,7 +403,7 @@ public class TransactionalServiceTest {
             transactionalService.addTransaction(exactlyOldTransaction);
             transactionalService.addTransaction(recentTransaction);
 
-            DoubleSummaryStatistics stats = transactionalService.getStatistics();
+            StatisticSnapshot stats = transactionalService.getStatistics();
 
             assertEquals(1, stats.getCount());
             assertEquals(50.0, stats.getSum(), 0.001);
@@ -311,7 +420,7 @@ public class TransactionalServiceTest {
             transactionalService.addTransaction(zeroTransaction);
             transactionalService.addTransaction(normalTransaction);
 
-            DoubleSummaryStatistics stats = transactionalService.getStatistics();
+            StatisticSnapshot stats = transactionalService.getStatistics();
 
             assertEquals(2, stats.getCount());
             assertEquals(100.0, stats.getSum(), 0.001);
@@ -329,7 +438,7 @@ public class TransactionalServiceTest {
 
             transactionalService.addTransaction(transaction);
 
-            DoubleSummaryStatistics stats = transactionalService.getStatistics();
+            StatisticSnapshot stats = transactionalService.getStatistics();
 
             assertEquals(1, stats.getCount());
             assertEquals(123.45, stats.getSum(), 0.001);
@@ -349,7 +458,7 @@ public class TransactionalServiceTest {
             transactionalService.addTransaction(largeTransaction1);
             transactionalService.addTransaction(largeTransaction2);
 
-            DoubleSummaryStatistics stats = transactionalService.getStatistics();
+            StatisticSnapshot stats = transactionalService.getStatistics();
 
             assertEquals(2, stats.getCount());
             assertEquals(1888888888.87, stats.getSum(), 0.01);
@@ -369,7 +478,7 @@ public class TransactionalServiceTest {
             transactionalService.addTransaction(smallTransaction1);
             transactionalService.addTransaction(smallTransaction2);
 
-            DoubleSummaryStatistics stats = transactionalService.getStatistics();
+            StatisticSnapshot stats = transactionalService.getStatistics();
 
             assertEquals(2, stats.getCount());
             assertEquals(0.03, stats.getSum(), 0.001);
@@ -396,7 +505,7 @@ public class TransactionalServiceTest {
             for (int i = 0; i < numberOfThreads; i++) {
                 executorService.submit(() -> {
                     try {
-                        DoubleSummaryStatistics stats = transactionalService.getStatistics();
+                        StatisticSnapshot stats = transactionalService.getStatistics();
 
                         assertEquals(100, stats.getCount());
                         assertEquals(100.0, stats.getSum(), 0.001);
@@ -422,7 +531,7 @@ public class TransactionalServiceTest {
             transactionalService.addTransaction(new Transaction(BigDecimal.valueOf(300.0), now.minusSeconds(80)));
             transactionalService.addTransaction(new Transaction(BigDecimal.valueOf(75.0), now.minusSeconds(15)));
 
-            DoubleSummaryStatistics stats = transactionalService.getStatistics();
+            StatisticSnapshot stats = transactionalService.getStatistics();
 
             assertEquals(3, stats.getCount());
             assertEquals(225.0, stats.getSum(), 0.001);
@@ -431,4 +540,471 @@ public class TransactionalServiceTest {
             assertEquals(100.0, stats.getMax(), 0.001);
         }
     }
+
+    @Nested
+    @DisplayName("Snapshot Tests")
+    class SnapshotTests {
+
+        @Test
+        @DisplayName("Should reuse snapshot and serialized body while nothing changes")
+        void shouldReuseSnapshotWhileNothingChanges() {
+
+            transactionalService.addTransaction(new Transaction(BigDecimal.valueOf(10.0), OffsetDateTime.now().minusSeconds(10)));
+
+            StatisticSnapshot first = transactionalService.getStatistics();
+            StatisticSnapshot second = transactionalService.getStatistics();
+
+            assertSame(first, second);
+            assertSame(first.jsonBody(), second.jsonBody());
+        }
+
+        @Test
+        @DisplayName("Should produce a new snapshot after each write or clear")
+        void shouldProduceNewSnapshotAfterWriteOrClear() {
+
+            StatisticSnapshot empty = transactionalService.getStatistics();
+
+            transactionalService.addTransaction(new Transaction(BigDecimal.valueOf(10.0), OffsetDateTime.now().minusSeconds(10)));
+            StatisticSnapshot afterAdd = transactionalService.getStatistics();
+
+            transactionalService.clearTransactions();
+            StatisticSnapshot afterClear = transactionalService.getStatistics();
+
+            assertNotSame(empty, afterAdd);
+            assertNotSame(afterAdd, afterClear);
+            assertEquals(1, afterAdd.getCount());
+            assertEquals(0, afterClear.getCount());
+        }
+
+        @Test
+        @DisplayName("Should expire snapshot when its oldest transaction leaves the window")
+        void shouldExpireSnapshotWhenOldestTransactionLeavesWindow() {
+
+            OffsetDateTime dataHora = OffsetDateTime.now().minusSeconds(10);
+            transactionalService.addTransaction(new Transaction(BigDecimal.valueOf(10.0), dataHora));
+
+            StatisticSnapshot snapshot = transactionalService.getStatistics();
+
+            long epochMillis = dataHora.toInstant().toEpochMilli();
+            assertEquals(epochMillis + 60_000, snapshot.getValidUntil());
+            assertTrue(snapshot.isValidFor(snapshot.getVersion(), epochMillis + 59_999));
+            assertFalse(snapshot.isValidFor(snapshot.getVersion(), epochMillis + 60_000));
+        }
+
+        @Test
+        @DisplayName("Should render the same JSON shape as StatisticResponse")
+        void shouldRenderJsonBody() {
+
+            transactionalService.addTransaction(new Transaction(BigDecimal.valueOf(100.0), OffsetDateTime.now().minusSeconds(10)));
+            transactionalService.addTransaction(new Transaction(BigDecimal.valueOf(50.5), OffsetDateTime.now().minusSeconds(20)));
+
+            String json = new String(transactionalService.getStatistics().jsonBody(), StandardCharsets.US_ASCII);
+
+            assertEquals("{\"count\":2,\"sum\":150.5,\"avg\":75.25,\"min\":50.5,\"max\":100.0}", json);
+        }
+    }
+
+    @Nested
+    @DisplayName("Coalescing Tests")
+    class CoalescingTests {
+
+        private final Instant start = Instant.parse("2025-05-27T13:30:00Z");
+        private final AtomicReference<Instant> now = new AtomicReference<>(start);
+        private final ThreadLocal<int[]> reads = ThreadLocal.withInitial(() -> new int[1]);
+        private final CountDownLatch computing = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile boolean gated;
+
+        private final Clock clock = new Clock() {
+            @Override
+            public Instant instant() {
+                if (gated && ++reads.get()[0] == 2) {
+                    computing.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return now.get();
+            }
+
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+        };
+
+        @Test
+        @DisplayName("Should let concurrent callers share one computation")
+        void shouldShareInFlightComputation() throws Exception {
+            TransactionalService service = newService(clock);
+            service.addTransaction(start.toEpochMilli() - 1_000, 1_000_000);
+            gated = true;
+
+            try (ExecutorService executor = Executors.newFixedThreadPool(9)) {
+                Future<StatisticSnapshot> leader = executor.submit(() -> service.getStatistics());
+                assertTrue(computing.await(5, TimeUnit.SECONDS));
+                List<Future<StatisticSnapshot>> followers = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    followers.add(executor.submit(() -> service.getStatistics()));
+                }
+                Thread.sleep(100);
+                release.countDown();
+
+                StatisticSnapshot shared = leader.get(5, TimeUnit.SECONDS);
+                for (Future<StatisticSnapshot> follower : followers) {
+                    assertSame(shared, follower.get(5, TimeUnit.SECONDS));
+                }
+                assertEquals(1, shared.getCount());
+            }
+            assertEquals(1, service.getStatisticsComputations());
+        }
+
+        @Test
+        @DisplayName("Should serve results younger than the staleness bound despite new writes")
+        void shouldServeWithinStalenessBound() {
+            TransactionalService service = newService(clock, Duration.ZERO, Duration.ofMillis(50));
+            long millis = start.toEpochMilli();
+            service.addTransaction(millis - 1_000, 1_000_000);
+
+            StatisticSnapshot first = service.getStatistics();
+            service.addTransaction(millis - 500, 2_000_000);
+            now.set(start.plusMillis(49));
+
+            assertSame(first, service.getStatistics());
+            assertEquals(1, service.getStatisticsComputations());
+
+            now.set(start.plusMillis(50));
+            StatisticSnapshot refreshed = service.getStatistics();
+
+            assertEquals(2, refreshed.getCount());
+            assertEquals(2, service.getStatisticsComputations());
+        }
+
+        @Test
+        @DisplayName("Should recompute after a write when no staleness is allowed")
+        void shouldRecomputeAfterWriteWithoutStaleness() {
+            TransactionalService service = newService(clock);
+            long millis = start.toEpochMilli();
+            service.addTransaction(millis - 1_000, 1_000_000);
+
+            StatisticSnapshot first = service.getStatistics();
+            assertSame(first, service.getStatistics());
+            service.addTransaction(millis - 500, 2_000_000);
+
+            assertEquals(2, service.getStatistics().getCount());
+            assertEquals(2, service.getStatisticsComputations());
+        }
+    }
+
+    @Nested
+    @DisplayName("Deferred Activation Tests")
+    class DeferredActivationTests {
+
+        private final Instant start = Instant.parse("2025-05-27T13:30:00Z");
+        private final AtomicReference<Instant> now = new AtomicReference<>(start);
+        private final TransactionalService service = newService(new Clock() {
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+        });
+
+        @Test
+        @DisplayName("Should hold future-dated transactions until their timestamp arrives")
+        void shouldActivateWhenTimestampArrives() {
+            assertFalse(service.deferIfFuture(new Transaction(BigDecimal.ONE, OffsetDateTime.ofInstant(start, ZoneOffset.UTC))));
+            service.addTransaction(new Transaction(BigDecimal.ONE, OffsetDateTime.ofInstant(start, ZoneOffset.UTC)));
+            assertTrue(service.deferIfFuture(new Transaction(BigDecimal.valueOf(30), OffsetDateTime.ofInstant(start.plusMillis(300), ZoneOffset.UTC))));
+            assertTrue(service.deferIfFuture(new Transaction(BigDecimal.TEN, OffsetDateTime.ofInstant(start.plusMillis(100), ZoneOffset.UTC))));
+
+            assertEquals(1, service.getStatistics().getCount());
+            assertEquals(3, service.getRetainedCount());
+
+            now.set(start.plusMillis(100));
+            StatisticSnapshot afterFirst = service.getStatistics();
+            assertEquals(2, afterFirst.getCount());
+            assertEquals(11.0, afterFirst.getSum());
+
+            now.set(start.plusMillis(300));
+            assertEquals(3, service.getStatistics().getCount());
+            assertEquals(0, service.getDeferredCount());
+        }
+
+        @Test
+        @DisplayName("Should append a batch at once and defer only its future-dated rows")
+        void shouldDeferFutureRowsOfBatch() {
+            long millis = start.toEpochMilli();
+
+            assertEquals(0, service.addBatch(new long[]{millis - 2, millis - 1}, new long[]{1_000_000, 2_000_000}, 2));
+            assertEquals(1, service.addBatch(new long[]{millis, millis + 100}, new long[]{4_000_000, 8_000_000}, 2));
+
+            assertEquals(3, service.getStatistics().getCount());
+            assertEquals(7.0, service.getStatistics().getSum());
+
+            now.set(start.plusMillis(100));
+            assertEquals(4, service.getStatistics().getCount());
+            assertEquals(0, service.getDeferredCount());
+        }
+
+        @Test
+        @DisplayName("Should not defer a row ahead of a lagging coarse reading but not of the precise instant")
+        void shouldDeferAgainstPreciseInstant() {
+            Clock lagging = new Clock() {
+                @Override
+                public long millis() {
+                    return start.toEpochMilli() - 5;
+                }
+
+                @Override
+                public Instant instant() {
+                    return start;
+                }
+
+                @Override
+                public ZoneId getZone() {
+                    return ZoneOffset.UTC;
+                }
+
+                @Override
+                public Clock withZone(ZoneId zone) {
+                    return this;
+                }
+            };
+            TransactionalService lagged = newService(lagging);
+            long millis = start.toEpochMilli();
+
+            assertFalse(lagged.deferIfFuture(millis - 2, 1_000_000));
+            assertFalse(lagged.deferIfFuture(millis, 1_000_000));
+            assertTrue(lagged.deferIfFuture(millis + 1, 1_000_000));
+            assertEquals(0, lagged.addBatch(new long[]{millis - 3, millis}, new long[]{1_000_000, 2_000_000}, 2));
+            assertEquals(1, lagged.addBatch(new long[]{millis, millis + 1}, new long[]{1_000_000, 2_000_000}, 2));
+            assertEquals(2, lagged.getDeferredCount());
+        }
+
+        @Test
+        @DisplayName("Should drop pending future-dated transactions on reset")
+        void shouldDropDeferredOnClear() {
+            service.deferIfFuture(new Transaction(BigDecimal.TEN, OffsetDateTime.ofInstant(start.plusMillis(100), ZoneOffset.UTC)));
+
+            service.clearTransactions();
+            now.set(start.plusMillis(100));
+
+            assertEquals(0, service.getStatistics().getCount());
+            assertEquals(0, service.getDeferredCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("As-of Statistics Tests")
+    class AsOfStatisticsTests {
+
+        private final Instant start = Instant.parse("2025-05-27T13:30:00Z");
+        private final AtomicReference<Instant> now = new AtomicReference<>(start);
+        private final TransactionalService service = newService(new Clock() {
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+        }, Duration.ofMinutes(5));
+
+        @Test
+        @DisplayName("Should compute the window ending at a past instant from retained rows")
+        void shouldComputePastWindow() {
+            long millis = start.toEpochMilli();
+            service.addTransaction(millis - 1_000, 1_000_000);
+            service.addTransaction(millis, 2_000_000);
+            service.addTransaction(millis + 30_000, 4_000_000);
+            service.addTransaction(millis + 90_000, 8_000_000);
+
+            now.set(start.plusSeconds(180));
+            service.evictExpired();
+
+            assertEquals(0, service.getStatistics().getCount());
+            StatisticSnapshot asOf = service.getStatisticsAsOf(millis + 30_000);
+            assertEquals(3, asOf.getCount());
+            assertEquals(7.0, asOf.getSum());
+            assertEquals(2, service.getStatisticsAsOf(millis + 59_000).getCount());
+            assertEquals(4.0, service.getStatisticsAsOf(millis + 89_999).getSum());
+        }
+
+        @Test
+        @DisplayName("Should reject instants in the future or beyond the retention")
+        void shouldRejectOutOfRange() {
+            long millis = start.toEpochMilli();
+
+            assertEquals(0, service.getStatisticsAsOf(millis).getCount());
+            assertEquals(0, service.getStatisticsAsOf(millis - 300_000).getCount());
+            assertNull(service.getStatisticsAsOf(millis + 1));
+            assertNull(service.getStatisticsAsOf(millis - 300_001));
+            assertNull(transactionalService.getStatisticsAsOf(System.currentTimeMillis() - 1_000));
+        }
+
+        @Test
+        @DisplayName("Should match the live statistics when asked about the current instant")
+        void shouldMatchLiveStatistics() {
+            long millis = start.toEpochMilli();
+            service.addTransaction(millis - 61_000, 1_000_000);
+            service.addTransaction(millis - 10_000, 2_000_000);
+            service.deferIfFuture(millis + 100, 4_000_000);
+            now.set(start.plusMillis(100));
+
+            StatisticSnapshot asOf = service.getStatisticsAsOf(millis + 100);
+
+            assertEquals(service.getStatistics().getCount(), asOf.getCount());
+            assertEquals(6.0, asOf.getSum());
+        }
+    }
+
+    @Nested
+    @DisplayName("Approximate Statistics Tests")
+    class ApproximateStatisticsTests {
+
+        private final long now = Instant.parse("2025-05-27T13:30:00.500Z").toEpochMilli();
+        private final TransactionalService service = newService(Clock.fixed(Instant.ofEpochMilli(now), ZoneOffset.UTC),
+            Duration.ZERO, Duration.ZERO, new StatisticsProperties.Approximate(true, 3, 16, Duration.ofSeconds(1)));
+
+        private void accept(long epochMillis, String valor) {
+            long amount = new BigDecimal(valor).movePointRight(6).longValueExact();
+            service.addTransaction(epochMillis, amount);
+            service.indexTransaction(epochMillis, amount, null);
+        }
+
+        @Test
+        @DisplayName("Should answer from the sampled window above the threshold and turn exact again after a reset")
+        void shouldSwitchModes() {
+            accept(now - 1_000, "10");
+            accept(now - 20_000, "20.5");
+            accept(now - 59_000, "30");
+
+            StatisticSnapshot exact = service.getStatistics();
+            assertFalse(exact.isApproximate());
+            assertEquals(3, exact.getCount());
+
+            accept(now - 40_000, "40");
+
+            StatisticSnapshot approximate = service.getStatistics();
+            assertTrue(approximate.isApproximate());
+            assertEquals(4, approximate.getCount());
+            assertEquals(100.5, approximate.getSum(), 0.000001);
+            assertEquals(10.0, approximate.getMin(), 0.000001);
+            assertEquals(40.0, approximate.getMax(), 0.000001);
+            assertEquals("{\"count\":4,\"sum\":100.5,\"avg\":25.125,\"min\":10.0,\"max\":40.0,\"approximate\":true}",
+                new String(approximate.jsonBody(), StandardCharsets.US_ASCII));
+            assertEquals(1, service.getApproximateComputations());
+
+            service.clearTransactions();
+            accept(now - 1_000, "10");
+
+            StatisticSnapshot reset = service.getStatistics();
+            assertFalse(reset.isApproximate());
+            assertEquals(1, reset.getCount());
+            assertEquals(1, service.getApproximateComputations());
+        }
+    }
+
+    @Nested
+    @DisplayName("Account Statistics Tests")
+    class AccountStatisticsTests {
+
+        @Test
+        @DisplayName("Should keep per-account windows next to the global one and reset them together")
+        void shouldAggregatePerAccount() {
+            OffsetDateTime now = OffsetDateTime.now();
+            transactionalService.addTransaction(new Transaction(BigDecimal.TEN, now.minusSeconds(10), "0001-9"));
+            transactionalService.indexTransaction(new Transaction(BigDecimal.TEN, now.minusSeconds(10), "0001-9"));
+            transactionalService.indexTransaction(new Transaction(BigDecimal.ONE, now.minusSeconds(5), "0002-7"));
+            transactionalService.indexTransaction(new Transaction(BigDecimal.ONE, now.minusSeconds(5)));
+
+            assertEquals(1, transactionalService.getStatistics("0001-9").getCount());
+            assertEquals(10.0, transactionalService.getStatistics("0001-9").getSum());
+            assertEquals(1, transactionalService.getStatistics("0002-7").getCount());
+            assertEquals(2, transactionalService.getAccountWindows().size());
+
+            transactionalService.clearTransactions();
+
+            assertEquals(0, transactionalService.getStatistics("0001-9").getCount());
+            assertEquals(0, transactionalService.getAccountWindows().size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Top Values Tests")
+    class TopValuesTests {
+
+        @Test
+        @DisplayName("Should rank the largest values of the window and reset them with the generation")
+        void shouldRankLargestValues() {
+            OffsetDateTime now = OffsetDateTime.now();
+            transactionalService.indexTransaction(new Transaction(BigDecimal.ONE, now.minusSeconds(30)));
+            transactionalService.indexTransaction(new Transaction(new BigDecimal("250.50"), now.minusSeconds(20)));
+            transactionalService.indexTransaction(new Transaction(BigDecimal.TEN, now.minusSeconds(10)));
+            transactionalService.indexTransaction(new Transaction(new BigDecimal("999"), now.minusSeconds(61)));
+
+            TopValuesSnapshot top = transactionalService.getTopValues(2);
+
+            assertEquals(2, top.size());
+            assertEquals(250.50, top.getValor(0));
+            assertEquals(10.0, top.getValor(1));
+            assertEquals(100, transactionalService.getMaxTopValues());
+
+            transactionalService.clearTransactions();
+
+            assertEquals(0, transactionalService.getTopValues(2).size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Histogram Tests")
+    class HistogramTests {
+
+        @Test
+        @DisplayName("Should count window transactions per value range and reset with the generation")
+        void shouldCountPerRange() {
+            OffsetDateTime now = OffsetDateTime.now();
+            transactionalService.indexTransaction(new Transaction(new BigDecimal("0.50"), now.minusSeconds(30)));
+            transactionalService.indexTransaction(new Transaction(BigDecimal.TEN, now.minusSeconds(20)));
+            transactionalService.indexTransaction(new Transaction(new BigDecimal("99.99"), now.minusSeconds(10)));
+            transactionalService.indexTransaction(new Transaction(new BigDecimal("5000"), now.minusSeconds(5)));
+            transactionalService.indexTransaction(new Transaction(new BigDecimal("5000"), now.minusSeconds(90)));
+
+            HistogramSnapshot histogram = transactionalService.getHistogram();
+
+            assertEquals(4, histogram.ranges());
+            assertEquals(1, histogram.getCount(0));
+            assertEquals(0, histogram.getCount(1));
+            assertEquals(2, histogram.getCount(2));
+            assertEquals(1, histogram.getCount(3));
+
+            transactionalService.clearTransactions();
+
+            assertEquals(0, transactionalService.getHistogram().getTotal());
+        }
+    }
 }
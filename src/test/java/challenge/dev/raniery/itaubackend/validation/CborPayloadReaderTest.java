@@ -0,0 +1,222 @@
+package challenge.dev.raniery.itaubackend.validation;
+
+import challenge.dev.raniery.itaubackend.dto.TransactionRequest;
+import challenge.dev.raniery.itaubackend.wire.CborWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CborPayloadReader Tests")
+public class CborPayloadReaderTest {
+
+    private static final Instant DATA_HORA = Instant.parse("2025-05-27T13:30:00Z");
+
+    private final CborPayloadReader payloadReader = new CborPayloadReader();
+
+    private static byte[] hex(String hex) {
+        return HexFormat.of().parseHex(hex.replace(" ", ""));
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        int length = 0;
+        for (byte[] part : parts) {
+            length += part.length;
+        }
+        byte[] joined = new byte[length];
+        int offset = 0;
+        for (byte[] part : parts) {
+            System.arraycopy(part, 0, joined, offset, part.length);
+            offset += part.length;
+        }
+        return joined;
+    }
+
+    @Nested
+    @DisplayName("Well-formed payload Tests")
+    class WellFormedPayloadTests {
+
+        @Test
+        @DisplayName("Should read the same keys as the JSON payload")
+        void shouldReadAllKeys() {
+            byte[] body = new CborWriter(64).map(4)
+                .text("valor").float64(123.45)
+                .text("dataHora").text("2025-05-27T10:30:00.000-03:00")
+                .text("chaveIdempotencia").text("pedido-42")
+                .text("conta").text("0001-9")
+                .toByteArray();
+
+            TransactionRequest request = payloadReader.read(body);
+
+            assertNotNull(request);
+            assertEquals(new BigDecimal("123.45"), request.valor());
+            assertEquals(DATA_HORA, request.dataHora().toInstant());
+            assertEquals("pedido-42", request.chaveIdempotencia());
+            assertEquals("0001-9", request.conta());
+        }
+
+        @Test
+        @DisplayName("Should read integer, half-precision and decimal fraction amounts")
+        void shouldReadEveryAmountEncoding() {
+            byte[] valor = new CborWriter(8).map(1).text("valor").toByteArray();
+
+            assertEquals(0, new BigDecimal("100").compareTo(payloadReader.read(concat(valor, hex("18 64"))).valor()));
+            assertEquals(0, new BigDecimal("1.5").compareTo(payloadReader.read(concat(valor, hex("F9 3E00"))).valor()));
+            assertEquals(new BigDecimal("10.50"), payloadReader.read(concat(valor, hex("C4 82 21 19 041A"))).valor());
+        }
+
+        @Test
+        @DisplayName("Should read tagged date-time strings and epoch seconds")
+        void shouldReadEveryDataHoraEncoding() {
+            byte[] dataHora = new CborWriter(16).map(1).text("dataHora").toByteArray();
+            byte[] tagged = new CborWriter(32).text("2025-05-27T13:30:00Z").toByteArray();
+            long seconds = DATA_HORA.getEpochSecond();
+            byte[] epoch = hex("C1 1A %08X".formatted(seconds));
+
+            assertEquals(DATA_HORA, payloadReader.read(concat(dataHora, hex("C0"), tagged)).dataHora().toInstant());
+            assertEquals(DATA_HORA, payloadReader.read(concat(dataHora, epoch)).dataHora().toInstant());
+        }
+
+        @Test
+        @DisplayName("Should skip unknown keys of any shape and accept indefinite-length maps")
+        void shouldSkipUnknownKeys() {
+            byte[] body = concat(
+                hex("BF"),
+                new CborWriter(16).text("outro").toByteArray(), hex("9F 01 A1 61 61 F5 FF"),
+                new CborWriter(16).text("valor").integer(7).toByteArray(),
+                new CborWriter(16).text("bytes").toByteArray(), hex("43 010203"),
+                hex("FF"));
+
+            TransactionRequest request = payloadReader.read(body);
+
+            assertNotNull(request);
+            assertEquals(0, BigDecimal.valueOf(7).compareTo(request.valor()));
+            assertNull(request.dataHora());
+        }
+
+        @Test
+        @DisplayName("Should report null and undefined members as null fields")
+        void shouldReadNullMembers() {
+            byte[] body = concat(new CborWriter(16).map(2).text("valor").toByteArray(), hex("F6"),
+                new CborWriter(16).text("conta").toByteArray(), hex("F7"));
+
+            TransactionRequest request = payloadReader.read(body);
+
+            assertNotNull(request);
+            assertNull(request.valor());
+            assertNull(request.conta());
+        }
+
+        @Test
+        @DisplayName("Should keep negative values for the validator to reject")
+        void shouldKeepNegativeValues() {
+            TransactionRequest request = payloadReader.read(new CborWriter(16).map(1).text("valor").integer(-10).toByteArray());
+
+            assertNotNull(request);
+            assertEquals(-1, request.valor().signum());
+        }
+    }
+
+    @Nested
+    @DisplayName("Batch payload Tests")
+    class BatchPayloadTests {
+
+        @Test
+        @DisplayName("Should read every map of the array in order")
+        void shouldReadEveryTransaction() {
+            CborWriter writer = new CborWriter(64).array(3);
+            for (int i = 1; i <= 3; i++) {
+                writer.map(2).text("valor").integer(i).text("dataHora").text(OffsetDateTime.parse("2025-05-27T13:30:00Z").toString());
+            }
+
+            List<TransactionRequest> requests = payloadReader.readBatch(writer.toByteArray());
+
+            assertNotNull(requests);
+            assertEquals(3, requests.size());
+            assertEquals(0, BigDecimal.valueOf(3).compareTo(requests.get(2).valor()));
+        }
+
+        @Test
+        @DisplayName("Should read indefinite-length arrays")
+        void shouldReadIndefiniteArray() {
+            byte[] body = concat(hex("9F"), new CborWriter(16).map(1).text("valor").integer(1).toByteArray(), hex("FF"));
+
+            List<TransactionRequest> requests = payloadReader.readBatch(body);
+
+            assertNotNull(requests);
+            assertEquals(1, requests.size());
+        }
+
+        @Test
+        @DisplayName("Should stop one map past the limit without reading the rest")
+        void shouldStopPastLimit() {
+            CborWriter writer = new CborWriter(64).array(1_000_000);
+            for (int i = 1; i <= 3; i++) {
+                writer.map(1).text("valor").integer(i);
+            }
+
+            List<TransactionRequest> requests = payloadReader.readBatch(writer.toByteArray(), 2);
+
+            assertNotNull(requests);
+            assertEquals(3, requests.size());
+            assertNull(payloadReader.readBatch(writer.toByteArray(), 3));
+        }
+
+        @Test
+        @DisplayName("Should reject a map where an array is expected and trailing bytes")
+        void shouldRejectMalformedBatch() {
+            assertNull(payloadReader.readBatch(new CborWriter(8).map(0).toByteArray()));
+            assertNull(payloadReader.readBatch(concat(new CborWriter(8).array(1).map(0).toByteArray(), hex("00"))));
+            assertNull(payloadReader.readBatch(new CborWriter(8).array(2).map(0).toByteArray()));
+        }
+    }
+
+    @Nested
+    @DisplayName("Malformed payload Tests")
+    class MalformedPayloadTests {
+
+        @ParameterizedTest
+        @ValueSource(strings = {
+            "",
+            "80",
+            "A1 01 01",
+            "A1 65 76616C6F72 62 3130",
+            "A1 65 76616C6F72 FB 7FF0000000000000",
+            "A1 65 76616C6F72 C4 82 18 FF 01",
+            "A1 65 76616C6F72 C4 82 1B FFFFFFFFFFFFFFFF 01",
+            "A1 68 6461746148 6F7261 01",
+            "A1 68 6461746148 6F7261 63 616263",
+            "A1 68 6461746148 6F7261 C1 1B 7FFFFFFFFFFFFFFF",
+            "A1 65 636F6E7461 01",
+            "A1 65 636F6E7461 7B FFFFFFFFFFFFFFFF",
+            "A1 65 6F7574726F 5B FFFFFFFFFFFFFFFF",
+            "A1 65 6F7574726F 9F",
+            "A1 65 6F7574726F BB 7FFFFFFFFFFFFFFF",
+            "A1 65 6F7574726F 1C",
+            "A2 65 76616C6F72 01",
+            "A1 65 76616C6F72 01 00"
+        })
+        @DisplayName("Should return null instead of throwing")
+        void shouldReturnNullForMalformedPayload(String hex) {
+            assertNull(payloadReader.read(hex(hex)));
+        }
+
+        @Test
+        @DisplayName("Should reject nesting deeper than the limit")
+        void shouldRejectDeepNesting() {
+            byte[] nested = hex("81".repeat(64) + "00");
+            byte[] body = concat(new CborWriter(16).map(1).text("outro").toByteArray(), nested);
+
+            assertNull(payloadReader.read(body));
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package challenge.dev.raniery.itaubackend.validation;
+
+import challenge.dev.raniery.itaubackend.dto.TransactionRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TransactionPayloadReader Tests")
+public class TransactionPayloadReaderTest {
+
+    private final TransactionPayloadReader payloadReader = new TransactionPayloadReader();
+
+    private TransactionRequest read(String json) {
+        return payloadReader.read(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Nested
+    @DisplayName("Well-formed payload Tests")
+    class WellFormedPayloadTests {
+
+        @Test
+        @DisplayName("Should read valor and dataHora")
+        void shouldReadValorAndDataHora() {
+            TransactionRequest request = read("""
+                {
+                    "valor": 123.45,
+                    "dataHora": "2025-05-27T10:30:00.000-03:00"
+                }
+                """);
+
+            assertNotNull(request);
+            assertEquals(new BigDecimal("123.45"), request.valor());
+            assertEquals(OffsetDateTime.parse("2025-05-27T10:30:00.000-03:00"), request.dataHora());
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {
+            "2025-05-27T10:30Z",
+            "2025-05-27T10:30:15Z",
+            "2025-05-27T10:30:15.123456789+05:30",
+            "2025-05-27T10:30:15.1-00:00:30",
+            "2024-02-29T23:59:59.999+18:00"
+        })
+        @DisplayName("Should accept every ISO offset date-time variant")
+        void shouldAcceptIsoOffsetDateTimeVariants(String dataHora) {
+            TransactionRequest request = read("{\"valor\":1,\"dataHora\":\"" + dataHora + "\"}");
+
+            assertNotNull(request);
+            assertEquals(OffsetDateTime.parse(dataHora), request.dataHora());
+        }
+
+        @Test
+        @DisplayName("Should skip unknown members of any shape")
+        void shouldSkipUnknownMembers() {
+            TransactionRequest request = read("""
+                {"id": "a\\"b", "tags": [1, {"x": [true, null]}, -2.5e3], "valor": 10, "extra": {}, "dataHora": "2025-05-27T10:30:00Z"}
+                """);
+
+            assertNotNull(request);
+            assertEquals(new BigDecimal("10"), request.valor());
+        }
+
+        @Test
+        @DisplayName("Should report null and missing members as null fields")
+        void shouldReportNullAndMissingMembersAsNull() {
+            TransactionRequest request = read("{\"valor\": null}");
+
+            assertNotNull(request);
+            assertNull(request.valor());
+            assertNull(request.dataHora());
+        }
+
+        @Test
+        @DisplayName("Should read the idempotency key, decoding escapes")
+        void shouldReadChaveIdempotencia() {
+            assertEquals("pedido-42", read("{\"valor\": 1, \"chaveIdempotencia\": \"pedido-42\"}").chaveIdempotencia());
+            assertEquals("a\"b/ç\u00e9", read("{\"chaveIdempotencia\": \"a\\\"b\\/ç\\u00e9\"}").chaveIdempotencia());
+            assertNull(read("{\"chaveIdempotencia\": null}").chaveIdempotencia());
+        }
+
+        @Test
+        @DisplayName("Should read the account")
+        void shouldReadConta() {
+            assertEquals("0001-9", read("{\"valor\": 1, \"conta\": \"0001-9\"}").conta());
+            assertNull(read("{\"valor\": 1, \"conta\": null}").conta());
+            assertNull(read("{\"conta\": 42}"));
+        }
+
+        @Test
+        @DisplayName("Should keep negative values for the validator to reject")
+        void shouldKeepNegativeValues() {
+            TransactionRequest request = read("{\"valor\": -10.50, \"dataHora\": \"2025-05-27T10:30:00Z\"}");
+
+            assertNotNull(request);
+            assertEquals(-1, request.valor().signum());
+        }
+    }
+
+    @Nested
+    @DisplayName("Batch payload Tests")
+    class BatchPayloadTests {
+
+        private List<TransactionRequest> readBatch(String json) {
+            return payloadReader.readBatch(json.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Test
+        @DisplayName("Should read every transaction of the array in order")
+        void shouldReadEveryTransaction() {
+            List<TransactionRequest> requests = readBatch("""
+                [
+                    {"valor": 1.5, "dataHora": "2025-05-27T10:30:00Z"},
+                    {"valor": 2, "dataHora": "2025-05-27T10:31:00Z", "conta": "0001-9"}
+                ]
+                """);
+
+            assertNotNull(requests);
+            assertEquals(2, requests.size());
+            assertEquals(new BigDecimal("1.5"), requests.get(0).valor());
+            assertEquals("0001-9", requests.get(1).conta());
+        }
+
+        @Test
+        @DisplayName("Should read an empty array")
+        void shouldReadEmptyArray() {
+            assertEquals(List.of(), readBatch(" [ ] "));
+        }
+
+        @Test
+        @DisplayName("Should stop one transaction past the limit without reading the rest")
+        void shouldStopPastLimit() {
+            byte[] body = "[{\"valor\": 1}, {\"valor\": 2}, {\"valor\": 3}, not json".getBytes(StandardCharsets.UTF_8);
+
+            List<TransactionRequest> requests = payloadReader.readBatch(body, 1);
+
+            assertNotNull(requests);
+            assertEquals(2, requests.size());
+            assertNull(payloadReader.readBatch(body, 3));
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {
+            "",
+            "{\"valor\": 1}",
+            "[{\"valor\": 1},]",
+            "[{\"valor\": 1} {\"valor\": 2}]",
+            "[{\"valor\": 1}] trailing",
+            "[1]",
+            "[{\"valor\": 1}"
+        })
+        @DisplayName("Should reject the whole batch when any part is malformed")
+        void shouldReturnNullForMalformedBatch(String json) {
+            assertNull(readBatch(json));
+        }
+    }
+
+    @Nested
+    @DisplayName("Malformed payload Tests")
+    class MalformedPayloadTests {
+
+        @ParameterizedTest
+        @ValueSource(strings = {
+            "",
+            "{ invalid json }",
+            "[]",
+            "{\"valor\": 100.50,}",
+            "{\"valor\": 01}",
+            "{\"valor\": 1.}",
+            "{\"valor\": 1e9999999999}",
+            "{\"valor\": \"abc\"}",
+            "{\"valor\": 1} trailing",
+            "{\"dataHora\": \"invalid-date-format\"}",
+            "{\"dataHora\": \"2025-02-30T10:30:00Z\"}",
+            "{\"dataHora\": \"2025-05-27T24:00:00Z\"}",
+            "{\"dataHora\": \"2025-05-27T10:30:00\"}",
+            "{\"dataHora\": \"2025-05-27T10:30:00+19:00\"}",
+            "{\"dataHora\": \"2025-05-27T10:30:00.1234567891Z\"}",
+            "{\"other\": [1, 2}",
+            "{\"chaveIdempotencia\": 42}",
+            "{\"chaveIdempotencia\": \"\\x\"}",
+            "{\"chaveIdempotencia\": \"\\u12\"}",
+            "{\"valor\": 1"
+        })
+        @DisplayName("Should return null instead of throwing")
+        void shouldReturnNullForMalformedPayload(String json) {
+            assertNull(read(json));
+        }
+    }
+}
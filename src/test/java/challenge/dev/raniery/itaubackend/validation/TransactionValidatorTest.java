@@ -0,0 +1,186 @@
+package challenge.dev.raniery.itaubackend.validation;
+
+import challenge.dev.raniery.itaubackend.config.ClockProperties;
+import challenge.dev.raniery.itaubackend.dto.TransactionRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("TransactionValidator Tests")
+public class TransactionValidatorTest {
+
+    private static final Instant NOW = Instant.parse("2025-05-27T13:30:00Z");
+
+    private TransactionValidator transactionValidator;
+
+    @BeforeEach
+    void setUp() {
+        transactionValidator = new TransactionValidator(Clock.fixed(NOW, ZoneOffset.UTC), new ClockProperties(false, Duration.ofMillis(1), Duration.ZERO));
+    }
+
+    @Test
+    @DisplayName("Should accept transaction in the past")
+    void shouldAcceptTransactionInThePast() {
+        TransactionRequest request = new TransactionRequest(
+            BigDecimal.valueOf(100.50),
+            OffsetDateTime.ofInstant(NOW.minusSeconds(30), ZoneOffset.ofHours(-3)));
+
+        assertEquals(ValidationResult.VALID, transactionValidator.validate(request));
+    }
+
+    @Test
+    @DisplayName("Should accept transaction at the current instant with zero value")
+    void shouldAcceptTransactionAtCurrentInstantWithZeroValue() {
+        TransactionRequest request = new TransactionRequest(
+            BigDecimal.ZERO,
+            OffsetDateTime.ofInstant(NOW, ZoneOffset.UTC));
+
+        assertEquals(ValidationResult.VALID, transactionValidator.validate(request));
+    }
+
+    @Test
+    @DisplayName("Should reject transaction in the future regardless of offset")
+    void shouldRejectTransactionInTheFuture() {
+        TransactionRequest request = new TransactionRequest(
+            BigDecimal.valueOf(100.50),
+            OffsetDateTime.ofInstant(NOW.plusMillis(1), ZoneOffset.ofHours(5)));
+
+        assertEquals(ValidationResult.FUTURE_DATA_HORA, transactionValidator.validate(request));
+    }
+
+    @Test
+    @DisplayName("Should reject a timestamp less than a millisecond ahead of the clock")
+    void shouldRejectSubMillisecondFuture() {
+        assertEquals(ValidationResult.FUTURE_DATA_HORA, transactionValidator.validate(
+            new TransactionRequest(BigDecimal.ONE, OffsetDateTime.ofInstant(NOW.plusNanos(1_000), ZoneOffset.UTC))));
+
+        TransactionValidator precise = new TransactionValidator(Clock.fixed(NOW.plusNanos(700_000), ZoneOffset.UTC),
+            new ClockProperties(false, Duration.ofMillis(1), Duration.ZERO));
+
+        assertEquals(ValidationResult.VALID, precise.validate(
+            new TransactionRequest(BigDecimal.ONE, OffsetDateTime.ofInstant(NOW.plusNanos(500_000), ZoneOffset.UTC))));
+        assertEquals(ValidationResult.FUTURE_DATA_HORA, precise.validate(
+            new TransactionRequest(BigDecimal.ONE, OffsetDateTime.ofInstant(NOW.plusNanos(900_000), ZoneOffset.UTC))));
+    }
+
+    @Test
+    @DisplayName("Should recheck a timestamp ahead of a lagging clock against the precise instant")
+    void shouldRecheckFutureAgainstPreciseInstant() {
+        Clock lagging = new Clock() {
+            @Override
+            public long millis() {
+                return NOW.toEpochMilli() - 1;
+            }
+
+            @Override
+            public Instant instant() {
+                return NOW;
+            }
+
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+        };
+        TransactionValidator validator = new TransactionValidator(lagging, new ClockProperties(false, Duration.ofMillis(1), Duration.ZERO));
+
+        assertEquals(ValidationResult.VALID,
+            validator.validate(new TransactionRequest(BigDecimal.ONE, OffsetDateTime.ofInstant(NOW, ZoneOffset.UTC))));
+        assertEquals(ValidationResult.FUTURE_DATA_HORA,
+            validator.validate(new TransactionRequest(BigDecimal.ONE, OffsetDateTime.ofInstant(NOW.plusMillis(1), ZoneOffset.UTC))));
+    }
+
+    @Test
+    @DisplayName("Should accept timestamps ahead of the clock within the configured tolerance")
+    void shouldAcceptFutureWithinTolerance() {
+        TransactionValidator tolerant = new TransactionValidator(
+            Clock.fixed(NOW, ZoneOffset.UTC), new ClockProperties(false, Duration.ofMillis(1), Duration.ofMillis(500)));
+
+        assertEquals(ValidationResult.VALID,
+            tolerant.validate(new TransactionRequest(BigDecimal.ONE, OffsetDateTime.ofInstant(NOW.plusMillis(500), ZoneOffset.UTC))));
+        assertEquals(ValidationResult.FUTURE_DATA_HORA,
+            tolerant.validate(new TransactionRequest(BigDecimal.ONE, OffsetDateTime.ofInstant(NOW.plusMillis(501), ZoneOffset.UTC))));
+    }
+
+    @Test
+    @DisplayName("Should reject negative value")
+    void shouldRejectNegativeValue() {
+        TransactionRequest request = new TransactionRequest(
+            new BigDecimal("-0.01"),
+            OffsetDateTime.ofInstant(NOW.minusSeconds(30), ZoneOffset.UTC));
+
+        assertEquals(ValidationResult.NEGATIVE_VALOR, transactionValidator.validate(request));
+    }
+
+    @Test
+    @DisplayName("Should reject values too large for the fixed-point storage")
+    void shouldRejectValueOutOfRange() {
+        TransactionRequest request = new TransactionRequest(
+            new BigDecimal("1E12"),
+            OffsetDateTime.ofInstant(NOW.minusSeconds(30), ZoneOffset.UTC));
+
+        assertEquals(ValidationResult.VALOR_OUT_OF_RANGE, transactionValidator.validate(request));
+    }
+
+    @Test
+    @DisplayName("Should reject missing fields")
+    void shouldRejectMissingFields() {
+        assertEquals(ValidationResult.MISSING_VALOR,
+            transactionValidator.validate(new TransactionRequest(null, OffsetDateTime.ofInstant(NOW, ZoneOffset.UTC))));
+        assertEquals(ValidationResult.MISSING_DATA_HORA,
+            transactionValidator.validate(new TransactionRequest(BigDecimal.ONE, null)));
+    }
+
+    @Test
+    @DisplayName("Should reject blank or oversized accounts")
+    void shouldRejectInvalidContas() {
+        OffsetDateTime dataHora = OffsetDateTime.ofInstant(NOW.minusSeconds(30), ZoneOffset.UTC);
+
+        assertEquals(ValidationResult.VALID,
+            transactionValidator.validate(new TransactionRequest(BigDecimal.ONE, dataHora, null, "0001-9")));
+        assertEquals(ValidationResult.INVALID_CONTA,
+            transactionValidator.validate(new TransactionRequest(BigDecimal.ONE, dataHora, null, "")));
+        assertEquals(ValidationResult.INVALID_CONTA,
+            transactionValidator.validate(new TransactionRequest(BigDecimal.ONE, dataHora, null, "c".repeat(65))));
+    }
+
+    @Test
+    @DisplayName("Should reject blank or oversized idempotency keys")
+    void shouldRejectInvalidIdempotencyKeys() {
+        OffsetDateTime dataHora = OffsetDateTime.ofInstant(NOW.minusSeconds(30), ZoneOffset.UTC);
+
+        assertEquals(ValidationResult.VALID,
+            transactionValidator.validate(new TransactionRequest(BigDecimal.ONE, dataHora, "pedido-42")));
+        assertEquals(ValidationResult.INVALID_CHAVE_IDEMPOTENCIA,
+            transactionValidator.validate(new TransactionRequest(BigDecimal.ONE, dataHora, " ")));
+        assertEquals(ValidationResult.INVALID_CHAVE_IDEMPOTENCIA,
+            transactionValidator.validate(new TransactionRequest(BigDecimal.ONE, dataHora, "k".repeat(129))));
+    }
+
+    @Test
+    @DisplayName("Should validate fixed-layout records already in epoch millis and micro-units")
+    void shouldValidateRecords() {
+        long now = NOW.toEpochMilli();
+
+        assertEquals(ValidationResult.VALID, transactionValidator.validate(now - 30_000, 100_500_000));
+        assertEquals(ValidationResult.VALID, transactionValidator.validate(now, 0));
+        assertEquals(ValidationResult.FUTURE_DATA_HORA, transactionValidator.validate(now + 1, 1));
+        assertEquals(ValidationResult.NEGATIVE_VALOR, transactionValidator.validate(now, -1));
+        assertEquals(ValidationResult.VALOR_OUT_OF_RANGE, transactionValidator.validate(now, Long.MAX_VALUE));
+    }
+}
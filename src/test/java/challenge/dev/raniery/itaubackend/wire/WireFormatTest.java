@@ -0,0 +1,45 @@
+package challenge.dev.raniery.itaubackend.wire;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("WireFormat Tests")
+public class WireFormatTest {
+
+    @Test
+    @DisplayName("Should resolve content types ignoring case and parameters")
+    void shouldResolveContentTypes() {
+        assertEquals(WireFormat.JSON, WireFormat.fromContentType("application/json; charset=UTF-8"));
+        assertEquals(WireFormat.CBOR, WireFormat.fromContentType("Application/CBOR"));
+        assertEquals(WireFormat.RECORDS, WireFormat.fromContentType("application/vnd.itau.transacao+binary"));
+        assertNull(WireFormat.fromContentType("text/plain"));
+        assertNull(WireFormat.fromContentType(null));
+    }
+
+    @Test
+    @DisplayName("Should answer in the first acceptable format and fall back to JSON")
+    void shouldNegotiateResponseFormat() {
+        assertEquals(WireFormat.CBOR, WireFormat.forAccept("application/cbor, application/json"));
+        assertEquals(WireFormat.JSON, WireFormat.forAccept("application/json;q=0.9, application/cbor"));
+        assertEquals(WireFormat.JSON, WireFormat.forAccept("*/*"));
+        assertEquals(WireFormat.JSON, WireFormat.forAccept("application/vnd.itau.transacao+binary"));
+        assertEquals(WireFormat.JSON, WireFormat.forAccept(null));
+    }
+
+    @Test
+    @DisplayName("Should round-trip fixed-layout records")
+    void shouldRoundTripRecords() {
+        byte[] buf = TransactionRecords.encode(new long[]{1_748_352_600_000L, -1}, new long[]{10_500_000, Long.MAX_VALUE});
+
+        assertEquals(2 * TransactionRecords.RECORD_BYTES, buf.length);
+        assertEquals(2, TransactionRecords.count(buf));
+        assertEquals(1_748_352_600_000L, TransactionRecords.epochMillis(buf, 0));
+        assertEquals(10_500_000, TransactionRecords.amount(buf, 0));
+        assertEquals(-1, TransactionRecords.epochMillis(buf, 1));
+        assertEquals(Long.MAX_VALUE, TransactionRecords.amount(buf, 1));
+        assertEquals(0, TransactionRecords.count(new byte[0]));
+        assertEquals(-1, TransactionRecords.count(new byte[TransactionRecords.RECORD_BYTES + 1]));
+    }
+}